@@ -0,0 +1,80 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.BitacoraEscritura;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Compara el tiempo de arranque reproduciendo toda la bitácora contra cargar
+ * una instantánea mapeada en memoria y reproducir solo la cola posterior.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchArranque [tickets] [directorio]}
+ */
+public class BenchArranque {
+
+    public static void main(String[] args) throws IOException {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path directorio = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("bench-arranque");
+        Path bitacora = directorio.resolve("bench.wal");
+        Path instantanea = directorio.resolve("bench.snap");
+        Files.deleteIfExists(bitacora);
+        Files.deleteIfExists(instantanea);
+        int usuarios = Math.max(1, tickets / 10);
+        int departamentos = 50;
+        int cola = tickets / 100;
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, null, null, BitacoraEscritura.Sincronizacion.NUNCA);
+            poblar(controlador, usuarios, departamentos, tickets);
+        }
+        medir("bitácora completa", bitacora, null);
+
+        // Instantánea del estado poblado; luego una cola de operaciones que solo queda en la bitácora.
+        Path base = directorio.resolve("base.snap");
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, instantanea, null, BitacoraEscritura.Sincronizacion.NUNCA);
+            controlador.escribirInstantanea();
+            Files.copy(instantanea, base, StandardCopyOption.REPLACE_EXISTING);
+            for (int i = 0; i < cola; i++) {
+                controlador.registrarTicket("Ticket posterior " + i, "Registrado después de la instantánea",
+                        1 + i % usuarios, "Pendiente", 1 + i % departamentos);
+            }
+        }
+        Files.move(base, instantanea, StandardCopyOption.REPLACE_EXISTING);
+        System.out.printf("Bitácora: %,d bytes, instantánea: %,d bytes%n", Files.size(bitacora), Files.size(instantanea));
+        medir("instantánea + cola", bitacora, instantanea);
+    }
+
+    private static void poblar(ControladorHelpDesk controlador, int usuarios, int departamentos, int tickets) {
+        for (int i = 0; i < 200; i++) {
+            controlador.agregarPalabraTecnica("Categoria" + (i % 10), "termino" + i);
+        }
+        for (int i = 0; i < usuarios; i++) {
+            controlador.registrarUsuario("Usuario Prueba", "Clave123!", "Estudiante", "usuario" + i + "@ucenfotec.ac.cr", "88888888");
+        }
+        for (int i = 0; i < departamentos; i++) {
+            controlador.registrarDepartamento("Departamento " + i, "Atiende solicitudes", "depto" + i + "@ucenfotec.ac.cr", "1234");
+        }
+        for (int i = 0; i < tickets; i++) {
+            controlador.registrarTicket("Problema con termino" + (i % 200), "No funciona desde la mañana, ticket " + i,
+                    1 + i % usuarios, "Pendiente", 1 + i % departamentos);
+            if (i % 7 == 0) {
+                controlador.cambiarEstadoTicket(i + 1, "En proceso");
+            }
+        }
+    }
+
+    private static void medir(String nombre, Path bitacora, Path instantanea) throws IOException {
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            ControladorHelpDesk.Recuperacion recuperacion = controlador.abrirBitacora(
+                    bitacora, instantanea, null, BitacoraEscritura.Sincronizacion.NUNCA);
+            System.out.printf("%-20s %,10.1f ms  (%,d operaciones reproducidas, %,d tickets, ticket 8: %s)%n",
+                    nombre, recuperacion.nanos() / 1e6, recuperacion.operacionesReproducidas(),
+                    controlador.obtenerTickets().size(), controlador.obtenerEstadoTicket(8));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.BitacoraEscritura;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mide escrituras durables por segundo en {@link BitacoraEscritura} para cada
+ * política de sincronización y distintas cantidades de hilos concurrentes.
+ * Cada hilo anota un registro y espera su confirmación antes del siguiente,
+ * como lo hace el controlador; el tamaño promedio de grupo muestra cuánto
+ * aprovecha el commit en grupo la concurrencia.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchBitacora [registrosPorHilo] [directorio]}
+ */
+public class BenchBitacora {
+
+    private static final int[] HILOS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws Exception {
+        int porHilo = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        Path directorio = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("bench-bitacora");
+        byte[] registro = ("Ticket: no funciona la VPN del laboratorio de redes desde la mañana; "
+                + "usuario estudiante@ucenfotec.ac.cr, departamento Soporte TI").getBytes(StandardCharsets.UTF_8);
+
+        System.out.printf("Registros por hilo: %d, tamaño de registro: %d bytes, directorio: %s%n",
+                porHilo, registro.length, directorio);
+        System.out.printf("%-10s %6s %14s %12s %10s%n", "fsync", "hilos", "escrituras/s", "reg/grupo", "fsyncs");
+        for (BitacoraEscritura.Sincronizacion sincronizacion : BitacoraEscritura.Sincronizacion.values()) {
+            for (int hilos : HILOS) {
+                medir(directorio, sincronizacion, hilos, porHilo, registro);
+            }
+        }
+    }
+
+    private static void medir(Path directorio, BitacoraEscritura.Sincronizacion sincronizacion,
+                              int hilos, int porHilo, byte[] registro) throws IOException, InterruptedException {
+        Path archivo = directorio.resolve("bench-" + sincronizacion.name().toLowerCase() + "-" + hilos + ".wal");
+        Files.deleteIfExists(archivo);
+        try (BitacoraEscritura bitacora = new BitacoraEscritura(archivo, sincronizacion)) {
+            CountDownLatch inicio = new CountDownLatch(1);
+            CountDownLatch fin = new CountDownLatch(hilos);
+            for (int h = 0; h < hilos; h++) {
+                Thread.ofPlatform().start(() -> {
+                    try {
+                        inicio.await();
+                        for (int i = 0; i < porHilo; i++) {
+                            CompletableFuture<Void> escrito = bitacora.anotar(registro);
+                            escrito.join();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fin.countDown();
+                    }
+                });
+            }
+            long nanos = System.nanoTime();
+            inicio.countDown();
+            fin.await();
+            nanos = System.nanoTime() - nanos;
+
+            long total = (long) hilos * porHilo;
+            System.out.printf("%-10s %6d %,14.0f %12.1f %,10d%n", sincronizacion.name().toLowerCase(), hilos,
+                    total * 1e9 / nanos, (double) bitacora.registros() / Math.max(1, bitacora.grupos()),
+                    bitacora.sincronizaciones());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.IndiceTexto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide la latencia de la búsqueda de texto completo sobre tickets sintéticos:
+ * términos frecuentes y raros, varias palabras, prefijos y filtros por estado
+ * y departamento.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchBusqueda [tickets]}
+ */
+public class BenchBusqueda {
+
+    private static final String[] SUJETOS = {"VPN", "impresora", "correo", "contraseña", "laboratorio", "proyector",
+            "matrícula", "wifi", "Moodle", "servidor", "portátil", "licencia", "Teams", "base de datos", "factura"};
+    private static final String[] PROBLEMAS = {"no funciona", "está caída", "muy lenta", "da error", "no conecta",
+            "se reinicia", "no imprime", "bloqueada", "sin acceso", "pide credenciales"};
+    private static final String[] LUGARES = {"edificio A", "edificio B", "biblioteca", "aula 204", "sede central",
+            "laboratorio de redes", "soda", "auditorio"};
+    private static final String[] ESTADOS = {"Pendiente", "En proceso", "Resuelto", "Cerrado"};
+    private static final int REPETICIONES = 50;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random azar = new Random(42);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            int idUsuario = controlador.registrarUsuario("Estudiante Prueba", "Clave123!", "Estudiante",
+                    "estudiante@ucenfotec.ac.cr", "88888888");
+            int departamentos = 8;
+            for (int i = 0; i < departamentos; i++) {
+                controlador.registrarDepartamento("Departamento " + i, "Soporte", "depto" + i + "@ucenfotec.ac.cr", "1234");
+            }
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < cantidad; i++) {
+                String sujeto = SUJETOS[zipf(azar, SUJETOS.length)];
+                String problema = PROBLEMAS[azar.nextInt(PROBLEMAS.length)];
+                String asunto = sujeto + " " + problema;
+                String descripcion = "Desde esta mañana " + sujeto.toLowerCase() + " " + problema + " en "
+                        + LUGARES[azar.nextInt(LUGARES.length)] + ", caso " + azar.nextInt(cantidad);
+                controlador.registrarTicket(asunto, descripcion, idUsuario,
+                        ESTADOS[azar.nextInt(ESTADOS.length)], 1 + azar.nextInt(departamentos));
+            }
+            System.out.printf("Tickets indexados: %,d en %.1f s%n", cantidad, (System.nanoTime() - inicio) / 1e9);
+
+            System.out.printf("%-40s %10s %10s %10s %8s%n", "consulta", "prom (ms)", "p50 (ms)", "máx (ms)", "result.");
+            medir(controlador, "vpn", null, 0);
+            medir(controlador, "factura", null, 0);
+            medir(controlador, "vpn no conecta biblioteca", null, 0);
+            medir(controlador, "impr*", null, 0);
+            medir(controlador, "la*", null, 0);
+            medir(controlador, "caso 12345", null, 0);
+            medir(controlador, "correo lento", "Pendiente", 0);
+            medir(controlador, "servidor error", "Resuelto", 3);
+        }
+    }
+
+    private static void medir(ControladorHelpDesk controlador, String consulta, String estado, int idDepartamento) {
+        for (int i = 0; i < 5; i++) {
+            controlador.buscarTexto(consulta, estado, idDepartamento, 20);
+        }
+        long[] nanos = new long[REPETICIONES];
+        List<IndiceTexto.Resultado> resultados = List.of();
+        for (int i = 0; i < REPETICIONES; i++) {
+            long antes = System.nanoTime();
+            resultados = controlador.buscarTexto(consulta, estado, idDepartamento, 20);
+            nanos[i] = System.nanoTime() - antes;
+        }
+        Arrays.sort(nanos);
+        String descripcion = consulta + (estado != null ? " [estado=" + estado + "]" : "")
+                + (idDepartamento != 0 ? " [depto=" + idDepartamento + "]" : "");
+        System.out.printf("%-40s %10.2f %10.2f %10.2f %8d%n", descripcion,
+                Arrays.stream(nanos).average().orElse(0) / 1e6, nanos[REPETICIONES / 2] / 1e6,
+                nanos[REPETICIONES - 1] / 1e6, resultados.size());
+    }
+
+    /**
+     * Índice con distribución aproximadamente de Zipf: los primeros valores son mucho más frecuentes.
+     */
+    private static int zipf(Random azar, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n + 1, azar.nextDouble()) - 1));
+    }
+}
@@ -0,0 +1,147 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mide la calidad y el costo de la detección de duplicados.
+ * <p>
+ * Registra tickets de fondo (frases al azar de un vocabulario sintético) y,
+ * mezcladas entre ellos, ráfagas de variantes de un mismo reporte: con saludo,
+ * con palabras omitidas, con errores de tipeo o con otro final. Reporta qué
+ * fracción de cada ráfaga terminó en su incidente principal, cuántos tickets
+ * de fondo se unieron por error a otro incidente y el tiempo de registro por
+ * ticket al inicio y al final, que no debe crecer con la cantidad de tickets.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchDuplicados [tickets]}
+ */
+public class BenchDuplicados {
+
+    private static final String[] SALUDOS = {"Hola", "Buenas tardes", "Urgente", "Por favor", "Ayuda"};
+    private static final String[] CIERRES = {"desde esta mañana", "desde hace una hora", "otra vez",
+            "y tengo examen", "gracias", "a todos los compañeros les pasa"};
+    private static final String[] SILABAS = {"ca", "de", "ri", "mo", "tu", "la", "ne", "si", "po", "ve",
+            "gra", "tor", "mal", "sen", "bri", "col", "fu", "pe", "dan", "ques"};
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random azar = new Random(11);
+        String[] vocabulario = new String[5_000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            vocabulario[i] = elegir(azar, SILABAS) + elegir(azar, SILABAS) + elegir(azar, SILABAS);
+        }
+        int rafagas = Math.max(1, cantidad / 2_000);
+        double probabilidadRafaga = 0.25;
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            int idUsuario = controlador.registrarUsuario("Estudiante Prueba", "Clave123!", "Estudiante",
+                    "estudiante@ucenfotec.ac.cr", "88888888");
+            int idDepartamento = controlador.registrarDepartamento("Soporte TI", "Soporte", "soporte@ucenfotec.ac.cr", "1234");
+
+            // Cada ráfaga dura un tramo de los registros, como una caída real.
+            int largoRafaga = cantidad / rafagas;
+            Map<Integer, List<Integer>> ticketsPorRafaga = new HashMap<>();
+            List<Integer> fondo = new ArrayList<>();
+            String asuntoBase = "";
+            String descripcionBase = "";
+            long[] nanosPorDecil = new long[10];
+            int[] ticketsPorDecil = new int[10];
+
+            for (int i = 0; i < cantidad; i++) {
+                int rafaga = i / largoRafaga;
+                if (i % largoRafaga == 0) {
+                    asuntoBase = frase(azar, vocabulario, 4);
+                    descripcionBase = frase(azar, vocabulario, 12);
+                }
+                boolean esRafaga = azar.nextDouble() < probabilidadRafaga;
+                String asunto;
+                String descripcion;
+                if (esRafaga) {
+                    asunto = variar(azar, asuntoBase);
+                    descripcion = variar(azar, elegir(azar, SALUDOS) + ", " + descripcionBase + " " + elegir(azar, CIERRES));
+                } else {
+                    asunto = frase(azar, vocabulario, 4);
+                    descripcion = elegir(azar, SALUDOS) + ", " + frase(azar, vocabulario, 12) + " " + elegir(azar, CIERRES);
+                }
+
+                long antes = System.nanoTime();
+                int id = controlador.registrarTicket(asunto, descripcion, idUsuario, "Pendiente", idDepartamento);
+                int decil = (int) ((long) i * 10 / cantidad);
+                nanosPorDecil[decil] += System.nanoTime() - antes;
+                ticketsPorDecil[decil]++;
+
+                if (esRafaga) {
+                    ticketsPorRafaga.computeIfAbsent(rafaga, r -> new ArrayList<>()).add(id);
+                } else {
+                    fondo.add(id);
+                }
+            }
+
+            // Exhaustividad: fracción de cada ráfaga que quedó en su incidente más frecuente.
+            long agrupados = 0;
+            long totalRafagas = 0;
+            double incidentesPorRafaga = 0;
+            for (List<Integer> tickets : ticketsPorRafaga.values()) {
+                Map<Integer, Integer> porIncidente = new HashMap<>();
+                for (int id : tickets) {
+                    porIncidente.merge(controlador.obtenerIncidente(id), 1, Integer::sum);
+                }
+                agrupados += porIncidente.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+                totalRafagas += tickets.size();
+                incidentesPorRafaga += porIncidente.size();
+            }
+            // Falsos positivos: tickets de fondo que se unieron al incidente de otro ticket.
+            long fondoVinculado = fondo.stream().filter(id -> controlador.obtenerIncidente(id) != id).count();
+
+            System.out.printf("Tickets: %,d (%d ráfagas, %.0f%% de los tickets pertenecen a una ráfaga)%n",
+                    cantidad, rafagas, probabilidadRafaga * 100);
+            System.out.printf("Tickets de ráfaga en su incidente principal: %.1f%%%n", 100.0 * agrupados / totalRafagas);
+            System.out.printf("Incidentes por ráfaga (ideal 1): %.1f%n", incidentesPorRafaga / ticketsPorRafaga.size());
+            System.out.printf("Tickets de fondo unidos a otro incidente: %.1f%%%n", 100.0 * fondoVinculado / fondo.size());
+            System.out.printf("Incidentes con 2 o más tickets: %,d%n", controlador.obtenerIncidentes(2).size());
+            System.out.printf("Registro por ticket, primer 10%%: %.1f µs, último 10%%: %.1f µs%n",
+                    nanosPorDecil[0] / 1e3 / ticketsPorDecil[0], nanosPorDecil[9] / 1e3 / ticketsPorDecil[9]);
+        }
+    }
+
+    /**
+     * Aplica una variación al azar: omitir una palabra, un error de tipeo o ninguna.
+     */
+    private static String variar(Random azar, String texto) {
+        String[] palabras = texto.split(" ");
+        int i = azar.nextInt(palabras.length);
+        switch (azar.nextInt(3)) {
+            case 0 -> palabras[i] = "";
+            case 1 -> {
+                if (palabras[i].length() > 3) {
+                    int j = 1 + azar.nextInt(palabras[i].length() - 2);
+                    char[] letras = palabras[i].toCharArray();
+                    char temporal = letras[j];
+                    letras[j] = letras[j - 1];
+                    letras[j - 1] = temporal;
+                    palabras[i] = new String(letras);
+                }
+            }
+            default -> {
+            }
+        }
+        return String.join(" ", palabras).replace("  ", " ").trim();
+    }
+
+    private static String frase(Random azar, String[] vocabulario, int palabras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            frase.append(i == 0 ? "" : " ").append(elegir(azar, vocabulario));
+        }
+        return frase.toString();
+    }
+
+    private static String elegir(Random azar, String[] opciones) {
+        return opciones[azar.nextInt(opciones.length)];
+    }
+}
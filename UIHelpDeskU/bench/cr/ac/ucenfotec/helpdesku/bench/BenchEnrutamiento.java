@@ -0,0 +1,136 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.ClasificadorTickets;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EnrutadorTickets;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide la exactitud y la latencia del enrutamiento automático de tickets.
+ * <p>
+ * Genera tickets sintéticos etiquetados con su departamento correcto: el texto
+ * menciona palabras de la categoría de ese departamento, a veces una palabra de
+ * otra categoría como ruido y a veces ninguna palabra del diccionario. Reporta
+ * la cobertura (tickets con sugerencia), la exactitud sobre los sugeridos y el
+ * tiempo de clasificación y de enrutamiento por ticket.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchEnrutamiento [tickets]}
+ */
+public class BenchEnrutamiento {
+
+    private static final String[] CATEGORIAS = {"Redes", "Impresoras", "Cuentas", "Hardware"};
+    private static final String[][] PALABRAS = {
+            {"vpn", "wifi", "internet", "red", "conexión", "router"},
+            {"impresora", "imprimir", "tóner", "papel", "escáner"},
+            {"contraseña", "usuario", "correo", "acceso", "cuenta", "bloqueada"},
+            {"pantalla", "teclado", "mouse", "computadora", "portátil", "batería"}};
+    private static final String[] RELLENO = {"hola", "desde ayer", "en el laboratorio", "por favor ayuda",
+            "no sé qué pasa", "es para una entrega", "en la sede central", "gracias"};
+    private static final int RONDAS = 5;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random azar = new Random(7);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            int[] departamentos = new int[CATEGORIAS.length];
+            for (int c = 0; c < CATEGORIAS.length; c++) {
+                departamentos[c] = controlador.registrarDepartamento("Soporte " + CATEGORIAS[c], "Atiende " + CATEGORIAS[c],
+                        "soporte" + c + "@ucenfotec.ac.cr", "12" + c);
+                controlador.agregarPalabrasTecnicas(CATEGORIAS[c], List.of(PALABRAS[c]));
+                controlador.asignarRutaCategoria(CATEGORIAS[c], departamentos[c]);
+            }
+
+            String[] asuntos = new String[cantidad];
+            String[] descripciones = new String[cantidad];
+            int[] esperados = new int[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                int c = azar.nextInt(CATEGORIAS.length);
+                esperados[i] = departamentos[c];
+                double tipo = azar.nextDouble();
+                if (tipo < 0.10) {
+                    asuntos[i] = "Consulta general";
+                    descripciones[i] = relleno(azar) + ", " + relleno(azar);
+                    continue;
+                }
+                // La mitad de los asuntos no dicen nada útil y todo depende de la descripción.
+                asuntos[i] = azar.nextBoolean() ? "Problema con " + palabra(azar, c) : "Ayuda urgente";
+                StringBuilder descripcion = new StringBuilder(relleno(azar)).append(", ");
+                if (tipo < 0.35) {
+                    // Ruido: otra categoría mencionada antes o después de la correcta.
+                    int otra = (c + 1 + azar.nextInt(CATEGORIAS.length - 1)) % CATEGORIAS.length;
+                    if (azar.nextBoolean()) {
+                        descripcion.append("pensé que era ").append(palabra(azar, otra)).append(" pero es ").append(palabra(azar, c));
+                    } else {
+                        descripcion.append(palabra(azar, c)).append(", también revisé ").append(palabra(azar, otra));
+                    }
+                } else {
+                    descripcion.append(palabra(azar, c));
+                    if (azar.nextBoolean()) {
+                        descripcion.append(" y ").append(palabra(azar, c));
+                    }
+                }
+                descripciones[i] = descripcion.append(", ").append(relleno(azar)).toString();
+            }
+
+            ClasificadorTickets.Clasificacion[] clasificaciones = new ClasificadorTickets.Clasificacion[cantidad];
+            EnrutadorTickets.Sugerencia[] sugerencias = new EnrutadorTickets.Sugerencia[cantidad];
+            // Mejor de varias rondas: la primera incluye la compilación JIT.
+            long nanosClasificacion = Long.MAX_VALUE;
+            long nanosEnrutamiento = Long.MAX_VALUE;
+            EnrutadorTickets enrutador = rutas(controlador);
+            for (int ronda = 0; ronda < RONDAS; ronda++) {
+                long inicio = System.nanoTime();
+                for (int i = 0; i < cantidad; i++) {
+                    clasificaciones[i] = controlador.clasificarTicket(asuntos[i], descripciones[i]);
+                }
+                nanosClasificacion = Math.min(nanosClasificacion, System.nanoTime() - inicio);
+
+                inicio = System.nanoTime();
+                for (int i = 0; i < cantidad; i++) {
+                    sugerencias[i] = enrutador.sugerir(clasificaciones[i]);
+                }
+                nanosEnrutamiento = Math.min(nanosEnrutamiento, System.nanoTime() - inicio);
+            }
+
+            int sugeridos = 0;
+            int correctos = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (sugerencias[i] != null) {
+                    sugeridos++;
+                    if (sugerencias[i].idDepartamento() == esperados[i]) {
+                        correctos++;
+                    }
+                }
+            }
+
+            System.out.printf("Tickets: %,d (10%% sin palabras del diccionario, 25%% con ruido de otra categoría)%n", cantidad);
+            System.out.printf("Cobertura: %.1f%% con sugerencia%n", 100.0 * sugeridos / cantidad);
+            System.out.printf("Exactitud sobre los sugeridos: %.2f%%%n", 100.0 * correctos / Math.max(1, sugeridos));
+            System.out.printf("Exactitud total (sin sugerencia cuenta como error): %.2f%%%n", 100.0 * correctos / cantidad);
+            System.out.printf("Clasificación: %.0f ns/ticket%n", (double) nanosClasificacion / cantidad);
+            System.out.printf("Enrutamiento: %.0f ns/ticket%n", (double) nanosEnrutamiento / cantidad);
+        }
+    }
+
+    /**
+     * Reconstruye el enrutador con las rutas del controlador para medir solo el enrutamiento.
+     */
+    private static EnrutadorTickets rutas(ControladorHelpDesk controlador) {
+        EnrutadorTickets enrutador = EnrutadorTickets.VACIO;
+        for (var ruta : controlador.obtenerRutasCategorias().entrySet()) {
+            enrutador = enrutador.conRuta(ruta.getKey(), ruta.getValue());
+        }
+        return enrutador;
+    }
+
+    private static String palabra(Random azar, int categoria) {
+        return PALABRAS[categoria][azar.nextInt(PALABRAS[categoria].length)];
+    }
+
+    private static String relleno(Random azar) {
+        return RELLENO[azar.nextInt(RELLENO.length)];
+    }
+}
@@ -0,0 +1,86 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EstadisticasOperaciones;
+import cr.ac.ucenfotec.helpdesku.tl.EventoOperacion;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide el costo de la instrumentación de {@link EstadisticasOperaciones}.
+ * <p>
+ * Registra mediciones directamente con 1 y con varios hilos, compara el costo
+ * de una operación barata del controlador con el de la medición, y verifica que
+ * los eventos de Flight Recorder lleguen a una grabación.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchEstadisticas [hilos]}
+ */
+public class BenchEstadisticas {
+
+    private static final int MEDICIONES = 20_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        for (int ronda = 0; ronda < 3; ronda++) {
+            System.out.printf("Registro directo, 1 hilo: %.1f ns/medición%n", registrar(1));
+            System.out.printf("Registro directo, %d hilos: %.1f ns/medición por hilo%n", hilos, registrar(hilos));
+        }
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.registrarDepartamento("Soporte TI", "Soporte", "soporte@ucenfotec.ac.cr", "1234");
+            long suma = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < MEDICIONES; i++) {
+                suma += controlador.obtenerDepartamento(1 + (i & 1)) == null ? 0 : 1;
+            }
+            System.out.printf("obtenerDepartamento medido: %.1f ns/llamada (%d encontrados)%n",
+                    (System.nanoTime() - inicio) / (double) MEDICIONES, suma);
+            for (EstadisticasOperaciones.Resumen r : controlador.obtenerEstadisticas()) {
+                System.out.println("  " + r);
+            }
+
+            Path archivo = Files.createTempFile("helpdesku", ".jfr");
+            try (Recording grabacion = new Recording()) {
+                grabacion.enable("helpdesku.Operacion");
+                grabacion.start();
+                for (int i = 0; i < 1_000; i++) {
+                    controlador.obtenerDepartamento(1);
+                }
+                grabacion.stop();
+                grabacion.dump(archivo);
+            }
+            List<RecordedEvent> eventos = RecordingFile.readAllEvents(archivo);
+            Files.delete(archivo);
+            System.out.printf("Eventos de Flight Recorder grabados: %d (primero: %s)%n", eventos.size(),
+                    eventos.isEmpty() ? "-" : eventos.get(0).getString("operacion") + " "
+                            + eventos.get(0).getDuration().toNanos() + " ns");
+            System.out.println(controlador.volcarEstadisticas());
+        }
+    }
+
+    private static double registrar(int hilos) throws InterruptedException {
+        EstadisticasOperaciones estadisticas = new EstadisticasOperaciones();
+        int porHilo = MEDICIONES / hilos;
+        List<Thread> trabajadores = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            trabajadores.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    estadisticas.registrar(EstadisticasOperaciones.Operacion.OBTENER_TICKET, System.nanoTime(),
+                            EventoOperacion.iniciar());
+                }
+            }));
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        return (System.nanoTime() - inicio) / (double) porHilo;
+    }
+}
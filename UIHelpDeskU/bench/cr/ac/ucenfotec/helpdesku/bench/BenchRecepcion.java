@@ -0,0 +1,97 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.BitacoraEscritura;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.RecepcionTickets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara el registro síncrono de tickets con la recepción asíncrona, ambos
+ * con bitácora y fsync por registro. Reporta tickets por segundo y la latencia
+ * promedio que ve quien envía: en el modo síncrono incluye clasificación,
+ * indexación y fsync; en el asíncrono, solo la entrada al anillo.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchRecepcion [ticketsPorHilo] [directorio]}
+ */
+public class BenchRecepcion {
+
+    private static final int[] HILOS = {1, 16, 128};
+
+    public static void main(String[] args) throws Exception {
+        int porHilo = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        Path directorio = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("bench-recepcion");
+
+        System.out.printf("Tickets por hilo: %d, fsync: siempre, directorio: %s%n", porHilo, directorio);
+        System.out.printf("%-10s %6s %14s %18s%n", "modo", "hilos", "tickets/s", "envío prom (µs)");
+        for (int hilos : HILOS) {
+            medir(directorio, false, hilos, porHilo);
+            medir(directorio, true, hilos, porHilo);
+        }
+    }
+
+    private static void medir(Path directorio, boolean asincrono, int hilos, int porHilo) throws Exception {
+        Path bitacora = directorio.resolve("bench-recepcion.wal");
+        Files.deleteIfExists(bitacora);
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, BitacoraEscritura.Sincronizacion.SIEMPRE);
+            int idUsuario = controlador.registrarUsuario("Estudiante Prueba", "Clave123!", "Estudiante",
+                    "estudiante@ucenfotec.ac.cr", "88888888");
+            int idDepartamento = controlador.registrarDepartamento("Soporte TI", "Soporte técnico",
+                    "soporte@ucenfotec.ac.cr", "1234");
+            controlador.agregarPalabraTecnica("vpn", "Redes");
+            controlador.agregarPalabraEmocion("urgente", "Frustración");
+
+            LongAdder nanosEnvio = new LongAdder();
+            long inicio = System.nanoTime();
+            try (ExecutorService productores = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int h = 0; h < hilos; h++) {
+                    tareas.add(productores.submit(() -> {
+                        List<CompletableFuture<Integer>> acuses = new ArrayList<>(asincrono ? porHilo : 0);
+                        for (int i = 0; i < porHilo; i++) {
+                            long antes = System.nanoTime();
+                            if (asincrono) {
+                                acuses.add(controlador.enviarTicket("VPN caída", "Es urgente, la vpn no conecta",
+                                        idUsuario, "Pendiente", idDepartamento));
+                            } else {
+                                controlador.registrarTicket("VPN caída", "Es urgente, la vpn no conecta",
+                                        idUsuario, "Pendiente", idDepartamento);
+                            }
+                            nanosEnvio.add(System.nanoTime() - antes);
+                        }
+                        acuses.forEach(CompletableFuture::join);
+                        return null;
+                    }));
+                }
+                for (Future<?> tarea : tareas) {
+                    tarea.get();
+                }
+            }
+            long nanos = System.nanoTime() - inicio;
+            long total = (long) hilos * porHilo;
+            System.out.printf("%-10s %6d %,14.0f %18.1f%n", asincrono ? "asincrono" : "sincrono", hilos,
+                    total * 1e9 / nanos, nanosEnvio.sum() / 1_000.0 / total);
+
+            if (asincrono) {
+                RecepcionTickets.Metricas metricas = controlador.recepcionTickets().metricas();
+                System.out.printf("    lotes: %,d (promedio %.1f tickets), rechazados: %d%n",
+                        metricas.lotes(), metricas.promedioLote(), metricas.rechazados());
+                for (RecepcionTickets.LatenciaEtapa etapa : metricas.etapas()) {
+                    System.out.printf("    %-14s prom %10.1f µs  máx %10.1f µs%n",
+                            etapa.etapa().name().toLowerCase(), etapa.promedioMicros(), etapa.maximoMicros());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(bitacora);
+        }
+    }
+}
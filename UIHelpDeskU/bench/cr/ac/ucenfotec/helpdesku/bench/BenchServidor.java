@@ -0,0 +1,161 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.ServicioHash;
+import cr.ac.ucenfotec.helpdesku.ui.ServidorHelpDesk;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Mide solicitudes por segundo del servidor TCP con muchas sesiones simultáneas:
+ * inicios de sesión, creación de tickets y listados paginados. Cada cliente
+ * usa su propia conexión y un hilo virtual; las tres fases se miden por separado.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchServidor [operacionesPorCliente]}
+ */
+public class BenchServidor {
+
+    private static final int[] CLIENTES = {1, 16, 128, 512};
+
+    public static void main(String[] args) throws Exception {
+        int operaciones = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int maximo = CLIENTES[CLIENTES.length - 1];
+
+        // Todos los clientes vienen de 127.0.0.1: sin límite de intentos por origen.
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk(ServicioHash.sha256(), LimitadorIntentos.sinLimite());
+             ServidorHelpDesk servidor = new ServidorHelpDesk(controlador, 0)) {
+            for (int i = 0; i < 10; i++) {
+                controlador.registrarDepartamento("Departamento " + i, "Soporte", "depto" + i + "@ucenfotec.ac.cr", "1234");
+            }
+            for (int i = 0; i < maximo; i++) {
+                controlador.registrarUsuario("Agente Prueba", "Clave123!", "Agente", "agente" + i + "@ucenfotec.ac.cr", "88888888");
+            }
+            servidor.iniciar();
+
+            System.out.printf("Operaciones por cliente y fase: %d%n", operaciones);
+            System.out.printf("%8s %14s %14s %14s%n", "clientes", "logins/s", "tickets/s", "listados/s");
+            for (int clientes : CLIENTES) {
+                double[] resultado = medir(servidor.getPuerto(), clientes, operaciones);
+                System.out.printf("%8d %,14.0f %,14.0f %,14.0f%n", clientes, resultado[0], resultado[1], resultado[2]);
+            }
+            System.out.printf("Tickets registrados: %,d, solicitudes atendidas: %,d%n",
+                    controlador.obtenerTickets().size(), servidor.solicitudesProcesadas());
+        }
+    }
+
+    /**
+     * Ejecuta las tres fases con la cantidad de clientes indicada.
+     *
+     * @return Solicitudes por segundo de cada fase.
+     */
+    private static double[] medir(int puerto, int clientes, int operaciones) throws Exception {
+        int fases = 3;
+        long[] inicio = new long[fases];
+        long[] fin = new long[fases];
+        CyclicBarrier[] barreras = new CyclicBarrier[fases + 1];
+        for (int f = 0; f <= fases; f++) {
+            int fase = f;
+            barreras[f] = new CyclicBarrier(clientes, () -> {
+                long ahora = System.nanoTime();
+                if (fase > 0) {
+                    fin[fase - 1] = ahora;
+                }
+                if (fase < fases) {
+                    inicio[fase] = ahora;
+                }
+            });
+        }
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                tareas.add(hilos.submit(() -> {
+                    try (Cliente conexion = new Cliente(puerto)) {
+                        String correo = "agente" + cliente + "@ucenfotec.ac.cr";
+                        barreras[0].await();
+                        for (int i = 0; i < operaciones; i++) {
+                            conexion.esperarOk("LOGIN " + correo + "|Clave123!");
+                        }
+                        barreras[1].await();
+                        for (int i = 0; i < operaciones; i++) {
+                            conexion.esperarOk("TICKET No funciona la VPN|Cliente " + cliente + " intento " + i + "|" + (1 + i % 10));
+                        }
+                        barreras[2].await();
+                        for (int i = 0; i < operaciones; i++) {
+                            conexion.listar("TICKETS 20");
+                        }
+                        barreras[3].await();
+                        conexion.esperarOk("SALIR");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+
+        double[] porSegundo = new double[fases];
+        for (int f = 0; f < fases; f++) {
+            porSegundo[f] = (double) clientes * operaciones * 1e9 / (fin[f] - inicio[f]);
+        }
+        return porSegundo;
+    }
+
+    /**
+     * Conexión de prueba con el protocolo de líneas.
+     */
+    private static final class Cliente implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader entrada;
+        private final BufferedWriter salida;
+
+        Cliente(int puerto) throws IOException {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), puerto);
+            this.socket.setTcpNoDelay(true);
+            this.entrada = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+            this.salida = new BufferedWriter(new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8));
+            this.entrada.readLine();
+        }
+
+        String esperarOk(String solicitud) throws IOException {
+            this.salida.write(solicitud);
+            this.salida.write('\n');
+            this.salida.flush();
+            String respuesta = this.entrada.readLine();
+            if (respuesta == null || !respuesta.startsWith("OK")) {
+                throw new UncheckedIOException(new IOException("Respuesta inesperada a '" + solicitud + "': " + respuesta));
+            }
+            return respuesta;
+        }
+
+        void listar(String solicitud) throws IOException {
+            String[] encabezado = this.esperarOk(solicitud).split(" ");
+            int filas = Integer.parseInt(encabezado[1]);
+            for (int i = 0; i < filas; i++) {
+                this.entrada.readLine();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package cr.ac.ucenfotec.helpdesku.bench;
+
+import cr.ac.ucenfotec.helpdesku.ui.TablaConsola;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Mide filas por segundo al renderizar un listado de 100 000 filas,
+ * comparando un printf por fila contra {@link TablaConsola}.
+ * La salida se descarta para medir solo el costo de formato.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.bench.BenchTablaConsola [filas] [pagina]}
+ */
+public class BenchTablaConsola {
+
+    private static final int CALENTAMIENTO = 5;
+    private static final int MEDICIONES = 10;
+
+    public static void main(String[] args) {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int pagina = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        PrintStream salida = new PrintStream(OutputStream.nullOutputStream(), false);
+
+        String[] asuntos = new String[filas];
+        String[] usuarios = new String[filas];
+        for (int i = 0; i < filas; i++) {
+            asuntos[i] = "No funciona la VPN del laboratorio " + i;
+            usuarios[i] = "Estudiante " + i;
+        }
+
+        System.out.printf("Filas: %d, tamaño de página: %d%n", filas, pagina);
+        medir("printf por fila", filas, () -> conPrintf(salida, asuntos, usuarios, pagina));
+        TablaConsola tabla = new TablaConsola(
+                new String[]{"No.", "Asunto", "Usuario", "Estado", "Departamento"}, new int[]{3, 20, 20, 12, 20});
+        medir("TablaConsola", filas, () -> conTabla(salida, tabla, asuntos, usuarios, pagina));
+    }
+
+    private static void medir(String nombre, int filas, Runnable trabajo) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            trabajo.run();
+        }
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            trabajo.run();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%-16s %,12.0f filas/s (%,.2f ms)%n", nombre, filas * 1e9 / mejor, mejor / 1e6);
+    }
+
+    private static void conPrintf(PrintStream salida, String[] asuntos, String[] usuarios, int pagina) {
+        for (int i = 0; i < asuntos.length; i++) {
+            if (i % pagina == 0) {
+                salida.println("┌─────┬──────────────────────┬──────────────────────┬──────────────┬──────────────────────┐");
+                salida.println("│ No. │ Asunto               │ Usuario              │ Estado       │ Departamento         │");
+                salida.println("├" + "─".repeat(5) + "┼" + "─".repeat(22) + "┼" + "─".repeat(22) + "┼" + "─".repeat(14) + "┼" + "─".repeat(22) + "┤");
+            }
+            salida.printf("│ %-3d │ %-20s │ %-20s │ %-12s │ %-20s │%n",
+                    (i + 1), truncar(asuntos[i], 20), truncar(usuarios[i], 20), "Pendiente", "Soporte TI");
+        }
+    }
+
+    private static void conTabla(PrintStream salida, TablaConsola tabla, String[] asuntos, String[] usuarios, int pagina) {
+        for (int i = 0; i < asuntos.length; i++) {
+            if (i % pagina == 0) {
+                if (i > 0) {
+                    tabla.pie().imprimir(salida);
+                }
+                tabla.encabezado();
+            }
+            tabla.celda(i + 1).celda(asuntos[i]).celda(usuarios[i]).celda("Pendiente").celda("Soporte TI");
+        }
+        tabla.pie().imprimir(salida);
+    }
+
+    private static String truncar(String texto, int longitud) {
+        return texto.length() > longitud ? texto.substring(0, longitud - 3) + "..." : texto;
+    }
+}
@@ -0,0 +1,332 @@
+package cr.ac.ucenfotec.helpdesku.carga;
+
+import cr.ac.ucenfotec.helpdesku.jmh.GeneradorDatos;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.ServicioHash;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Conductor de carga no interactivo contra {@link ControladorHelpDesk}.
+ * <p>
+ * Reproduce una traza de archivo o una generada con {@link GeneradorTraza}.
+ * Cada operación inicia en su instante programado en un hilo virtual propio,
+ * sin esperar a que terminen las anteriores (carga de lazo abierto), por lo
+ * que la cantidad de usuarios simultáneos depende de la tasa y de la latencia,
+ * como en producción. La latencia se mide desde el instante programado: si el
+ * sistema se atrasa, la espera acumulada también se cuenta.
+ * <p>
+ * Antes de la carga se registran los departamentos, los diccionarios y las
+ * cuentas {@code usuario0..usuarioN-1} con {@link GeneradorDatos}; esa
+ * preparación no se mide.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.carga.ConductorCarga [opciones]}
+ * <ul>
+ *     <li>{@code --traza archivo}: reproduce una traza en lugar de generarla.</li>
+ *     <li>{@code --tasa n}: operaciones por segundo de la traza generada (1000).</li>
+ *     <li>{@code --duracion s}: segundos de la traza generada (30).</li>
+ *     <li>{@code --mezcla tipo=peso,...}: ver {@link GeneradorTraza#MEZCLA_DEFECTO}.</li>
+ *     <li>{@code --usuarios n}: cuentas registradas antes de la carga (1000).</li>
+ *     <li>{@code --tickets n}: tickets registrados antes de la carga (0).</li>
+ *     <li>{@code --semilla n}: semilla de los datos (20).</li>
+ *     <li>{@code --limitador si|no}: aplica el límite de intentos de inicio de sesión (no). La
+ *     traza generada incluye inicios de sesión fallidos a propósito; con el límite, la carga
+ *     mide los rechazos del limitador en lugar de la latencia del controlador.</li>
+ *     <li>{@code --grabar archivo}: guarda la traza ejecutada para reproducirla.</li>
+ *     <li>{@code --csv archivo}: guarda el reporte en CSV.</li>
+ * </ul>
+ */
+public class ConductorCarga {
+
+    /**
+     * Latencias registradas de un tipo de operación.
+     */
+    private static final class Muestras {
+        private long[] respuesta = new long[1024];
+        private long[] servicio = new long[1024];
+        private int cantidad;
+        private final AtomicLong errores = new AtomicLong();
+
+        synchronized void agregar(long nanosRespuesta, long nanosServicio) {
+            if (this.cantidad == this.respuesta.length) {
+                this.respuesta = Arrays.copyOf(this.respuesta, this.cantidad * 2);
+                this.servicio = Arrays.copyOf(this.servicio, this.cantidad * 2);
+            }
+            this.respuesta[this.cantidad] = nanosRespuesta;
+            this.servicio[this.cantidad] = nanosServicio;
+            this.cantidad++;
+        }
+    }
+
+    /**
+     * Resultado de una operación.
+     *
+     * @param tipo Operación.
+     * @param llamadas Operaciones terminadas, incluidas las que fallaron.
+     * @param errores Operaciones que lanzaron una excepción.
+     * @param porSegundo Operaciones por segundo durante la carga.
+     * @param p50 Mediana de la latencia de respuesta, en microsegundos.
+     * @param p90 Percentil 90 de la respuesta.
+     * @param p99 Percentil 99 de la respuesta.
+     * @param p999 Percentil 99,9 de la respuesta.
+     * @param maximo Respuesta máxima.
+     * @param p99Servicio Percentil 99 del tiempo de servicio, sin la espera por atraso.
+     */
+    public record Reporte(Solicitud.Tipo tipo, int llamadas, long errores, double porSegundo, double p50, double p90,
+                          double p99, double p999, double maximo, double p99Servicio) {
+    }
+
+    private final ControladorHelpDesk controlador;
+    private final Map<Solicitud.Tipo, Muestras> muestras = new EnumMap<>(Solicitud.Tipo.class);
+    private final Map<String, Integer> idsPorCorreo = new HashMap<>();
+    private long atrasoMaximo;
+    private long nanosCarga;
+
+    public ConductorCarga(ControladorHelpDesk controlador) {
+        this.controlador = controlador;
+        for (Solicitud.Tipo tipo : Solicitud.Tipo.values()) {
+            this.muestras.put(tipo, new Muestras());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opciones = opciones(args);
+        GeneradorDatos datos = new GeneradorDatos(Long.parseLong(opciones.getOrDefault("semilla", "20")));
+        int usuarios = Integer.parseInt(opciones.getOrDefault("usuarios", "1000"));
+        int tickets = Integer.parseInt(opciones.getOrDefault("tickets", "0"));
+
+        LimitadorIntentos limitador = opciones.getOrDefault("limitador", "no").equalsIgnoreCase("si")
+                ? new LimitadorIntentos() : LimitadorIntentos.sinLimite();
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk(ServicioHash.sha256(), limitador)) {
+            long inicio = System.nanoTime();
+            int departamentos = datos.poblarCatalogos(controlador);
+            datos.poblarUsuarios(controlador, usuarios);
+            if (tickets > 0) {
+                datos.poblarTickets(controlador, tickets, usuarios, departamentos);
+            }
+            System.out.printf(Locale.ROOT, "Preparación: %d usuarios, %d tickets en %.1f s%n",
+                    usuarios, tickets, (System.nanoTime() - inicio) / 1e9);
+
+            Iterator<Solicitud> traza;
+            BufferedReader lector = null;
+            if (opciones.containsKey("traza")) {
+                lector = Files.newBufferedReader(Path.of(opciones.get("traza")));
+                traza = leerTraza(lector);
+            } else {
+                traza = new GeneradorTraza(datos, opciones.getOrDefault("mezcla", GeneradorTraza.MEZCLA_DEFECTO),
+                        Double.parseDouble(opciones.getOrDefault("tasa", "1000")),
+                        Double.parseDouble(opciones.getOrDefault("duracion", "30")), usuarios, departamentos);
+            }
+            BufferedWriter grabacion = opciones.containsKey("grabar")
+                    ? Files.newBufferedWriter(Path.of(opciones.get("grabar"))) : null;
+            try {
+                ConductorCarga conductor = new ConductorCarga(controlador);
+                conductor.ejecutar(traza, grabacion);
+                conductor.imprimir();
+                if (opciones.containsKey("csv")) {
+                    conductor.escribirCsv(Path.of(opciones.get("csv")));
+                }
+            } finally {
+                if (grabacion != null) {
+                    grabacion.close();
+                }
+                if (lector != null) {
+                    lector.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la traza completa y espera a que terminen todas las operaciones.
+     *
+     * @param traza Solicitudes en orden de instante.
+     * @param grabacion Destino de la traza ejecutada; null para no grabarla.
+     */
+    public void ejecutar(Iterator<Solicitud> traza, BufferedWriter grabacion) throws IOException {
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (traza.hasNext()) {
+                Solicitud solicitud = traza.next();
+                if (grabacion != null) {
+                    grabacion.write(solicitud.linea());
+                    grabacion.newLine();
+                }
+                long programado = inicio + solicitud.micros() * 1_000;
+                long espera;
+                while ((espera = programado - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                this.atrasoMaximo = Math.max(this.atrasoMaximo, -espera);
+                hilos.execute(() -> this.medir(solicitud, programado));
+            }
+        }
+        this.nanosCarga = System.nanoTime() - inicio;
+    }
+
+    private void medir(Solicitud solicitud, long programado) {
+        long inicio = System.nanoTime();
+        Muestras destino = this.muestras.get(solicitud.tipo());
+        try {
+            this.aplicar(solicitud);
+        } catch (RuntimeException e) {
+            destino.errores.incrementAndGet();
+        }
+        long fin = System.nanoTime();
+        destino.agregar(fin - programado, fin - inicio);
+    }
+
+    private void aplicar(Solicitud solicitud) {
+        String[] a = solicitud.args();
+        switch (solicitud.tipo()) {
+            case REGISTRO -> this.controlador.registrarUsuario(a[0], a[1], a[2], a[3], a[4]);
+            case LOGIN -> this.controlador.autenticarUsuario(a[0], a[1]);
+            case TICKET -> this.controlador.registrarTicket(a[1], a[2], this.idUsuario(a[0]), "Pendiente",
+                    Integer.parseInt(a[3]));
+            case LISTAR -> this.controlador.obtenerTickets(Integer.parseInt(a[0]), null, a[1].isEmpty() ? null : a[1]);
+            case FILTRAR -> this.controlador.buscarTickets(a[0].isEmpty() ? null : a[0],
+                    a[1].isEmpty() ? 0 : Integer.parseInt(a[1]), 0);
+            case BUSCAR -> this.controlador.buscarTexto(a[0], null, 0, 20);
+            case PALABRA -> this.controlador.agregarPalabraTecnica(a[0], a[1]);
+        }
+    }
+
+    /**
+     * El usuario de un ticket es el de la sesión; se resuelve una vez por correo, como al iniciar sesión.
+     */
+    private int idUsuario(String correo) {
+        Integer id;
+        synchronized (this.idsPorCorreo) {
+            id = this.idsPorCorreo.get(correo);
+        }
+        if (id == null) {
+            id = this.controlador.buscarIdUsuario(correo);
+            if (id == 0) {
+                throw new IllegalArgumentException("No existe el usuario " + correo);
+            }
+            synchronized (this.idsPorCorreo) {
+                this.idsPorCorreo.put(correo, id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return Reporte de cada operación ejecutada al menos una vez.
+     */
+    public Map<Solicitud.Tipo, Reporte> reporte() {
+        Map<Solicitud.Tipo, Reporte> reporte = new EnumMap<>(Solicitud.Tipo.class);
+        double segundos = this.nanosCarga / 1e9;
+        for (Map.Entry<Solicitud.Tipo, Muestras> e : this.muestras.entrySet()) {
+            Muestras m = e.getValue();
+            if (m.cantidad == 0) {
+                continue;
+            }
+            long[] respuesta = Arrays.copyOf(m.respuesta, m.cantidad);
+            long[] servicio = Arrays.copyOf(m.servicio, m.cantidad);
+            Arrays.sort(respuesta);
+            Arrays.sort(servicio);
+            reporte.put(e.getKey(), new Reporte(e.getKey(), m.cantidad, m.errores.get(), m.cantidad / segundos,
+                    percentil(respuesta, 0.50), percentil(respuesta, 0.90), percentil(respuesta, 0.99),
+                    percentil(respuesta, 0.999), respuesta[respuesta.length - 1] / 1e3, percentil(servicio, 0.99)));
+        }
+        return reporte;
+    }
+
+    private void imprimir() {
+        Map<Solicitud.Tipo, Reporte> reporte = this.reporte();
+        long total = reporte.values().stream().mapToLong(Reporte::llamadas).sum();
+        System.out.printf(Locale.ROOT, "Carga: %d operaciones en %.1f s (%.0f ops/s), atraso máximo del despachador %.2f ms%n",
+                total, this.nanosCarga / 1e9, total / (this.nanosCarga / 1e9), this.atrasoMaximo / 1e6);
+        System.out.printf("%-9s %9s %7s %9s %9s %9s %9s %9s %10s %12s%n", "Operación", "Llamadas", "Errores",
+                "ops/s", "p50 µs", "p90 µs", "p99 µs", "p99.9 µs", "Máx. µs", "p99 serv. µs");
+        for (Reporte r : reporte.values()) {
+            System.out.printf(Locale.ROOT, "%-9s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f %12.1f%n", r.tipo(),
+                    r.llamadas(), r.errores(), r.porSegundo(), r.p50(), r.p90(), r.p99(), r.p999(), r.maximo(),
+                    r.p99Servicio());
+        }
+    }
+
+    private void escribirCsv(Path archivo) throws IOException {
+        StringBuilder csv = new StringBuilder("operacion,llamadas,errores,ops_s,p50_us,p90_us,p99_us,p999_us,maximo_us,p99_servicio_us\n");
+        for (Reporte r : this.reporte().values()) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n", r.tipo(),
+                    r.llamadas(), r.errores(), r.porSegundo(), r.p50(), r.p90(), r.p99(), r.p999(), r.maximo(),
+                    r.p99Servicio()));
+        }
+        Files.writeString(archivo, csv);
+    }
+
+    /**
+     * @return Percentil en microsegundos de latencias ordenadas.
+     */
+    private static double percentil(long[] ordenadas, double fraccion) {
+        int i = (int) Math.ceil(ordenadas.length * fraccion) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))] / 1e3;
+    }
+
+    private static Iterator<Solicitud> leerTraza(BufferedReader lector) {
+        return new Iterator<>() {
+            private Solicitud siguiente = leer();
+
+            private Solicitud leer() {
+                try {
+                    String linea;
+                    while ((linea = lector.readLine()) != null) {
+                        Solicitud solicitud = Solicitud.leer(linea);
+                        if (solicitud != null) {
+                            return solicitud;
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.siguiente != null;
+            }
+
+            @Override
+            public Solicitud next() {
+                if (this.siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                Solicitud actual = this.siguiente;
+                this.siguiente = leer();
+                return actual;
+            }
+        };
+    }
+
+    private static Map<String, String> opciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Opción inválida: " + args[i]);
+            }
+            opciones.put(args[i].substring(2), args[++i]);
+        }
+        return opciones;
+    }
+}
@@ -0,0 +1,151 @@
+package cr.ac.ucenfotec.helpdesku.carga;
+
+import cr.ac.ucenfotec.helpdesku.jmh.GeneradorDatos;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Genera una traza de carga con llegadas de Poisson a una tasa fija.
+ * <p>
+ * El tipo de cada operación se elige según los pesos de la mezcla. Los inicios
+ * de sesión y los tickets usan las cuentas registradas antes de la carga; los
+ * registros usan correos nuevos. La traza se produce a medida que se consume,
+ * por lo que su duración no está limitada por la memoria.
+ */
+public class GeneradorTraza implements Iterator<Solicitud> {
+
+    /**
+     * Mezcla por defecto: sobre todo listados, inicios de sesión y tickets.
+     */
+    public static final String MEZCLA_DEFECTO = "registro=5,login=25,ticket=25,listar=25,filtrar=12,buscar=6,palabra=2";
+
+    private static final String[] ORDENES = {"", "", "asunto", "estado"};
+    private static final String[] CATEGORIAS = {"redes", "software", "hardware", "cuentas"};
+
+    private final GeneradorDatos datos;
+    private final SplittableRandom azar;
+    private final double tasaPorMicro;
+    private final long duracionMicros;
+    private final int usuarios;
+    private final int departamentos;
+    private final Solicitud.Tipo[] tipos;
+    private final double[] acumulados;
+    private double micros;
+    private long registros;
+    private long palabras;
+    private Solicitud siguiente;
+
+    /**
+     * @param datos Generador de datos; también define las cuentas existentes.
+     * @param mezcla Pesos por operación, por ejemplo {@code login=3,ticket=1}.
+     * @param tasa Operaciones por segundo.
+     * @param duracionSegundos Duración de la traza.
+     * @param usuarios Cuentas registradas antes de la carga.
+     * @param departamentos Departamentos registrados antes de la carga.
+     */
+    public GeneradorTraza(GeneradorDatos datos, String mezcla, double tasa, double duracionSegundos,
+                          int usuarios, int departamentos) {
+        if (tasa <= 0 || duracionSegundos <= 0 || usuarios <= 0) {
+            throw new IllegalArgumentException("La tasa, la duración y los usuarios deben ser positivos");
+        }
+        this.datos = datos;
+        this.azar = datos.azar(2);
+        this.tasaPorMicro = tasa / 1e6;
+        this.duracionMicros = (long) (duracionSegundos * 1e6);
+        this.usuarios = usuarios;
+        this.departamentos = departamentos;
+
+        Map<Solicitud.Tipo, Double> pesos = pesos(mezcla);
+        this.tipos = pesos.keySet().toArray(new Solicitud.Tipo[0]);
+        this.acumulados = new double[this.tipos.length];
+        double total = 0;
+        for (int i = 0; i < this.tipos.length; i++) {
+            total += pesos.get(this.tipos[i]);
+            this.acumulados[i] = total;
+        }
+        for (int i = 0; i < this.acumulados.length; i++) {
+            this.acumulados[i] /= total;
+        }
+        this.siguiente = this.generar();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.siguiente != null;
+    }
+
+    @Override
+    public Solicitud next() {
+        if (this.siguiente == null) {
+            throw new NoSuchElementException();
+        }
+        Solicitud actual = this.siguiente;
+        this.siguiente = this.generar();
+        return actual;
+    }
+
+    private Solicitud generar() {
+        // Tiempo entre llegadas exponencial: proceso de Poisson.
+        this.micros += -Math.log(1 - this.azar.nextDouble()) / this.tasaPorMicro;
+        long instante = (long) this.micros;
+        if (instante >= this.duracionMicros) {
+            return null;
+        }
+        Solicitud.Tipo tipo = this.elegirTipo();
+        int cuenta = this.azar.nextInt(this.usuarios);
+        String[] args = switch (tipo) {
+            case REGISTRO -> {
+                long i = this.usuarios + this.registros++;
+                yield new String[]{this.datos.nombre(i), GeneradorDatos.PASSWORD, this.datos.rol(i),
+                        this.datos.correo(i), this.datos.telefono(i)};
+            }
+            // Uno de cada diez intentos de inicio de sesión falla.
+            case LOGIN -> new String[]{this.datos.correo(cuenta),
+                    this.azar.nextInt(10) == 0 ? "Incorrecta1!" : GeneradorDatos.PASSWORD};
+            case TICKET -> new String[]{this.datos.correo(cuenta), this.datos.asunto(this.azar),
+                    this.datos.descripcion(this.azar), String.valueOf(this.datos.departamento(this.azar, this.departamentos))};
+            case LISTAR -> new String[]{"20", ORDENES[this.azar.nextInt(ORDENES.length)]};
+            case FILTRAR -> new String[]{this.datos.estado(this.azar),
+                    this.azar.nextBoolean() ? "0" : String.valueOf(this.datos.departamento(this.azar, this.departamentos))};
+            case BUSCAR -> new String[]{this.datos.asunto(this.azar)};
+            case PALABRA -> new String[]{CATEGORIAS[this.azar.nextInt(CATEGORIAS.length)], "carga" + this.palabras++};
+        };
+        return new Solicitud(instante, tipo, args);
+    }
+
+    private Solicitud.Tipo elegirTipo() {
+        double p = this.azar.nextDouble();
+        for (int i = 0; i < this.acumulados.length - 1; i++) {
+            if (p < this.acumulados[i]) {
+                return this.tipos[i];
+            }
+        }
+        return this.tipos[this.tipos.length - 1];
+    }
+
+    private static Map<Solicitud.Tipo, Double> pesos(String mezcla) {
+        Map<Solicitud.Tipo, Double> pesos = new EnumMap<>(Solicitud.Tipo.class);
+        for (String parte : mezcla.split(",")) {
+            String[] clave = parte.strip().split("=");
+            if (clave.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + parte);
+            }
+            double peso = Double.parseDouble(clave[1]);
+            if (peso < 0) {
+                throw new IllegalArgumentException("Los pesos no pueden ser negativos: " + parte);
+            }
+            if (peso > 0) {
+                pesos.put(Solicitud.Tipo.valueOf(clave[0].strip().toUpperCase(Locale.ROOT)), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones");
+        }
+        return pesos;
+    }
+}
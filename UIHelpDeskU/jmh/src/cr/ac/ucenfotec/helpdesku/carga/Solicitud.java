@@ -0,0 +1,81 @@
+package cr.ac.ucenfotec.helpdesku.carga;
+
+import java.util.Locale;
+
+/**
+ * Operación de una traza de carga, con el instante en que debe iniciar.
+ * <p>
+ * En archivo es una línea {@code micros OPERACION arg1|arg2|...}, con el mismo
+ * separador que el protocolo del servidor. Las líneas vacías y las que
+ * empiezan con {@code #} se ignoran.
+ *
+ * @param micros Microsegundos desde el inicio de la carga.
+ * @param tipo Operación.
+ * @param args Argumentos de la operación.
+ */
+public record Solicitud(long micros, Tipo tipo, String[] args) {
+
+    /**
+     * Operaciones que puede ejecutar el conductor y sus argumentos.
+     */
+    public enum Tipo {
+        /** {@code nombre|password|rol|correo|telefono} */
+        REGISTRO(5),
+        /** {@code correo|password} */
+        LOGIN(2),
+        /** {@code correo|asunto|descripcion|idDepartamento}; 0 enruta por categorías. */
+        TICKET(4),
+        /** {@code tamanio|orden}; orden vacío para el orden de registro. */
+        LISTAR(2),
+        /** {@code estado|idDepartamento}; vacío o 0 no filtra. */
+        FILTRAR(2),
+        /** {@code consulta} */
+        BUSCAR(1),
+        /** {@code categoria|palabra} */
+        PALABRA(2);
+
+        private final int argumentos;
+
+        Tipo(int argumentos) {
+            this.argumentos = argumentos;
+        }
+    }
+
+    public Solicitud {
+        if (args.length != tipo.argumentos) {
+            throw new IllegalArgumentException(tipo + " requiere " + tipo.argumentos + " argumentos");
+        }
+    }
+
+    /**
+     * Interpreta una línea de traza.
+     *
+     * @param linea Línea {@code micros OPERACION arg1|arg2|...}.
+     * @return Solicitud o null si la línea es un comentario o está vacía.
+     */
+    public static Solicitud leer(String linea) {
+        String texto = linea.strip();
+        if (texto.isEmpty() || texto.startsWith("#")) {
+            return null;
+        }
+        String[] partes = texto.split(" ", 3);
+        if (partes.length < 2) {
+            throw new IllegalArgumentException("Línea de traza inválida: " + linea);
+        }
+        Tipo tipo;
+        try {
+            tipo = Tipo.valueOf(partes[1].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Operación desconocida: " + partes[1]);
+        }
+        String[] args = partes.length < 3 ? new String[]{""} : partes[2].split("\\|", -1);
+        return new Solicitud(Long.parseLong(partes[0]), tipo, args);
+    }
+
+    /**
+     * @return Línea de traza equivalente.
+     */
+    public String linea() {
+        return this.micros + " " + this.tipo + " " + String.join("|", this.args);
+    }
+}
@@ -0,0 +1,93 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.DiccionarioTecnico;
+import cr.ac.ucenfotec.helpdesku.tl.ClasificadorTickets;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EnrutadorTickets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Operaciones de diccionarios con {@code palabras} palabras técnicas
+ * adicionales repartidas en las categorías.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchDiccionarios {
+
+    private static final String[] CATEGORIAS = {"redes", "software", "hardware", "cuentas"};
+
+    @Param({"100", "1000", "10000"})
+    public int palabras;
+
+    private final GeneradorDatos generador = new GeneradorDatos(20);
+    private ControladorHelpDesk controlador;
+    private AtomicLong siguiente;
+
+    @State(Scope.Thread)
+    public static class Azar {
+        private final SplittableRandom azar = new GeneradorDatos(20).azar(Thread.currentThread().threadId());
+    }
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        this.controlador = new ControladorHelpDesk();
+        int departamentos = this.generador.poblarCatalogos(this.controlador);
+        for (int i = 0; i < this.palabras; i++) {
+            this.controlador.agregarPalabraTecnica(CATEGORIAS[i % CATEGORIAS.length], "termino" + i);
+        }
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            this.controlador.asignarRutaCategoria(CATEGORIAS[i], 1 + i % departamentos);
+        }
+        this.siguiente = new AtomicLong(this.palabras);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        this.controlador.close();
+    }
+
+    /**
+     * Agrega una palabra nueva; incluye la publicación de la nueva versión del diccionario.
+     */
+    @Benchmark
+    public void agregarPalabraTecnica() {
+        long i = this.siguiente.getAndIncrement();
+        this.controlador.agregarPalabraTecnica(CATEGORIAS[(int) (i % CATEGORIAS.length)], "termino" + i);
+    }
+
+    @Benchmark
+    public List<DiccionarioTecnico> listarDiccionarioTecnico() {
+        return this.controlador.obtenerDiccionarioTecnico();
+    }
+
+    @Benchmark
+    public ClasificadorTickets.Clasificacion clasificarTicket(Azar a) {
+        return this.controlador.clasificarTicket(this.generador.asunto(a.azar), this.generador.descripcion(a.azar));
+    }
+
+    @Benchmark
+    public EnrutadorTickets.Sugerencia sugerirDepartamento(Azar a) {
+        return this.controlador.sugerirDepartamento(this.generador.asunto(a.azar), this.generador.descripcion(a.azar));
+    }
+}
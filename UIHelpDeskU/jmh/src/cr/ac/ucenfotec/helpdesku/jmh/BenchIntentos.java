@@ -0,0 +1,159 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.ServicioHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de intentos de inicio de sesión, con y sin límite.
+ * <p>
+ * El camino normal mide inicios de sesión correctos con SHA-256 y la llamada a
+ * {@link LimitadorIntentos#permitir} sola; el límite por origen es alto para
+ * medir el costo del control sin rechazar. El grupo {@code ataque} es un relleno
+ * de credenciales con PBKDF2: {@value #ATACANTES} hilos prueban contraseñas
+ * incorrectas sobre muchas cuentas desde {@value #ORIGENES_ATACANTE} orígenes
+ * mientras un usuario legítimo inicia sesión; se comparan las latencias de ambos.
+ * Las métricas del limitador, con los intentos que llegaron a verificar la
+ * contraseña, se imprimen al terminar cada prueba.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchIntentos {
+
+    private static final int CUENTAS = 10_000;
+    private static final int CUENTAS_ATAQUE = 200;
+    private static final int ATACANTES = 8;
+    private static final int ORIGENES_ATACANTE = 4;
+    private static final String LEGITIMO = "usuario0@ucenfotec.ac.cr";
+
+    @Param({"sin", "con"})
+    public String limite;
+
+    private ControladorHelpDesk normal;
+    private ControladorHelpDesk ataque;
+    private LimitadorIntentos limitador;
+    private final String[] correos = new String[CUENTAS];
+    private final String[] origenes = new String[CUENTAS];
+
+    /**
+     * Posición por hilo en las cuentas y origen fijo de cada atacante.
+     */
+    @State(Scope.Thread)
+    public static class Hilo {
+        private static final AtomicInteger ATACANTE = new AtomicInteger();
+        private final String origen = "203.0.113." + (ATACANTE.getAndIncrement() % ORIGENES_ATACANTE);
+        private int siguiente;
+
+        int siguiente() {
+            return this.siguiente++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        for (int i = 0; i < CUENTAS; i++) {
+            this.correos[i] = "usuario" + i + "@ucenfotec.ac.cr";
+            this.origenes[i] = "10.0." + (i >> 8) + "." + (i & 255);
+        }
+        boolean conLimite = this.limite.equals("con");
+        // Límite por origen alto en el camino normal: se mide el costo del control, no se quiere rechazar.
+        this.limitador = conLimite ? new LimitadorIntentos(LimitadorIntentos.LIMITE_CUENTA_DEFECTO, 10_000,
+                LimitadorIntentos.VENTANA_DEFECTO) : LimitadorIntentos.sinLimite();
+        this.normal = new ControladorHelpDesk(ServicioHash.sha256(), this.limitador);
+        for (int i = 0; i < CUENTAS; i++) {
+            this.normal.registrarUsuario("Usuario Prueba", GeneradorDatos.PASSWORD, "estudiante", this.correos[i],
+                    "88888888");
+        }
+        this.ataque = new ControladorHelpDesk(ServicioHash.pbkdf2(10_000),
+                conLimite ? new LimitadorIntentos() : LimitadorIntentos.sinLimite());
+        for (int i = 0; i < CUENTAS_ATAQUE; i++) {
+            this.ataque.registrarUsuario("Usuario Prueba", GeneradorDatos.PASSWORD, "estudiante", this.correos[i],
+                    "88888888");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        LimitadorIntentos.Metricas metricas = this.ataque.obtenerMetricasIntentos();
+        System.out.printf("%nAtaque %s límite: %d intentos verificados%n", this.limite, metricas.fallos());
+        this.normal.close();
+        this.ataque.close();
+    }
+
+    /**
+     * Inicio de sesión correcto con SHA-256.
+     */
+    @Benchmark
+    public Usuario iniciarSesion(Hilo hilo) {
+        int i = hilo.siguiente() % CUENTAS;
+        return this.normal.autenticarUsuario(this.correos[i], GeneradorDatos.PASSWORD, this.origenes[i]);
+    }
+
+    /**
+     * Solo el control del limitador, con cuenta y origen ya construidos.
+     */
+    @Benchmark
+    public long permitir(Hilo hilo) {
+        int i = hilo.siguiente() % CUENTAS;
+        return this.limitador.permitir(this.correos[i], this.origenes[i & 255]);
+    }
+
+    /**
+     * Contraseña incorrecta sobre una cuenta distinta del usuario legítimo en cada llamada.
+     *
+     * @return true si el limitador rechazó el intento sin verificar la contraseña.
+     */
+    @Benchmark
+    @Group("ataque")
+    @GroupThreads(ATACANTES)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean atacar(Hilo hilo) {
+        int i = hilo.siguiente();
+        try {
+            this.ataque.autenticarUsuario(this.correos[1 + i % (CUENTAS_ATAQUE - 1)], "Adivina" + i + "!", hilo.origen);
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Inicio de sesión del usuario legítimo durante el ataque.
+     */
+    @Benchmark
+    @Group("ataque")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Usuario iniciarSesionLegitima() {
+        Usuario usuario = this.ataque.autenticarUsuario(LEGITIMO, GeneradorDatos.PASSWORD, "192.0.2.10");
+        if (usuario == null) {
+            throw new IllegalStateException("El usuario legítimo no pudo iniciar sesión");
+        }
+        return usuario;
+    }
+}
@@ -0,0 +1,139 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Departamento;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+import cr.ac.ucenfotec.helpdesku.tl.IndiceTickets;
+import cr.ac.ucenfotec.helpdesku.tl.VistaTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice de tickets con cada forma de almacenamiento: registro de
+ * {@code tickets} tickets y recorrido de todos como entidades y como vistas.
+ * <p>
+ * Los asuntos salen de 200 plantillas, pero cada ticket recibe su propia copia,
+ * como ocurre al leerlos de la consola o de la red. Las descripciones se repiten
+ * en promedio 4 veces. Los tickets se reparten entre 1 000 usuarios y 50
+ * departamentos. Los bytes por ticket que retiene el índice se miden después de
+ * varias recolecciones y se imprimen al terminar cada prueba; el heap es fijo
+ * para que la medición sea estable. La aplicación usa el almacenamiento columnar
+ * con {@code -Dhelpdesku.almacen=columnar}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class BenchMemoriaTickets {
+
+    private static final int PLANTILLAS = 200;
+
+    @Param({"1000000"})
+    public int tickets;
+
+    @Param({"OBJETOS", "COLUMNAR"})
+    public IndiceTickets.Almacenamiento almacenamiento;
+
+    private final Usuario[] usuarios = new Usuario[1_001];
+    private final Departamento[] departamentos = new Departamento[51];
+    private final String[] asuntos = new String[PLANTILLAS];
+    private IndiceTickets indice;
+    private double bytesPorTicket;
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        for (int i = 1; i < this.usuarios.length; i++) {
+            this.usuarios[i] = new Usuario("Usuario " + i, "hash", "Estudiante", "usuario" + i + "@ucenfotec.ac.cr",
+                    "88888888");
+        }
+        for (int i = 1; i < this.departamentos.length; i++) {
+            this.departamentos[i] = new Departamento("Departamento " + i, "Atiende solicitudes",
+                    "depto" + i + "@ucenfotec.ac.cr", "1234");
+        }
+        for (int i = 0; i < PLANTILLAS; i++) {
+            this.asuntos[i] = "Problema con el servicio " + i;
+        }
+        long antes = usado();
+        this.indice = this.registrar();
+        this.bytesPorTicket = (double) (usado() - antes) / this.tickets;
+    }
+
+    @TearDown(Level.Trial)
+    public void informar() {
+        System.out.printf("%n%s: %.1f bytes/ticket%n", this.almacenamiento, this.bytesPorTicket);
+    }
+
+    /**
+     * Registro de todos los tickets en un índice nuevo.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public IndiceTickets registrar() {
+        IndiceTickets nuevo = new IndiceTickets(this.almacenamiento, id -> this.usuarios[id],
+                id -> this.departamentos[id]);
+        SplittableRandom azar = new SplittableRandom(1);
+        for (int i = 0; i < this.tickets; i++) {
+            String asunto = new String(this.asuntos[azar.nextInt(PLANTILLAS)]);
+            String descripcion = "No funciona desde la mañana en el laboratorio " + azar.nextInt(this.tickets / 4 + 1)
+                    + ", ticket de prueba";
+            int idUsuario = 1 + i % 1_000;
+            int idDepartamento = 1 + i % 50;
+            nuevo.agregar(new Ticket(asunto, descripcion, this.usuarios[idUsuario], "Pendiente",
+                    this.departamentos[idDepartamento]), idUsuario, idDepartamento);
+        }
+        return nuevo;
+    }
+
+    /**
+     * Recorre todos los tickets como entidades y suma el largo de sus asuntos.
+     */
+    @Benchmark
+    public long recorrerEntidades() {
+        long caracteres = 0;
+        List<Ticket> todos = this.indice.todos();
+        for (int i = 0; i < todos.size(); i++) {
+            caracteres += todos.get(i).getAsunto().length();
+        }
+        return caracteres;
+    }
+
+    /**
+     * Recorre todos los tickets como vistas y suma el largo de sus asuntos.
+     */
+    @Benchmark
+    public long recorrerVistas() {
+        long caracteres = 0;
+        List<VistaTicket> vistas = this.indice.vistas();
+        for (int i = 0; i < vistas.size(); i++) {
+            caracteres += vistas.get(i).asunto().length();
+        }
+        return caracteres;
+    }
+
+    private static long usado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.tl.AgregadosTickets;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EstadoTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tablero de tickets por departamento y por rol con {@code tickets} tickets
+ * en varios estados: armado con los conteos mantenidos contra calculado
+ * recorriendo {@code obtenerTickets()}. Que ambos coincidan después de cambios
+ * de estado concurrentes lo verifica {@code AgregadosTicketsTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchTablero {
+
+    private static final String[] ROLES = {"Estudiante", "Profesor", "Administrativo"};
+
+    @Param({"200000"})
+    public int tickets;
+
+    private ControladorHelpDesk controlador;
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        this.controlador = new ControladorHelpDesk();
+        for (int i = 0; i < 30; i++) {
+            this.controlador.registrarUsuario("Usuario " + i, GeneradorDatos.PASSWORD, ROLES[i % ROLES.length],
+                    "usuario" + i + "@ucenfotec.ac.cr", "88888888");
+        }
+        for (int i = 0; i < 12; i++) {
+            this.controlador.registrarDepartamento("Departamento " + i, "Atiende solicitudes",
+                    "depto" + i + "@ucenfotec.ac.cr", "1234");
+        }
+        for (int i = 0; i < this.tickets; i++) {
+            this.controlador.registrarTicket("Problema " + i, "No funciona desde la mañana, ticket " + i,
+                    1 + i % 30, EstadoTicket.PENDIENTE.etiqueta(), 1 + i % 12);
+        }
+        // Reparte los tickets entre los estados con cambios permitidos al azar.
+        EstadoTicket[] destinos = EstadoTicket.values();
+        SplittableRandom azar = new SplittableRandom(20);
+        for (int i = 0; i < 2 * this.tickets; i++) {
+            int id = 1 + azar.nextInt(this.tickets);
+            EstadoTicket actual = this.controlador.obtenerEstadoTicket(id);
+            EstadoTicket nuevo = destinos[azar.nextInt(destinos.length)];
+            if (actual.puedePasarA(nuevo)) {
+                this.controlador.cambiarEstadoTicket(id, actual, nuevo);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        this.controlador.close();
+    }
+
+    @Benchmark
+    public AgregadosTickets.Tablero tableroMantenido() {
+        return this.controlador.obtenerTablero();
+    }
+
+    /**
+     * Los mismos conteos con una pasada sobre todos los tickets.
+     */
+    @Benchmark
+    public Map<String, long[]> tableroRecorriendo() {
+        Map<String, long[]> conteos = new HashMap<>();
+        List<Ticket> todos = this.controlador.obtenerTickets();
+        for (int i = 0; i < todos.size(); i++) {
+            Ticket t = todos.get(i);
+            int estado = this.controlador.obtenerEstadoTicket(i + 1).ordinal();
+            conteos.computeIfAbsent("D " + t.getDepartamento().getNombre(), k -> new long[4])[estado]++;
+            conteos.computeIfAbsent("R " + t.getUsuario().getRol(), k -> new long[4])[estado]++;
+        }
+        return conteos;
+    }
+}
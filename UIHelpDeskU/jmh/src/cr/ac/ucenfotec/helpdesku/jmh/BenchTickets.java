@@ -0,0 +1,137 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.IndiceTexto;
+import cr.ac.ucenfotec.helpdesku.tl.Pagina;
+import cr.ac.ucenfotec.helpdesku.ui.TablaConsola;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de tickets y listados completos, paginados y filtrados con
+ * {@code entidades} tickets ya registrados. Incluye la impresión de una
+ * página en consola, como la hace la interfaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class BenchTickets {
+
+    private static final int TAMANIO_PAGINA = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int entidades;
+
+    private final GeneradorDatos generador = new GeneradorDatos(20);
+    private final TablaConsola tabla = new TablaConsola(
+            new String[]{"ID", "Asunto", "Usuario", "Estado", "Departamento"}, new int[]{5, 24, 16, 12, 16});
+    private final PrintStream consola = new PrintStream(OutputStream.nullOutputStream());
+    private ControladorHelpDesk controlador;
+    private int usuarios;
+    private int departamentos;
+
+    @State(Scope.Thread)
+    public static class Azar {
+        private final SplittableRandom azar = new GeneradorDatos(20).azar(Thread.currentThread().threadId());
+    }
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        this.controlador = new ControladorHelpDesk();
+        this.departamentos = this.generador.poblarCatalogos(this.controlador);
+        this.usuarios = Math.max(100, this.entidades / 100);
+        this.generador.poblarUsuarios(this.controlador, this.usuarios);
+        this.generador.poblarTickets(this.controlador, this.entidades, this.usuarios, this.departamentos);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        this.controlador.close();
+    }
+
+    /**
+     * Registro síncrono: clasificación, índices, texto completo y duplicados.
+     */
+    @Benchmark
+    public int registrarTicket(Azar a) {
+        return this.controlador.registrarTicket(this.generador.asunto(a.azar), this.generador.descripcion(a.azar),
+                1 + a.azar.nextInt(this.usuarios), this.generador.estado(a.azar),
+                this.generador.departamento(a.azar, this.departamentos));
+    }
+
+    @Benchmark
+    public List<Ticket> listarTodos() {
+        return this.controlador.obtenerTickets();
+    }
+
+    @Benchmark
+    public Pagina<Ticket> listarPrimeraPagina() {
+        return this.controlador.obtenerTickets(TAMANIO_PAGINA, null, null);
+    }
+
+    @Benchmark
+    public Pagina<Ticket> listarPrimeraPaginaPorAsunto() {
+        return this.controlador.obtenerTickets(TAMANIO_PAGINA, null, "asunto");
+    }
+
+    @Benchmark
+    public List<Ticket> filtrarPorEstado(Azar a) {
+        return this.controlador.buscarTickets(GeneradorDatos.ESTADOS[a.azar.nextInt(GeneradorDatos.ESTADOS.length)], 0, 0);
+    }
+
+    @Benchmark
+    public List<Ticket> filtrarPorEstadoYDepartamento(Azar a) {
+        return this.controlador.buscarTickets(this.generador.estado(a.azar), 1 + a.azar.nextInt(this.departamentos), 0);
+    }
+
+    @Benchmark
+    public List<Ticket> filtrarPorUsuario(Azar a) {
+        return this.controlador.buscarTickets(null, 0, 1 + a.azar.nextInt(this.usuarios));
+    }
+
+    @Benchmark
+    public List<IndiceTexto.Resultado> buscarTexto(Azar a) {
+        return this.controlador.buscarTexto(this.generador.asunto(a.azar), null, 0, TAMANIO_PAGINA);
+    }
+
+    /**
+     * Primera página impresa con {@link TablaConsola}, como en "Listar tickets".
+     */
+    @Benchmark
+    public void imprimirPagina() {
+        Pagina<Ticket> pagina = this.controlador.obtenerTickets(TAMANIO_PAGINA, null, null);
+        synchronized (this.tabla) {
+            this.tabla.encabezado();
+            for (Ticket t : pagina.elementos()) {
+                int id = this.controlador.obtenerIdTicket(t);
+                this.tabla.celda(id)
+                        .celda(t.getAsunto())
+                        .celda(t.getUsuario().getNombre())
+                        .celda(this.controlador.obtenerEstadoTicket(id).etiqueta())
+                        .celda(t.getDepartamento().getNombre());
+            }
+            this.tabla.pie().imprimir(this.consola);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.tl.BitacoraEscritura;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EstadoTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transiciones de estado de {@code tickets} tickets con la bitácora abierta.
+ * <p>
+ * {@code cambiarAlAzar} concentra varios agentes en pocos tickets y cada uno usa
+ * como esperado el estado que acaba de leer, por lo que incluye los cambios que
+ * pierden contra otro agente. {@code moverUnoPorUno} y {@code moverEnLote} pasan
+ * un bloque de tickets de pendiente a en proceso y de vuelta, uno por uno o con
+ * una sola anotación por bloque; los puntajes son por ticket movido. Que cada
+ * cambio se aplique una sola vez y que los contadores coincidan con el índice lo
+ * verifica {@code IndiceTicketsTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchTransiciones {
+
+    private static final int BLOQUE = 1_000;
+    private static final int TICKETS_DISPUTADOS = 1_000;
+    private static final EstadoTicket[] DESTINOS = {EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO,
+            EstadoTicket.RESUELTO};
+
+    @Param({"100000"})
+    public int tickets;
+
+    private Path directorio;
+    private ControladorHelpDesk controlador;
+    private final AtomicInteger siguienteBloque = new AtomicInteger();
+
+    /**
+     * Azar y bloque de tickets propios de cada hilo, para que los bloques no se disputen.
+     */
+    @State(Scope.Thread)
+    public static class Agente {
+        private final SplittableRandom azar = new GeneradorDatos(20).azar(Thread.currentThread().threadId());
+        private int[] bloque;
+    }
+
+    @Setup(Level.Trial)
+    public void poblar() throws IOException {
+        this.directorio = Files.createTempDirectory("bench-transiciones");
+        this.controlador = new ControladorHelpDesk();
+        this.controlador.abrirBitacora(this.directorio.resolve("bench.wal"), BitacoraEscritura.Sincronizacion.NUNCA);
+        this.controlador.registrarUsuario("Usuario Prueba", GeneradorDatos.PASSWORD, "Estudiante",
+                "usuario@ucenfotec.ac.cr", "88888888");
+        this.controlador.registrarDepartamento("Soporte", "Atiende solicitudes", "soporte@ucenfotec.ac.cr", "1234");
+        for (int i = 0; i < this.tickets; i++) {
+            this.controlador.registrarTicket("Problema " + i, "No funciona desde la mañana, ticket " + i,
+                    1, EstadoTicket.PENDIENTE.etiqueta(), 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        this.controlador.close();
+        Files.deleteIfExists(this.directorio.resolve("bench.wal"));
+        Files.deleteIfExists(this.directorio);
+    }
+
+    /**
+     * Lee el estado de un ticket disputado y lo pasa a otro permitido, con el estado leído como esperado.
+     *
+     * @return true si el cambio ganó.
+     */
+    @Benchmark
+    @Threads(8)
+    public boolean cambiarAlAzar(Agente agente) {
+        int id = 1 + agente.azar.nextInt(TICKETS_DISPUTADOS);
+        EstadoTicket actual = this.controlador.obtenerEstadoTicket(id);
+        EstadoTicket nuevo = DESTINOS[agente.azar.nextInt(DESTINOS.length)];
+        return actual.puedePasarA(nuevo) && this.controlador.cambiarEstadoTicket(id, actual, nuevo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * BLOQUE)
+    public int moverUnoPorUno(Agente agente) {
+        int movidos = 0;
+        int[] bloque = this.bloque(agente);
+        for (int id : bloque) {
+            if (this.controlador.cambiarEstadoTicket(id, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO)) {
+                movidos++;
+            }
+        }
+        for (int id : bloque) {
+            if (this.controlador.cambiarEstadoTicket(id, EstadoTicket.EN_PROCESO, EstadoTicket.PENDIENTE)) {
+                movidos++;
+            }
+        }
+        return movidos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * BLOQUE)
+    public int moverEnLote(Agente agente) {
+        int[] bloque = this.bloque(agente);
+        return this.controlador.cambiarEstadoTickets(bloque, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO)
+                + this.controlador.cambiarEstadoTickets(bloque, EstadoTicket.EN_PROCESO, EstadoTicket.PENDIENTE);
+    }
+
+    /**
+     * Asigna al hilo, la primera vez, un bloque después de los tickets disputados que no usa otro hilo.
+     */
+    private int[] bloque(Agente agente) {
+        if (agente.bloque == null) {
+            int inicio = TICKETS_DISPUTADOS + 1 + this.siguienteBloque.getAndIncrement() * BLOQUE;
+            if (inicio + BLOQUE - 1 > this.tickets) {
+                throw new IllegalStateException("No hay tickets para otro bloque de " + BLOQUE);
+            }
+            agente.bloque = new int[BLOQUE];
+            for (int i = 0; i < BLOQUE; i++) {
+                agente.bloque[i] = inicio + i;
+            }
+        }
+        return agente.bloque;
+    }
+}
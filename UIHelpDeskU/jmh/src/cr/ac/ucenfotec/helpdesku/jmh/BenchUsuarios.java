@@ -0,0 +1,120 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.ServicioHash;
+import cr.ac.ucenfotec.helpdesku.tl.ValidadorEntrada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro, autenticación y validación de usuarios con {@code entidades}
+ * usuarios ya registrados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class BenchUsuarios {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entidades;
+
+    private final GeneradorDatos generador = new GeneradorDatos(20);
+    private final ServicioHash servicioHash = ServicioHash.sha256();
+    private ControladorHelpDesk controlador;
+    private AtomicLong siguiente;
+
+    /**
+     * Posición por hilo en los usuarios existentes, para no medir un generador compartido.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom azar = new SplittableRandom();
+
+        int siguiente(int limite) {
+            return this.azar.nextInt(limite);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        // Sin límite de intentos: los fallos repetidos deben llegar a verificar la contraseña.
+        this.controlador = new ControladorHelpDesk(this.servicioHash, LimitadorIntentos.sinLimite());
+        this.generador.poblarUsuarios(this.controlador, this.entidades);
+        this.siguiente = new AtomicLong(this.entidades);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        this.controlador.close();
+    }
+
+    /**
+     * Registro completo, incluido el hash de la contraseña; cada llamada usa un correo nuevo.
+     */
+    @Benchmark
+    public int registrarUsuario() {
+        long i = this.siguiente.getAndIncrement();
+        return this.controlador.registrarUsuario(this.generador.nombre(i), GeneradorDatos.PASSWORD,
+                this.generador.rol(i), this.generador.correo(i), this.generador.telefono(i));
+    }
+
+    /**
+     * Hash de una contraseña con el mismo servicio que usa el controlador.
+     */
+    @Benchmark
+    public String hashPassword() {
+        return this.servicioHash.hash(GeneradorDatos.PASSWORD);
+    }
+
+    @Benchmark
+    public Usuario autenticarUsuario(Cursor cursor) {
+        return this.controlador.autenticarUsuario(this.generador.correo(cursor.siguiente(this.entidades)),
+                GeneradorDatos.PASSWORD);
+    }
+
+    @Benchmark
+    public Usuario autenticarUsuarioFallido(Cursor cursor) {
+        return this.controlador.autenticarUsuario(this.generador.correo(cursor.siguiente(this.entidades)),
+                "Incorrecta1!");
+    }
+
+    /**
+     * Formato y unicidad de un correo que no está registrado.
+     */
+    @Benchmark
+    public boolean validarCorreo(Cursor cursor) {
+        String correo = this.generador.correo(-1 - cursor.siguiente(this.entidades));
+        return ValidadorEntrada.validarCorreo(correo) == null && !this.controlador.existeCorreo(correo);
+    }
+
+    /**
+     * Validación completa de los datos de un usuario nuevo, como en el formulario de registro.
+     */
+    @Benchmark
+    public List<ValidadorEntrada.Violacion> validarUsuario(Cursor cursor) {
+        int i = cursor.siguiente(this.entidades);
+        return this.controlador.validarUsuario(this.generador.nombre(i), this.generador.correo(-1 - i),
+                this.generador.telefono(i), this.generador.rol(i), GeneradorDatos.PASSWORD);
+    }
+}
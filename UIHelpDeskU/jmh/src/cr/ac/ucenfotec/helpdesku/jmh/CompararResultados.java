@@ -0,0 +1,133 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara dos archivos CSV de resultados de JMH y marca las regresiones.
+ * <p>
+ * Una prueba empeoró si la diferencia supera la suma de los márgenes de error
+ * de ambas mediciones; en modo de tiempo promedio empeorar es subir y en modo
+ * de rendimiento es bajar. Termina con código 1 si hay alguna regresión.
+ * <p>
+ * Uso: {@code java cr.ac.ucenfotec.helpdesku.jmh.CompararResultados base.csv nuevo.csv}
+ */
+public class CompararResultados {
+
+    private static final String PAQUETE = CompararResultados.class.getPackageName() + ".";
+
+    /**
+     * Una fila del CSV de JMH.
+     *
+     * @param prueba Nombre de la prueba con sus parámetros.
+     * @param modo Modo de medición, por ejemplo {@code avgt} o {@code thrpt}.
+     * @param puntaje Resultado.
+     * @param error Margen de error al 99,9 %.
+     * @param unidad Unidad del resultado.
+     */
+    record Resultado(String prueba, String modo, double puntaje, double error, String unidad) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Uso: CompararResultados base.csv nuevo.csv");
+            System.exit(2);
+        }
+        Map<String, Resultado> base = leer(Path.of(args[0]));
+        Map<String, Resultado> nuevo = leer(Path.of(args[1]));
+
+        int regresiones = 0;
+        System.out.printf("%-50s %14s %14s %9s%n", "Prueba", "Base", "Nuevo", "Cambio");
+        for (Resultado n : nuevo.values()) {
+            Resultado b = base.get(n.prueba());
+            if (b == null || !b.unidad().equals(n.unidad())) {
+                System.out.printf("%-50s %14s %14.3f %9s%n", n.prueba(), "-", n.puntaje(), "nueva");
+                continue;
+            }
+            double cambio = (n.puntaje() - b.puntaje()) / b.puntaje() * 100;
+            boolean menorEsMejor = !n.modo().equals("thrpt");
+            boolean significativo = Math.abs(n.puntaje() - b.puntaje()) > b.error() + n.error();
+            boolean regresion = significativo && (menorEsMejor ? cambio > 0 : cambio < 0);
+            String marca = !significativo ? "" : regresion ? "  REGRESIÓN" : "  mejora";
+            System.out.printf("%-50s %14.3f %14.3f %+8.1f%%%s%n", n.prueba(), b.puntaje(), n.puntaje(), cambio, marca);
+            if (regresion) {
+                regresiones++;
+            }
+        }
+        System.out.println(regresiones == 0 ? "Sin regresiones." : "Regresiones: " + regresiones);
+        System.exit(regresiones == 0 ? 0 : 1);
+    }
+
+    static Map<String, Resultado> leer(Path archivo) throws IOException {
+        List<String> lineas = Files.readAllLines(archivo);
+        if (lineas.isEmpty()) {
+            throw new IllegalArgumentException("Archivo de resultados vacío: " + archivo);
+        }
+        List<String> encabezado = campos(lineas.get(0));
+        int prueba = columna(encabezado, "Benchmark");
+        int modo = columna(encabezado, "Mode");
+        int puntaje = columna(encabezado, "Score");
+        int error = columna(encabezado, "Score Error (99.9%)");
+        int unidad = columna(encabezado, "Unit");
+
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        for (String linea : lineas.subList(1, lineas.size())) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            List<String> valores = campos(linea);
+            String completo = valores.get(prueba);
+            StringBuilder nombre = new StringBuilder(completo.startsWith(PAQUETE) ? completo.substring(PAQUETE.length()) : completo);
+            for (int i = 0; i < encabezado.size(); i++) {
+                if (encabezado.get(i).startsWith("Param: ")) {
+                    nombre.append(' ').append(encabezado.get(i).substring(7)).append('=').append(valores.get(i));
+                }
+            }
+            // Con una sola medición JMH no calcula el error y deja la columna como NaN.
+            double margen = valores.get(error).isEmpty() ? 0 : Double.parseDouble(valores.get(error));
+            resultados.put(nombre.toString(), new Resultado(nombre.toString(), valores.get(modo),
+                    Double.parseDouble(valores.get(puntaje)), Double.isNaN(margen) ? 0 : margen, valores.get(unidad)));
+        }
+        return resultados;
+    }
+
+    private static int columna(List<String> encabezado, String nombre) {
+        int i = encabezado.indexOf(nombre);
+        if (i < 0) {
+            throw new IllegalArgumentException("El archivo no tiene la columna " + nombre);
+        }
+        return i;
+    }
+
+    /**
+     * Separa una línea CSV respetando los campos entre comillas.
+     */
+    private static List<String> campos(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean comillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (comillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    comillas = !comillas;
+                }
+            } else if (c == ',' && !comillas) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,36 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ejecuta las pruebas de rendimiento y guarda los resultados en CSV en
+ * {@code jmh/resultados/AAAAMMDD-HHMMSS.csv}, para compararlos después con
+ * {@link CompararResultados}.
+ * <p>
+ * Acepta las mismas opciones que JMH. Por ejemplo, {@code BenchTickets -p entidades=10000000}
+ * ejecuta solo los tickets con diez millones de entidades; {@code -rff archivo} cambia el destino.
+ */
+public class Ejecutar {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        // Los números del CSV deben usar punto decimal en cualquier configuración regional.
+        Locale.setDefault(Locale.ROOT);
+        List<String> opciones = new ArrayList<>(List.of(args));
+        if (!opciones.contains("-rff")) {
+            Path carpeta = Path.of("jmh", "resultados");
+            Files.createDirectories(carpeta);
+            String nombre = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv";
+            opciones.addAll(List.of("-rf", "csv", "-rff", carpeta.resolve(nombre).toString()));
+        }
+        org.openjdk.jmh.Main.main(opciones.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,176 @@
+package cr.ac.ucenfotec.helpdesku.jmh;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Genera datos sintéticos y reproducibles para las pruebas de rendimiento.
+ * <p>
+ * Los volúmenes van de mil a diez millones de entidades. Los datos imitan el
+ * uso real: pocos departamentos que reciben la mayoría de los tickets, la
+ * mayoría de los tickets pendientes y textos con palabras de los diccionarios
+ * técnico y emocional mezcladas con texto libre. Con la misma semilla se
+ * obtienen siempre los mismos datos, por lo que los resultados de distintas
+ * versiones son comparables.
+ */
+public final class GeneradorDatos {
+
+    public static final String PASSWORD = "Clave123!";
+    public static final String[] ESTADOS = {"Pendiente", "En proceso", "Resuelto"};
+
+    private static final String[] NOMBRES = {"Ana", "Luis", "María", "José", "Carmen", "Diego", "Laura", "Andrés",
+            "Sofía", "Daniel", "Valeria", "Jorge", "Paula", "Ricardo", "Elena", "Marco"};
+    private static final String[] APELLIDOS = {"Mora", "Rojas", "Vargas", "Jiménez", "Solís", "Castro", "Araya",
+            "Chaves", "Quesada", "Brenes", "Campos", "Alfaro", "Núñez", "Salas", "Cordero", "Madrigal"};
+    private static final String[] ROLES = {"estudiante", "estudiante", "estudiante", "funcionario", "administrador"};
+    private static final String[] DEPARTAMENTOS = {"Soporte TI", "Redes", "Registro", "Biblioteca", "Laboratorios",
+            "Financiero", "Bienestar Estudiantil", "Infraestructura", "Admisiones", "Docencia Virtual"};
+    private static final String[][] TECNICAS = {
+            {"redes", "vpn", "wifi", "router", "conexión", "internet", "cable", "dns"},
+            {"software", "moodle", "licencia", "instalación", "actualización", "teams", "office", "navegador"},
+            {"hardware", "impresora", "proyector", "teclado", "monitor", "batería", "cargador", "computadora"},
+            {"cuentas", "contraseña", "correo", "acceso", "usuario", "bloqueo", "credenciales", "sesión"}};
+    private static final String[][] EMOCIONES = {
+            {"frustración", "molesto", "harto", "cansado", "desesperado"},
+            {"urgencia", "urgente", "inmediato", "examen", "entrega"},
+            {"neutral", "consulta", "duda", "información", "pregunta"}};
+    private static final String[] RELLENO = {"desde", "ayer", "hoy", "clase", "aula", "edificio", "compañeros",
+            "funciona", "sirve", "problema", "error", "otra", "vez", "todo", "día", "mañana", "tarde", "semana"};
+
+    private final long semilla;
+
+    /**
+     * @param semilla Semilla de los datos; la misma semilla produce los mismos datos.
+     */
+    public GeneradorDatos(long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * @return Nombre válido del usuario número {@code i}.
+     */
+    public String nombre(long i) {
+        return NOMBRES[(int) (i % NOMBRES.length)] + " " + APELLIDOS[(int) ((i / NOMBRES.length) % APELLIDOS.length)];
+    }
+
+    /**
+     * @return Correo único del usuario número {@code i}.
+     */
+    public String correo(long i) {
+        return "usuario" + i + "@ucenfotec.ac.cr";
+    }
+
+    /**
+     * @return Teléfono de 8 dígitos del usuario número {@code i}.
+     */
+    public String telefono(long i) {
+        return String.valueOf(80_000_000 + i % 10_000_000);
+    }
+
+    /**
+     * @return Rol del usuario número {@code i}; la mayoría son estudiantes.
+     */
+    public String rol(long i) {
+        return ROLES[(int) (i % ROLES.length)];
+    }
+
+    /**
+     * @return Asunto de un ticket: una palabra técnica y dos de relleno.
+     */
+    public String asunto(SplittableRandom azar) {
+        return elegir(azar, elegir(azar, TECNICAS)) + " " + elegir(azar, RELLENO) + " " + elegir(azar, RELLENO);
+    }
+
+    /**
+     * @return Descripción de un ticket de 10 a 30 palabras con algunas técnicas y emocionales.
+     */
+    public String descripcion(SplittableRandom azar) {
+        int palabras = 10 + azar.nextInt(21);
+        StringBuilder texto = new StringBuilder(palabras * 8);
+        for (int i = 0; i < palabras; i++) {
+            int tipo = azar.nextInt(10);
+            String palabra = tipo < 2 ? elegir(azar, elegir(azar, TECNICAS))
+                    : tipo < 3 ? elegir(azar, elegir(azar, EMOCIONES)) : elegir(azar, RELLENO);
+            texto.append(i == 0 ? "" : " ").append(palabra);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @return Estado de un ticket: 60 % pendientes, 25 % en proceso y 15 % resueltos.
+     */
+    public String estado(SplittableRandom azar) {
+        int p = azar.nextInt(100);
+        return p < 60 ? ESTADOS[0] : p < 85 ? ESTADOS[1] : ESTADOS[2];
+    }
+
+    /**
+     * @return Departamento entre 1 y {@code departamentos}; los primeros reciben la mayoría de los tickets.
+     */
+    public int departamento(SplittableRandom azar, int departamentos) {
+        // Distribución aproximadamente geométrica: la mitad al primero, un cuarto al segundo...
+        int i = Integer.numberOfTrailingZeros(azar.nextInt() | (1 << 30));
+        return 1 + i % departamentos;
+    }
+
+    /**
+     * @return Generador aleatorio reproducible para el flujo indicado.
+     */
+    public SplittableRandom azar(long flujo) {
+        return new SplittableRandom(this.semilla * 0x9E3779B97F4A7C15L + flujo);
+    }
+
+    /**
+     * Registra los departamentos y las palabras de los diccionarios técnico y emocional.
+     *
+     * @return Cantidad de departamentos registrados.
+     */
+    public int poblarCatalogos(ControladorHelpDesk controlador) {
+        for (int i = 0; i < DEPARTAMENTOS.length; i++) {
+            controlador.registrarDepartamento(DEPARTAMENTOS[i], "Departamento de " + DEPARTAMENTOS[i],
+                    "depto" + i + "@ucenfotec.ac.cr", String.valueOf(1000 + i));
+        }
+        for (String[] categoria : TECNICAS) {
+            for (int i = 1; i < categoria.length; i++) {
+                controlador.agregarPalabraTecnica(categoria[0], categoria[i]);
+            }
+        }
+        for (String[] emocion : EMOCIONES) {
+            for (int i = 1; i < emocion.length; i++) {
+                controlador.agregarPalabraEmocion(emocion[0], emocion[i]);
+            }
+        }
+        return DEPARTAMENTOS.length;
+    }
+
+    /**
+     * Registra usuarios con correos {@code usuario0} a {@code usuario(cantidad-1)} y
+     * la contraseña {@link #PASSWORD}.
+     */
+    public void poblarUsuarios(ControladorHelpDesk controlador, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            controlador.registrarUsuario(nombre(i), PASSWORD, rol(i), correo(i), telefono(i));
+        }
+    }
+
+    /**
+     * Registra tickets por la recepción asíncrona, que los procesa en lotes, y
+     * espera a que estén todos registrados. Requiere usuarios y departamentos.
+     */
+    public void poblarTickets(ControladorHelpDesk controlador, int cantidad, int usuarios, int departamentos) {
+        SplittableRandom azar = azar(1);
+        CompletableFuture<Integer> ultimo = CompletableFuture.completedFuture(0);
+        for (int i = 0; i < cantidad; i++) {
+            ultimo = controlador.enviarTicket(asunto(azar), descripcion(azar), 1 + azar.nextInt(usuarios),
+                    estado(azar), departamento(azar, departamentos));
+        }
+        // La recepción registra en orden de llegada: cuando termina el último, terminaron todos.
+        ultimo.join();
+    }
+
+    private static <T> T elegir(SplittableRandom azar, T[] opciones) {
+        return opciones[azar.nextInt(opciones.length)];
+    }
+}
@@ -0,0 +1,184 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Conteos de tickets por estado para cada departamento y para cada rol de
+ * usuario solicitante, mantenidos al registrar cada ticket y con cada
+ * transición.
+ * <p>
+ * Cada registro y cada transición ajustan dos contadores por dimensión, sin
+ * candados y sin recorrer los tickets; armar el tablero cuesta lo mismo con mil
+ * tickets que con millones, ya que solo recorre los departamentos y los roles.
+ * El rol de cada usuario se consulta una sola vez y se recuerda la fila de su rol.
+ * <p>
+ * Los contadores se leen uno por uno, por lo que un tablero armado durante
+ * transiciones concurrentes puede contar un ticket en su estado anterior y en el
+ * nuevo por un instante; los conteos vuelven a cuadrar al terminar cada transición.
+ */
+public class AgregadosTickets {
+
+    private static final int ESTADOS = EstadoTicket.values().length;
+
+    /**
+     * Conteos de un departamento o un rol.
+     *
+     * @param id Identificador del departamento; 0 para las filas por rol.
+     * @param nombre Nombre del departamento o del rol.
+     * @param porEstado Cantidad de tickets en cada estado, por posición del estado.
+     */
+    public record Fila(int id, String nombre, long[] porEstado) {
+
+        /**
+         * @param estado Estado a consultar.
+         * @return Cantidad de tickets en ese estado.
+         */
+        public long conteo(EstadoTicket estado) {
+            return porEstado[estado.ordinal()];
+        }
+
+        /**
+         * @return Cantidad de tickets en cualquier estado.
+         */
+        public long total() {
+            long total = 0;
+            for (long conteo : porEstado) {
+                total += conteo;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Conteos vigentes para el tablero.
+     *
+     * @param totales Cantidad total de tickets en cada estado.
+     * @param porDepartamento Conteos por departamento, en orden de identificador.
+     * @param porRol Conteos por rol del solicitante, en orden de nombre.
+     */
+    public record Tablero(Fila totales, List<Fila> porDepartamento, List<Fila> porRol) {
+    }
+
+    /**
+     * Contadores de un rol; el nombre es el primero registrado con esa llave.
+     */
+    private record Conteos(String nombre, LongAdder[] porEstado) {
+    }
+
+    private final IntFunction<String> rolDeUsuario;
+    private final IntFunction<String> nombreDepartamento;
+    private final ConcurrentHashMap<Integer, LongAdder[]> porDepartamento = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Conteos> porRol = new ConcurrentHashMap<>();
+
+    /**
+     * Fila del rol de cada usuario que ya registró tickets.
+     */
+    private final ConcurrentHashMap<Integer, LongAdder[]> rolPorUsuario = new ConcurrentHashMap<>();
+
+    /**
+     * Crea los agregados vacíos.
+     *
+     * @param rolDeUsuario Rol de un usuario por identificador; null si no se conoce.
+     * @param nombreDepartamento Nombre de un departamento por identificador; null si no se conoce.
+     */
+    public AgregadosTickets(IntFunction<String> rolDeUsuario, IntFunction<String> nombreDepartamento) {
+        this.rolDeUsuario = rolDeUsuario;
+        this.nombreDepartamento = nombreDepartamento;
+    }
+
+    /**
+     * Cuenta un ticket nuevo.
+     *
+     * @param idDepartamento Identificador del departamento asignado.
+     * @param idUsuario Identificador del usuario solicitante.
+     * @param estado Estado inicial del ticket.
+     */
+    public void agregar(int idDepartamento, int idUsuario, EstadoTicket estado) {
+        this.departamento(idDepartamento)[estado.ordinal()].increment();
+        this.rol(idUsuario)[estado.ordinal()].increment();
+    }
+
+    /**
+     * Mueve un ticket de un estado a otro.
+     *
+     * @param idDepartamento Identificador del departamento del ticket.
+     * @param idUsuario Identificador del usuario solicitante.
+     * @param anterior Estado que tenía el ticket.
+     * @param nuevo Estado que tiene ahora.
+     */
+    public void mover(int idDepartamento, int idUsuario, EstadoTicket anterior, EstadoTicket nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        LongAdder[] departamento = this.departamento(idDepartamento);
+        departamento[anterior.ordinal()].decrement();
+        departamento[nuevo.ordinal()].increment();
+        LongAdder[] rol = this.rol(idUsuario);
+        rol[anterior.ordinal()].decrement();
+        rol[nuevo.ordinal()].increment();
+    }
+
+    /**
+     * Lee los conteos vigentes.
+     *
+     * @return Tablero con los totales, los departamentos y los roles que tienen tickets.
+     */
+    public Tablero tablero() {
+        long[] totales = new long[ESTADOS];
+        List<Fila> departamentos = new ArrayList<>(this.porDepartamento.size());
+        for (Map.Entry<Integer, LongAdder[]> entrada : this.porDepartamento.entrySet()) {
+            long[] conteos = sumar(entrada.getValue());
+            for (int e = 0; e < ESTADOS; e++) {
+                totales[e] += conteos[e];
+            }
+            String nombre = this.nombreDepartamento.apply(entrada.getKey());
+            departamentos.add(new Fila(entrada.getKey(), nombre == null ? "Departamento " + entrada.getKey() : nombre, conteos));
+        }
+        departamentos.sort(Comparator.comparingInt(Fila::id));
+        List<Fila> roles = new ArrayList<>(this.porRol.size());
+        for (Conteos conteos : this.porRol.values()) {
+            roles.add(new Fila(0, conteos.nombre(), sumar(conteos.porEstado())));
+        }
+        roles.sort(Comparator.comparing(Fila::nombre, String.CASE_INSENSITIVE_ORDER));
+        return new Tablero(new Fila(0, "Total", totales), departamentos, roles);
+    }
+
+    private LongAdder[] departamento(int idDepartamento) {
+        return this.porDepartamento.computeIfAbsent(idDepartamento, id -> nuevos());
+    }
+
+    private LongAdder[] rol(int idUsuario) {
+        LongAdder[] fila = this.rolPorUsuario.get(idUsuario);
+        if (fila != null) {
+            return fila;
+        }
+        return this.rolPorUsuario.computeIfAbsent(idUsuario, id -> {
+            String rol = this.rolDeUsuario.apply(id);
+            String nombre = rol == null || rol.isBlank() ? "Sin rol" : rol.trim();
+            return this.porRol.computeIfAbsent(IndiceTickets.normalizar(nombre), llave -> new Conteos(nombre, nuevos()))
+                    .porEstado();
+        });
+    }
+
+    private static LongAdder[] nuevos() {
+        LongAdder[] contadores = new LongAdder[ESTADOS];
+        for (int e = 0; e < ESTADOS; e++) {
+            contadores[e] = new LongAdder();
+        }
+        return contadores;
+    }
+
+    private static long[] sumar(LongAdder[] contadores) {
+        long[] conteos = new long[ESTADOS];
+        for (int e = 0; e < ESTADOS; e++) {
+            conteos[e] = contadores[e].sum();
+        }
+        return conteos;
+    }
+}
@@ -0,0 +1,185 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacén concurrente de sesiones autenticadas.
+ * Emite tokens opacos con expiración deslizante, limita la cantidad de
+ * sesiones activas y elimina las vencidas, de modo que las operaciones
+ * autenticadas se validan en O(1) sin volver a hashear.
+ * <p>
+ * Las vencidas se eliminan al usar el almacén, a lo sumo una vez cada cuarto
+ * de la duración y en el hilo que llega primero, por lo que el almacén no
+ * necesita un hilo propio ni cerrarse.
+ */
+public final class AlmacenSesiones {
+
+    /**
+     * Duración por defecto de una sesión sin actividad.
+     */
+    public static final Duration TTL_DEFECTO = Duration.ofMinutes(30);
+
+    /**
+     * Cantidad máxima por defecto de sesiones activas.
+     */
+    public static final int MAXIMO_DEFECTO = 10_000;
+
+    private static final int BYTES_TOKEN = 32;
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    /**
+     * Sesión activa; la expiración se extiende con cada uso.
+     */
+    private static final class Sesion {
+        private final Usuario usuario;
+        private volatile long expira;
+
+        private Sesion(Usuario usuario, long expira) {
+            this.usuario = usuario;
+            this.expira = expira;
+        }
+    }
+
+    /**
+     * Sesiones activas por token. ConcurrentHashMap bloquea por segmento,
+     * por lo que las validaciones de tokens distintos no compiten entre sí.
+     */
+    private final ConcurrentHashMap<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final AtomicInteger activas = new AtomicInteger();
+    private final long ttlNanos;
+    private final int maximo;
+    private final long periodoLimpiezaNanos;
+    private final AtomicLong proximaLimpieza;
+
+    /**
+     * Crea un almacén con la duración y el máximo por defecto.
+     */
+    public AlmacenSesiones() {
+        this(TTL_DEFECTO, MAXIMO_DEFECTO);
+    }
+
+    /**
+     * Crea un almacén con la duración y el máximo indicados.
+     *
+     * @param ttl Tiempo sin actividad tras el cual una sesión vence.
+     * @param maximo Cantidad máxima de sesiones activas.
+     */
+    public AlmacenSesiones(Duration ttl, int maximo) {
+        if (ttl.isNegative() || ttl.isZero() || maximo <= 0) {
+            throw new IllegalArgumentException("La duración y el máximo de sesiones deben ser positivos");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maximo = maximo;
+        this.periodoLimpiezaNanos = Math.max(1, this.ttlNanos / 4);
+        this.proximaLimpieza = new AtomicLong(System.nanoTime() + this.periodoLimpiezaNanos);
+    }
+
+    /**
+     * Abre una sesión para un usuario ya autenticado.
+     *
+     * @param usuario Usuario autenticado.
+     * @return Token opaco de la sesión.
+     * @throws IllegalStateException Si se alcanzó el máximo de sesiones activas.
+     */
+    public String abrir(Usuario usuario) {
+        this.limpiarSiCorresponde(System.nanoTime());
+        if (this.activas.incrementAndGet() > this.maximo) {
+            this.activas.decrementAndGet();
+            this.eliminarVencidas();
+            if (this.activas.incrementAndGet() > this.maximo) {
+                this.activas.decrementAndGet();
+                throw new IllegalStateException("Se alcanzó el máximo de sesiones activas");
+            }
+        }
+        byte[] bytes = new byte[BYTES_TOKEN];
+        ALEATORIO.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        this.sesiones.put(token, new Sesion(usuario, System.nanoTime() + this.ttlNanos));
+        return token;
+    }
+
+    /**
+     * Valida un token y extiende su expiración.
+     *
+     * @param token Token de la sesión.
+     * @return Usuario de la sesión o null si el token no existe o venció.
+     */
+    public Usuario validar(String token) {
+        if (token == null) {
+            return null;
+        }
+        Sesion sesion = this.sesiones.get(token);
+        if (sesion == null) {
+            return null;
+        }
+        long ahora = System.nanoTime();
+        this.limpiarSiCorresponde(ahora);
+        if (ahora - sesion.expira > 0) {
+            this.quitar(token, sesion);
+            return null;
+        }
+        sesion.expira = ahora + this.ttlNanos;
+        return sesion.usuario;
+    }
+
+    /**
+     * Cierra una sesión.
+     *
+     * @param token Token de la sesión.
+     */
+    public void cerrar(String token) {
+        if (token == null) {
+            return;
+        }
+        Sesion sesion = this.sesiones.get(token);
+        if (sesion != null) {
+            this.quitar(token, sesion);
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de sesiones activas.
+     *
+     * @return Cantidad de sesiones.
+     */
+    public int cantidad() {
+        return this.activas.get();
+    }
+
+    /**
+     * Elimina todas las sesiones vencidas.
+     */
+    public void eliminarVencidas() {
+        long ahora = System.nanoTime();
+        this.sesiones.forEach((token, sesion) -> {
+            if (ahora - sesion.expira > 0) {
+                this.quitar(token, sesion);
+            }
+        });
+    }
+
+    /**
+     * Elimina las sesiones vencidas si pasó el periodo de limpieza. Solo el hilo
+     * que gana la comparación e intercambio las recorre; los demás siguen de largo.
+     */
+    private void limpiarSiCorresponde(long ahora) {
+        long proxima = this.proximaLimpieza.get();
+        if (ahora - proxima >= 0
+                && this.proximaLimpieza.compareAndSet(proxima, ahora + this.periodoLimpiezaNanos)) {
+            this.eliminarVencidas();
+        }
+    }
+
+    private void quitar(String token, Sesion sesion) {
+        if (this.sesiones.remove(token, sesion)) {
+            this.activas.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Formato binario de las instantáneas del controlador.
+ * <p>
+ * El archivo tiene un encabezado {@code [mágico][versión][posición de bitácora]},
+ * un cuerpo con los campos escritos en orden y un CRC32C final del cuerpo. Se
+ * escribe en un archivo temporal que se sincroniza y luego reemplaza al anterior,
+ * por lo que una caída nunca deja una instantánea a medias. La lectura mapea el
+ * archivo en memoria y decodifica directamente desde el mapeo.
+ */
+final class ArchivoInstantanea {
+
+    private static final int MAGICO = 0x48445553;
+    /**
+     * Versión que se escribe. La 2 agrega al final las rutas de categorías a
+     * departamentos; la 3, los incidentes de tickets duplicados, y la 4, la
+     * versión del estado de cada ticket. Las versiones anteriores se siguen leyendo.
+     */
+    private static final int VERSION = 4;
+    private static final int ENCABEZADO = 16;
+
+    private ArchivoInstantanea() {
+    }
+
+    /**
+     * Acumula los campos del cuerpo de una instantánea.
+     */
+    static final class Escritor {
+        private final DataOutputStream salida;
+
+        private Escritor(DataOutputStream salida) {
+            this.salida = salida;
+        }
+
+        Escritor entero(int valor) throws IOException {
+            this.salida.writeInt(valor);
+            return this;
+        }
+
+        Escritor texto(String valor) throws IOException {
+            if (valor == null) {
+                this.salida.writeInt(-1);
+                return this;
+            }
+            byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+            this.salida.writeInt(utf8.length);
+            this.salida.write(utf8);
+            return this;
+        }
+    }
+
+    /**
+     * Decodifica los campos del cuerpo de una instantánea mapeada en memoria.
+     */
+    static final class Lector {
+        private final MappedByteBuffer datos;
+        private final int version;
+        private byte[] temporal = new byte[256];
+
+        private Lector(MappedByteBuffer datos, int version) {
+            this.datos = datos;
+            this.version = version;
+        }
+
+        /**
+         * @return Versión del formato del archivo que se está leyendo.
+         */
+        int version() {
+            return this.version;
+        }
+
+        int entero() {
+            return this.datos.getInt();
+        }
+
+        String texto() {
+            int largo = this.datos.getInt();
+            if (largo < 0) {
+                return null;
+            }
+            if (largo > this.temporal.length) {
+                this.temporal = new byte[Math.max(largo, this.temporal.length * 2)];
+            }
+            this.datos.get(this.temporal, 0, largo);
+            return new String(this.temporal, 0, largo, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Escribe el cuerpo de una instantánea.
+     */
+    @FunctionalInterface
+    interface Cuerpo {
+        void escribir(Escritor escritor) throws IOException;
+    }
+
+    /**
+     * Lee el cuerpo de una instantánea.
+     */
+    @FunctionalInterface
+    interface Carga {
+        void leer(Lector lector);
+    }
+
+    /**
+     * Escribe una instantánea de forma atómica.
+     *
+     * @param archivo Archivo destino.
+     * @param posicionBitacora Posición de la bitácora cubierta por la instantánea.
+     * @param cuerpo Escribe los datos.
+     * @return Tamaño del archivo escrito en bytes.
+     * @throws IOException Si no se puede escribir.
+     */
+    static long escribir(Path archivo, long posicionBitacora, Cuerpo cuerpo) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream archivoSalida = Channels.newOutputStream(canal);
+            DataOutputStream encabezado = new DataOutputStream(archivoSalida);
+            encabezado.writeInt(MAGICO);
+            encabezado.writeInt(VERSION);
+            encabezado.writeLong(posicionBitacora);
+
+            CRC32C crc = new CRC32C();
+            DataOutputStream salida = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(archivoSalida, 1 << 16), crc));
+            cuerpo.escribir(new Escritor(salida));
+            salida.flush();
+            encabezado.writeInt((int) crc.getValue());
+            canal.force(true);
+        }
+        try {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return Files.size(archivo);
+    }
+
+    /**
+     * Carga una instantánea mapeando el archivo en memoria.
+     *
+     * @param archivo Archivo de la instantánea.
+     * @param carga Lee los datos.
+     * @return Posición de la bitácora cubierta por la instantánea.
+     * @throws IOException Si el archivo no se puede leer o está dañado.
+     */
+    static long leer(Path archivo, Carga carga) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < ENCABEZADO + 4) {
+                throw new IOException("Instantánea incompleta");
+            }
+            if (tamanio > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea demasiado grande para mapear: " + tamanio + " bytes");
+            }
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            datos.order(ByteOrder.BIG_ENDIAN);
+            int magico = datos.getInt();
+            int version = datos.getInt();
+            if (magico != MAGICO || version < 1 || version > VERSION) {
+                throw new IOException("Formato de instantánea desconocido");
+            }
+            long posicionBitacora = datos.getLong();
+
+            CRC32C crc = new CRC32C();
+            crc.update(datos.slice(ENCABEZADO, (int) (tamanio - ENCABEZADO - 4)));
+            if ((int) crc.getValue() != datos.getInt((int) tamanio - 4)) {
+                throw new IOException("Instantánea dañada: el CRC no coincide");
+            }
+            datos.limit((int) tamanio - 4);
+            carga.leer(new Lector(datos, version));
+            if (datos.hasRemaining()) {
+                throw new IOException("Instantánea dañada: quedan " + datos.remaining() + " bytes sin leer");
+            }
+            return posicionBitacora;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Bitácora de escritura anticipada: archivo de solo anexado con un registro por mutación.
+ * <p>
+ * Cada registro se guarda como {@code [largo][crc][datos]}. Los hilos que anotan
+ * solo encolan su registro; un hilo escritor junta todos los pendientes en una
+ * sola escritura (commit en grupo) y sincroniza con el disco según la política
+ * configurada. Al abrir, una cola incompleta por una caída se descarta; un
+ * registro dañado seguido de más datos impide abrirla, para no borrar registros
+ * ya confirmados.
+ * <p>
+ * Si una escritura falla, la bitácora deja de aceptar registros: las posiciones
+ * ya entregadas dejarían de coincidir con el contenido del archivo.
+ */
+public class BitacoraEscritura implements AutoCloseable {
+
+    /**
+     * Política de sincronización con el disco.
+     */
+    public enum Sincronizacion {
+        /**
+         * Sincroniza cada grupo antes de confirmar a los que anotaron.
+         */
+        SIEMPRE,
+        /**
+         * Confirma al escribir y sincroniza a intervalos fijos.
+         */
+        PERIODICA,
+        /**
+         * Confirma al escribir y deja la sincronización al sistema operativo.
+         */
+        NUNCA
+    }
+
+    /**
+     * Intervalo por defecto de la sincronización periódica.
+     */
+    public static final long INTERVALO_DEFECTO_MS = 50;
+
+    private static final int ENCABEZADO = 8;
+    private static final int LARGO_MAXIMO = 16 * 1024 * 1024;
+
+    private record Pendiente(byte[] datos, CompletableFuture<Void> confirmacion, boolean sincronizar) {
+    }
+
+    private static final byte[] SIN_DATOS = new byte[0];
+    private static final Pendiente FIN = new Pendiente(SIN_DATOS, null, false);
+
+    private final FileChannel canal;
+    private final Sincronizacion sincronizacion;
+    private final long intervaloNanos;
+    private final LinkedBlockingQueue<Pendiente> cola = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private final AtomicLong registros = new AtomicLong();
+    private final AtomicLong grupos = new AtomicLong();
+    private final AtomicLong sincronizaciones = new AtomicLong();
+    /**
+     * Posición al final de los registros encolados. Se reserva y se encola en un
+     * solo paso bajo el candado de la cola, para que cada posición leída sea el
+     * inicio de un registro y cubra exactamente los registros ya encolados.
+     */
+    private final Object candadoCola = new Object();
+    private long posicionEncolada;
+    private volatile boolean cerrada;
+    private volatile Exception falla;
+
+    /**
+     * Abre la bitácora para anexar, con sincronización periódica por defecto.
+     *
+     * @param archivo Archivo de la bitácora; se crea si no existe.
+     * @param sincronizacion Política de sincronización con el disco.
+     * @throws IOException Si no se puede abrir el archivo.
+     */
+    public BitacoraEscritura(Path archivo, Sincronizacion sincronizacion) throws IOException {
+        this(archivo, sincronizacion, INTERVALO_DEFECTO_MS);
+    }
+
+    /**
+     * Abre la bitácora para anexar.
+     *
+     * @param archivo Archivo de la bitácora; se crea si no existe.
+     * @param sincronizacion Política de sincronización con el disco.
+     * @param intervaloMs Intervalo de sincronización para {@link Sincronizacion#PERIODICA}.
+     * @throws IOException Si no se puede abrir el archivo.
+     */
+    public BitacoraEscritura(Path archivo, Sincronizacion sincronizacion, long intervaloMs) throws IOException {
+        this(archivo, sincronizacion, intervaloMs, 0, datos -> { });
+    }
+
+    /**
+     * Reproduce los registros existentes y abre la bitácora para anexar.
+     *
+     * @param archivo Archivo de la bitácora; se crea si no existe.
+     * @param sincronizacion Política de sincronización con el disco.
+     * @param intervaloMs Intervalo de sincronización para {@link Sincronizacion#PERIODICA}.
+     * @param desde Posición desde la cual reproducir, por ejemplo la cubierta por una instantánea.
+     * @param reproductor Recibe, en orden, los datos de cada registro íntegro ya existente.
+     * @throws IOException Si no se puede abrir el archivo, es más corto que {@code desde}, el
+     *                     registro en {@code desde} está completo pero no es válido o hay un
+     *                     registro dañado antes del final; en esos casos el archivo no se modifica.
+     */
+    public BitacoraEscritura(Path archivo, Sincronizacion sincronizacion, long intervaloMs, long desde,
+                             Consumer<ByteBuffer> reproductor) throws IOException {
+        long valido = Files.exists(archivo) ? leer(archivo, desde, reproductor) : 0;
+        if (valido < desde) {
+            throw new IOException("La bitácora tiene " + valido + " bytes válidos y se esperaban al menos " + desde);
+        }
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (this.canal.size() > valido) {
+            this.canal.truncate(valido);
+        }
+        this.canal.position(valido);
+        this.posicionEncolada = valido;
+        this.sincronizacion = sincronizacion;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.escritor = new Thread(this::escribir, "escritor-bitacora");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Recorre los registros íntegros de una bitácora en orden. Solo se toma como
+     * el fin de la bitácora una escritura cortada por una caída: un encabezado o
+     * unos datos que llegan al final del archivo, o un último registro cuyo
+     * encabezado o datos terminan justo ahí pero no son válidos. Un largo o una
+     * suma de verificación inválidos seguidos de más datos son un daño en medio
+     * del archivo, y se lanza una excepción en lugar de descartar los registros
+     * confirmados que siguen; lo mismo si el primer registro después de una
+     * posición mayor que 0 no es válido, porque la posición no es el inicio de un
+     * registro.
+     *
+     * @param archivo Archivo de la bitácora.
+     * @param desde Posición del primer registro a recorrer; debe ser el inicio de un registro.
+     * @param consumidor Recibe los datos de cada registro.
+     * @return Cantidad de bytes válidos desde el inicio del archivo, o 0 si es más corto que {@code desde}.
+     * @throws IOException Si no se puede leer el archivo, el registro en {@code desde} no es
+     *                     válido o hay un registro dañado antes del final.
+     */
+    public static long leer(Path archivo, long desde, Consumer<ByteBuffer> consumidor) throws IOException {
+        long tamanio = Files.size(archivo);
+        if (tamanio < desde) {
+            return 0;
+        }
+        long valido = desde;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo), 1 << 16))) {
+            entrada.skipNBytes(desde);
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int largo;
+                int suma;
+                byte[] datos;
+                try {
+                    largo = entrada.readInt();
+                    suma = entrada.readInt();
+                    if (largo < 0 || largo > LARGO_MAXIMO) {
+                        verificarDanio(valido, desde, valido + ENCABEZADO, tamanio, "largo " + largo);
+                        break;
+                    }
+                    datos = new byte[largo];
+                    entrada.readFully(datos);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(datos);
+                if ((int) crc.getValue() != suma) {
+                    verificarDanio(valido, desde, valido + ENCABEZADO + largo, tamanio,
+                            "suma de verificación distinta");
+                    break;
+                }
+                consumidor.accept(ByteBuffer.wrap(datos));
+                valido += ENCABEZADO + largo;
+            }
+        }
+        return valido;
+    }
+
+    /**
+     * Rechaza un registro inválido que no es una escritura cortada: el de la
+     * posición pedida si no es el inicio del archivo, o cualquiera al que le sigan
+     * más datos. Descartar desde ahí borraría registros ya confirmados.
+     *
+     * @param posicion Inicio del registro inválido.
+     * @param fin Posición donde termina la parte leída del registro.
+     * @param tamanio Tamaño del archivo.
+     */
+    private static void verificarDanio(long posicion, long desde, long fin, long tamanio, String motivo)
+            throws IOException {
+        if (posicion == desde && desde > 0) {
+            throw new IOException("La posición " + desde + " de la bitácora no es el inicio de un registro válido ("
+                    + motivo + ")");
+        }
+        if (fin < tamanio) {
+            throw new IOException("La bitácora está dañada en la posición " + posicion + " (" + motivo
+                    + ") y le siguen " + (tamanio - fin) + " bytes; no se descartan registros confirmados");
+        }
+    }
+
+    /**
+     * Encola un registro para escritura.
+     *
+     * @param datos Contenido del registro.
+     * @return Futuro que se completa cuando el registro es durable según la política.
+     */
+    public CompletableFuture<Void> anotar(byte[] datos) {
+        this.verificarAbierta();
+        if (datos.length > LARGO_MAXIMO) {
+            throw new IllegalArgumentException("Registro demasiado grande: " + datos.length + " bytes");
+        }
+        CompletableFuture<Void> confirmacion = new CompletableFuture<>();
+        synchronized (this.candadoCola) {
+            this.posicionEncolada += ENCABEZADO + datos.length;
+            this.cola.add(new Pendiente(datos, confirmacion, false));
+        }
+        return confirmacion;
+    }
+
+    /**
+     * Solicita sincronizar con el disco todo lo anotado hasta ahora, sin importar la política.
+     *
+     * @return Futuro que se completa cuando los registros anteriores son durables.
+     */
+    public CompletableFuture<Void> sincronizar() {
+        this.verificarAbierta();
+        CompletableFuture<Void> confirmacion = new CompletableFuture<>();
+        this.cola.add(new Pendiente(SIN_DATOS, confirmacion, true));
+        return confirmacion;
+    }
+
+    /**
+     * Devuelve la posición del archivo en la que empezará el próximo registro anotado.
+     * Siempre es el inicio de un registro, y todos los registros anteriores ya
+     * están en la cola de escritura, aunque otros hilos estén anotando.
+     *
+     * @return Posición en bytes al final de los registros anotados.
+     */
+    public long posicionEncolada() {
+        synchronized (this.candadoCola) {
+            return this.posicionEncolada;
+        }
+    }
+
+    /**
+     * @return Política de sincronización configurada.
+     */
+    public Sincronizacion getSincronizacion() {
+        return this.sincronizacion;
+    }
+
+    /**
+     * @return Cantidad de registros escritos.
+     */
+    public long registros() {
+        return this.registros.get();
+    }
+
+    /**
+     * @return Cantidad de escrituras en grupo realizadas.
+     */
+    public long grupos() {
+        return this.grupos.get();
+    }
+
+    /**
+     * @return Cantidad de sincronizaciones con el disco realizadas.
+     */
+    public long sincronizaciones() {
+        return this.sincronizaciones.get();
+    }
+
+    /**
+     * Escribe los registros pendientes, sincroniza y cierra el archivo.
+     */
+    @Override
+    public void close() {
+        if (this.cerrada) {
+            return;
+        }
+        this.cerrada = true;
+        this.cola.add(FIN);
+        try {
+            this.escritor.join();
+            this.canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void verificarAbierta() {
+        if (this.cerrada) {
+            throw new IllegalStateException("La bitácora está cerrada");
+        }
+        if (this.falla != null) {
+            throw new IllegalStateException("La bitácora dejó de aceptar registros: " + this.falla.getMessage(), this.falla);
+        }
+    }
+
+    private void escribir() {
+        List<Pendiente> grupo = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        CRC32C crc = new CRC32C();
+        long ultimaSincronizacion = System.nanoTime();
+        boolean pendienteSincronizar = false;
+        boolean fin = false;
+        while (!fin) {
+            long inicioGrupo = -1;
+            try {
+                Pendiente primero = this.cola.poll(this.intervaloNanos, TimeUnit.NANOSECONDS);
+                if (primero != null) {
+                    grupo.add(primero);
+                    this.cola.drainTo(grupo);
+                }
+                if (this.falla != null) {
+                    fin = grupo.contains(FIN);
+                    fallar(grupo, this.falla);
+                    grupo.clear();
+                    continue;
+                }
+                int total = 0;
+                boolean solicitada = false;
+                for (Pendiente p : grupo) {
+                    if (p == FIN) {
+                        fin = true;
+                    } else if (p.sincronizar()) {
+                        solicitada = true;
+                    } else {
+                        total += ENCABEZADO + p.datos().length;
+                    }
+                }
+                if (total > 0) {
+                    if (buffer.capacity() < total) {
+                        buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(total - 1) << 1);
+                    }
+                    buffer.clear();
+                    for (Pendiente p : grupo) {
+                        if (p != FIN && !p.sincronizar()) {
+                            crc.reset();
+                            crc.update(p.datos());
+                            buffer.putInt(p.datos().length).putInt((int) crc.getValue()).put(p.datos());
+                        }
+                    }
+                    buffer.flip();
+                    inicioGrupo = this.canal.position();
+                    while (buffer.hasRemaining()) {
+                        this.canal.write(buffer);
+                    }
+                    inicioGrupo = -1;
+                    this.grupos.incrementAndGet();
+                    pendienteSincronizar = true;
+                }
+                if (pendienteSincronizar && (fin || solicitada || this.sincronizacion == Sincronizacion.SIEMPRE
+                        || (this.sincronizacion == Sincronizacion.PERIODICA
+                        && System.nanoTime() - ultimaSincronizacion >= this.intervaloNanos))) {
+                    this.canal.force(false);
+                    this.sincronizaciones.incrementAndGet();
+                    ultimaSincronizacion = System.nanoTime();
+                    pendienteSincronizar = false;
+                }
+                for (Pendiente p : grupo) {
+                    if (p != FIN) {
+                        if (!p.sincronizar()) {
+                            this.registros.incrementAndGet();
+                        }
+                        p.confirmacion().complete(null);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fin = true;
+                fallar(grupo, e);
+            } catch (IOException | RuntimeException e) {
+                this.descartarParcial(inicioGrupo);
+                this.falla = e;
+                fallar(grupo, e);
+            }
+            grupo.clear();
+        }
+        List<Pendiente> restantes = new ArrayList<>();
+        this.cola.drainTo(restantes);
+        fallar(restantes, new IllegalStateException("La bitácora está cerrada"));
+    }
+
+    /**
+     * Quita un grupo escrito a medias para que el archivo termine en un registro íntegro.
+     */
+    private void descartarParcial(long inicioGrupo) {
+        if (inicioGrupo < 0) {
+            return;
+        }
+        try {
+            this.canal.truncate(inicioGrupo);
+            this.canal.position(inicioGrupo);
+        } catch (IOException ignorada) {
+            // El archivo queda con una cola inválida que se descartará al reabrir.
+        }
+    }
+
+    private static void fallar(List<Pendiente> grupo, Exception causa) {
+        for (Pendiente p : grupo) {
+            if (p != FIN) {
+                p.confirmacion().completeExceptionally(causa);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.DiccionarioEmocion;
+import cr.ac.ucenfotec.helpdesku.bl.entities.DiccionarioTecnico;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clasificador de tickets basado en los diccionarios emocional y técnico.
+ * Compila todas las palabras en un autómata de Aho-Corasick, por lo que
+ * cada texto se recorre una sola vez y el costo es lineal en su largo sin
+ * importar la cantidad de palabras registradas.
+ * <p>
+ * La búsqueda no distingue mayúsculas ni tildes y solo reconoce palabras
+ * completas. Una instancia es inmutable y se puede compartir entre hilos.
+ */
+public class ClasificadorTickets {
+
+    /**
+     * Emociones y categorías técnicas detectadas en un texto, con la
+     * cantidad de coincidencias de cada una en orden de aparición.
+     *
+     * @param emociones Coincidencias por emoción.
+     * @param categorias Coincidencias por categoría técnica.
+     * @param posiciones Posición donde empieza la primera coincidencia de cada categoría
+     *                   técnica; la descripción se cuenta después del asunto y un separador.
+     */
+    public record Clasificacion(Map<String, Integer> emociones, Map<String, Integer> categorias,
+                                Map<String, Integer> posiciones) {
+
+        /**
+         * Clasificación sin coincidencias.
+         */
+        public static final Clasificacion VACIA = new Clasificacion(Map.of(), Map.of(), Map.of());
+
+        /**
+         * @param categoria Categoría técnica detectada.
+         * @return Posición de su primera coincidencia, o {@link Integer#MAX_VALUE} si no se detectó.
+         */
+        public int posicion(String categoria) {
+            return posiciones.getOrDefault(categoria, Integer.MAX_VALUE);
+        }
+
+        /**
+         * @return Emoción con más coincidencias o null si no hay ninguna.
+         */
+        public String emocionPrincipal() {
+            return principal(emociones);
+        }
+
+        /**
+         * @return Categoría técnica con más coincidencias o null si no hay ninguna.
+         */
+        public String categoriaPrincipal() {
+            return principal(categorias);
+        }
+
+        private static String principal(Map<String, Integer> conteos) {
+            String mejor = null;
+            int maximo = 0;
+            for (Map.Entry<String, Integer> e : conteos.entrySet()) {
+                if (e.getValue() > maximo) {
+                    mejor = e.getKey();
+                    maximo = e.getValue();
+                }
+            }
+            return mejor;
+        }
+    }
+
+    /**
+     * Palabra compilada en el autómata.
+     */
+    private record Patron(int largo, boolean emocional, String clasificacion) {
+    }
+
+    /**
+     * Palabra encontrada y la posición donde empieza.
+     */
+    private record Coincidencia(Patron patron, int posicion) {
+    }
+
+    private static final int[] SIN_SALIDAS = new int[0];
+
+    /**
+     * Clasificador sin palabras.
+     */
+    public static final ClasificadorTickets VACIO = new ClasificadorTickets(List.of(), List.of());
+
+    /**
+     * Clase de carácter por carácter normalizado; 0 para los que no aparecen en ninguna palabra.
+     * Llega hasta el mayor carácter de las palabras, por lo que un autómata delta con pocas
+     * palabras no reserva una tabla para todo el rango de {@code char}.
+     */
+    private final char[] clases;
+    private final int cantidadClases;
+    /**
+     * Transiciones completas del autómata: estado * cantidadClases + clase.
+     */
+    private final int[] transiciones;
+    /**
+     * Patrones que terminan en cada estado, incluidos los heredados por enlaces de fallo.
+     */
+    private final int[][] salidas;
+    private final Patron[] patrones;
+
+    /**
+     * Compila el autómata a partir de los dos diccionarios.
+     *
+     * @param emociones Palabras del diccionario emocional.
+     * @param tecnicas Palabras del diccionario técnico.
+     */
+    public ClasificadorTickets(List<DiccionarioEmocion> emociones, List<DiccionarioTecnico> tecnicas) {
+        List<String> palabras = new ArrayList<>();
+        List<Patron> lista = new ArrayList<>();
+        for (DiccionarioEmocion e : emociones) {
+            agregarPatron(palabras, lista, e.getPalabra(), true, e.getClasificacion());
+        }
+        for (DiccionarioTecnico t : tecnicas) {
+            agregarPatron(palabras, lista, t.getPalabra(), false, t.getClasificacion());
+        }
+        this.patrones = lista.toArray(new Patron[0]);
+
+        // Alfabeto reducido: solo los caracteres presentes en las palabras.
+        int mayor = 0;
+        for (String palabra : palabras) {
+            for (int i = 0; i < palabra.length(); i++) {
+                mayor = Math.max(mayor, palabra.charAt(i));
+            }
+        }
+        this.clases = new char[mayor + 1];
+        int distintas = 0;
+        for (String palabra : palabras) {
+            for (int i = 0; i < palabra.length(); i++) {
+                char c = palabra.charAt(i);
+                if (this.clases[c] == 0) {
+                    this.clases[c] = (char) ++distintas;
+                }
+            }
+        }
+        this.cantidadClases = distintas + 1;
+
+        // Trie.
+        List<int[]> hijos = new ArrayList<>();
+        List<List<Integer>> propias = new ArrayList<>();
+        hijos.add(nuevoNodo());
+        propias.add(new ArrayList<>());
+        for (int p = 0; p < palabras.size(); p++) {
+            String palabra = palabras.get(p);
+            int estado = 0;
+            for (int i = 0; i < palabra.length(); i++) {
+                int c = this.clases[palabra.charAt(i)];
+                int siguiente = hijos.get(estado)[c];
+                if (siguiente < 0) {
+                    siguiente = hijos.size();
+                    hijos.get(estado)[c] = siguiente;
+                    hijos.add(nuevoNodo());
+                    propias.add(new ArrayList<>());
+                }
+                estado = siguiente;
+            }
+            propias.get(estado).add(p);
+        }
+
+        // Enlaces de fallo por recorrido en anchura y transiciones completas.
+        int estados = hijos.size();
+        this.transiciones = new int[estados * this.cantidadClases];
+        this.salidas = new int[estados][];
+        int[] fallo = new int[estados];
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        this.salidas[0] = aArreglo(propias.get(0), SIN_SALIDAS);
+        for (int c = 0; c < this.cantidadClases; c++) {
+            int hijo = hijos.get(0)[c];
+            if (hijo > 0) {
+                this.transiciones[c] = hijo;
+                cola.add(hijo);
+            }
+        }
+        while (!cola.isEmpty()) {
+            int estado = cola.poll();
+            this.salidas[estado] = aArreglo(propias.get(estado), this.salidas[fallo[estado]]);
+            for (int c = 0; c < this.cantidadClases; c++) {
+                int hijo = hijos.get(estado)[c];
+                int destinoFallo = this.transiciones[fallo[estado] * this.cantidadClases + c];
+                if (hijo > 0) {
+                    fallo[hijo] = destinoFallo;
+                    this.transiciones[estado * this.cantidadClases + c] = hijo;
+                    cola.add(hijo);
+                } else {
+                    this.transiciones[estado * this.cantidadClases + c] = destinoFallo;
+                }
+            }
+        }
+    }
+
+    /**
+     * Clasifica un ticket por su asunto y descripción.
+     *
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @return Emociones y categorías detectadas.
+     */
+    public Clasificacion clasificar(String asunto, String descripcion) {
+        if (this.patrones.length == 0) {
+            return Clasificacion.VACIA;
+        }
+        List<Coincidencia> coincidencias = new ArrayList<>();
+        this.recorrer(asunto, 0, coincidencias);
+        this.recorrer(descripcion, asunto == null ? 0 : asunto.length() + 1, coincidencias);
+        if (coincidencias.isEmpty()) {
+            return Clasificacion.VACIA;
+        }
+
+        Map<String, Integer> emociones = new LinkedHashMap<>();
+        Map<String, Integer> categorias = new LinkedHashMap<>();
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (Coincidencia coincidencia : coincidencias) {
+            Patron patron = coincidencia.patron();
+            if (patron.emocional()) {
+                emociones.merge(patron.clasificacion(), 1, Integer::sum);
+            } else {
+                categorias.merge(patron.clasificacion(), 1, Integer::sum);
+                // Se informan al terminar la palabra: una más larga puede empezar antes.
+                posiciones.merge(patron.clasificacion(), coincidencia.posicion(), Math::min);
+            }
+        }
+        return new Clasificacion(Collections.unmodifiableMap(emociones), Collections.unmodifiableMap(categorias),
+                Collections.unmodifiableMap(posiciones));
+    }
+
+    /**
+     * @return Cantidad de palabras compiladas.
+     */
+    public int cantidadPalabras() {
+        return this.patrones.length;
+    }
+
+    /**
+     * Normaliza un carácter: minúscula y sin tilde.
+     *
+     * @param c Carácter original.
+     * @return Carácter normalizado.
+     */
+    static char normalizar(char c) {
+        c = Character.toLowerCase(c);
+        return switch (c) {
+            case 'á', 'à', 'ä', 'â' -> 'a';
+            case 'é', 'è', 'ë', 'ê' -> 'e';
+            case 'í', 'ì', 'ï', 'î' -> 'i';
+            case 'ó', 'ò', 'ö', 'ô' -> 'o';
+            case 'ú', 'ù', 'ü', 'û' -> 'u';
+            default -> c;
+        };
+    }
+
+    private void recorrer(String texto, int desplazamiento, List<Coincidencia> coincidencias) {
+        if (texto == null) {
+            return;
+        }
+        int estado = 0;
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            estado = this.transiciones[estado * this.cantidadClases + this.clase(normalizar(texto.charAt(i)))];
+            for (int p : this.salidas[estado]) {
+                int inicio = i - this.patrones[p].largo() + 1;
+                if (esLimite(texto, inicio - 1) && esLimite(texto, i + 1)) {
+                    coincidencias.add(new Coincidencia(this.patrones[p], desplazamiento + inicio));
+                }
+            }
+        }
+    }
+
+    private int clase(char c) {
+        return c < this.clases.length ? this.clases[c] : 0;
+    }
+
+    private static boolean esLimite(String texto, int posicion) {
+        return posicion < 0 || posicion >= texto.length() || !Character.isLetterOrDigit(texto.charAt(posicion));
+    }
+
+    private static void agregarPatron(List<String> palabras, List<Patron> patrones, String palabra,
+                                      boolean emocional, String clasificacion) {
+        if (palabra == null || clasificacion == null) {
+            return;
+        }
+        String limpia = palabra.strip();
+        if (limpia.isEmpty()) {
+            return;
+        }
+        char[] normalizada = new char[limpia.length()];
+        for (int i = 0; i < normalizada.length; i++) {
+            normalizada[i] = normalizar(limpia.charAt(i));
+        }
+        palabras.add(new String(normalizada));
+        patrones.add(new Patron(normalizada.length, emocional, clasificacion.strip()));
+    }
+
+    private int[] nuevoNodo() {
+        int[] nodo = new int[this.cantidadClases];
+        Arrays.fill(nodo, -1);
+        return nodo;
+    }
+
+    private static int[] aArreglo(List<Integer> propias, int[] heredadas) {
+        if (propias.isEmpty()) {
+            return heredadas;
+        }
+        int[] resultado = Arrays.copyOf(heredadas, heredadas.length + propias.size());
+        for (int i = 0; i < propias.size(); i++) {
+            resultado[heredadas.length + i] = propias.get(i);
+        }
+        return resultado;
+    }
+}
@@ -2,19 +2,80 @@ package cr.ac.ucenfotec.helpdesku.tl;
 
 import cr.ac.ucenfotec.helpdesku.bl.entities.*;
 import cr.ac.ucenfotec.helpdesku.bl.logic.GestorHelpDesk;
-import cr.ac.ucenfotec.helpdesku.dl.Repomemory;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * Controlador de la capa de presentación para el sistema HelpDesk U.
  * Permite la interacción con la lógica de negocio (GestorHelpDesk)
  * y proporciona métodos para registrar usuarios, departamentos, tickets
  * y gestionar diccionarios de emociones y palabras técnicas.
+ * <p>
+ * Si se abre una bitácora, cada mutación se anota en ella en el mismo orden en
+ * que se aplica en memoria y el método no retorna hasta que el registro es
+ * durable según la política de sincronización.
  */
-public class ControladorHelpDesk {
+public class ControladorHelpDesk implements AutoCloseable {
+
+    /**
+     * Resultado de recuperar el estado al abrir la bitácora.
+     *
+     * @param posicionInstantanea Posición de la bitácora cubierta por la instantánea cargada; 0 si no se cargó.
+     * @param operacionesReproducidas Operaciones de la bitácora posteriores a la instantánea.
+     * @param nanos Duración total de la recuperación.
+     */
+    public record Recuperacion(long posicionInstantanea, int operacionesReproducidas, long nanos) {
+    }
+
+    /**
+     * Cuerpo de un método público que devuelve un valor.
+     */
+    @FunctionalInterface
+    private interface Medicion<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    /**
+     * Cuerpo de un método público sin resultado.
+     */
+    @FunctionalInterface
+    private interface MedicionSinResultado<E extends Exception> {
+        void ejecutar() throws E;
+    }
+
+    /**
+     * Claves de orden disponibles para el listado paginado de usuarios.
+     */
+    public static final Map<String, Function<Usuario, String>> ORDENES_USUARIOS = Map.of(
+            "nombre", Usuario::getNombre,
+            "correo", Usuario::getCorreo,
+            "rol", Usuario::getRol);
+
+    /**
+     * Claves de orden disponibles para el listado paginado de departamentos.
+     */
+    public static final Map<String, Function<Departamento, String>> ORDENES_DEPARTAMENTOS = Map.of(
+            "nombre", Departamento::getNombre);
 
     /**
      * Gestor de la capa de negocio que administra usuarios, tickets, departamentos y diccionarios.
@@ -22,15 +83,170 @@ public class ControladorHelpDesk {
     private GestorHelpDesk gestor = new GestorHelpDesk();
 
     /**
-     * Repositorio en memoria para la validación de datos únicos, como correos.
+     * Usuarios registrados por identificador.
+     */
+    private final TablaPorId<Usuario> usuarios = new TablaPorId<>();
+
+    /**
+     * Departamentos registrados por identificador.
+     */
+    private final TablaPorId<Departamento> departamentos = new TablaPorId<>();
+
+    /**
+     * Índice de cuentas por correo normalizado, para validar unicidad y autenticar en O(1).
+     */
+    private final IndiceCorreos indiceCorreos = new IndiceCorreos();
+
+    /**
+     * Servicio utilizado para hashear y verificar contraseñas.
+     */
+    private final ServicioHash servicioHash;
+
+    /**
+     * Límite de intentos de inicio de sesión por cuenta y por origen.
+     */
+    private final LimitadorIntentos limitador;
+
+    /**
+     * Sesiones autenticadas activas.
+     */
+    private final AlmacenSesiones sesiones = new AlmacenSesiones();
+
+    /**
+     * Tickets registrados por identificador, con índices por estado, departamento y usuario.
+     */
+    private final IndiceTickets indiceTickets;
+
+    /**
+     * Índice de texto completo sobre asunto y descripción de los tickets.
+     */
+    private final IndiceTexto indiceTexto = new IndiceTexto();
+
+    /**
+     * Rutas de categorías técnicas a departamentos; se reemplaza completo al cambiar una ruta.
+     */
+    private volatile EnrutadorTickets enrutador = EnrutadorTickets.VACIO;
+
+    /**
+     * Agrupa los tickets casi idénticos en incidentes.
+     */
+    private final DetectorDuplicados duplicados = new DetectorDuplicados(DetectorDuplicados.VENTANA_DEFECTO);
+
+    /**
+     * Latencia y cantidad de llamadas de cada método público.
+     */
+    private final EstadisticasOperaciones estadisticas = new EstadisticasOperaciones();
+
+    /**
+     * Índices de los listados paginados de usuarios y de departamentos, por clave de orden.
+     */
+    private final Map<String, Paginador.IndiceOrden<Usuario>> ordenesUsuarios = indicesOrden(ORDENES_USUARIOS);
+    private final Map<String, Paginador.IndiceOrden<Departamento>> ordenesDepartamentos =
+            indicesOrden(ORDENES_DEPARTAMENTOS);
+
+    /**
+     * Índices de los listados paginados de tickets y de sus vistas, por clave de orden.
+     * El estado se toma del índice de tickets, que avisa cada transición.
+     */
+    private final Map<String, Paginador.IndiceOrden<VistaTicket>> ordenesTickets = Map.of(
+            "asunto", new Paginador.IndiceOrden<>(VistaTicket::asunto),
+            "estado", new Paginador.IndiceOrden<>(v -> v.estado().etiqueta()),
+            "usuario", new Paginador.IndiceOrden<>(v -> this.usuarios.obtener(v.idUsuario()).getNombre()),
+            "departamento", new Paginador.IndiceOrden<>(v -> this.departamentos.obtener(v.idDepartamento()).getNombre()));
+
+    /**
+     * Diccionarios emocional y técnico publicados como instantáneas inmutables.
+     */
+    private final DiccionariosVersionados diccionarios = new DiccionariosVersionados();
+
+    /**
+     * Clasificación calculada para cada ticket registrado, por identificador de ticket.
+     */
+    private final Map<Integer, ClasificadorTickets.Clasificacion> clasificaciones = new ConcurrentHashMap<>();
+
+    /**
+     * Bitácora de escritura anticipada; null mientras no se abra o durante la reproducción.
      */
-    private Repomemory repositorio;
+    private volatile BitacoraEscritura bitacora;
 
     /**
-     * Constructor que inicializa el gestor de negocio.
+     * Archivo de instantáneas; null si no se usan.
+     */
+    private volatile Path archivoInstantanea;
+
+    /**
+     * Tarea periódica que escribe instantáneas en segundo plano.
+     */
+    private ScheduledExecutorService escritorInstantaneas;
+
+    /**
+     * Error de la última instantánea programada; null si se escribió bien.
+     */
+    private volatile String errorInstantanea;
+
+    /**
+     * Serializa la escritura de instantáneas y guarda la posición de la última escrita.
+     */
+    private final Object candadoInstantanea = new Object();
+    private long posicionUltimaInstantanea = -1;
+
+    /**
+     * Indica si el controlador ya se cerró; el modo servidor puede cerrarlo desde dos hilos.
+     */
+    private final AtomicBoolean cerrado = new AtomicBoolean();
+
+    /**
+     * Recepción asíncrona de tickets; se crea con el primer envío.
+     */
+    private volatile RecepcionTickets recepcion;
+
+    /**
+     * Constructor que inicializa el gestor de negocio con hash SHA-256.
      */
     public ControladorHelpDesk() {
+        this(ServicioHash.sha256());
+    }
+
+    /**
+     * Constructor que inicializa el gestor de negocio con el servicio de hash indicado.
+     *
+     * @param servicioHash Servicio de hash para las contraseñas.
+     */
+    public ControladorHelpDesk(ServicioHash servicioHash) {
+        this(servicioHash, new LimitadorIntentos());
+    }
+
+    /**
+     * Constructor que inicializa el gestor de negocio con el servicio de hash
+     * y el límite de intentos de inicio de sesión indicados.
+     *
+     * @param servicioHash Servicio de hash para las contraseñas.
+     * @param limitador Límite de intentos de inicio de sesión.
+     */
+    public ControladorHelpDesk(ServicioHash servicioHash, LimitadorIntentos limitador) {
+        this(servicioHash, limitador, IndiceTickets.Almacenamiento.OBJETOS);
+    }
+
+    /**
+     * Constructor que indica además cómo se guardan los tickets. En modo
+     * {@link IndiceTickets.Almacenamiento#COLUMNAR} los tickets no se entregan al
+     * gestor de negocio ni se conservan como entidades: {@link #obtenerTicket(int)}
+     * y {@link #obtenerTickets()} construyen entidades nuevas en cada llamada, y los
+     * listados deben usar las vistas de tickets.
+     *
+     * @param servicioHash Servicio de hash para las contraseñas.
+     * @param limitador Límite de intentos de inicio de sesión.
+     * @param almacenamiento Forma de guardar los tickets.
+     */
+    public ControladorHelpDesk(ServicioHash servicioHash, LimitadorIntentos limitador,
+                               IndiceTickets.Almacenamiento almacenamiento) {
         this.gestor = new GestorHelpDesk();
+        this.servicioHash = servicioHash;
+        this.limitador = limitador;
+        this.indiceTickets = new IndiceTickets(almacenamiento, this.usuarios::obtener, this.departamentos::obtener);
+        Paginador.IndiceOrden<VistaTicket> porEstado = this.ordenesTickets.get("estado");
+        this.indiceTickets.observarEstados((id, anterior, nuevo) ->
+                porEstado.mover(this.indiceTickets.vistas(), id - 1, anterior.etiqueta()));
     }
 
     // ================== MÉTODOS PARA USUARIOS ==================
@@ -43,11 +259,72 @@ public class ControladorHelpDesk {
      * @param rol Rol del usuario.
      * @param correo Correo electrónico.
      * @param telefono Número de teléfono.
+     * @return Identificador asignado al usuario.
+     */
+    public int registrarUsuario(String nombre, String password, String rol, String correo, String telefono) {
+        return this.medir(EstadisticasOperaciones.Operacion.REGISTRAR_USUARIO, () -> {
+            String hashedPassword = this.hashPassword(password);
+            Usuario usuario = new Usuario(nombre, hashedPassword, rol, correo, telefono);
+            IndiceCorreos.Cuenta cuenta = new IndiceCorreos.Cuenta(usuario, hashedPassword);
+            if (!this.indiceCorreos.reservar(correo, cuenta)) {
+                throw new IllegalArgumentException("El correo ya existe en el sistema");
+            }
+            int id;
+            CompletableFuture<Void> escrito;
+            try {
+                synchronized (this.gestor) {
+                    escrito = this.anotar(OperacionesBitacora.usuario(nombre, hashedPassword, rol, correo, telefono));
+                    this.gestor.registrarUsuario(usuario);
+                    id = this.usuarios.agregar(usuario);
+                }
+            } catch (RuntimeException e) {
+                this.indiceCorreos.liberar(correo, cuenta);
+                throw e;
+            }
+            confirmar(escrito);
+            return id;
+        });
+    }
+
+    /**
+     * Registra un lote de usuarios cuyas contraseñas ya fueron hasheadas.
+     * Los correos se reservan uno a uno y los usuarios válidos se agregan
+     * al gestor en una sola operación. Si la bitácora rechaza una cuenta, su
+     * correo se libera y la cuenta queda con el error sin tocar la memoria.
+     *
+     * @param cuentas Cuentas a registrar.
+     * @return Lista del mismo tamaño con null para cada cuenta registrada o el mensaje de error.
      */
-    public void registrarUsuario(String nombre, String password, String rol, String correo, String telefono) {
-        String hashedPassword = this.hashPassword(password);
-        Usuario usuario = new Usuario(nombre, hashedPassword, rol, correo, telefono);
-        this.gestor.registrarUsuario(usuario);
+    List<String> registrarLoteHasheado(List<IndiceCorreos.Cuenta> cuentas) {
+        List<String> errores = new ArrayList<>(cuentas.size());
+        List<Integer> reservadas = new ArrayList<>(cuentas.size());
+        for (IndiceCorreos.Cuenta cuenta : cuentas) {
+            if (this.indiceCorreos.reservar(cuenta.usuario().getCorreo(), cuenta)) {
+                reservadas.add(errores.size());
+                errores.add(null);
+            } else {
+                errores.add("El correo ya existe en el sistema");
+            }
+        }
+        List<CompletableFuture<Void>> escritos = new ArrayList<>(reservadas.size());
+        synchronized (this.gestor) {
+            for (int posicion : reservadas) {
+                IndiceCorreos.Cuenta cuenta = cuentas.get(posicion);
+                Usuario usuario = cuenta.usuario();
+                try {
+                    escritos.add(this.anotar(OperacionesBitacora.usuario(usuario.getNombre(), cuenta.passwordHash(),
+                            usuario.getRol(), usuario.getCorreo(), usuario.getTelefono())));
+                } catch (RuntimeException e) {
+                    this.indiceCorreos.liberar(usuario.getCorreo(), cuenta);
+                    errores.set(posicion, e.getMessage());
+                    continue;
+                }
+                this.gestor.registrarUsuario(usuario);
+                this.usuarios.agregar(usuario);
+            }
+        }
+        confirmar(escritos);
+        return errores;
     }
 
     /**
@@ -56,25 +333,70 @@ public class ControladorHelpDesk {
      * @param correo Correo del usuario.
      * @param password Contraseña del usuario.
      * @return Usuario autenticado si las credenciales son correctas; null en caso contrario.
+     * @throws IllegalStateException Si la cuenta superó el límite de intentos fallidos.
      */
     public Usuario autenticarUsuario(String correo, String password) {
-        return gestor.autenticarUsuario(correo, password);
+        return this.autenticarUsuario(correo, password, null);
+    }
+
+    /**
+     * Autentica a un usuario usando correo y contraseña, limitando los intentos
+     * de la cuenta y del origen antes de buscarla y verificar la contraseña.
+     *
+     * @param correo Correo del usuario.
+     * @param password Contraseña del usuario.
+     * @param origen Dirección de origen del intento; null si no se conoce.
+     * @return Usuario autenticado si las credenciales son correctas; null en caso contrario.
+     * @throws IllegalStateException Si la cuenta o el origen superaron su límite de intentos.
+     */
+    public Usuario autenticarUsuario(String correo, String password, String origen) {
+        return this.medir(EstadisticasOperaciones.Operacion.AUTENTICAR_USUARIO,
+                () -> this.autenticar(correo, password, origen));
+    }
+
+    /**
+     * Autentica sin contar en las estadísticas; lo usa también {@link #iniciarSesion(String, String, String)}.
+     */
+    private Usuario autenticar(String correo, String password, String origen) {
+        if (correo == null || password == null) {
+            return null;
+        }
+        long espera = this.limitador.permitir(correo, origen);
+        if (espera > 0) {
+            throw new IllegalStateException("Demasiados intentos de inicio de sesión. Intente de nuevo en "
+                    + Math.max(1, (espera + 999) / 1000) + " s");
+        }
+        IndiceCorreos.Cuenta cuenta = this.indiceCorreos.buscar(correo);
+        if (cuenta != null && this.servicioHash.verificar(password, cuenta.passwordHash())) {
+            this.limitador.registrarExito(correo);
+            return cuenta.usuario();
+        }
+        this.limitador.registrarFallo(correo);
+        return null;
+    }
+
+    /**
+     * Indica si ya existe un usuario registrado con el correo indicado.
+     *
+     * @param correo Correo a consultar.
+     * @return true si el correo ya está registrado.
+     */
+    public boolean existeCorreo(String correo) {
+        return this.medir(EstadisticasOperaciones.Operacion.EXISTE_CORREO, () -> this.indiceCorreos.existe(correo));
     }
 
     /**
-     * Valida el nombre de un usuario asegurando longitud válida y no vacío.
+     * Valida el nombre de un usuario asegurando longitud válida, no vacío y sin números.
      *
      * @param nombre Nombre a validar.
      */
     public void validadNombre(String nombre) {
-        if (!nombre.trim().isEmpty() && nombre != null) {
-            String nombreLimpio = nombre.trim();
-            if (nombreLimpio.length() < 2 || nombreLimpio.length() > 50) {
-                throw new IllegalArgumentException("El nombre debe tener entre 2 y 50 caracteres");
+        this.medir(EstadisticasOperaciones.Operacion.VALIDAR_NOMBRE, () -> {
+            String error = ValidadorEntrada.validarNombre(nombre);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
             }
-        } else {
-            throw new IllegalArgumentException("El nombre es obligatorio");
-        }
+        });
     }
 
     /**
@@ -83,14 +405,43 @@ public class ControladorHelpDesk {
      * @param correo Correo a validar.
      */
     public void validarCorreo(String correo) {
-        if (!correo.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-            throw new IllegalArgumentException("Formato de correo inválido. Ejemplo: usuario@dominio.com");
-        } else {
-            this.validarCorreoUnico(correo);
-            if (correo.length() > 100) {
-                throw new IllegalArgumentException("El correo es demasiado largo");
+        this.medir(EstadisticasOperaciones.Operacion.VALIDAR_CORREO, () -> {
+            String error = ValidadorEntrada.validarCorreo(correo);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
             }
+            this.verificarCorreoUnico(correo);
+        });
+    }
+
+    /**
+     * Valida todos los datos de un usuario en una sola pasada, incluida la unicidad del correo.
+     *
+     * @param nombre Nombre completo.
+     * @param correo Correo electrónico.
+     * @param telefono Número de teléfono.
+     * @param rol Rol del usuario.
+     * @param password Contraseña en texto plano.
+     * @return Lista de violaciones; vacía si los datos son válidos.
+     */
+    public List<ValidadorEntrada.Violacion> validarUsuario(String nombre, String correo, String telefono, String rol, String password) {
+        return this.medir(EstadisticasOperaciones.Operacion.VALIDAR_USUARIO,
+                () -> this.violacionesUsuario(nombre, correo, telefono, rol, password));
+    }
+
+    /**
+     * Valida un usuario sin contar en las estadísticas; lo usa también la importación por lotes.
+     */
+    List<ValidadorEntrada.Violacion> violacionesUsuario(String nombre, String correo, String telefono, String rol,
+                                                         String password) {
+        List<ValidadorEntrada.Violacion> violaciones =
+                ValidadorEntrada.validarUsuario(nombre, correo, telefono, rol, password);
+        if (correo != null && this.indiceCorreos.existe(correo)) {
+            List<ValidadorEntrada.Violacion> todas = new ArrayList<>(violaciones);
+            todas.add(new ValidadorEntrada.Violacion("correo", "El correo ya existe en el sistema"));
+            return todas;
         }
+        return violaciones;
     }
 
     /**
@@ -99,29 +450,23 @@ public class ControladorHelpDesk {
      * @param correo Correo a validar.
      */
     public void validarCorreoUnico(String correo) {
-        if (this.repositorio.existeCorreo(correo.toLowerCase())) {
+        this.medir(EstadisticasOperaciones.Operacion.VALIDAR_CORREO_UNICO, () -> this.verificarCorreoUnico(correo));
+    }
+
+    private void verificarCorreoUnico(String correo) {
+        if (this.indiceCorreos.existe(correo)) {
             throw new IllegalArgumentException("El correo ya existe en el sistema");
         }
     }
 
     /**
-     * Aplica hash SHA-256 a una contraseña.
+     * Aplica el hash configurado a una contraseña.
      *
      * @param password Contraseña en texto plano.
-     * @return Contraseña hasheada en hexadecimal.
+     * @return Contraseña hasheada.
      */
-    private String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error al hashear la contraseña", e);
-        }
+    String hashPassword(String password) {
+        return this.servicioHash.hash(password);
     }
 
     /**
@@ -130,7 +475,110 @@ public class ControladorHelpDesk {
      * @return Lista de usuarios.
      */
     public List<Usuario> obtenerUsuarios() {
-        return this.gestor.listarUsuarios();
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_USUARIOS, () -> this.usuarios.comoLista());
+    }
+
+    /**
+     * Devuelve una página de usuarios registrados.
+     *
+     * @param tamanio Cantidad de elementos por página.
+     * @param cursor Cursor de la página anterior; null para la primera.
+     * @param orden Clave de orden (ver {@link #ORDENES_USUARIOS}); null para el orden de registro.
+     * @return Página de usuarios registrados.
+     */
+    public Pagina<Usuario> obtenerUsuarios(int tamanio, String cursor, String orden) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_USUARIOS_PAGINA, () -> Paginador.paginar(
+                this.usuarios.comoLista(), tamanio, cursor, indiceOrden(this.ordenesUsuarios, orden)));
+    }
+
+    /**
+     * Devuelve un usuario por su identificador.
+     *
+     * @param id Identificador del usuario.
+     * @return Usuario correspondiente o null si no existe.
+     */
+    public Usuario obtenerUsuario(int id) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_USUARIO, () -> this.usuarios.obtener(id));
+    }
+
+    /**
+     * Devuelve un usuario sin contar en las estadísticas; lo usa la recepción asíncrona.
+     */
+    Usuario usuario(int id) {
+        return this.usuarios.obtener(id);
+    }
+
+    /**
+     * Devuelve el identificador de un usuario registrado.
+     *
+     * @param usuario Usuario registrado.
+     * @return Identificador o 0 si el usuario no está registrado.
+     */
+    public int obtenerIdUsuario(Usuario usuario) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_ID_USUARIO, () -> this.usuarios.id(usuario));
+    }
+
+    /**
+     * Devuelve el identificador del usuario con el correo indicado.
+     *
+     * @param correo Correo del usuario.
+     * @return Identificador o 0 si no hay un usuario con ese correo.
+     */
+    public int buscarIdUsuario(String correo) {
+        return this.medir(EstadisticasOperaciones.Operacion.BUSCAR_ID_USUARIO, () -> {
+            IndiceCorreos.Cuenta cuenta = this.indiceCorreos.buscar(correo);
+            return cuenta == null ? 0 : this.usuarios.id(cuenta.usuario());
+        });
+    }
+
+    // ================== MÉTODOS PARA SESIONES ==================
+
+    /**
+     * Autentica a un usuario y abre una sesión para él.
+     *
+     * @param correo Correo del usuario.
+     * @param password Contraseña del usuario.
+     * @return Token de la sesión si las credenciales son correctas; null en caso contrario.
+     * @throws IllegalStateException Si la cuenta superó el límite de intentos fallidos.
+     */
+    public String iniciarSesion(String correo, String password) {
+        return this.iniciarSesion(correo, password, null);
+    }
+
+    /**
+     * Autentica a un usuario y abre una sesión para él, limitando los intentos
+     * de la cuenta y del origen.
+     *
+     * @param correo Correo del usuario.
+     * @param password Contraseña del usuario.
+     * @param origen Dirección de origen del intento; null si no se conoce.
+     * @return Token de la sesión si las credenciales son correctas; null en caso contrario.
+     * @throws IllegalStateException Si la cuenta o el origen superaron su límite de intentos.
+     */
+    public String iniciarSesion(String correo, String password, String origen) {
+        return this.medir(EstadisticasOperaciones.Operacion.INICIAR_SESION, () -> {
+            Usuario usuario = this.autenticar(correo, password, origen);
+            return usuario == null ? null : this.sesiones.abrir(usuario);
+        });
+    }
+
+    /**
+     * Devuelve el usuario de una sesión activa y extiende su vigencia.
+     *
+     * @param token Token de la sesión.
+     * @return Usuario de la sesión o null si el token no es válido o venció.
+     */
+    public Usuario obtenerUsuarioSesion(String token) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_USUARIO_SESION, () -> this.sesiones.validar(token));
+    }
+
+    /**
+     * Cierra una sesión activa.
+     *
+     * @param token Token de la sesión.
+     */
+    public void cerrarSesion(String token) {
+        this.medir(EstadisticasOperaciones.Operacion.CERRAR_SESION, () -> this.sesiones.cerrar(token));
     }
 
     // ================== MÉTODOS PARA DEPARTAMENTOS ==================
@@ -142,10 +590,32 @@ public class ControladorHelpDesk {
      * @param descripcion Descripción del departamento.
      * @param correo Correo electrónico del departamento.
      * @param extensionTelefono Teléfono del departamento.
+     * @return Identificador asignado al departamento.
+     */
+    public int registrarDepartamento(String nombre, String descripcion, String correo, String extensionTelefono) {
+        return this.medir(EstadisticasOperaciones.Operacion.REGISTRAR_DEPARTAMENTO,
+                () -> this.agregarDepartamento(nombre, descripcion, correo, extensionTelefono));
+    }
+
+    /**
+     * Registra un departamento sin contarlo en las estadísticas; lo usa también
+     * la reproducción de la bitácora.
      */
-    public void registrarDepartamento(String nombre, String descripcion, String correo, String extensionTelefono) {
+    private int agregarDepartamento(String nombre, String descripcion, String correo, String extensionTelefono) {
+        List<ValidadorEntrada.Violacion> violaciones = ValidadorEntrada.validarDepartamento(nombre, correo, extensionTelefono);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(ValidadorEntrada.mensaje(violaciones));
+        }
         Departamento departamento = new Departamento(nombre, descripcion, correo, extensionTelefono);
-        this.gestor.registrarDepartamento(departamento);
+        int id;
+        CompletableFuture<Void> escrito;
+        synchronized (this.gestor) {
+            escrito = this.anotar(OperacionesBitacora.departamento(nombre, descripcion, correo, extensionTelefono));
+            this.gestor.registrarDepartamento(departamento);
+            id = this.departamentos.agregar(departamento);
+        }
+        confirmar(escrito);
+        return id;
     }
 
     /**
@@ -154,97 +624,1213 @@ public class ControladorHelpDesk {
      * @return Lista de departamentos.
      */
     public List<Departamento> obtenerDepartamentos() {
-        return this.gestor.listarDepartamentos();
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_DEPARTAMENTOS,
+                () -> this.departamentos.comoLista());
     }
 
-    // ================== MÉTODOS PARA TICKETS ==================
-
     /**
-     * Registra un ticket en el sistema.
+     * Devuelve una página de departamentos registrados.
      *
-     * @param asunto Asunto del ticket.
-     * @param descripcion Descripción del ticket.
-     * @param usuario Usuario que crea el ticket.
-     * @param estado Estado inicial del ticket.
-     * @param departamento Departamento asignado al ticket.
+     * @param tamanio Cantidad de elementos por página.
+     * @param cursor Cursor de la página anterior; null para la primera.
+     * @param orden Clave de orden (ver {@link #ORDENES_DEPARTAMENTOS}); null para el orden de registro.
+     * @return Página de departamentos registrados.
      */
-    public void registrarTicket(String asunto, String descripcion, Usuario usuario, String estado, Departamento departamento) {
-        if (usuario != null && departamento != null) {
-            Ticket ticket = new Ticket(asunto, descripcion, usuario, estado, departamento);
-            this.gestor.registrarTicket(ticket);
-        }
+    public Pagina<Departamento> obtenerDepartamentos(int tamanio, String cursor, String orden) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_DEPARTAMENTOS_PAGINA, () -> Paginador.paginar(
+                this.departamentos.comoLista(), tamanio, cursor, indiceOrden(this.ordenesDepartamentos, orden)));
     }
 
     /**
-     * Devuelve todos los tickets registrados.
+     * Devuelve un departamento por su identificador.
      *
-     * @return Lista de tickets.
+     * @param id Identificador del departamento.
+     * @return Departamento correspondiente o null si no existe.
      */
-    public List<Ticket> obtenerTickets() {
-        return this.gestor.listarTickets();
+    public Departamento obtenerDepartamento(int id) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_DEPARTAMENTO, () -> this.departamentos.obtener(id));
     }
 
-    // ================== MÉTODOS PARA DICCIONARIOS ==================
+    /**
+     * Devuelve un departamento sin contar en las estadísticas; lo usa la recepción asíncrona.
+     */
+    Departamento departamento(int id) {
+        return this.departamentos.obtener(id);
+    }
 
     /**
-     * Agrega una palabra emocional al diccionario.
+     * Devuelve el identificador de un departamento registrado.
      *
-     * @param emocion Tipo de emoción asociada.
-     * @param palabra Palabra a agregar.
+     * @param departamento Departamento registrado.
+     * @return Identificador o 0 si el departamento no está registrado.
      */
-    public void agregarPalabraEmocion(String emocion, String palabra) {
-        DiccionarioEmocion entrada = new DiccionarioEmocion(palabra, emocion);
-        this.gestor.agregarPalabraEmocion(entrada);
+    public int obtenerIdDepartamento(Departamento departamento) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_ID_DEPARTAMENTO,
+                () -> this.departamentos.id(departamento));
     }
 
+    // ================== MÉTODOS PARA TICKETS ==================
+
     /**
-     * Devuelve todas las palabras emocionales registradas.
+     * Registra un ticket en el sistema y lo clasifica según los diccionarios.
      *
-     * @return Lista de palabras emocionales.
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @param idUsuario Identificador del usuario que crea el ticket.
+     * @param estado Estado inicial del ticket, por su etiqueta o su nombre.
+     * @param idDepartamento Identificador del departamento asignado al ticket; 0 para
+     *                       asignarlo según las rutas de las categorías técnicas.
+     * @return Identificador asignado al ticket.
      */
-    public List<DiccionarioEmocion> obtenerDiccionarioEmociones() {
-        return this.gestor.listarDiccionarioEmociones();
+    public int registrarTicket(String asunto, String descripcion, int idUsuario, String estado, int idDepartamento) {
+        return this.medir(EstadisticasOperaciones.Operacion.REGISTRAR_TICKET,
+                () -> this.agregarTicket(asunto, descripcion, idUsuario, estado, idDepartamento));
     }
 
     /**
-     * Agrega una palabra técnica al diccionario.
+     * Registra un ticket sin contarlo en las estadísticas; lo usa también la
+     * reproducción de la bitácora.
+     */
+    private int agregarTicket(String asunto, String descripcion, int idUsuario, String estado, int idDepartamento) {
+        estado = EstadoTicket.desde(estado).etiqueta();
+        Usuario usuario = this.usuarios.obtener(idUsuario);
+        if (usuario == null) {
+            throw new IllegalArgumentException("El usuario no existe");
+        }
+        ClasificadorTickets.Clasificacion clasificacion = this.clasificar(asunto, descripcion);
+        if (idDepartamento == 0) {
+            idDepartamento = this.enrutar(clasificacion);
+        }
+        Departamento departamento = this.departamentos.obtener(idDepartamento);
+        if (departamento == null) {
+            throw new IllegalArgumentException("El departamento no existe");
+        }
+        Ticket ticket = new Ticket(asunto, descripcion, usuario, estado, departamento);
+        IndiceTexto.Documento documento = IndiceTexto.documento(asunto, descripcion);
+        int[] firma = DetectorDuplicados.firma(asunto, descripcion);
+        int id;
+        CompletableFuture<Void> escrito;
+        synchronized (this.gestor) {
+            // Se anota antes de tocar la memoria: si la bitácora lo rechaza no queda nada a medias, y
+            // un cambio de estado concurrente queda después en la bitácora.
+            escrito = this.anotar(OperacionesBitacora.ticket(asunto, descripcion, idUsuario, estado, idDepartamento));
+            this.registrarEnGestor(ticket);
+            id = this.indiceTickets.agregar(ticket, idUsuario, idDepartamento);
+            this.indiceTexto.agregar(id, documento);
+            this.duplicados.agregar(id, firma);
+        }
+        this.clasificaciones.put(id, clasificacion);
+        confirmar(escrito);
+        return id;
+    }
+
+    /**
+     * Envía un ticket a la recepción asíncrona. El llamador no espera la
+     * clasificación, la indexación ni la escritura en la bitácora; si la cola
+     * está llena, espera a que haya espacio.
      *
-     * @param categoria Categoría técnica asociada.
-     * @param palabra Palabra a agregar.
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @param idUsuario Identificador del usuario que crea el ticket.
+     * @param estado Estado inicial del ticket, por su etiqueta o su nombre.
+     * @param idDepartamento Identificador del departamento asignado al ticket.
+     * @return Acuse que se completa con el identificador del ticket cuando ya es durable.
+     * @throws IllegalArgumentException Si el estado no es válido.
      */
-    public void agregarPalabraTecnica(String categoria, String palabra) {
-        DiccionarioTecnico entrada = new DiccionarioTecnico(palabra, categoria);
-        this.gestor.agregarPalabraTecnica(entrada);
+    public CompletableFuture<Integer> enviarTicket(String asunto, String descripcion, int idUsuario,
+                                                   String estado, int idDepartamento) {
+        return this.medir(EstadisticasOperaciones.Operacion.ENVIAR_TICKET, () -> this.recepcionTickets().enviar(
+                asunto, descripcion, idUsuario, EstadoTicket.desde(estado).etiqueta(), idDepartamento));
     }
 
     /**
-     * Devuelve todas las palabras técnicas registradas.
+     * Devuelve la recepción asíncrona de tickets, creándola si aún no existe.
      *
-     * @return Lista de palabras técnicas.
+     * @return Recepción de tickets del controlador.
      */
-    public List<DiccionarioTecnico> obtenerDiccionarioTecnico() {
-        return this.gestor.listarDiccionarioTecnico();
+    public RecepcionTickets recepcionTickets() {
+        RecepcionTickets actual = this.recepcion;
+        if (actual == null) {
+            synchronized (this.cerrado) {
+                actual = this.recepcion;
+                if (actual == null) {
+                    if (this.cerrado.get()) {
+                        throw new IllegalStateException("El controlador está cerrado");
+                    }
+                    actual = new RecepcionTickets(this, RecepcionTickets.CAPACIDAD_DEFECTO);
+                    this.recepcion = actual;
+                }
+            }
+        }
+        return actual;
     }
 
-    // ================== MÉTODOS DE BÚSQUEDA ==================
+    /**
+     * Registra un lote de tickets ya validados y clasificados con un solo
+     * bloqueo del gestor. Asigna el identificador y el registro de bitácora de
+     * cada solicitud; no espera a que la bitácora sea durable. Si falla a mitad
+     * del lote, las solicitudes ya registradas conservan su identificador y las
+     * demás quedan con 0.
+     *
+     * @param lote Solicitudes de la recepción asíncrona.
+     */
+    void registrarLoteTickets(List<RecepcionTickets.Solicitud> lote) {
+        try {
+            synchronized (this.gestor) {
+                for (RecepcionTickets.Solicitud s : lote) {
+                    s.escrito = this.anotar(OperacionesBitacora.ticket(s.asunto, s.descripcion,
+                            s.idUsuario, s.estado, s.idDepartamento));
+                    this.registrarEnGestor(s.ticket);
+                    s.id = this.indiceTickets.agregar(s.ticket, s.idUsuario, s.idDepartamento);
+                    this.indiceTexto.agregar(s.id, s.documento);
+                    this.duplicados.agregar(s.id, s.firma);
+                }
+            }
+        } finally {
+            for (RecepcionTickets.Solicitud s : lote) {
+                if (s.id != 0) {
+                    this.clasificaciones.put(s.id, s.clasificacion);
+                }
+            }
+        }
+    }
 
     /**
-     * Devuelve un usuario por índice.
+     * Devuelve un ticket por su identificador.
      *
-     * @param index Índice del usuario.
-     * @return Usuario correspondiente o null si no existe.
+     * @param id Identificador del ticket.
+     * @return Ticket correspondiente o null si no existe.
      */
-    public Usuario getUsuario(int index) {
-        return this.gestor.getUsuario(index);
+    public Ticket obtenerTicket(int id) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_TICKET, () -> this.indiceTickets.obtener(id));
     }
 
     /**
-     * Devuelve un departamento por índice.
+     * Devuelve el identificador de un ticket registrado.
      *
-     * @param index Índice del departamento.
-     * @return Departamento correspondiente o null si no existe.
+     * @param ticket Ticket registrado.
+     * @return Identificador o 0 si el ticket no está registrado.
      */
-    public Departamento getDepartamento(int index) {
-        return this.gestor.getDepartamento(index);
+    public int obtenerIdTicket(Ticket ticket) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_ID_TICKET, () -> this.indiceTickets.id(ticket));
+    }
+
+    /**
+     * Devuelve la clasificación calculada al registrar un ticket. Los tickets
+     * cargados desde una instantánea se clasifican la primera vez que se consultan.
+     *
+     * @param idTicket Identificador del ticket.
+     * @return Emociones y categorías detectadas; vacía si el ticket no existe.
+     */
+    public ClasificadorTickets.Clasificacion obtenerClasificacion(int idTicket) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_CLASIFICACION, () -> {
+            ClasificadorTickets.Clasificacion clasificacion = this.clasificaciones.get(idTicket);
+            if (clasificacion != null) {
+                return clasificacion;
+            }
+            Ticket ticket = this.indiceTickets.obtener(idTicket);
+            if (ticket == null) {
+                return ClasificadorTickets.Clasificacion.VACIA;
+            }
+            return this.clasificaciones.computeIfAbsent(idTicket,
+                    id -> this.clasificar(ticket.getAsunto(), ticket.getDescripcion()));
+        });
+    }
+
+    /**
+     * Clasifica un texto de ticket con los diccionarios emocional y técnico actuales.
+     *
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @return Emociones y categorías detectadas.
+     */
+    public ClasificadorTickets.Clasificacion clasificarTicket(String asunto, String descripcion) {
+        return this.medir(EstadisticasOperaciones.Operacion.CLASIFICAR_TICKET,
+                () -> this.clasificar(asunto, descripcion));
+    }
+
+    /**
+     * Clasifica sin contar en las estadísticas; lo usan el registro, la recepción asíncrona y el enrutamiento.
+     */
+    ClasificadorTickets.Clasificacion clasificar(String asunto, String descripcion) {
+        return this.diccionarios.actual().clasificar(asunto, descripcion);
+    }
+
+    /**
+     * Devuelve todos los tickets registrados.
+     *
+     * @return Lista de tickets.
+     */
+    public List<Ticket> obtenerTickets() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_TICKETS, () -> this.indiceTickets.todos());
+    }
+
+    /**
+     * Devuelve una página de tickets registrados.
+     *
+     * @param tamanio Cantidad de elementos por página.
+     * @param cursor Cursor de la página anterior; null para la primera.
+     * @param orden Clave de orden (ver {@link #obtenerOrdenesTickets()}); null para el orden de registro.
+     * @return Página de tickets registrados.
+     */
+    public Pagina<Ticket> obtenerTickets(int tamanio, String cursor, String orden) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_TICKETS_PAGINA, () -> {
+            Paginador.IndiceOrden<VistaTicket> indice = indiceOrden(this.ordenesTickets, orden);
+            if (indice == null) {
+                return Paginador.paginar(this.indiceTickets.todos(), tamanio, cursor, null);
+            }
+            // El orden se lee de las vistas; solo se construyen las entidades de la página.
+            Pagina<VistaTicket> vistas = Paginador.paginar(this.indiceTickets.vistas(), tamanio, cursor, indice);
+            List<Ticket> elementos = new ArrayList<>(vistas.elementos().size());
+            for (VistaTicket vista : vistas.elementos()) {
+                elementos.add(this.indiceTickets.obtener(vista.id()));
+            }
+            return new Pagina<>(List.copyOf(elementos), vistas.cursorSiguiente(), vistas.inicio(), vistas.total());
+        });
+    }
+
+    /**
+     * Devuelve los datos de un ticket para mostrarlo en un listado, sin construir la entidad.
+     *
+     * @param id Identificador del ticket.
+     * @return Vista del ticket o null si no existe.
+     */
+    public VistaTicket obtenerVistaTicket(int id) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_VISTA_TICKET, () -> this.indiceTickets.vista(id));
+    }
+
+    /**
+     * Devuelve una página de vistas de tickets. Solo se construyen las vistas que
+     * se recorren, por lo que en orden de registro el costo es el de la página.
+     *
+     * @param tamanio Cantidad de elementos por página.
+     * @param cursor Cursor de la página anterior; null para la primera.
+     * @param orden Clave de orden (ver {@link #obtenerOrdenesTickets()}); null para el orden de registro.
+     * @return Página de vistas de tickets.
+     */
+    public Pagina<VistaTicket> obtenerVistasTickets(int tamanio, String cursor, String orden) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_VISTAS_TICKETS, () -> Paginador.paginar(
+                this.indiceTickets.vistas(), tamanio, cursor, indiceOrden(this.ordenesTickets, orden)));
+    }
+
+    /**
+     * Devuelve las claves de orden disponibles para el listado paginado de tickets.
+     *
+     * @return Claves de orden.
+     */
+    public Set<String> obtenerOrdenesTickets() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_ORDENES_TICKETS,
+                () -> this.ordenesTickets.keySet());
+    }
+
+    /**
+     * Busca tickets combinando estado, departamento y usuario solicitante mediante los índices.
+     * Un estado null o vacío y un identificador 0 no restringen la búsqueda.
+     *
+     * @param estado Estado del ticket.
+     * @param idDepartamento Identificador del departamento.
+     * @param idUsuario Identificador del usuario que creó el ticket.
+     * @return Tickets que cumplen todos los filtros, en orden de registro.
+     */
+    public List<Ticket> buscarTickets(String estado, int idDepartamento, int idUsuario) {
+        return this.medir(EstadisticasOperaciones.Operacion.BUSCAR_TICKETS,
+                () -> this.indiceTickets.buscar(estado, idDepartamento, idUsuario));
+    }
+
+    /**
+     * Busca tickets igual que {@link #buscarTickets(String, int, int)}, sin construir las entidades.
+     *
+     * @param estado Estado del ticket.
+     * @param idDepartamento Identificador del departamento.
+     * @param idUsuario Identificador del usuario que creó el ticket.
+     * @return Vistas de los tickets que cumplen todos los filtros, en orden de registro.
+     */
+    public List<VistaTicket> buscarVistasTickets(String estado, int idDepartamento, int idUsuario) {
+        return this.medir(EstadisticasOperaciones.Operacion.BUSCAR_VISTAS_TICKETS,
+                () -> this.indiceTickets.buscarVistas(estado, idDepartamento, idUsuario));
+    }
+
+    /**
+     * Busca tickets por texto en el asunto y la descripción, ordenados por
+     * relevancia. Un término terminado en {@code *} busca por prefijo.
+     *
+     * @param consulta Texto a buscar.
+     * @param estado Estado del ticket; null o vacío no restringe.
+     * @param idDepartamento Identificador del departamento; 0 no restringe.
+     * @param limite Cantidad máxima de resultados.
+     * @return Identificadores y puntajes, del más relevante al menos relevante.
+     */
+    public List<IndiceTexto.Resultado> buscarTexto(String consulta, String estado, int idDepartamento, int limite) {
+        return this.medir(EstadisticasOperaciones.Operacion.BUSCAR_TEXTO,
+                () -> this.indiceTexto.buscar(consulta, this.indiceTickets.filtro(estado, idDepartamento), limite));
+    }
+
+    /**
+     * Devuelve el estado vigente de un ticket.
+     *
+     * @param idTicket Identificador del ticket.
+     * @return Estado vigente o null si el ticket no existe.
+     */
+    public EstadoTicket obtenerEstadoTicket(int idTicket) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_ESTADO_TICKET,
+                () -> this.indiceTickets.estado(idTicket));
+    }
+
+    /**
+     * Cambia el estado de un ticket desde el estado en que esté.
+     *
+     * @param idTicket Identificador del ticket.
+     * @param estado Estado nuevo, por su etiqueta o su nombre.
+     * @throws IllegalArgumentException Si el estado no es válido o el ticket no existe.
+     * @throws IllegalStateException Si el ticket no puede pasar al estado nuevo.
+     */
+    public void cambiarEstadoTicket(int idTicket, String estado) {
+        if (estado == null || estado.isBlank()) {
+            throw new IllegalArgumentException("El estado es obligatorio");
+        }
+        this.cambiarEstadoTicket(idTicket, null, EstadoTicket.desde(estado));
+    }
+
+    /**
+     * Cambia el estado de un ticket en forma atómica y sin bloquear a los demás
+     * agentes. Con un estado esperado, el cambio solo ocurre si el ticket sigue en
+     * ese estado; así, de dos agentes que toman el mismo ticket pendiente, solo uno
+     * lo pasa a en proceso y el otro recibe false.
+     * <p>
+     * El registro de bitácora lleva la versión del ticket, por lo que dos cambios
+     * concurrentes pueden anotarse en cualquier orden y la reproducción deja el
+     * estado del último.
+     * Si el registro no se puede escribir, el cambio se deshace, salvo que otro
+     * agente ya haya cambiado el ticket de nuevo.
+     *
+     * @param idTicket Identificador del ticket.
+     * @param esperado Estado en que debe estar el ticket; null acepta cualquiera.
+     * @param nuevo Estado nuevo.
+     * @return true si el ticket cambió; false si no estaba en el estado esperado o ya estaba en el nuevo.
+     * @throws IllegalArgumentException Si el ticket no existe o la transición nunca está permitida.
+     * @throws IllegalStateException Si, sin estado esperado, el ticket no puede pasar al estado nuevo.
+     */
+    public boolean cambiarEstadoTicket(int idTicket, EstadoTicket esperado, EstadoTicket nuevo) {
+        return this.medir(EstadisticasOperaciones.Operacion.CAMBIAR_ESTADO_TICKET, () -> {
+            if (nuevo == null) {
+                throw new IllegalArgumentException("El estado es obligatorio");
+            }
+            if (esperado != null && !esperado.puedePasarA(nuevo)) {
+                throw new IllegalArgumentException("Un ticket " + esperado + " no puede pasar a " + nuevo);
+            }
+            int anterior = this.indiceTickets.cambiarMarca(idTicket, esperado, nuevo);
+            if (anterior < 0) {
+                EstadoTicket actual = this.indiceTickets.estado(idTicket);
+                if (esperado == null && actual != nuevo) {
+                    throw new IllegalStateException("El ticket está " + actual + " y no puede pasar a " + nuevo);
+                }
+                return false;
+            }
+            int version = IndiceTickets.versionDeMarca(anterior) + 1;
+            try {
+                confirmar(this.anotar(OperacionesBitacora.estadoTicket(idTicket, nuevo.etiqueta(), version)));
+            } catch (RuntimeException e) {
+                this.indiceTickets.deshacerCambio(idTicket, anterior, nuevo);
+                throw e;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Cambia el estado de varios tickets con un solo registro de bitácora. Cada
+     * ticket cambia en forma atómica por separado; los que no están en el estado
+     * esperado, no pueden pasar al nuevo o no existen se omiten.
+     *
+     * @param idsTickets Identificadores de los tickets.
+     * @param esperado Estado en que deben estar los tickets; null acepta cualquiera.
+     * @param nuevo Estado nuevo.
+     * @return Cantidad de tickets que cambiaron.
+     */
+    public int cambiarEstadoTickets(int[] idsTickets, EstadoTicket esperado, EstadoTicket nuevo) {
+        return this.medir(EstadisticasOperaciones.Operacion.CAMBIAR_ESTADO_TICKETS, () -> {
+            if (nuevo == null) {
+                throw new IllegalArgumentException("El estado es obligatorio");
+            }
+            return this.aplicarEstados(idsTickets, esperado, nuevo);
+        });
+    }
+
+    /**
+     * Cuenta los tickets en un estado sin recorrerlos.
+     *
+     * @param estado Estado a contar.
+     * @return Cantidad de tickets en ese estado.
+     */
+    public int contarTicketsPorEstado(EstadoTicket estado) {
+        return this.medir(EstadisticasOperaciones.Operacion.CONTAR_TICKETS_POR_ESTADO,
+                () -> this.indiceTickets.contarPorEstado(estado));
+    }
+
+    /**
+     * Devuelve los conteos de tickets por estado de cada departamento y de cada
+     * rol de usuario solicitante. Los conteos se mantienen con cada registro y
+     * cada cambio de estado, por lo que la consulta no recorre los tickets.
+     *
+     * @return Tablero con los totales por estado, por departamento y por rol.
+     */
+    public AgregadosTickets.Tablero obtenerTablero() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_TABLERO, () -> this.indiceTickets.tablero());
+    }
+
+    /**
+     * Devuelve el incidente al que pertenece un ticket. Los tickets casi
+     * idénticos que llegan cerca en el tiempo comparten incidente.
+     *
+     * @param idTicket Identificador del ticket.
+     * @return Identificador del incidente (su primer ticket), o 0 si el ticket no existe.
+     */
+    public int obtenerIncidente(int idTicket) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_INCIDENTE,
+                () -> this.indiceTickets.existe(idTicket) ? this.duplicados.incidente(idTicket) : 0);
+    }
+
+    /**
+     * Devuelve los tickets de un incidente.
+     *
+     * @param idIncidente Identificador del incidente.
+     * @return Identificadores de los tickets en orden de registro.
+     */
+    public List<Integer> obtenerTicketsIncidente(int idIncidente) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_TICKETS_INCIDENTE,
+                () -> this.duplicados.tickets(idIncidente));
+    }
+
+    /**
+     * Devuelve los incidentes con varios tickets.
+     *
+     * @param minimoTickets Cantidad mínima de tickets por incidente.
+     * @return Incidentes del más grande al más pequeño.
+     */
+    public List<DetectorDuplicados.Incidente> obtenerIncidentes(int minimoTickets) {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_INCIDENTES,
+                () -> this.duplicados.incidentes(Math.max(2, minimoTickets)));
+    }
+
+    /**
+     * Cambia el estado de todos los tickets de un incidente con un solo registro
+     * de bitácora. Los tickets que no pueden pasar al estado nuevo se omiten.
+     *
+     * @param idIncidente Identificador del incidente.
+     * @param estado Estado nuevo, por su etiqueta o su nombre.
+     * @return Cantidad de tickets que cambiaron.
+     */
+    public int cambiarEstadoIncidente(int idIncidente, String estado) {
+        return this.medir(EstadisticasOperaciones.Operacion.CAMBIAR_ESTADO_INCIDENTE, () -> {
+            if (estado == null || estado.isBlank()) {
+                throw new IllegalArgumentException("El estado es obligatorio");
+            }
+            if (!this.indiceTickets.existe(idIncidente)) {
+                throw new IllegalArgumentException("El incidente no existe");
+            }
+            EstadoTicket nuevo = EstadoTicket.desde(estado);
+            int[] ids = this.duplicados.tickets(idIncidente).stream().mapToInt(Integer::intValue).toArray();
+            return this.aplicarEstados(ids, null, nuevo);
+        });
+    }
+
+    // ================== MÉTODOS PARA DICCIONARIOS ==================
+
+    /**
+     * Agrega una palabra emocional al diccionario.
+     *
+     * @param emocion Tipo de emoción asociada.
+     * @param palabra Palabra a agregar.
+     */
+    public void agregarPalabraEmocion(String emocion, String palabra) {
+        this.medir(EstadisticasOperaciones.Operacion.AGREGAR_PALABRA_EMOCION, () -> {
+            DiccionarioEmocion entrada = new DiccionarioEmocion(palabra, emocion);
+            CompletableFuture<Void> escrito;
+            synchronized (this.diccionarios) {
+                escrito = this.anotar(OperacionesBitacora.palabraEmocion(emocion, palabra));
+                this.gestor.agregarPalabraEmocion(entrada);
+                this.diccionarios.agregarEmocion(entrada);
+            }
+            confirmar(escrito);
+        });
+    }
+
+    /**
+     * Agrega varias palabras de una misma emoción y publica una sola versión del diccionario.
+     *
+     * @param emocion Tipo de emoción asociada.
+     * @param palabras Palabras a agregar.
+     */
+    public void agregarPalabrasEmocion(String emocion, List<String> palabras) {
+        this.medir(EstadisticasOperaciones.Operacion.AGREGAR_PALABRAS_EMOCION, () -> {
+            List<DiccionarioEmocion> entradas = new ArrayList<>(palabras.size());
+            for (String palabra : palabras) {
+                entradas.add(new DiccionarioEmocion(palabra, emocion));
+            }
+            List<CompletableFuture<Void>> escritos = new ArrayList<>(entradas.size());
+            synchronized (this.diccionarios) {
+                // Si la bitácora rechaza una palabra se publican igual las ya anotadas.
+                List<DiccionarioEmocion> anotadas = new ArrayList<>(entradas.size());
+                try {
+                    for (DiccionarioEmocion entrada : entradas) {
+                        escritos.add(this.anotar(OperacionesBitacora.palabraEmocion(emocion, entrada.getPalabra())));
+                        this.gestor.agregarPalabraEmocion(entrada);
+                        anotadas.add(entrada);
+                    }
+                } finally {
+                    this.diccionarios.agregarLote(anotadas, List.of());
+                }
+            }
+            confirmar(escritos);
+        });
+    }
+
+    /**
+     * Devuelve todas las palabras emocionales de la versión vigente del diccionario.
+     *
+     * @return Lista inmutable de palabras emocionales.
+     */
+    public List<DiccionarioEmocion> obtenerDiccionarioEmociones() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_DICCIONARIO_EMOCIONES,
+                () -> this.diccionarios.actual().emociones());
+    }
+
+    /**
+     * Agrega una palabra técnica al diccionario.
+     *
+     * @param categoria Categoría técnica asociada.
+     * @param palabra Palabra a agregar.
+     */
+    public void agregarPalabraTecnica(String categoria, String palabra) {
+        this.medir(EstadisticasOperaciones.Operacion.AGREGAR_PALABRA_TECNICA, () -> {
+            DiccionarioTecnico entrada = new DiccionarioTecnico(palabra, categoria);
+            CompletableFuture<Void> escrito;
+            synchronized (this.diccionarios) {
+                escrito = this.anotar(OperacionesBitacora.palabraTecnica(categoria, palabra));
+                this.gestor.agregarPalabraTecnica(entrada);
+                this.diccionarios.agregarTecnica(entrada);
+            }
+            confirmar(escrito);
+        });
+    }
+
+    /**
+     * Agrega varias palabras de una misma categoría y publica una sola versión del diccionario.
+     *
+     * @param categoria Categoría técnica asociada.
+     * @param palabras Palabras a agregar.
+     */
+    public void agregarPalabrasTecnicas(String categoria, List<String> palabras) {
+        this.medir(EstadisticasOperaciones.Operacion.AGREGAR_PALABRAS_TECNICAS, () -> {
+            List<DiccionarioTecnico> entradas = new ArrayList<>(palabras.size());
+            for (String palabra : palabras) {
+                entradas.add(new DiccionarioTecnico(palabra, categoria));
+            }
+            List<CompletableFuture<Void>> escritos = new ArrayList<>(entradas.size());
+            synchronized (this.diccionarios) {
+                // Si la bitácora rechaza una palabra se publican igual las ya anotadas.
+                List<DiccionarioTecnico> anotadas = new ArrayList<>(entradas.size());
+                try {
+                    for (DiccionarioTecnico entrada : entradas) {
+                        escritos.add(this.anotar(OperacionesBitacora.palabraTecnica(categoria, entrada.getPalabra())));
+                        this.gestor.agregarPalabraTecnica(entrada);
+                        anotadas.add(entrada);
+                    }
+                } finally {
+                    this.diccionarios.agregarLote(List.of(), anotadas);
+                }
+            }
+            confirmar(escritos);
+        });
+    }
+
+    /**
+     * Devuelve todas las palabras técnicas de la versión vigente del diccionario.
+     *
+     * @return Lista inmutable de palabras técnicas.
+     */
+    public List<DiccionarioTecnico> obtenerDiccionarioTecnico() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_DICCIONARIO_TECNICO,
+                () -> this.diccionarios.actual().tecnicas());
+    }
+
+    /**
+     * Devuelve la instantánea vigente de los diccionarios, con su versión y costo de compilación.
+     *
+     * @return Instantánea inmutable de los diccionarios.
+     */
+    public DiccionariosVersionados.Instantanea obtenerInstantaneaDiccionarios() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_INSTANTANEA_DICCIONARIOS,
+                () -> this.diccionarios.actual());
+    }
+
+    // ================== MÉTODOS PARA ENRUTAMIENTO ==================
+
+    /**
+     * Asigna el departamento que atiende una categoría técnica.
+     *
+     * @param categoria Categoría del diccionario técnico.
+     * @param idDepartamento Identificador del departamento; 0 elimina la ruta.
+     */
+    public void asignarRutaCategoria(String categoria, int idDepartamento) {
+        this.medir(EstadisticasOperaciones.Operacion.ASIGNAR_RUTA_CATEGORIA,
+                () -> this.fijarRutaCategoria(categoria, idDepartamento));
+    }
+
+    /**
+     * Asigna una ruta sin contarla en las estadísticas; lo usa también la
+     * reproducción de la bitácora.
+     */
+    private void fijarRutaCategoria(String categoria, int idDepartamento) {
+        if (categoria == null || categoria.isBlank()) {
+            throw new IllegalArgumentException("La categoría es obligatoria");
+        }
+        if (idDepartamento != 0 && this.departamentos.obtener(idDepartamento) == null) {
+            throw new IllegalArgumentException("El departamento no existe");
+        }
+        CompletableFuture<Void> escrito;
+        synchronized (this.diccionarios) {
+            escrito = this.anotar(OperacionesBitacora.rutaCategoria(categoria, idDepartamento));
+            this.enrutador = this.enrutador.conRuta(categoria, idDepartamento);
+        }
+        confirmar(escrito);
+    }
+
+    /**
+     * Devuelve el departamento asignado a cada categoría técnica.
+     *
+     * @return Mapa inmutable de categoría a identificador de departamento.
+     */
+    public Map<String, Integer> obtenerRutasCategorias() {
+        return this.medir(EstadisticasOperaciones.Operacion.OBTENER_RUTAS_CATEGORIAS, () -> this.enrutador.rutas());
+    }
+
+    /**
+     * Sugiere el departamento de un ticket según las categorías técnicas detectadas en su texto.
+     *
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @return Sugerencia o null si ninguna categoría detectada tiene departamento asignado.
+     */
+    public EnrutadorTickets.Sugerencia sugerirDepartamento(String asunto, String descripcion) {
+        return this.medir(EstadisticasOperaciones.Operacion.SUGERIR_DEPARTAMENTO,
+                () -> this.enrutador.sugerir(this.clasificar(asunto, descripcion)));
+    }
+
+    /**
+     * Determina el departamento de un ticket ya clasificado.
+     *
+     * @param clasificacion Clasificación del ticket.
+     * @return Identificador del departamento sugerido.
+     * @throws IllegalArgumentException Si ninguna categoría detectada tiene departamento asignado.
+     */
+    int enrutar(ClasificadorTickets.Clasificacion clasificacion) {
+        EnrutadorTickets.Sugerencia sugerencia = this.enrutador.sugerir(clasificacion);
+        if (sugerencia == null) {
+            throw new IllegalArgumentException("No se pudo determinar el departamento; indíquelo manualmente");
+        }
+        return sugerencia.idDepartamento();
+    }
+
+    // ================== MÉTODOS PARA ESTADÍSTICAS ==================
+
+    /**
+     * Devuelve la latencia de cada método público llamado al menos una vez.
+     *
+     * @return Resúmenes de la operación con más tiempo total a la de menos.
+     */
+    public List<EstadisticasOperaciones.Resumen> obtenerEstadisticas() {
+        return this.estadisticas.resumen();
+    }
+
+    /**
+     * Devuelve las estadísticas en formato JSON para herramientas externas.
+     *
+     * @return Objeto JSON en una sola línea; latencias en nanosegundos.
+     */
+    public String volcarEstadisticas() {
+        LimitadorIntentos.Metricas intentos = this.limitador.metricas();
+        Map<String, Long> contadores = new LinkedHashMap<>();
+        contadores.put("intentosPermitidos", intentos.permitidos());
+        contadores.put("intentosFallidos", intentos.fallos());
+        contadores.put("intentosRechazadosCuenta", intentos.rechazadosCuenta());
+        contadores.put("intentosRechazadosOrigen", intentos.rechazadosOrigen());
+        return this.estadisticas.json(contadores);
+    }
+
+    /**
+     * Devuelve los contadores del límite de intentos de inicio de sesión.
+     *
+     * @return Intentos permitidos, rechazados por cuenta y por origen, y fallidos.
+     */
+    public LimitadorIntentos.Metricas obtenerMetricasIntentos() {
+        return this.limitador.metricas();
+    }
+
+    /**
+     * Devuelve el error de la última instantánea escrita en segundo plano.
+     *
+     * @return Hora y mensaje del error, o null si la última se escribió bien o aún no hay ninguna.
+     */
+    public String obtenerErrorInstantanea() {
+        return this.errorInstantanea;
+    }
+
+    // ================== MÉTODOS PARA LA BITÁCORA ==================
+
+    /**
+     * Reproduce en memoria las operaciones de una bitácora existente y la deja abierta
+     * para anotar las mutaciones siguientes. Debe llamarse antes de cualquier otra mutación.
+     *
+     * @param archivo Archivo de la bitácora; se crea si no existe.
+     * @param sincronizacion Política de sincronización con el disco.
+     * @return Resultado de la recuperación.
+     * @throws IOException Si no se puede leer o abrir el archivo.
+     */
+    public Recuperacion abrirBitacora(Path archivo, BitacoraEscritura.Sincronizacion sincronizacion) throws IOException {
+        return this.abrirBitacora(archivo, null, null, sincronizacion);
+    }
+
+    /**
+     * Carga la última instantánea, si existe, reproduce solo las operaciones de la
+     * bitácora posteriores a ella y deja la bitácora abierta. Debe llamarse antes de
+     * cualquier otra mutación.
+     *
+     * @param archivo Archivo de la bitácora; se crea si no existe.
+     * @param instantanea Archivo de instantáneas; null para reproducir siempre la bitácora completa.
+     * @param intervalo Intervalo entre instantáneas en segundo plano; null para escribirlas solo al cerrar.
+     * @param sincronizacion Política de sincronización con el disco.
+     * @return Resultado de la recuperación.
+     * @throws IOException Si no se puede leer o abrir alguno de los archivos.
+     */
+    public Recuperacion abrirBitacora(Path archivo, Path instantanea, Duration intervalo,
+                                      BitacoraEscritura.Sincronizacion sincronizacion) throws IOException {
+        return this.medir(EstadisticasOperaciones.Operacion.ABRIR_BITACORA, () -> {
+            long inicio = System.nanoTime();
+            if (this.bitacora != null) {
+                throw new IllegalStateException("La bitácora ya está abierta");
+            }
+            if (this.usuarios.tamanio() > 0 || this.departamentos.tamanio() > 0 || this.indiceTickets.tamanio() > 0) {
+                throw new IllegalStateException("La bitácora debe abrirse antes de registrar datos");
+            }
+            long desde = 0;
+            if (instantanea != null && Files.exists(instantanea)) {
+                desde = this.cargarInstantanea(instantanea);
+            }
+            List<DiccionarioEmocion> emociones = new ArrayList<>();
+            List<DiccionarioTecnico> tecnicas = new ArrayList<>();
+            int[] reproducidas = {0};
+            BitacoraEscritura abierta = new BitacoraEscritura(archivo, sincronizacion,
+                    BitacoraEscritura.INTERVALO_DEFECTO_MS, desde, datos -> {
+                reproducidas[0]++;
+                try {
+                    this.reproducir(datos, emociones, tecnicas);
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Operación " + reproducidas[0] + " de la bitácora inválida: " + e.getMessage(), e);
+                }
+            });
+            this.publicarDiccionarios(emociones, tecnicas);
+            this.bitacora = abierta;
+            this.archivoInstantanea = instantanea;
+            synchronized (this.candadoInstantanea) {
+                this.posicionUltimaInstantanea = reproducidas[0] == 0 ? desde : -1;
+            }
+            if (instantanea != null && intervalo != null) {
+                this.escritorInstantaneas = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread hilo = new Thread(r, "escritor-instantaneas");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+                long periodo = intervalo.toMillis();
+                this.escritorInstantaneas.scheduleWithFixedDelay(this::escribirInstantaneaProgramada,
+                        periodo, periodo, TimeUnit.MILLISECONDS);
+            }
+            return new Recuperacion(desde, reproducidas[0], System.nanoTime() - inicio);
+        });
+    }
+
+    /**
+     * Escribe una instantánea del estado actual sin detener las demás operaciones.
+     * Solo se bloquea a los escritores mientras se toma el corte, que es de costo constante;
+     * los datos se serializan después, ya que usuarios, departamentos, tickets y
+     * diccionarios solo crecen. Los estados de ticket leídos pueden ser más nuevos que
+     * el corte, lo que es correcto porque se guardan con su versión y al reproducir
+     * solo se aplican los cambios de versión mayor.
+     *
+     * @return Tamaño de la instantánea en bytes, o 0 si no hubo cambios desde la anterior.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public long escribirInstantanea() throws IOException {
+        return this.medir(EstadisticasOperaciones.Operacion.ESCRIBIR_INSTANTANEA, () -> {
+            BitacoraEscritura abierta = this.bitacora;
+            Path destino = this.archivoInstantanea;
+            if (abierta == null || destino == null) {
+                throw new IllegalStateException("No hay una bitácora con instantáneas abierta");
+            }
+            synchronized (this.candadoInstantanea) {
+                long posicion;
+                List<Usuario> listaUsuarios;
+                List<Departamento> listaDepartamentos;
+                int totalTickets;
+                DiccionariosVersionados.Instantanea diccionario;
+                Map<String, Integer> rutas;
+                int[] asignaciones;
+                synchronized (this.gestor) {
+                    synchronized (this.diccionarios) {
+                        posicion = abierta.posicionEncolada();
+                        rutas = this.enrutador.rutas();
+                        asignaciones = this.duplicados.asignaciones();
+                        listaUsuarios = this.usuarios.comoLista();
+                        listaDepartamentos = this.departamentos.comoLista();
+                        totalTickets = this.indiceTickets.tamanio();
+                        diccionario = this.diccionarios.actual();
+                    }
+                }
+                if (posicion == this.posicionUltimaInstantanea) {
+                    return 0L;
+                }
+                // La instantánea no puede cubrir registros que una caída podría borrar de la bitácora.
+                confirmar(abierta.sincronizar());
+                // Fuera del corte: las asignaciones de los tickets ya agregados no cambian.
+                List<int[]> vinculados = DetectorDuplicados.vinculados(asignaciones, totalTickets);
+
+                long tamanio = ArchivoInstantanea.escribir(destino, posicion, e -> {
+                    e.entero(listaUsuarios.size());
+                    for (Usuario u : listaUsuarios) {
+                        e.texto(u.getNombre()).texto(this.indiceCorreos.buscar(u.getCorreo()).passwordHash())
+                                .texto(u.getRol()).texto(u.getCorreo()).texto(u.getTelefono());
+                    }
+                    e.entero(listaDepartamentos.size());
+                    for (Departamento d : listaDepartamentos) {
+                        e.texto(d.getNombre()).texto(d.getDescripcion()).texto(d.getCorreo()).texto(d.getExtensionTelefono());
+                    }
+                    e.entero(diccionario.emociones().size());
+                    for (DiccionarioEmocion entrada : diccionario.emociones()) {
+                        e.texto(entrada.getPalabra()).texto(entrada.getClasificacion());
+                    }
+                    e.entero(diccionario.tecnicas().size());
+                    for (DiccionarioTecnico entrada : diccionario.tecnicas()) {
+                        e.texto(entrada.getPalabra()).texto(entrada.getClasificacion());
+                    }
+                    e.entero(totalTickets);
+                    for (int id = 1; id <= totalTickets; id++) {
+                        // Estado y versión de la misma lectura: la reproducción descarta los cambios ya cubiertos.
+                        int marca = this.indiceTickets.marcaEstado(id);
+                        e.texto(this.indiceTickets.asunto(id)).texto(this.indiceTickets.descripcion(id))
+                                .entero(this.indiceTickets.idUsuario(id))
+                                .texto(IndiceTickets.estadoDeMarca(marca).etiqueta())
+                                .entero(this.indiceTickets.idDepartamento(id))
+                                .entero(IndiceTickets.versionDeMarca(marca));
+                    }
+                    e.entero(rutas.size());
+                    for (Map.Entry<String, Integer> ruta : rutas.entrySet()) {
+                        e.texto(ruta.getKey()).entero(ruta.getValue());
+                    }
+                    e.entero(vinculados.size());
+                    for (int[] vinculo : vinculados) {
+                        e.entero(vinculo[0]).entero(vinculo[1]);
+                    }
+                });
+                this.posicionUltimaInstantanea = posicion;
+                return tamanio;
+            }
+        });
+    }
+
+    /**
+     * Procesa los tickets pendientes de la recepción asíncrona y cierra la
+     * bitácora, si está abierta. Si se usan instantáneas,
+     * escribe una final para que el próximo arranque no reproduzca nada.
+     */
+    @Override
+    public void close() {
+        if (!this.cerrado.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this.cerrado) {
+            if (this.recepcion != null) {
+                this.recepcion.close();
+            }
+        }
+        if (this.escritorInstantaneas != null) {
+            this.escritorInstantaneas.shutdownNow();
+        }
+        BitacoraEscritura abierta = this.bitacora;
+        try {
+            if (abierta != null && this.archivoInstantanea != null) {
+                this.escribirInstantanea();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (abierta != null) {
+                abierta.close();
+            }
+        }
+    }
+
+    private void escribirInstantaneaProgramada() {
+        try {
+            this.escribirInstantanea();
+            this.errorInstantanea = null;
+        } catch (IOException | RuntimeException e) {
+            this.errorInstantanea = LocalTime.now().truncatedTo(ChronoUnit.SECONDS)
+                    + " no se pudo escribir la instantánea: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Carga una instantánea en memoria. Se llama solo antes de abrir la bitácora.
+     *
+     * @return Posición de la bitácora cubierta por la instantánea.
+     */
+    private long cargarInstantanea(Path archivo) throws IOException {
+        return ArchivoInstantanea.leer(archivo, l -> {
+            synchronized (this.gestor) {
+                int cantidad = l.entero();
+                for (int i = 0; i < cantidad; i++) {
+                    String nombre = l.texto();
+                    String passwordHash = l.texto();
+                    String rol = l.texto();
+                    String correo = l.texto();
+                    Usuario usuario = new Usuario(nombre, passwordHash, rol, correo, l.texto());
+                    this.indiceCorreos.reservar(correo, new IndiceCorreos.Cuenta(usuario, passwordHash));
+                    this.gestor.registrarUsuario(usuario);
+                    this.usuarios.agregar(usuario);
+                }
+                cantidad = l.entero();
+                for (int i = 0; i < cantidad; i++) {
+                    Departamento departamento = new Departamento(l.texto(), l.texto(), l.texto(), l.texto());
+                    this.gestor.registrarDepartamento(departamento);
+                    this.departamentos.agregar(departamento);
+                }
+                List<DiccionarioEmocion> emociones = new ArrayList<>();
+                List<DiccionarioTecnico> tecnicas = new ArrayList<>();
+                cantidad = l.entero();
+                for (int i = 0; i < cantidad; i++) {
+                    emociones.add(new DiccionarioEmocion(l.texto(), l.texto()));
+                }
+                cantidad = l.entero();
+                for (int i = 0; i < cantidad; i++) {
+                    tecnicas.add(new DiccionarioTecnico(l.texto(), l.texto()));
+                }
+                this.publicarDiccionarios(emociones, tecnicas);
+                cantidad = l.entero();
+                int inicioVentana = cantidad - this.duplicados.ventana();
+                for (int i = 0; i < cantidad; i++) {
+                    String asunto = l.texto();
+                    String descripcion = l.texto();
+                    int idUsuario = l.entero();
+                    String estado = l.texto();
+                    int idDepartamento = l.entero();
+                    int version = l.version() >= 4 ? l.entero() : 0;
+                    Ticket ticket = new Ticket(asunto, descripcion, this.usuarios.obtener(idUsuario), estado,
+                            this.departamentos.obtener(idDepartamento));
+                    this.registrarEnGestor(ticket);
+                    int id = this.indiceTickets.agregar(ticket, idUsuario, idDepartamento);
+                    if (version > 0) {
+                        this.indiceTickets.fijarEstado(id, EstadoTicket.leer(estado), version);
+                    }
+                    this.indiceTexto.agregar(id, IndiceTexto.documento(asunto, descripcion));
+                    if (i >= inicioVentana) {
+                        this.duplicados.recordar(id, DetectorDuplicados.firma(asunto, descripcion));
+                    }
+                }
+                if (l.version() >= 2) {
+                    EnrutadorTickets cargado = EnrutadorTickets.VACIO;
+                    cantidad = l.entero();
+                    for (int i = 0; i < cantidad; i++) {
+                        cargado = cargado.conRuta(l.texto(), l.entero());
+                    }
+                    this.enrutador = cargado;
+                }
+                if (l.version() >= 3) {
+                    cantidad = l.entero();
+                    for (int i = 0; i < cantidad; i++) {
+                        this.duplicados.asignar(l.entero(), l.entero());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Aplica una operación de la bitácora. Las palabras de diccionario se acumulan
+     * y se publican en un solo lote antes de la siguiente operación de otro tipo.
+     */
+    private void reproducir(ByteBuffer datos, List<DiccionarioEmocion> emociones, List<DiccionarioTecnico> tecnicas) {
+        byte tipo = datos.get();
+        if (tipo == OperacionesBitacora.PALABRA_EMOCION) {
+            String emocion = OperacionesBitacora.leerTexto(datos);
+            emociones.add(new DiccionarioEmocion(OperacionesBitacora.leerTexto(datos), emocion));
+            return;
+        }
+        if (tipo == OperacionesBitacora.PALABRA_TECNICA) {
+            String categoria = OperacionesBitacora.leerTexto(datos);
+            tecnicas.add(new DiccionarioTecnico(OperacionesBitacora.leerTexto(datos), categoria));
+            return;
+        }
+        this.publicarDiccionarios(emociones, tecnicas);
+        switch (tipo) {
+            case OperacionesBitacora.USUARIO -> {
+                String nombre = OperacionesBitacora.leerTexto(datos);
+                String passwordHash = OperacionesBitacora.leerTexto(datos);
+                String rol = OperacionesBitacora.leerTexto(datos);
+                String correo = OperacionesBitacora.leerTexto(datos);
+                String telefono = OperacionesBitacora.leerTexto(datos);
+                Usuario usuario = new Usuario(nombre, passwordHash, rol, correo, telefono);
+                String error = this.registrarLoteHasheado(List.of(new IndiceCorreos.Cuenta(usuario, passwordHash))).get(0);
+                if (error != null) {
+                    throw new IllegalStateException(error);
+                }
+            }
+            case OperacionesBitacora.DEPARTAMENTO -> this.agregarDepartamento(
+                    OperacionesBitacora.leerTexto(datos), OperacionesBitacora.leerTexto(datos),
+                    OperacionesBitacora.leerTexto(datos), OperacionesBitacora.leerTexto(datos));
+            case OperacionesBitacora.TICKET -> {
+                String asunto = OperacionesBitacora.leerTexto(datos);
+                String descripcion = OperacionesBitacora.leerTexto(datos);
+                int idUsuario = datos.getInt();
+                String estado = OperacionesBitacora.leerTexto(datos);
+                this.agregarTicket(asunto, descripcion, idUsuario, EstadoTicket.leer(estado).etiqueta(), datos.getInt());
+            }
+            case OperacionesBitacora.ESTADO_TICKET -> {
+                // Registro anterior al ciclo de vida, sin versión: se aplica en el orden de la bitácora.
+                int idTicket = datos.getInt();
+                this.indiceTickets.fijarEstado(idTicket, EstadoTicket.leer(OperacionesBitacora.leerTexto(datos)),
+                        this.indiceTickets.version(idTicket) + 1);
+            }
+            case OperacionesBitacora.ESTADO_TICKET_VERSION -> {
+                int idTicket = datos.getInt();
+                EstadoTicket estado = EstadoTicket.leer(OperacionesBitacora.leerTexto(datos));
+                this.indiceTickets.fijarEstado(idTicket, estado, datos.getInt());
+            }
+            case OperacionesBitacora.ESTADO_TICKETS -> {
+                EstadoTicket estado = EstadoTicket.leer(OperacionesBitacora.leerTexto(datos));
+                int cantidad = datos.getInt();
+                for (int i = 0; i < cantidad; i++) {
+                    this.indiceTickets.fijarEstado(datos.getInt(), estado, datos.getInt());
+                }
+            }
+            case OperacionesBitacora.RUTA_CATEGORIA -> this.fijarRutaCategoria(OperacionesBitacora.leerTexto(datos), datos.getInt());
+            default -> throw new IllegalStateException("Tipo de operación desconocido: " + tipo);
+        }
+    }
+
+    private void publicarDiccionarios(List<DiccionarioEmocion> emociones, List<DiccionarioTecnico> tecnicas) {
+        if (emociones.isEmpty() && tecnicas.isEmpty()) {
+            return;
+        }
+        synchronized (this.diccionarios) {
+            emociones.forEach(this.gestor::agregarPalabraEmocion);
+            tecnicas.forEach(this.gestor::agregarPalabraTecnica);
+            this.diccionarios.agregarLote(List.copyOf(emociones), List.copyOf(tecnicas));
+        }
+        emociones.clear();
+        tecnicas.clear();
+    }
+
+    /**
+     * Cambia el estado de varios tickets y anota en un solo registro los que cambiaron.
+     * Si el registro no se puede escribir, deshace los cambios que nadie más tocó después.
+     *
+     * @return Cantidad de tickets que cambiaron.
+     */
+    private int aplicarEstados(int[] ids, EstadoTicket esperado, EstadoTicket nuevo) {
+        int[] anteriores = this.indiceTickets.cambiarMarcas(ids, esperado, nuevo);
+        int[] versiones = new int[ids.length];
+        int cambiados = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (anteriores[i] >= 0) {
+                versiones[i] = IndiceTickets.versionDeMarca(anteriores[i]) + 1;
+                cambiados++;
+            }
+        }
+        if (cambiados > 0) {
+            try {
+                confirmar(this.anotar(OperacionesBitacora.estadoTickets(ids, versiones, cambiados, nuevo.etiqueta())));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (anteriores[i] >= 0) {
+                        this.indiceTickets.deshacerCambio(ids[i], anteriores[i], nuevo);
+                    }
+                }
+                throw e;
+            }
+        }
+        return cambiados;
+    }
+
+    /**
+     * Ejecuta el cuerpo de un método público y registra su latencia y su evento JFR.
+     * Los métodos medidos no se llaman entre sí: las llamadas internas usan los
+     * privados sin medir, para que cada llamada del usuario se cuente una sola vez.
+     */
+    private <T, E extends Exception> T medir(EstadisticasOperaciones.Operacion operacion,
+                                             Medicion<T, E> cuerpo) throws E {
+        long inicio = System.nanoTime();
+        EventoOperacion evento = EventoOperacion.iniciar();
+        try {
+            return cuerpo.ejecutar();
+        } finally {
+            this.estadisticas.registrar(operacion, inicio, evento);
+        }
+    }
+
+    private <E extends Exception> void medir(EstadisticasOperaciones.Operacion operacion,
+                                             MedicionSinResultado<E> cuerpo) throws E {
+        this.medir(operacion, () -> {
+            cuerpo.ejecutar();
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> anotar(byte[] registro) {
+        BitacoraEscritura abierta = this.bitacora;
+        return abierta == null ? null : abierta.anotar(registro);
+    }
+
+    private static void confirmar(CompletableFuture<Void> escrito) {
+        if (escrito == null) {
+            return;
+        }
+        try {
+            escrito.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("No se pudo escribir en la bitácora: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void confirmar(List<CompletableFuture<Void>> escritos) {
+        for (CompletableFuture<Void> escrito : escritos) {
+            confirmar(escrito);
+        }
+    }
+
+    /**
+     * Entrega el ticket al gestor de negocio si el índice conserva las entidades;
+     * en modo columnar el gestor retendría cada entidad y anularía el ahorro.
+     */
+    private void registrarEnGestor(Ticket ticket) {
+        if (this.indiceTickets.almacenamiento() == IndiceTickets.Almacenamiento.OBJETOS) {
+            this.gestor.registrarTicket(ticket);
+        }
+    }
+
+    private static <T> Map<String, Paginador.IndiceOrden<T>> indicesOrden(Map<String, Function<T, String>> claves) {
+        Map<String, Paginador.IndiceOrden<T>> indices = new LinkedHashMap<>();
+        claves.forEach((nombre, clave) -> indices.put(nombre, new Paginador.IndiceOrden<>(clave)));
+        return Map.copyOf(indices);
+    }
+
+    private static <T> Paginador.IndiceOrden<T> indiceOrden(Map<String, Paginador.IndiceOrden<T>> ordenes, String orden) {
+        if (orden == null || orden.isBlank()) {
+            return null;
+        }
+        Paginador.IndiceOrden<T> indice = ordenes.get(orden.trim().toLowerCase());
+        if (indice == null) {
+            throw new IllegalArgumentException("Orden inválido. Opciones válidas: " + String.join(", ", ordenes.keySet()));
+        }
+        return indice;
     }
 }
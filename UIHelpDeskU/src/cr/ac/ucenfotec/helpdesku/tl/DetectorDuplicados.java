@@ -0,0 +1,304 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Detección de tickets casi idénticos con MinHash y LSH.
+ * <p>
+ * El texto normalizado de cada ticket se divide en tejas de 4 caracteres y se
+ * resume en una firma de 64 valores mínimos de hash. La firma se parte en 16
+ * bandas de 4 filas; dos tickets con similitud de Jaccard cercana a 0,5 o más
+ * comparten alguna banda con alta probabilidad. Cada banda indexa una cubeta
+ * hash, por lo que buscar candidatos no depende de la cantidad de tickets.
+ * <p>
+ * Un ticket nuevo se une al incidente del candidato más parecido si la
+ * similitud estimada supera {@link #UMBRAL}; si no, inicia su propio incidente.
+ * Un incidente se identifica con el primer ticket que lo inició. Solo los
+ * tickets más recientes (la ventana) participan como candidatos, lo que acota
+ * la memoria y refleja que los duplicados llegan juntos durante una caída.
+ */
+public class DetectorDuplicados {
+
+    public static final int VENTANA_DEFECTO = 20_000;
+    public static final double UMBRAL = 0.6;
+
+    private static final int FUNCIONES = 64;
+    private static final int FILAS = 4;
+    private static final int BANDAS = FUNCIONES / FILAS;
+    private static final int LARGO_TEJA = 4;
+
+    /**
+     * Máximo de tickets por cubeta; en una caída basta comparar contra los más recientes.
+     */
+    private static final int MAXIMO_POR_CUBETA = 16;
+
+    /**
+     * Coeficientes de las funciones de hash {@code (a·x + b) >>> 33}; {@code a} es impar.
+     */
+    private static final long[] MULTIPLICADORES = new SplittableRandom(0x48445553L).longs(FUNCIONES).map(a -> a | 1).toArray();
+    private static final long[] SUMANDOS = new SplittableRandom(0x4D696E48L).longs(FUNCIONES).toArray();
+
+    /**
+     * Resultado de vincular un ticket.
+     *
+     * @param idIncidente Incidente al que quedó asignado el ticket.
+     * @param idSimilar Ticket más parecido encontrado, o 0 si no hubo candidato.
+     * @param similitud Similitud estimada con ese ticket, entre 0 y 1.
+     */
+    public record Vinculo(int idIncidente, int idSimilar, double similitud) {
+    }
+
+    /**
+     * Incidente con más de un ticket.
+     *
+     * @param id Identificador del incidente (su primer ticket).
+     * @param tickets Cantidad de tickets del incidente.
+     */
+    public record Incidente(int id, int tickets) {
+    }
+
+    private record Entrada(int id, int[] firma) {
+    }
+
+    private final int ventana;
+    private final ArrayDeque<Entrada> recientes = new ArrayDeque<>();
+    private final Map<Long, List<Entrada>> cubetas = new HashMap<>();
+    private int[] incidentes = new int[1024];
+    private final Map<Integer, List<Integer>> miembros = new HashMap<>();
+
+    /**
+     * @param ventana Cantidad de tickets recientes que participan como candidatos.
+     */
+    public DetectorDuplicados(int ventana) {
+        if (ventana <= 0) {
+            throw new IllegalArgumentException("La ventana debe ser positiva");
+        }
+        this.ventana = ventana;
+    }
+
+    /**
+     * Calcula la firma MinHash de un ticket. No modifica el detector.
+     *
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @return Firma de {@value #FUNCIONES} valores.
+     */
+    static int[] firma(String asunto, String descripcion) {
+        String texto = String.join(" ", IndiceTexto.terminos(asunto)) + " " + String.join(" ", IndiceTexto.terminos(descripcion));
+        texto = texto.trim();
+        int[] firma = new int[FUNCIONES];
+        Arrays.fill(firma, Integer.MAX_VALUE);
+        int tejas = Math.max(1, texto.length() - LARGO_TEJA + 1);
+        for (int i = 0; i < tejas; i++) {
+            int teja = 0;
+            for (int j = i; j < Math.min(i + LARGO_TEJA, texto.length()); j++) {
+                teja = 31 * teja + texto.charAt(j);
+            }
+            long x = mezclar(teja);
+            for (int f = 0; f < FUNCIONES; f++) {
+                int h = (int) ((MULTIPLICADORES[f] * x + SUMANDOS[f]) >>> 33);
+                if (h < firma[f]) {
+                    firma[f] = h;
+                }
+            }
+        }
+        return firma;
+    }
+
+    /**
+     * Estima la similitud de Jaccard entre dos firmas.
+     *
+     * @return Fracción de valores iguales, entre 0 y 1.
+     */
+    public static double similitud(int[] a, int[] b) {
+        int iguales = 0;
+        for (int i = 0; i < FUNCIONES; i++) {
+            if (a[i] == b[i]) {
+                iguales++;
+            }
+        }
+        return (double) iguales / FUNCIONES;
+    }
+
+    /**
+     * Vincula un ticket nuevo a un incidente y lo agrega a la ventana. Las
+     * llamadas deben hacerse en orden de identificador para que el resultado
+     * sea el mismo al reproducir la bitácora.
+     *
+     * @param id Identificador del ticket.
+     * @param firma Firma del ticket.
+     * @return Incidente asignado y ticket más parecido.
+     */
+    synchronized Vinculo agregar(int id, int[] firma) {
+        int mejor = 0;
+        double mejorSimilitud = 0;
+        for (int b = 0; b < BANDAS; b++) {
+            List<Entrada> cubeta = this.cubetas.get(llave(firma, b));
+            if (cubeta == null) {
+                continue;
+            }
+            for (Entrada candidata : cubeta) {
+                double s = similitud(firma, candidata.firma());
+                if (s > mejorSimilitud || (s == mejorSimilitud && candidata.id() > mejor)) {
+                    mejor = candidata.id();
+                    mejorSimilitud = s;
+                }
+            }
+        }
+        int incidente = mejorSimilitud >= UMBRAL ? this.incidente(mejor) : id;
+        this.asignar(id, incidente);
+        this.recordar(id, firma);
+        return new Vinculo(incidente, mejor, mejorSimilitud);
+    }
+
+    /**
+     * Asigna un ticket a un incidente ya conocido, sin buscar candidatos. Se
+     * usa al cargar una instantánea.
+     *
+     * @param id Identificador del ticket.
+     * @param incidente Identificador del incidente.
+     */
+    synchronized void asignar(int id, int incidente) {
+        if (id >= this.incidentes.length) {
+            this.incidentes = Arrays.copyOf(this.incidentes, Math.max(id + 1, this.incidentes.length * 2));
+        }
+        this.incidentes[id] = incidente;
+        if (incidente != id) {
+            this.miembros.computeIfAbsent(incidente, i -> {
+                List<Integer> lista = new ArrayList<>();
+                lista.add(i);
+                return lista;
+            }).add(id);
+        }
+    }
+
+    /**
+     * Agrega un ticket a la ventana de candidatos sin vincularlo. Se usa al
+     * cargar una instantánea para reconstruir la ventana.
+     *
+     * @param id Identificador del ticket.
+     * @param firma Firma del ticket.
+     */
+    synchronized void recordar(int id, int[] firma) {
+        Entrada entrada = new Entrada(id, firma);
+        for (int b = 0; b < BANDAS; b++) {
+            List<Entrada> cubeta = this.cubetas.computeIfAbsent(llave(firma, b), k -> new ArrayList<>(2));
+            if (cubeta.size() == MAXIMO_POR_CUBETA) {
+                cubeta.remove(0);
+            }
+            cubeta.add(entrada);
+        }
+        this.recientes.addLast(entrada);
+        if (this.recientes.size() > this.ventana) {
+            this.olvidar(this.recientes.removeFirst());
+        }
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Incidente del ticket; el propio identificador si no se vinculó a otro.
+     */
+    public synchronized int incidente(int id) {
+        if (id <= 0 || id >= this.incidentes.length || this.incidentes[id] == 0) {
+            return id;
+        }
+        return this.incidentes[id];
+    }
+
+    /**
+     * @param incidente Identificador del incidente.
+     * @return Tickets del incidente en orden de registro; solo el propio si no tiene otros.
+     */
+    public synchronized List<Integer> tickets(int incidente) {
+        List<Integer> lista = this.miembros.get(incidente);
+        return lista == null ? List.of(incidente) : List.copyOf(lista);
+    }
+
+    /**
+     * @param minimo Cantidad mínima de tickets.
+     * @return Incidentes con al menos esa cantidad de tickets, del más grande al más pequeño.
+     */
+    public synchronized List<Incidente> incidentes(int minimo) {
+        List<Incidente> resultado = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> e : this.miembros.entrySet()) {
+            if (e.getValue().size() >= minimo) {
+                resultado.add(new Incidente(e.getKey(), e.getValue().size()));
+            }
+        }
+        resultado.sort((a, b) -> a.tickets() != b.tickets() ? Integer.compare(b.tickets(), a.tickets())
+                : Integer.compare(b.id(), a.id()));
+        return Collections.unmodifiableList(resultado);
+    }
+
+    /**
+     * Devuelve el arreglo de incidentes por ticket sin copiarlo, para leerlo
+     * fuera del candado con {@link #vinculados(int[], int)}. La posición de un
+     * ticket ya agregado no cambia después: los tickets nuevos escriben
+     * posiciones mayores o usan un arreglo nuevo.
+     *
+     * @return Incidente de cada ticket por identificador; 0 si el ticket aún no se agregó.
+     */
+    synchronized int[] asignaciones() {
+        return this.incidentes;
+    }
+
+    /**
+     * Lista los tickets vinculados a un incidente ajeno. Como recorre por
+     * identificador, el resultado ya queda ordenado.
+     *
+     * @param asignaciones Arreglo devuelto por {@link #asignaciones()}.
+     * @param hasta Último identificador de ticket a incluir.
+     * @return Pares (ticket, incidente), por ticket.
+     */
+    static List<int[]> vinculados(int[] asignaciones, int hasta) {
+        List<int[]> resultado = new ArrayList<>();
+        for (int id = 1; id <= Math.min(hasta, asignaciones.length - 1); id++) {
+            int incidente = asignaciones[id];
+            if (incidente != 0 && incidente != id) {
+                resultado.add(new int[]{id, incidente});
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Cantidad de tickets que participan como candidatos.
+     */
+    public int ventana() {
+        return this.ventana;
+    }
+
+    private void olvidar(Entrada entrada) {
+        for (int b = 0; b < BANDAS; b++) {
+            long llave = llave(entrada.firma(), b);
+            List<Entrada> cubeta = this.cubetas.get(llave);
+            if (cubeta != null && cubeta.remove(entrada) && cubeta.isEmpty()) {
+                this.cubetas.remove(llave);
+            }
+        }
+    }
+
+    private static long llave(int[] firma, int banda) {
+        long h = banda;
+        for (int i = banda * FILAS; i < (banda + 1) * FILAS; i++) {
+            h = h * 0x9E3779B97F4A7C15L + firma[i];
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Mezclador de 64 bits (finalizador de SplitMix64).
+     */
+    private static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,187 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.DiccionarioEmocion;
+import cr.ac.ucenfotec.helpdesku.bl.entities.DiccionarioTecnico;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Diccionarios emocional y técnico publicados como instantáneas inmutables y versionadas.
+ * <p>
+ * Los lectores obtienen la instantánea vigente sin tomar ningún candado. Cada
+ * escritura publica una instantánea nueva (copia al escribir). El clasificador
+ * se mantiene en dos niveles: un autómata base con las palabras consolidadas y
+ * un autómata delta pequeño con las palabras recientes. Agregar palabras solo
+ * recompila el delta; cuando éste supera un octavo de la base se consolida todo
+ * en una compilación completa.
+ * <p>
+ * El costo de agregar no es constante: cada versión copia las listas de palabras
+ * y recompila el delta completo, que llega a tener un octavo de la base. Con n
+ * palabras, agregar una cuesta O(n) en el peor caso y en promedio unas n/16
+ * palabras compiladas, más la consolidación, que se reparte entre al menos n/8
+ * agregados y suma unas 8 palabras compiladas por cada una. Lo que se evita es
+ * recompilar todo el diccionario en cada agregado; para cargas grandes conviene
+ * {@link #agregarLote(List, List)}, que compila una sola vez por lote.
+ */
+public class DiccionariosVersionados {
+
+    /**
+     * Cantidad mínima de palabras en el delta antes de consolidar.
+     */
+    private static final int DELTA_MINIMO = 64;
+
+    /**
+     * Proporción máxima del delta respecto a la base antes de consolidar (1/8).
+     */
+    private static final int PROPORCION_DELTA = 8;
+
+    /**
+     * Estado publicado de los diccionarios.
+     *
+     * @param version Número de versión; aumenta con cada publicación.
+     * @param emociones Palabras emocionales, inmutable.
+     * @param tecnicas Palabras técnicas, inmutable.
+     * @param base Autómata con las palabras consolidadas.
+     * @param delta Autómata con las palabras agregadas desde la última consolidación.
+     * @param nanosUltimaCompilacion Duración de la compilación que produjo esta versión.
+     * @param compilacionesCompletas Cantidad acumulada de consolidaciones completas.
+     * @param compilacionesIncrementales Cantidad acumulada de compilaciones solo del delta.
+     */
+    public record Instantanea(long version,
+                              List<DiccionarioEmocion> emociones,
+                              List<DiccionarioTecnico> tecnicas,
+                              ClasificadorTickets base,
+                              ClasificadorTickets delta,
+                              long nanosUltimaCompilacion,
+                              long compilacionesCompletas,
+                              long compilacionesIncrementales) {
+
+        /**
+         * Clasifica un ticket usando ambos niveles del autómata.
+         *
+         * @param asunto Asunto del ticket.
+         * @param descripcion Descripción del ticket.
+         * @return Emociones y categorías detectadas.
+         */
+        public ClasificadorTickets.Clasificacion clasificar(String asunto, String descripcion) {
+            ClasificadorTickets.Clasificacion deBase = base.clasificar(asunto, descripcion);
+            if (delta.cantidadPalabras() == 0) {
+                return deBase;
+            }
+            ClasificadorTickets.Clasificacion deDelta = delta.clasificar(asunto, descripcion);
+            if (deDelta == ClasificadorTickets.Clasificacion.VACIA) {
+                return deBase;
+            }
+            if (deBase == ClasificadorTickets.Clasificacion.VACIA) {
+                return deDelta;
+            }
+            return new ClasificadorTickets.Clasificacion(
+                    unir(deBase.emociones(), deDelta.emociones(), Integer::sum),
+                    unir(deBase.categorias(), deDelta.categorias(), Integer::sum),
+                    unir(deBase.posiciones(), deDelta.posiciones(), Math::min));
+        }
+
+        private static Map<String, Integer> unir(Map<String, Integer> a, Map<String, Integer> b,
+                                                 BinaryOperator<Integer> combinar) {
+            Map<String, Integer> union = new LinkedHashMap<>(a);
+            b.forEach((clave, valor) -> union.merge(clave, valor, combinar));
+            return Collections.unmodifiableMap(union);
+        }
+    }
+
+    private volatile Instantanea actual = new Instantanea(0, List.of(), List.of(),
+            ClasificadorTickets.VACIO, ClasificadorTickets.VACIO, 0, 0, 0);
+
+    /**
+     * Cantidad de palabras (emocionales y técnicas) que forman el autómata base.
+     */
+    private int emocionesEnBase;
+    private int tecnicasEnBase;
+
+    /**
+     * Devuelve la instantánea vigente sin bloquear.
+     *
+     * @return Instantanea actual.
+     */
+    public Instantanea actual() {
+        return this.actual;
+    }
+
+    /**
+     * Agrega una palabra emocional y publica una nueva versión.
+     *
+     * @param entrada Palabra emocional.
+     * @return Instantánea publicada.
+     */
+    public Instantanea agregarEmocion(DiccionarioEmocion entrada) {
+        return this.agregarLote(List.of(entrada), List.of());
+    }
+
+    /**
+     * Agrega una palabra técnica y publica una nueva versión.
+     *
+     * @param entrada Palabra técnica.
+     * @return Instantánea publicada.
+     */
+    public Instantanea agregarTecnica(DiccionarioTecnico entrada) {
+        return this.agregarLote(List.of(), List.of(entrada));
+    }
+
+    /**
+     * Agrega un lote de palabras y publica una sola versión nueva.
+     *
+     * @param emociones Palabras emocionales a agregar.
+     * @param tecnicas Palabras técnicas a agregar.
+     * @return Instantánea publicada.
+     */
+    public synchronized Instantanea agregarLote(List<DiccionarioEmocion> emociones, List<DiccionarioTecnico> tecnicas) {
+        Instantanea anterior = this.actual;
+        if (emociones.isEmpty() && tecnicas.isEmpty()) {
+            return anterior;
+        }
+        List<DiccionarioEmocion> nuevasEmociones = concatenar(anterior.emociones(), emociones);
+        List<DiccionarioTecnico> nuevasTecnicas = concatenar(anterior.tecnicas(), tecnicas);
+
+        long inicio = System.nanoTime();
+        int enBase = this.emocionesEnBase + this.tecnicasEnBase;
+        int enDelta = nuevasEmociones.size() + nuevasTecnicas.size() - enBase;
+        ClasificadorTickets base;
+        ClasificadorTickets delta;
+        long completas = anterior.compilacionesCompletas();
+        long incrementales = anterior.compilacionesIncrementales();
+        if (enDelta > Math.max(DELTA_MINIMO, enBase / PROPORCION_DELTA)) {
+            base = new ClasificadorTickets(nuevasEmociones, nuevasTecnicas);
+            delta = ClasificadorTickets.VACIO;
+            this.emocionesEnBase = nuevasEmociones.size();
+            this.tecnicasEnBase = nuevasTecnicas.size();
+            completas++;
+        } else {
+            base = anterior.base();
+            delta = new ClasificadorTickets(
+                    nuevasEmociones.subList(this.emocionesEnBase, nuevasEmociones.size()),
+                    nuevasTecnicas.subList(this.tecnicasEnBase, nuevasTecnicas.size()));
+            incrementales++;
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        Instantanea nueva = new Instantanea(anterior.version() + 1, nuevasEmociones, nuevasTecnicas,
+                base, delta, nanos, completas, incrementales);
+        this.actual = nueva;
+        return nueva;
+    }
+
+    private static <T> List<T> concatenar(List<T> existentes, List<T> nuevos) {
+        if (nuevos.isEmpty()) {
+            return existentes;
+        }
+        List<T> union = new ArrayList<>(existentes.size() + nuevos.size());
+        union.addAll(existentes);
+        union.addAll(nuevos);
+        return Collections.unmodifiableList(union);
+    }
+}
@@ -0,0 +1,161 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enrutamiento de tickets a departamentos según las categorías del
+ * diccionario técnico.
+ * <p>
+ * Cada categoría puede tener un departamento asignado. El clasificador ya
+ * entrega las categorías detectadas con su cantidad de coincidencias; el
+ * enrutador busca cada categoría en una tabla hash y suma sus
+ * coincidencias al departamento correspondiente, por lo que el costo es
+ * constante por categoría detectada. Una instancia es inmutable; asignar una
+ * ruta crea una nueva.
+ */
+public class EnrutadorTickets {
+
+    /**
+     * Enrutador sin rutas.
+     */
+    public static final EnrutadorTickets VACIO = new EnrutadorTickets(Map.of(), Map.of());
+
+    /**
+     * Departamento sugerido para un ticket.
+     *
+     * @param idDepartamento Identificador del departamento sugerido.
+     * @param categoria Categoría que más aportó a la sugerencia.
+     * @param coincidencias Coincidencias que apoyan al departamento sugerido.
+     * @param confianza Fracción de las coincidencias con ruta que apoyan la sugerencia, entre 0 y 1.
+     */
+    public record Sugerencia(int idDepartamento, String categoria, int coincidencias, double confianza) {
+    }
+
+    /**
+     * Departamento por categoría normalizada.
+     */
+    private final Map<String, Integer> rutas;
+
+    /**
+     * Categoría tal como se registró, por categoría normalizada.
+     */
+    private final Map<String, String> nombres;
+
+    /**
+     * Departamento por categoría tal como la entrega el clasificador (0 si no tiene ruta),
+     * para no normalizar el texto en cada ticket. Hay pocas categorías distintas.
+     */
+    private final ConcurrentHashMap<String, Integer> porCategoriaDetectada = new ConcurrentHashMap<>();
+
+    private EnrutadorTickets(Map<String, Integer> rutas, Map<String, String> nombres) {
+        this.rutas = rutas;
+        this.nombres = nombres;
+    }
+
+    /**
+     * Crea un enrutador con una ruta agregada, reemplazada o eliminada.
+     *
+     * @param categoria Categoría técnica.
+     * @param idDepartamento Identificador del departamento; 0 elimina la ruta.
+     * @return Nuevo enrutador.
+     */
+    public EnrutadorTickets conRuta(String categoria, int idDepartamento) {
+        String llave = IndiceTickets.normalizar(categoria);
+        Map<String, Integer> nuevasRutas = new HashMap<>(this.rutas);
+        Map<String, String> nuevosNombres = new HashMap<>(this.nombres);
+        if (idDepartamento == 0) {
+            nuevasRutas.remove(llave);
+            nuevosNombres.remove(llave);
+        } else {
+            nuevasRutas.put(llave, idDepartamento);
+            nuevosNombres.put(llave, categoria.trim());
+        }
+        return new EnrutadorTickets(nuevasRutas, nuevosNombres);
+    }
+
+    /**
+     * Sugiere el departamento con más coincidencias entre las categorías con ruta.
+     * A igual cantidad, gana el de la categoría que empieza primero en el texto y,
+     * si dos empiezan en la misma posición, el de la categoría de menor nombre. La
+     * categoría principal de un departamento se elige con las mismas reglas.
+     *
+     * @param clasificacion Clasificación del ticket.
+     * @return Sugerencia o null si ninguna categoría detectada tiene ruta.
+     */
+    public Sugerencia sugerir(ClasificadorTickets.Clasificacion clasificacion) {
+        Map<String, Integer> categorias = clasificacion.categorias();
+        if (categorias.isEmpty() || this.rutas.isEmpty()) {
+            return null;
+        }
+        // Pocas categorías por ticket: arreglos pequeños en lugar de otro mapa.
+        int[] departamentos = new int[categorias.size()];
+        int[] puntajes = new int[categorias.size()];
+        String[] principales = new String[categorias.size()];
+        int[] mejorAporte = new int[categorias.size()];
+        String[] primeras = new String[categorias.size()];
+        int usados = 0;
+        int total = 0;
+        for (Map.Entry<String, Integer> e : categorias.entrySet()) {
+            int idDepartamento = this.porCategoriaDetectada.computeIfAbsent(e.getKey(),
+                    c -> this.rutas.getOrDefault(IndiceTickets.normalizar(c), 0));
+            if (idDepartamento == 0) {
+                continue;
+            }
+            int coincidencias = e.getValue();
+            total += coincidencias;
+            int i = 0;
+            while (i < usados && departamentos[i] != idDepartamento) {
+                i++;
+            }
+            if (i == usados) {
+                departamentos[i] = idDepartamento;
+                usados++;
+            }
+            puntajes[i] += coincidencias;
+            String categoria = e.getKey();
+            if (principales[i] == null || coincidencias > mejorAporte[i]
+                    || (coincidencias == mejorAporte[i] && antes(clasificacion, categoria, principales[i]))) {
+                mejorAporte[i] = coincidencias;
+                principales[i] = categoria;
+            }
+            if (primeras[i] == null || antes(clasificacion, categoria, primeras[i])) {
+                primeras[i] = categoria;
+            }
+        }
+        if (usados == 0) {
+            return null;
+        }
+        int mejor = 0;
+        for (int i = 1; i < usados; i++) {
+            if (puntajes[i] > puntajes[mejor]
+                    || (puntajes[i] == puntajes[mejor] && antes(clasificacion, primeras[i], primeras[mejor]))) {
+                mejor = i;
+            }
+        }
+        return new Sugerencia(departamentos[mejor], principales[mejor], puntajes[mejor],
+                (double) puntajes[mejor] / total);
+    }
+
+    /**
+     * Indica si una categoría va antes que otra: por la posición de su primera
+     * coincidencia y luego por nombre.
+     */
+    private static boolean antes(ClasificadorTickets.Clasificacion clasificacion, String a, String b) {
+        int comparacion = Integer.compare(clasificacion.posicion(a), clasificacion.posicion(b));
+        return comparacion != 0 ? comparacion < 0 : a.compareTo(b) < 0;
+    }
+
+    /**
+     * @return Departamento asignado a cada categoría, con la categoría como se registró.
+     */
+    public Map<String, Integer> rutas() {
+        Map<String, Integer> resultado = new HashMap<>(this.rutas.size());
+        for (Map.Entry<String, Integer> e : this.rutas.entrySet()) {
+            resultado.put(this.nombres.get(e.getKey()), e.getValue());
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+}
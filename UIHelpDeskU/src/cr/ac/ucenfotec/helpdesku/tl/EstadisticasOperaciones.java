@@ -0,0 +1,213 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latencia por operación del controlador.
+ * <p>
+ * Cada histograma divide cada potencia de dos en 8 cubetas, por lo que un
+ * percentil se reporta con un error relativo menor a 6,25 % sin guardar las
+ * mediciones. Registrar una medición incrementa una cubeta y dos
+ * acumuladores, sin candados ni reservas de memoria. Si la grabación de JDK
+ * Flight Recorder está activa (por ejemplo con
+ * {@code -XX:StartFlightRecording}), cada medición también se emite como un
+ * evento {@code helpdesku.Operacion}.
+ */
+public class EstadisticasOperaciones {
+
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+    /**
+     * Valores menores a este se guardan cada uno en su propia cubeta.
+     */
+    private static final int DIRECTAS = SUBCUBETAS * 2;
+    private static final int CUBETAS = DIRECTAS + (63 - BITS_SUBCUBETA - 1) * SUBCUBETAS;
+
+    /**
+     * Operaciones públicas del controlador que se miden.
+     */
+    public enum Operacion {
+        REGISTRAR_USUARIO, AUTENTICAR_USUARIO, EXISTE_CORREO, VALIDAR_NOMBRE, VALIDAR_CORREO, VALIDAR_USUARIO,
+        VALIDAR_CORREO_UNICO, OBTENER_USUARIOS, OBTENER_USUARIOS_PAGINA, OBTENER_USUARIO, OBTENER_ID_USUARIO,
+        BUSCAR_ID_USUARIO, INICIAR_SESION, OBTENER_USUARIO_SESION, CERRAR_SESION, REGISTRAR_DEPARTAMENTO,
+        OBTENER_DEPARTAMENTOS, OBTENER_DEPARTAMENTOS_PAGINA, OBTENER_DEPARTAMENTO, OBTENER_ID_DEPARTAMENTO,
+        REGISTRAR_TICKET, ENVIAR_TICKET, OBTENER_TICKET, OBTENER_ID_TICKET, OBTENER_CLASIFICACION,
+        CLASIFICAR_TICKET, OBTENER_TICKETS, OBTENER_TICKETS_PAGINA, OBTENER_VISTA_TICKET,
+        OBTENER_VISTAS_TICKETS, OBTENER_ORDENES_TICKETS, BUSCAR_TICKETS, BUSCAR_VISTAS_TICKETS, BUSCAR_TEXTO,
+        OBTENER_ESTADO_TICKET, CAMBIAR_ESTADO_TICKET, CAMBIAR_ESTADO_TICKETS, CONTAR_TICKETS_POR_ESTADO,
+        OBTENER_TABLERO, OBTENER_INCIDENTE, OBTENER_TICKETS_INCIDENTE, OBTENER_INCIDENTES,
+        CAMBIAR_ESTADO_INCIDENTE, AGREGAR_PALABRA_EMOCION, AGREGAR_PALABRAS_EMOCION,
+        OBTENER_DICCIONARIO_EMOCIONES, AGREGAR_PALABRA_TECNICA, AGREGAR_PALABRAS_TECNICAS,
+        OBTENER_DICCIONARIO_TECNICO, OBTENER_INSTANTANEA_DICCIONARIOS, ASIGNAR_RUTA_CATEGORIA,
+        OBTENER_RUTAS_CATEGORIAS, SUGERIR_DEPARTAMENTO, ABRIR_BITACORA, ESCRIBIR_INSTANTANEA;
+
+        private final String nombre;
+
+        Operacion() {
+            StringBuilder nombre = new StringBuilder();
+            for (String parte : name().toLowerCase(Locale.ROOT).split("_")) {
+                nombre.append(nombre.isEmpty() ? parte : Character.toUpperCase(parte.charAt(0)) + parte.substring(1));
+            }
+            this.nombre = nombre.toString();
+        }
+
+        /**
+         * @return Nombre del método medido, por ejemplo {@code registrarUsuario}.
+         */
+        public String nombre() {
+            return this.nombre;
+        }
+    }
+
+    /**
+     * Resumen de una operación. Las latencias están en nanosegundos.
+     *
+     * @param operacion Operación medida.
+     * @param llamadas Cantidad de llamadas.
+     * @param promedio Latencia promedio.
+     * @param p50 Mediana.
+     * @param p90 Percentil 90.
+     * @param p99 Percentil 99.
+     * @param maximo Latencia máxima.
+     */
+    public record Resumen(Operacion operacion, long llamadas, long promedio, long p50, long p90, long p99, long maximo) {
+    }
+
+    private static final class Histograma {
+        private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+    }
+
+    private final Histograma[] histogramas = new Histograma[Operacion.values().length];
+
+    public EstadisticasOperaciones() {
+        for (int i = 0; i < this.histogramas.length; i++) {
+            this.histogramas[i] = new Histograma();
+        }
+    }
+
+    /**
+     * Registra una llamada terminada, haya retornado o lanzado una excepción.
+     *
+     * @param operacion Operación medida.
+     * @param inicio Valor de {@link System#nanoTime()} al iniciar la llamada.
+     * @param evento Evento de {@link EventoOperacion#iniciar()} al iniciar la llamada; puede ser null.
+     */
+    public void registrar(Operacion operacion, long inicio, EventoOperacion evento) {
+        long nanos = Math.max(0, System.nanoTime() - inicio);
+        Histograma histograma = this.histogramas[operacion.ordinal()];
+        histograma.cubetas.incrementAndGet(cubeta(nanos));
+        histograma.nanos.add(nanos);
+        histograma.maximo.accumulate(nanos);
+
+        if (evento != null) {
+            evento.operacion = operacion.nombre();
+            evento.commit();
+        }
+    }
+
+    /**
+     * @return Resumen de las operaciones con al menos una llamada, de la de más tiempo total a la de menos.
+     */
+    public List<Resumen> resumen() {
+        List<Resumen> resultado = new ArrayList<>();
+        for (Operacion operacion : Operacion.values()) {
+            Histograma histograma = this.histogramas[operacion.ordinal()];
+            long[] cubetas = new long[CUBETAS];
+            long llamadas = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                cubetas[i] = histograma.cubetas.get(i);
+                llamadas += cubetas[i];
+            }
+            if (llamadas == 0) {
+                continue;
+            }
+            long total = histograma.nanos.sum();
+            resultado.add(new Resumen(operacion, llamadas, total / llamadas, percentil(cubetas, llamadas, 0.50),
+                    percentil(cubetas, llamadas, 0.90), percentil(cubetas, llamadas, 0.99), histograma.maximo.get()));
+        }
+        resultado.sort((a, b) -> Long.compare(b.promedio() * b.llamadas(), a.promedio() * a.llamadas()));
+        return resultado;
+    }
+
+    /**
+     * Genera el resumen en formato JSON, para herramientas externas.
+     *
+     * @return Objeto JSON en una sola línea.
+     */
+    public String json() {
+        return this.json(Map.of());
+    }
+
+    /**
+     * Genera el resumen en formato JSON con contadores adicionales.
+     *
+     * @param contadores Contadores por nombre, que se agregan en el objeto {@code contadores}.
+     * @return Objeto JSON en una sola línea.
+     */
+    public String json(Map<String, Long> contadores) {
+        StringBuilder json = new StringBuilder("{\"instante\":").append(System.currentTimeMillis())
+                .append(",\"unidad\":\"ns\",\"operaciones\":[");
+        List<Resumen> resumen = this.resumen();
+        for (int i = 0; i < resumen.size(); i++) {
+            Resumen r = resumen.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"operacion\":\"").append(r.operacion().nombre())
+                    .append("\",\"llamadas\":").append(r.llamadas())
+                    .append(",\"promedio\":").append(r.promedio())
+                    .append(",\"p50\":").append(r.p50())
+                    .append(",\"p90\":").append(r.p90())
+                    .append(",\"p99\":").append(r.p99())
+                    .append(",\"maximo\":").append(r.maximo())
+                    .append('}');
+        }
+        json.append("],\"contadores\":{");
+        int i = 0;
+        for (Map.Entry<String, Long> e : contadores.entrySet()) {
+            json.append(i++ == 0 ? "" : ",").append('"').append(e.getKey()).append("\":").append(e.getValue());
+        }
+        return json.append("}}").toString();
+    }
+
+    static int cubeta(long nanos) {
+        if (nanos < DIRECTAS) {
+            return (int) nanos;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return DIRECTAS + (exponente - BITS_SUBCUBETA - 1) * SUBCUBETAS + sub;
+    }
+
+    /**
+     * @return Punto medio del rango de valores de una cubeta.
+     */
+    static long valor(int cubeta) {
+        if (cubeta < DIRECTAS) {
+            return cubeta;
+        }
+        int exponente = (cubeta - DIRECTAS) / SUBCUBETAS + BITS_SUBCUBETA + 1;
+        int sub = (cubeta - DIRECTAS) % SUBCUBETAS;
+        long ancho = 1L << (exponente - BITS_SUBCUBETA);
+        return (SUBCUBETAS + sub) * ancho + ancho / 2;
+    }
+
+    private static long percentil(long[] cubetas, long llamadas, double fraccion) {
+        long objetivo = (long) Math.ceil(llamadas * fraccion);
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= objetivo) {
+                return valor(i);
+            }
+        }
+        return valor(cubetas.length - 1);
+    }
+}
@@ -0,0 +1,123 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.Locale;
+
+/**
+ * Ciclo de vida de un ticket.
+ * <p>
+ * Un ticket nace pendiente, pasa a en proceso mientras se atiende, queda
+ * resuelto cuando se entrega la solución y se cierra cuando el solicitante la
+ * acepta. Un ticket resuelto puede reabrirse; uno cerrado ya no cambia.
+ */
+public enum EstadoTicket {
+
+    PENDIENTE("Pendiente"),
+    EN_PROCESO("En proceso"),
+    RESUELTO("Resuelto"),
+    CERRADO("Cerrado");
+
+    private static final EstadoTicket[] VALORES = values();
+
+    private final String etiqueta;
+
+    EstadoTicket(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /**
+     * @return Nombre del estado para mostrar y guardar.
+     */
+    public String etiqueta() {
+        return this.etiqueta;
+    }
+
+    /**
+     * Indica si la transición a otro estado está permitida. Permanecer en el
+     * mismo estado no es una transición.
+     *
+     * @param destino Estado nuevo.
+     * @return true si el ticket puede pasar de este estado al destino.
+     */
+    public boolean puedePasarA(EstadoTicket destino) {
+        return switch (this) {
+            case PENDIENTE -> destino != PENDIENTE;
+            case EN_PROCESO -> destino != EN_PROCESO;
+            case RESUELTO -> destino == EN_PROCESO || destino == CERRADO;
+            case CERRADO -> false;
+        };
+    }
+
+    /**
+     * Interpreta un estado escrito por el usuario, por su etiqueta o su nombre,
+     * sin distinguir mayúsculas.
+     *
+     * @param texto Estado escrito.
+     * @return Estado correspondiente.
+     * @throws IllegalArgumentException Si el texto no corresponde a ningún estado.
+     */
+    public static EstadoTicket desde(String texto) {
+        EstadoTicket estado = reconocer(texto);
+        if (estado == null) {
+            throw new IllegalArgumentException("Estado inválido: " + texto
+                    + ". Use Pendiente, En proceso, Resuelto o Cerrado");
+        }
+        return estado;
+    }
+
+    /**
+     * Interpreta un estado guardado antes de que existiera el ciclo de vida,
+     * cuando el estado era texto libre. Lo que no se reconoce queda pendiente.
+     *
+     * @param texto Estado guardado.
+     * @return Estado correspondiente, o {@link #PENDIENTE}.
+     */
+    static EstadoTicket leer(String texto) {
+        EstadoTicket estado = reconocer(texto);
+        if (estado != null) {
+            return estado;
+        }
+        String llave = IndiceTickets.normalizar(texto);
+        if (llave.startsWith("abiert") || llave.startsWith("nuev")) {
+            return PENDIENTE;
+        }
+        if (llave.startsWith("proces") || llave.startsWith("atendi") || llave.startsWith("asignad")) {
+            return EN_PROCESO;
+        }
+        if (llave.startsWith("solucion") || llave.startsWith("terminad")) {
+            return RESUELTO;
+        }
+        return llave.startsWith("cerrad") || llave.startsWith("finalizad") ? CERRADO : PENDIENTE;
+    }
+
+    /**
+     * @param ordinal Posición del estado en la declaración.
+     * @return Estado en esa posición.
+     */
+    static EstadoTicket porOrdinal(int ordinal) {
+        return VALORES[ordinal];
+    }
+
+    /**
+     * @param texto Estado por su etiqueta o su nombre.
+     * @return Estado correspondiente, o null si el texto no corresponde a ninguno.
+     */
+    static EstadoTicket reconocer(String texto) {
+        String llave = IndiceTickets.normalizar(texto);
+        for (EstadoTicket estado : VALORES) {
+            if (llave.equals(estado.etiqueta.toLowerCase(Locale.ROOT))
+                    || llave.equals(estado.name().toLowerCase(Locale.ROOT))
+                    || llave.equals(estado.name().replace('_', ' ').toLowerCase(Locale.ROOT))) {
+                return estado;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return La etiqueta del estado.
+     */
+    @Override
+    public String toString() {
+        return this.etiqueta;
+    }
+}
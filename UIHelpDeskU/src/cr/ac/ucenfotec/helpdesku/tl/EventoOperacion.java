@@ -0,0 +1,44 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JDK Flight Recorder con una llamada al controlador. Empieza al
+ * iniciar la llamada, por lo que Flight Recorder registra su hora de inicio y
+ * su duración reales.
+ */
+@Name("helpdesku.Operacion")
+@Label("Operación HelpDesk U")
+@Category("HelpDesk U")
+@Description("Llamada a un método público del controlador")
+@StackTrace(false)
+public final class EventoOperacion extends Event {
+
+    private static final EventType TIPO = EventType.getEventType(EventoOperacion.class);
+
+    @Label("Operación")
+    String operacion;
+
+    private EventoOperacion() {
+    }
+
+    /**
+     * Empieza el evento de una llamada si la grabación está activa.
+     *
+     * @return Evento iniciado, o null si ninguna grabación lo pide.
+     */
+    public static EventoOperacion iniciar() {
+        if (!TIPO.isEnabled()) {
+            return null;
+        }
+        EventoOperacion evento = new EventoOperacion();
+        evento.begin();
+        return evento;
+    }
+}
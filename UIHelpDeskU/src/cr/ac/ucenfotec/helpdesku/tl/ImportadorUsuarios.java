@@ -0,0 +1,243 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Importador masivo de usuarios desde archivos CSV.
+ * Lee el archivo línea por línea, valida (con {@link ValidadorEntrada}) y hashea cada lote en paralelo
+ * y registra los usuarios válidos en el gestor por lotes.
+ * <p>
+ * Formato esperado por fila: {@code nombre,correo,telefono,rol,password}.
+ * Si la primera fila tiene exactamente esos cinco títulos, sin distinguir
+ * mayúsculas ni espacios alrededor, se toma como encabezado.
+ */
+public class ImportadorUsuarios {
+
+    /**
+     * Cantidad de filas por lote cuando no se indica otra.
+     */
+    public static final int TAMANIO_LOTE_DEFECTO = 1000;
+
+    private static final List<String> ENCABEZADO = List.of("nombre", "correo", "telefono", "rol", "password");
+    private static final int COLUMNAS = ENCABEZADO.size();
+
+    /**
+     * Error ocurrido al procesar una fila del archivo.
+     *
+     * @param fila Número de línea en el archivo (comenzando en 1).
+     * @param mensaje Descripción del error.
+     */
+    public record ErrorFila(long fila, String mensaje) {
+    }
+
+    /**
+     * Resultado de una importación.
+     *
+     * @param filasLeidas Cantidad de filas de datos procesadas.
+     * @param importados Cantidad de usuarios registrados.
+     * @param errores Errores por fila.
+     * @param nanos Duración total de la importación en nanosegundos.
+     */
+    public record Resultado(long filasLeidas, long importados, List<ErrorFila> errores, long nanos) {
+
+        /**
+         * @return Filas procesadas por segundo.
+         */
+        public double filasPorSegundo() {
+            return nanos == 0 ? 0 : filasLeidas * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    /**
+     * Fila leída del archivo, pendiente de validar.
+     */
+    private record Fila(long numero, String linea) {
+    }
+
+    /**
+     * Fila procesada: contiene la cuenta lista para registrar o el error encontrado.
+     */
+    private record Procesada(long numero, IndiceCorreos.Cuenta cuenta, String error) {
+    }
+
+    private final ControladorHelpDesk controlador;
+    private final int tamanioLote;
+
+    /**
+     * Crea un importador con el tamaño de lote por defecto.
+     *
+     * @param controlador Controlador donde se registran los usuarios.
+     */
+    public ImportadorUsuarios(ControladorHelpDesk controlador) {
+        this(controlador, TAMANIO_LOTE_DEFECTO);
+    }
+
+    /**
+     * Crea un importador con el tamaño de lote indicado.
+     *
+     * @param controlador Controlador donde se registran los usuarios.
+     * @param tamanioLote Cantidad de filas por lote.
+     */
+    public ImportadorUsuarios(ControladorHelpDesk controlador, int tamanioLote) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.controlador = controlador;
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Importa los usuarios de un archivo CSV codificado en UTF-8.
+     *
+     * @param archivo Ruta del archivo.
+     * @return Resultado de la importación.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public Resultado importar(Path archivo) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return this.importar(lector);
+        }
+    }
+
+    /**
+     * Importa los usuarios leídos de un flujo de texto en formato CSV.
+     *
+     * @param lector Flujo de texto; no se cierra al terminar.
+     * @return Resultado de la importación.
+     * @throws IOException Si ocurre un error de lectura.
+     */
+    public Resultado importar(Reader lector) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader entrada = lector instanceof BufferedReader br ? br : new BufferedReader(lector);
+        List<ErrorFila> errores = new ArrayList<>();
+        List<Fila> lote = new ArrayList<>(this.tamanioLote);
+        long numero = 0;
+        long leidas = 0;
+        long importados = 0;
+        String linea;
+
+        while ((linea = entrada.readLine()) != null) {
+            numero++;
+            if (linea.isBlank() || (numero == 1 && esEncabezado(linea))) {
+                continue;
+            }
+            lote.add(new Fila(numero, linea));
+            leidas++;
+            if (lote.size() == this.tamanioLote) {
+                importados += this.procesarLote(lote, errores);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            importados += this.procesarLote(lote, errores);
+        }
+        errores.sort(Comparator.comparingLong(ErrorFila::fila));
+        return new Resultado(leidas, importados, Collections.unmodifiableList(errores), System.nanoTime() - inicio);
+    }
+
+    private int procesarLote(List<Fila> lote, List<ErrorFila> errores) {
+        List<Procesada> procesadas = lote.parallelStream().map(this::procesarFila).toList();
+
+        List<IndiceCorreos.Cuenta> cuentas = new ArrayList<>(procesadas.size());
+        List<Long> numeros = new ArrayList<>(procesadas.size());
+        for (Procesada p : procesadas) {
+            if (p.error() != null) {
+                errores.add(new ErrorFila(p.numero(), p.error()));
+            } else {
+                cuentas.add(p.cuenta());
+                numeros.add(p.numero());
+            }
+        }
+
+        List<String> fallos = this.controlador.registrarLoteHasheado(cuentas);
+        int registrados = 0;
+        for (int i = 0; i < fallos.size(); i++) {
+            if (fallos.get(i) == null) {
+                registrados++;
+            } else {
+                errores.add(new ErrorFila(numeros.get(i), fallos.get(i)));
+            }
+        }
+        return registrados;
+    }
+
+    private Procesada procesarFila(Fila fila) {
+        List<String> columnas = partirLinea(fila.linea());
+        if (columnas.size() != COLUMNAS) {
+            return new Procesada(fila.numero(), null,
+                    "Se esperaban " + COLUMNAS + " columnas y se encontraron " + columnas.size());
+        }
+        String nombre = columnas.get(0).trim();
+        String correo = columnas.get(1).trim();
+        String telefono = columnas.get(2).trim();
+        String rol = columnas.get(3).trim().toLowerCase();
+        String password = columnas.get(4);
+
+        List<ValidadorEntrada.Violacion> violaciones =
+                this.controlador.violacionesUsuario(nombre, correo, telefono, rol, password);
+        if (!violaciones.isEmpty()) {
+            return new Procesada(fila.numero(), null, ValidadorEntrada.mensaje(violaciones).replace('\n', ' '));
+        }
+
+        String hash = this.controlador.hashPassword(password);
+        Usuario usuario = new Usuario(nombre, hash, rol, correo, telefono);
+        return new Procesada(fila.numero(), new IndiceCorreos.Cuenta(usuario, hash), null);
+    }
+
+    private static boolean esEncabezado(String linea) {
+        List<String> columnas = partirLinea(linea);
+        if (columnas.size() != COLUMNAS) {
+            return false;
+        }
+        for (int i = 0; i < COLUMNAS; i++) {
+            if (!columnas.get(i).trim().equalsIgnoreCase(ENCABEZADO.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Separa una línea CSV en columnas, respetando campos entre comillas dobles.
+     */
+    static List<String> partirLinea(String linea) {
+        List<String> columnas = new ArrayList<>(COLUMNAS);
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                columnas.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        columnas.add(actual.toString());
+        return columnas;
+    }
+}
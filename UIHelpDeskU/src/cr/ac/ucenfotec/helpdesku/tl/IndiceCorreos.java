@@ -0,0 +1,88 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice concurrente de cuentas por correo electrónico normalizado.
+ * Permite validar la unicidad del correo y autenticar usuarios en tiempo
+ * constante, sin recorrer la lista completa de usuarios.
+ */
+public class IndiceCorreos {
+
+    /**
+     * Entrada del índice: el usuario registrado y el hash de su contraseña.
+     *
+     * @param usuario Usuario registrado.
+     * @param passwordHash Hash de la contraseña calculado al registrar.
+     */
+    public record Cuenta(Usuario usuario, String passwordHash) {
+    }
+
+    /**
+     * Cuentas registradas, indexadas por correo normalizado.
+     */
+    private final ConcurrentHashMap<String, Cuenta> cuentas = new ConcurrentHashMap<>();
+
+    /**
+     * Normaliza un correo para usarlo como llave (sin espacios y en minúscula).
+     *
+     * @param correo Correo a normalizar.
+     * @return Correo normalizado.
+     */
+    public static String normalizar(String correo) {
+        return correo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reserva el correo para una cuenta de forma atómica.
+     *
+     * @param correo Correo de la cuenta.
+     * @param cuenta Cuenta a indexar.
+     * @return true si el correo estaba libre; false si ya existía.
+     */
+    public boolean reservar(String correo, Cuenta cuenta) {
+        return this.cuentas.putIfAbsent(normalizar(correo), cuenta) == null;
+    }
+
+    /**
+     * Libera un correo reservado, solo si sigue asociado a la misma cuenta.
+     *
+     * @param correo Correo de la cuenta.
+     * @param cuenta Cuenta reservada previamente.
+     */
+    public void liberar(String correo, Cuenta cuenta) {
+        this.cuentas.remove(normalizar(correo), cuenta);
+    }
+
+    /**
+     * Indica si el correo ya está registrado.
+     *
+     * @param correo Correo a consultar.
+     * @return true si existe una cuenta con ese correo.
+     */
+    public boolean existe(String correo) {
+        return this.cuentas.containsKey(normalizar(correo));
+    }
+
+    /**
+     * Busca la cuenta asociada a un correo.
+     *
+     * @param correo Correo a consultar.
+     * @return Cuenta encontrada o null si no existe.
+     */
+    public Cuenta buscar(String correo) {
+        return this.cuentas.get(normalizar(correo));
+    }
+
+    /**
+     * Devuelve la cantidad de cuentas indexadas.
+     *
+     * @return Cantidad de cuentas.
+     */
+    public int tamanio() {
+        return this.cuentas.size();
+    }
+}
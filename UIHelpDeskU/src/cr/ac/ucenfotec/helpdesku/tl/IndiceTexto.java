@@ -0,0 +1,308 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Índice invertido sobre el asunto y la descripción de los tickets con
+ * puntaje BM25.
+ * <p>
+ * Cada término guarda su lista de tickets y frecuencias en arreglos que solo
+ * crecen al final; un único escritor agrega tickets y las búsquedas leen sin
+ * candados la parte ya publicada. Los términos están ordenados, por lo que una
+ * consulta {@code vpn*} expande el prefijo recorriendo solo el rango que le
+ * corresponde. El asunto pesa el doble que la descripción.
+ */
+public class IndiceTexto {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_ASUNTO = 2;
+    private static final int LARGO_MINIMO = 2;
+
+    /**
+     * Máximo de términos en que se expande un prefijo; se conservan los más frecuentes.
+     */
+    private static final int MAXIMO_EXPANSION = 64;
+
+    private static final int MAXIMO_ACUMULADORES = Runtime.getRuntime().availableProcessors();
+
+    private static final Set<String> VACIAS = Set.of(
+            "de", "la", "el", "en", "y", "que", "los", "las", "del", "se", "un", "una", "por",
+            "con", "no", "para", "al", "lo", "es", "mi", "me", "ya", "su", "the", "and");
+
+    /**
+     * Ticket encontrado y su puntaje.
+     *
+     * @param id Identificador del ticket.
+     * @param puntaje Puntaje BM25; mayor es más relevante.
+     */
+    public record Resultado(int id, double puntaje) {
+    }
+
+    /**
+     * Términos de un ticket con su frecuencia, calculados fuera del candado del escritor.
+     */
+    static final class Documento {
+        private final Map<String, Integer> frecuencias;
+        private final int largo;
+
+        private Documento(Map<String, Integer> frecuencias, int largo) {
+            this.frecuencias = frecuencias;
+            this.largo = largo;
+        }
+    }
+
+    /**
+     * Lista de tickets de un término. {@code datos} se publica antes que {@code cantidad}.
+     */
+    private static final class Postings {
+        private volatile int[][] datos = {new int[4], new int[4]};
+        private volatile int cantidad;
+
+        private void agregar(int id, int frecuencia) {
+            int[][] actuales = this.datos;
+            int n = this.cantidad;
+            if (n == actuales[0].length) {
+                actuales = new int[][]{Arrays.copyOf(actuales[0], n * 2), Arrays.copyOf(actuales[1], n * 2)};
+                this.datos = actuales;
+            }
+            actuales[0][n] = id;
+            actuales[1][n] = frecuencia;
+            this.cantidad = n + 1;
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, Postings> terminos = new ConcurrentSkipListMap<>();
+    private final ConcurrentLinkedQueue<float[]> acumuladores = new ConcurrentLinkedQueue<>();
+    private volatile int[] largos = new int[1024];
+    private volatile int maximoId;
+    private volatile int documentos;
+    private volatile long largoTotal;
+
+    /**
+     * Separa un texto en términos normalizados: minúscula, sin tildes y sin palabras vacías.
+     *
+     * @param texto Texto original.
+     * @return Términos en orden de aparición.
+     */
+    public static List<String> terminos(String texto) {
+        return terminos(texto, true);
+    }
+
+    private static List<String> terminos(String texto, boolean sinVacias) {
+        List<String> resultado = new ArrayList<>();
+        if (texto == null) {
+            return resultado;
+        }
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i <= texto.length(); i++) {
+            char c = i < texto.length() ? texto.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                actual.append(ClasificadorTickets.normalizar(c));
+            } else if (!actual.isEmpty()) {
+                String termino = actual.toString();
+                if (termino.length() >= LARGO_MINIMO && !(sinVacias && VACIAS.contains(termino))) {
+                    resultado.add(termino);
+                }
+                actual.setLength(0);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Calcula los términos de un ticket. No modifica el índice.
+     *
+     * @param asunto Asunto del ticket.
+     * @param descripcion Descripción del ticket.
+     * @return Documento listo para {@link #agregar(int, Documento)}.
+     */
+    static Documento documento(String asunto, String descripcion) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        int largo = 0;
+        for (String termino : terminos(asunto)) {
+            frecuencias.merge(termino, PESO_ASUNTO, Integer::sum);
+            largo += PESO_ASUNTO;
+        }
+        for (String termino : terminos(descripcion)) {
+            frecuencias.merge(termino, 1, Integer::sum);
+            largo++;
+        }
+        return new Documento(frecuencias, largo);
+    }
+
+    /**
+     * Agrega un ticket al índice. Las llamadas se serializan; el controlador
+     * las hace dentro de su candado de escritura, en orden de identificador.
+     *
+     * @param id Identificador del ticket.
+     * @param documento Términos del ticket.
+     */
+    synchronized void agregar(int id, Documento documento) {
+        int[] actuales = this.largos;
+        if (id >= actuales.length) {
+            actuales = Arrays.copyOf(actuales, Math.max(id + 1, actuales.length * 2));
+        }
+        actuales[id] = documento.largo;
+        this.largos = actuales;
+        for (Map.Entry<String, Integer> e : documento.frecuencias.entrySet()) {
+            this.terminos.computeIfAbsent(e.getKey(), t -> new Postings()).agregar(id, e.getValue());
+        }
+        this.largoTotal += documento.largo;
+        this.maximoId = Math.max(this.maximoId, id);
+        this.documentos++;
+    }
+
+    /**
+     * Busca tickets por relevancia. Un término terminado en {@code *} busca
+     * todos los términos que empiezan con él.
+     *
+     * @param consulta Texto de la consulta.
+     * @param filtro Condición adicional sobre el identificador; null para no filtrar.
+     * @param limite Cantidad máxima de resultados.
+     * @return Resultados ordenados de mayor a menor puntaje; a igual puntaje, el más reciente primero.
+     */
+    public List<Resultado> buscar(String consulta, IntPredicate filtro, int limite) {
+        int documentos = this.documentos;
+        if (documentos == 0 || limite <= 0) {
+            return List.of();
+        }
+        int maximoId = this.maximoId;
+        int[] largos = this.largos;
+        double promedio = (double) this.largoTotal / documentos;
+
+        float[] puntajes = tomarAcumulador(maximoId + 1);
+        // Si la consulta falla, el acumulador puede quedar sucio y no se devuelve.
+        List<Resultado> resultado = puntuar(consulta, filtro, limite, puntajes, documentos, maximoId, largos, promedio);
+        devolverAcumulador(puntajes);
+        return resultado;
+    }
+
+    private List<Resultado> puntuar(String consulta, IntPredicate filtro, int limite, float[] puntajes,
+                                    int documentos, int maximoId, int[] largos, double promedio) {
+        double normaFija = K1 * (1 - B);
+        double normaPorLargo = K1 * B / promedio;
+        boolean algunTermino = false;
+        for (Postings postings : expandir(consulta)) {
+            int cantidad = postings.cantidad;
+            int[][] datos = postings.datos;
+            double idf = Math.log(1 + (documentos - cantidad + 0.5) / (cantidad + 0.5));
+            for (int i = 0; i < cantidad; i++) {
+                int id = datos[0][i];
+                if (id > maximoId) {
+                    continue;
+                }
+                int tf = datos[1][i];
+                puntajes[id] += (float) (idf * tf * (K1 + 1) / (tf + normaFija + normaPorLargo * largos[id]));
+            }
+            algunTermino = true;
+        }
+        if (!algunTermino) {
+            return List.of();
+        }
+
+        Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::puntaje).thenComparingInt(Resultado::id);
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, orden);
+        // Del más reciente al más antiguo: a igual puntaje, un ticket posterior en el
+        // recorrido nunca desplaza a uno ya elegido y se descarta sin tocar el montículo.
+        for (int id = maximoId; id >= 1; id--) {
+            float puntaje = puntajes[id];
+            if (puntaje <= 0) {
+                continue;
+            }
+            puntajes[id] = 0;
+            if (mejores.size() == limite && puntaje <= mejores.peek().puntaje()) {
+                continue;
+            }
+            if (filtro != null && !filtro.test(id)) {
+                continue;
+            }
+            mejores.add(new Resultado(id, puntaje));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+        List<Resultado> resultado = new ArrayList<>(mejores);
+        resultado.sort(orden.reversed());
+        return resultado;
+    }
+
+    /**
+     * Toma un acumulador de puntajes en cero. Con un millón de tickets cada uno
+     * ocupa 4 MB, por lo que se reutilizan en lugar de crear uno por consulta.
+     */
+    private float[] tomarAcumulador(int largo) {
+        float[] acumulador = this.acumuladores.poll();
+        if (acumulador == null || acumulador.length < largo) {
+            return new float[Math.max(largo, largo + largo / 4)];
+        }
+        return acumulador;
+    }
+
+    /**
+     * Devuelve un acumulador ya puesto en cero; el recorrido de resultados limpia cada posición que lee.
+     */
+    private void devolverAcumulador(float[] acumulador) {
+        if (this.acumuladores.size() < MAXIMO_ACUMULADORES) {
+            this.acumuladores.offer(acumulador);
+        }
+    }
+
+    /**
+     * @return Cantidad de términos distintos indexados.
+     */
+    public int cantidadTerminos() {
+        return this.terminos.size();
+    }
+
+    /**
+     * @return Cantidad de tickets indexados.
+     */
+    public int cantidadDocumentos() {
+        return this.documentos;
+    }
+
+    private List<Postings> expandir(String consulta) {
+        List<Postings> resultado = new ArrayList<>();
+        if (consulta == null) {
+            return resultado;
+        }
+        for (String parte : consulta.trim().split("\\s+")) {
+            boolean prefijo = parte.endsWith("*");
+            String texto = prefijo ? parte.substring(0, parte.length() - 1) : parte;
+            // Un prefijo como "de*" debe encontrar "departamento" aunque "de" sea una palabra vacía.
+            List<String> normalizados = terminos(texto, !prefijo);
+            if (normalizados.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i < normalizados.size(); i++) {
+                String termino = normalizados.get(i);
+                if (prefijo && i == normalizados.size() - 1) {
+                    List<Postings> expansion = new ArrayList<>(this.terminos
+                            .subMap(termino, true, termino + Character.MAX_VALUE, false).values());
+                    if (expansion.size() > MAXIMO_EXPANSION) {
+                        expansion.sort(Comparator.comparingInt((Postings p) -> p.cantidad).reversed());
+                        expansion = expansion.subList(0, MAXIMO_EXPANSION);
+                    }
+                    resultado.addAll(expansion);
+                } else {
+                    Postings postings = this.terminos.get(termino);
+                    if (postings != null) {
+                        resultado.add(postings);
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+}
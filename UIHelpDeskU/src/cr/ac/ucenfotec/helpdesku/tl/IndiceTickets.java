@@ -0,0 +1,783 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Departamento;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Tickets registrados con su identificador e índices secundarios por estado,
+ * departamento y usuario solicitante.
+ * <p>
+ * Los datos de cada ticket se guardan por columnas en bloques de arreglos de
+ * primitivos: el solicitante y el departamento como enteros y el estado en una
+ * marca entera. Los índices por departamento y por
+ * usuario son listas de identificadores que solo crecen, por lo que quedan
+ * ordenadas; el índice por estado es un mapa de bits por bloque. Las consultas
+ * que combinan filtros recorren solo el índice más pequeño y verifican los demás
+ * filtros en las columnas, por lo que su costo es proporcional al resultado y no
+ * al total de tickets.
+ * <p>
+ * Con {@link Almacenamiento#OBJETOS} se conservan además las entidades
+ * {@link Ticket} registradas; como su estado no cambia, un ticket que ya tuvo
+ * una transición se entrega como una copia con el estado vigente. Con {@link Almacenamiento#COLUMNAR} el asunto y la
+ * descripción se guardan como UTF-8 sin repetir en {@link TextosCompactos} y la
+ * entidad se construye solo al pedirla; los listados usan {@link VistaTicket}.
+ * <p>
+ * El estado vigente de cada ticket se mantiene aquí, ya que la entidad no
+ * expone un modificador para su estado. Cada ticket tiene una marca entera con
+ * el estado en los 2 bits bajos y, en los demás, la versión: la cantidad de
+ * transiciones que ha tenido. Las transiciones son una comparación e intercambio
+ * sobre la marca, sin candados, por lo que de dos agentes que cambian el mismo
+ * ticket a la vez solo uno gana y el otro ve el estado nuevo. La versión permite
+ * reproducir la bitácora aunque los cambios se anoten en otro orden.
+ * <p>
+ * Los contadores por estado se ajustan con cada transición ganada. El mapa de
+ * bits por estado se repara después de la transición hasta coincidir con la marca,
+ * por lo que puede incluir un ticket de más solo por un instante; las consultas
+ * verifican la marca. Los conteos por departamento y por rol del solicitante se
+ * ajustan en {@link AgregadosTickets} en los mismos puntos que los contadores.
+ */
+public class IndiceTickets {
+
+    /**
+     * Forma de guardar los datos de cada ticket.
+     */
+    public enum Almacenamiento {
+        /**
+         * Conserva la entidad registrada; {@link #obtener(int)} la devuelve mientras su estado sea el
+         * vigente y, si no, construye una copia con el estado vigente.
+         */
+        OBJETOS,
+        /**
+         * Solo columnas de primitivos y textos compactos; {@link #obtener(int)} construye una entidad nueva.
+         */
+        COLUMNAR
+    }
+
+    private static final int BITS_ESTADO = 2;
+    private static final int MASCARA_ESTADO = (1 << BITS_ESTADO) - 1;
+    private static final int ESTADOS = EstadoTicket.values().length;
+    private static final int BITS_BLOQUE = 10;
+    private static final int TAMANIO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANIO_BLOQUE - 1;
+    private static final int PALABRAS_BLOQUE = TAMANIO_BLOQUE / Long.SIZE;
+
+    /**
+     * Columnas de {@value #TAMANIO_BLOQUE} tickets consecutivos.
+     */
+    private static final class Bloque {
+        final AtomicIntegerArray marcas = new AtomicIntegerArray(TAMANIO_BLOQUE);
+        final int[] usuarios = new int[TAMANIO_BLOQUE];
+        final int[] departamentos = new int[TAMANIO_BLOQUE];
+        /**
+         * Mapa de bits de cada estado, uno tras otro.
+         */
+        final AtomicLongArray porEstado = new AtomicLongArray(ESTADOS * PALABRAS_BLOQUE);
+        /**
+         * Referencias del asunto y la descripción de cada ticket; null si se conservan las entidades.
+         */
+        final long[] textos;
+
+        Bloque(boolean conTextos) {
+            this.textos = conTextos ? new long[2 * TAMANIO_BLOQUE] : null;
+        }
+    }
+
+    /**
+     * Recibe cada transición ganada, después de ajustar los contadores.
+     */
+    public interface ObservadorEstados {
+        /**
+         * @param id Identificador del ticket.
+         * @param anterior Estado que tenía.
+         * @param nuevo Estado que tiene ahora.
+         */
+        void cambio(int id, EstadoTicket anterior, EstadoTicket nuevo);
+    }
+
+    /**
+     * Identificadores en orden creciente. Solo se agregan bajo el candado del
+     * índice; se leen sin candado tomando primero la cantidad.
+     */
+    private static final class ListaIds {
+        private volatile int[] ids = new int[4];
+        private volatile int cantidad;
+
+        void agregar(int id) {
+            int n = this.cantidad;
+            int[] actuales = this.ids;
+            if (n == actuales.length) {
+                actuales = Arrays.copyOf(actuales, n + (n >> 1) + 1);
+            }
+            actuales[n] = id;
+            this.ids = actuales;
+            this.cantidad = n + 1;
+        }
+    }
+
+    /**
+     * Ticket construido a partir de las columnas, que recuerda su identificador.
+     */
+    private static final class TicketAlmacenado extends Ticket {
+        private final int id;
+
+        TicketAlmacenado(int id, String asunto, String descripcion, Usuario usuario, String estado,
+                         Departamento departamento) {
+            super(asunto, descripcion, usuario, estado, departamento);
+            this.id = id;
+        }
+    }
+
+    private final Almacenamiento almacenamiento;
+    private final TablaPorId<Ticket> tickets;
+    private final TextosCompactos textos;
+    private final IntFunction<Usuario> usuarios;
+    private final IntFunction<Departamento> departamentos;
+    private volatile Bloque[] bloques;
+    private volatile int cantidad;
+    private final LongAdder[] contadores = new LongAdder[ESTADOS];
+    private final AgregadosTickets agregados;
+    private final ConcurrentHashMap<Integer, ListaIds> porDepartamento = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ListaIds> porUsuario = new ConcurrentHashMap<>();
+    private volatile ObservadorEstados observador = (id, anterior, nuevo) -> {
+    };
+
+    /**
+     * Crea un índice que conserva las entidades registradas.
+     */
+    public IndiceTickets() {
+        this(Almacenamiento.OBJETOS, id -> null, id -> null);
+    }
+
+    /**
+     * Crea un índice.
+     *
+     * @param almacenamiento Forma de guardar los datos de cada ticket.
+     * @param usuarios Usuario por identificador, para construir las entidades en modo columnar.
+     * @param departamentos Departamento por identificador, para construir las entidades en modo columnar.
+     */
+    public IndiceTickets(Almacenamiento almacenamiento, IntFunction<Usuario> usuarios,
+                         IntFunction<Departamento> departamentos) {
+        this.almacenamiento = almacenamiento;
+        this.tickets = almacenamiento == Almacenamiento.OBJETOS ? new TablaPorId<>() : null;
+        this.textos = almacenamiento == Almacenamiento.COLUMNAR ? new TextosCompactos() : null;
+        this.usuarios = usuarios;
+        this.departamentos = departamentos;
+        this.bloques = new Bloque[]{new Bloque(this.textos != null)};
+        this.agregados = new AgregadosTickets(id -> {
+            Usuario usuario = usuarios.apply(id);
+            return usuario == null ? null : usuario.getRol();
+        }, id -> {
+            Departamento departamento = departamentos.apply(id);
+            return departamento == null ? null : departamento.getNombre();
+        });
+        for (int i = 0; i < this.contadores.length; i++) {
+            this.contadores[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Fija quién recibe las transiciones de estado; reemplaza al anterior.
+     *
+     * @param observador Observador de las transiciones.
+     */
+    public void observarEstados(ObservadorEstados observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Normaliza un valor para usarlo como llave de índice.
+     *
+     * @param valor Valor original.
+     * @return Valor sin espacios externos y en minúscula.
+     */
+    public static String normalizar(String valor) {
+        return valor == null ? "" : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Forma en que se guardan los datos de cada ticket.
+     */
+    public Almacenamiento almacenamiento() {
+        return this.almacenamiento;
+    }
+
+    /**
+     * Agrega un ticket, le asigna un identificador y lo incorpora a los índices.
+     *
+     * @param ticket Ticket registrado.
+     * @param idUsuario Identificador del usuario solicitante.
+     * @param idDepartamento Identificador del departamento asignado.
+     * @return Identificador asignado al ticket.
+     */
+    public synchronized int agregar(Ticket ticket, int idUsuario, int idDepartamento) {
+        EstadoTicket estado = EstadoTicket.leer(ticket.getEstado());
+        int id = this.cantidad + 1;
+        Bloque bloque = this.bloqueParaAgregar(id);
+        int posicion = id & MASCARA_BLOQUE;
+        bloque.usuarios[posicion] = idUsuario;
+        bloque.departamentos[posicion] = idDepartamento;
+        bloque.marcas.set(posicion, estado.ordinal());
+        if (this.tickets != null) {
+            this.tickets.agregar(ticket);
+        } else {
+            bloque.textos[2 * posicion] = this.textos.agregar(ticket.getAsunto());
+            bloque.textos[2 * posicion + 1] = this.textos.agregar(ticket.getDescripcion());
+        }
+        // Publica las columnas escritas antes.
+        this.cantidad = id;
+        this.contadores[estado.ordinal()].increment();
+        this.agregados.agregar(idDepartamento, idUsuario, estado);
+        this.sincronizar(id, estado.ordinal());
+        this.porDepartamento.computeIfAbsent(idDepartamento, k -> new ListaIds()).agregar(id);
+        this.porUsuario.computeIfAbsent(idUsuario, k -> new ListaIds()).agregar(id);
+        return id;
+    }
+
+    /**
+     * Devuelve un ticket por su identificador, siempre con el estado vigente. En
+     * modo columnar se construye una entidad nueva en cada llamada; con las
+     * entidades conservadas, solo si el ticket ya no tiene su estado registrado.
+     *
+     * @param id Identificador del ticket.
+     * @return Ticket o null si no existe.
+     */
+    public Ticket obtener(int id) {
+        if (!this.existe(id)) {
+            return null;
+        }
+        String estado = estadoDe(this.marca(id)).etiqueta();
+        if (this.tickets != null) {
+            Ticket registrado = this.tickets.obtener(id);
+            if (registrado.getEstado().equals(estado)) {
+                return registrado;
+            }
+            return new TicketAlmacenado(id, registrado.getAsunto(), registrado.getDescripcion(),
+                    registrado.getUsuario(), estado, registrado.getDepartamento());
+        }
+        return new TicketAlmacenado(id, this.asunto(id), this.descripcion(id),
+                this.usuarios.apply(this.idUsuario(id)), estado, this.departamentos.apply(this.idDepartamento(id)));
+    }
+
+    /**
+     * Devuelve el identificador de un ticket.
+     *
+     * @param ticket Ticket registrado.
+     * @return Identificador o 0 si el ticket no está registrado.
+     */
+    public int id(Ticket ticket) {
+        if (ticket instanceof TicketAlmacenado almacenado) {
+            return this.existe(almacenado.id) ? almacenado.id : 0;
+        }
+        return this.tickets != null ? this.tickets.id(ticket) : 0;
+    }
+
+    /**
+     * Devuelve los tickets en orden de identificador, sin copiarlos.
+     *
+     * @return Vista de solo lectura de los tickets.
+     */
+    public List<Ticket> todos() {
+        return this.comoLista(this::obtener);
+    }
+
+    /**
+     * Devuelve los datos de un ticket para listados sin construir la entidad.
+     *
+     * @param id Identificador del ticket.
+     * @return Vista del ticket o null si no existe.
+     */
+    public VistaTicket vista(int id) {
+        if (!this.existe(id)) {
+            return null;
+        }
+        return new VistaTicket(id, this.asunto(id), this.idUsuario(id), estadoDe(this.marca(id)), this.idDepartamento(id));
+    }
+
+    /**
+     * Devuelve las vistas de los tickets en orden de identificador. Cada vista
+     * se construye al pedirla.
+     *
+     * @return Lista de solo lectura de las vistas.
+     */
+    public List<VistaTicket> vistas() {
+        return this.comoLista(this::vista);
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Asunto del ticket.
+     */
+    public String asunto(int id) {
+        return this.tickets != null ? this.tickets.obtener(id).getAsunto()
+                : this.textos.leer(this.bloque(id).textos[2 * (id & MASCARA_BLOQUE)]);
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Descripción del ticket.
+     */
+    public String descripcion(int id) {
+        return this.tickets != null ? this.tickets.obtener(id).getDescripcion()
+                : this.textos.leer(this.bloque(id).textos[2 * (id & MASCARA_BLOQUE) + 1]);
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Identificador del usuario solicitante.
+     */
+    public int idUsuario(int id) {
+        return this.bloque(id).usuarios[id & MASCARA_BLOQUE];
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Identificador del departamento asignado.
+     */
+    public int idDepartamento(int id) {
+        return this.bloque(id).departamentos[id & MASCARA_BLOQUE];
+    }
+
+    /**
+     * Devuelve el estado vigente de un ticket.
+     *
+     * @param ticket Ticket registrado.
+     * @return Estado vigente o el estado propio del ticket si no está registrado.
+     */
+    public EstadoTicket estado(Ticket ticket) {
+        int id = this.id(ticket);
+        return id == 0 ? EstadoTicket.leer(ticket.getEstado()) : this.estado(id);
+    }
+
+    /**
+     * Devuelve el estado vigente de un ticket.
+     *
+     * @param id Identificador del ticket.
+     * @return Estado vigente o null si el ticket no existe.
+     */
+    public EstadoTicket estado(int id) {
+        return this.existe(id) ? estadoDe(this.marca(id)) : null;
+    }
+
+    /**
+     * @param id Identificador del ticket.
+     * @return Cantidad de transiciones del ticket, o 0 si no existe.
+     */
+    public int version(int id) {
+        return this.existe(id) ? this.marca(id) >>> BITS_ESTADO : 0;
+    }
+
+    /**
+     * Devuelve el estado y la versión de un ticket en una sola lectura. Leerlos
+     * por separado podría combinar el estado anterior a una transición concurrente
+     * con la versión posterior.
+     *
+     * @param id Identificador del ticket.
+     * @return Marca del ticket, para {@link #estadoDeMarca(int)} y {@link #versionDeMarca(int)}.
+     * @throws IllegalArgumentException Si el ticket no existe.
+     */
+    public int marcaEstado(int id) {
+        if (!this.existe(id)) {
+            throw new IllegalArgumentException("El ticket no está registrado");
+        }
+        return this.marca(id);
+    }
+
+    /**
+     * @param marca Marca devuelta por {@link #marcaEstado(int)}.
+     * @return Estado de la marca.
+     */
+    public static EstadoTicket estadoDeMarca(int marca) {
+        return estadoDe(marca);
+    }
+
+    /**
+     * @param marca Marca devuelta por {@link #marcaEstado(int)}.
+     * @return Versión de la marca.
+     */
+    public static int versionDeMarca(int marca) {
+        return marca >>> BITS_ESTADO;
+    }
+
+    /**
+     * Cambia el estado de un ticket si está en el estado esperado y la
+     * transición está permitida. El cambio es atómico: si otro agente cambia
+     * el ticket a la vez, se reintenta con el estado que dejó.
+     *
+     * @param id Identificador del ticket.
+     * @param esperado Estado en que debe estar el ticket; null acepta cualquiera.
+     * @param nuevo Estado nuevo.
+     * @return Versión del ticket tras el cambio, o 0 si el ticket no estaba en el
+     * estado esperado o no puede pasar al estado nuevo.
+     * @throws IllegalArgumentException Si el ticket no existe.
+     */
+    public int cambiarEstado(int id, EstadoTicket esperado, EstadoTicket nuevo) {
+        int anterior = this.cambiarMarca(id, esperado, nuevo);
+        return anterior < 0 ? 0 : versionDeMarca(anterior) + 1;
+    }
+
+    /**
+     * Igual que {@link #cambiarEstado(int, EstadoTicket, EstadoTicket)}, pero devuelve
+     * la marca que tenía el ticket, para poder deshacer el cambio con
+     * {@link #deshacerCambio(int, int, EstadoTicket)}.
+     *
+     * @param id Identificador del ticket.
+     * @param esperado Estado en que debe estar el ticket; null acepta cualquiera.
+     * @param nuevo Estado nuevo.
+     * @return Marca anterior al cambio, o -1 si el ticket no cambió.
+     * @throws IllegalArgumentException Si el ticket no existe.
+     */
+    public int cambiarMarca(int id, EstadoTicket esperado, EstadoTicket nuevo) {
+        if (!this.existe(id)) {
+            throw new IllegalArgumentException("El ticket no está registrado");
+        }
+        AtomicIntegerArray marcas = this.bloque(id).marcas;
+        int posicion = id & MASCARA_BLOQUE;
+        while (true) {
+            int actual = marcas.get(posicion);
+            EstadoTicket estado = estadoDe(actual);
+            if ((esperado != null && estado != esperado) || !estado.puedePasarA(nuevo)) {
+                return -1;
+            }
+            int siguiente = marca(nuevo, (actual >>> BITS_ESTADO) + 1);
+            if (marcas.compareAndSet(posicion, actual, siguiente)) {
+                this.aplicado(id, actual, siguiente);
+                return actual;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un ticket a la marca que tenía antes de un cambio que no se pudo
+     * anotar en la bitácora. Solo lo hace si el ticket sigue con la marca que dejó
+     * ese cambio; si otro agente ya lo cambió de nuevo, el ticket queda como está.
+     *
+     * @param id Identificador del ticket.
+     * @param anterior Marca devuelta por {@link #cambiarMarca(int, EstadoTicket, EstadoTicket)}.
+     * @param nuevo Estado al que pasó el ticket con ese cambio.
+     * @return true si se deshizo el cambio.
+     */
+    public boolean deshacerCambio(int id, int anterior, EstadoTicket nuevo) {
+        int siguiente = marca(nuevo, versionDeMarca(anterior) + 1);
+        if (!this.bloque(id).marcas.compareAndSet(id & MASCARA_BLOQUE, siguiente, anterior)) {
+            return false;
+        }
+        this.aplicado(id, siguiente, anterior);
+        return true;
+    }
+
+    /**
+     * Cambia el estado de varios tickets. Cada ticket cambia por separado con
+     * las mismas reglas que {@link #cambiarEstado(int, EstadoTicket, EstadoTicket)}.
+     *
+     * @param ids Identificadores de los tickets.
+     * @param esperado Estado en que deben estar los tickets; null acepta cualquiera.
+     * @param nuevo Estado nuevo.
+     * @return Marca anterior al cambio de cada ticket, en el orden recibido; -1 para
+     * los que no cambiaron o no existen.
+     */
+    public int[] cambiarMarcas(int[] ids, EstadoTicket esperado, EstadoTicket nuevo) {
+        int[] anteriores = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            anteriores[i] = this.existe(ids[i]) ? this.cambiarMarca(ids[i], esperado, nuevo) : -1;
+        }
+        return anteriores;
+    }
+
+    /**
+     * Fija el estado de un ticket si la versión es más nueva que la vigente, sin
+     * revisar las transiciones permitidas. Se usa al reproducir la bitácora, donde
+     * un cambio puede llegar después de otro posterior o ya estar en la instantánea.
+     *
+     * @param id Identificador del ticket.
+     * @param estado Estado registrado.
+     * @param version Versión del ticket con ese estado.
+     * @return true si se aplicó el cambio.
+     * @throws IllegalArgumentException Si el ticket no existe.
+     */
+    public boolean fijarEstado(int id, EstadoTicket estado, int version) {
+        if (!this.existe(id)) {
+            throw new IllegalArgumentException("El ticket no está registrado");
+        }
+        AtomicIntegerArray marcas = this.bloque(id).marcas;
+        int posicion = id & MASCARA_BLOQUE;
+        int siguiente = marca(estado, version);
+        while (true) {
+            int actual = marcas.get(posicion);
+            if (actual >>> BITS_ESTADO >= version) {
+                return false;
+            }
+            if (marcas.compareAndSet(posicion, actual, siguiente)) {
+                this.aplicado(id, actual, siguiente);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Busca tickets combinando filtros; un estado null o vacío y un identificador 0 no restringen.
+     *
+     * @param estado Estado buscado.
+     * @param idDepartamento Identificador del departamento.
+     * @param idUsuario Identificador del usuario solicitante.
+     * @return Tickets que cumplen todos los filtros, en orden de identificador.
+     */
+    public List<Ticket> buscar(String estado, int idDepartamento, int idUsuario) {
+        int[] ids = this.buscarIds(estado, idDepartamento, idUsuario);
+        List<Ticket> resultado = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            resultado.add(this.obtener(id));
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca tickets combinando filtros, igual que {@link #buscar(String, int, int)},
+     * sin construir las entidades.
+     *
+     * @param estado Estado buscado.
+     * @param idDepartamento Identificador del departamento.
+     * @param idUsuario Identificador del usuario solicitante.
+     * @return Vistas de los tickets que cumplen todos los filtros, en orden de identificador.
+     */
+    public List<VistaTicket> buscarVistas(String estado, int idDepartamento, int idUsuario) {
+        int[] ids = this.buscarIds(estado, idDepartamento, idUsuario);
+        List<VistaTicket> resultado = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            resultado.add(this.vista(id));
+        }
+        return resultado;
+    }
+
+    /**
+     * Construye una condición por estado y departamento para filtrar identificadores de ticket.
+     *
+     * @param estado Estado buscado; null o vacío no restringe.
+     * @param idDepartamento Identificador del departamento; 0 no restringe.
+     * @return Condición o null si no hay filtros.
+     */
+    public IntPredicate filtro(String estado, int idDepartamento) {
+        boolean filtraEstado = estado != null && !estado.isBlank();
+        if (!filtraEstado && idDepartamento == 0) {
+            return null;
+        }
+        EstadoTicket buscado = filtraEstado ? EstadoTicket.reconocer(estado) : null;
+        if (filtraEstado && buscado == null) {
+            return id -> false;
+        }
+        return id -> this.existe(id)
+                && (!filtraEstado || estadoDe(this.marca(id)) == buscado)
+                && (idDepartamento == 0 || this.idDepartamento(id) == idDepartamento);
+    }
+
+    /**
+     * Cuenta los tickets con un estado. El conteo se mantiene con cada
+     * transición, por lo que no recorre el índice.
+     *
+     * @param estado Estado a contar.
+     * @return Cantidad de tickets en ese estado.
+     */
+    public int contarPorEstado(EstadoTicket estado) {
+        return (int) this.contadores[estado.ordinal()].sum();
+    }
+
+    /**
+     * Lee los conteos por estado de cada departamento y de cada rol de solicitante.
+     * No recorre los tickets.
+     *
+     * @return Tablero con los conteos vigentes.
+     */
+    public AgregadosTickets.Tablero tablero() {
+        return this.agregados.tablero();
+    }
+
+    /**
+     * @return Cantidad de tickets registrados.
+     */
+    public int tamanio() {
+        return this.cantidad;
+    }
+
+    /**
+     * Indica si hay un ticket registrado con el identificador, sin construir la entidad.
+     *
+     * @param id Identificador del ticket.
+     * @return true si el ticket existe.
+     */
+    public boolean existe(int id) {
+        return id >= 1 && id <= this.cantidad;
+    }
+
+    /**
+     * Busca los identificadores de los tickets que cumplen los filtros. Recorre el
+     * índice más pequeño, ya ordenado, y verifica los demás filtros en las columnas.
+     */
+    private int[] buscarIds(String estado, int idDepartamento, int idUsuario) {
+        int total = this.cantidad;
+        boolean filtraEstado = estado != null && !estado.isBlank();
+        EstadoTicket buscado = filtraEstado ? EstadoTicket.reconocer(estado) : null;
+        if (filtraEstado && buscado == null) {
+            return new int[0];
+        }
+        ListaIds departamento = idDepartamento == 0 ? null : this.porDepartamento.get(idDepartamento);
+        ListaIds usuario = idUsuario == 0 ? null : this.porUsuario.get(idUsuario);
+        if ((idDepartamento != 0 && departamento == null) || (idUsuario != 0 && usuario == null)) {
+            return new int[0];
+        }
+
+        int porEstado = filtraEstado ? this.contarPorEstado(buscado) : Integer.MAX_VALUE;
+        ListaIds menor = null;
+        if (departamento != null && departamento.cantidad <= porEstado) {
+            menor = departamento;
+        }
+        if (usuario != null && usuario.cantidad <= Math.min(porEstado, menor == null ? Integer.MAX_VALUE : menor.cantidad)) {
+            menor = usuario;
+        }
+        IntPredicate cumple = id -> (!filtraEstado || estadoDe(this.marca(id)) == buscado)
+                && (idDepartamento == 0 || this.idDepartamento(id) == idDepartamento)
+                && (idUsuario == 0 || this.idUsuario(id) == idUsuario);
+
+        int[] resultado = new int[16];
+        int encontrados = 0;
+        if (menor != null) {
+            int n = menor.cantidad;
+            int[] ids = menor.ids;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] <= total && cumple.test(ids[i])) {
+                    if (encontrados == resultado.length) {
+                        resultado = Arrays.copyOf(resultado, encontrados * 2);
+                    }
+                    resultado[encontrados++] = ids[i];
+                }
+            }
+        } else if (filtraEstado) {
+            Bloque[] actuales = this.bloques;
+            int desplazamiento = buscado.ordinal() * PALABRAS_BLOQUE;
+            for (int b = 0; b <= total >>> BITS_BLOQUE; b++) {
+                for (int w = 0; w < PALABRAS_BLOQUE; w++) {
+                    long bits = actuales[b].porEstado.get(desplazamiento + w);
+                    while (bits != 0) {
+                        int id = b << BITS_BLOQUE | w << 6 | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        // El bit puede sobrar un instante durante una transición concurrente.
+                        if (id <= total && cumple.test(id)) {
+                            if (encontrados == resultado.length) {
+                                resultado = Arrays.copyOf(resultado, encontrados * 2);
+                            }
+                            resultado[encontrados++] = id;
+                        }
+                    }
+                }
+            }
+        } else {
+            resultado = new int[total];
+            for (int id = 1; id <= total; id++) {
+                resultado[encontrados++] = id;
+            }
+        }
+        return Arrays.copyOf(resultado, encontrados);
+    }
+
+    /**
+     * Deja el ticket solo en el mapa de bits de su estado vigente. Si otra transición
+     * cambió la marca mientras tanto, repite con la marca nueva; quien cambia la
+     * marca siempre termina con esta reparación, por lo que el último en terminar
+     * deja los mapas coincidiendo con la marca final.
+     */
+    private void sincronizar(int id, int marca) {
+        Bloque bloque = this.bloque(id);
+        int posicion = id & MASCARA_BLOQUE;
+        int palabra = posicion >>> 6;
+        long bit = 1L << posicion;
+        while (true) {
+            int estado = marca & MASCARA_ESTADO;
+            for (int e = 0; e < ESTADOS; e++) {
+                int i = e * PALABRAS_BLOQUE + palabra;
+                if (e == estado) {
+                    bloque.porEstado.accumulateAndGet(i, bit, (a, b) -> a | b);
+                } else if ((bloque.porEstado.get(i) & bit) != 0) {
+                    bloque.porEstado.accumulateAndGet(i, ~bit, (a, b) -> a & b);
+                }
+            }
+            int actual = bloque.marcas.get(posicion);
+            if (actual == marca) {
+                return;
+            }
+            marca = actual;
+        }
+    }
+
+    /**
+     * Ajusta contadores, conteos del tablero, observador y mapas de bits después de
+     * que una comparación e intercambio pasó la marca de un ticket de una a otra.
+     */
+    private void aplicado(int id, int de, int a) {
+        EstadoTicket anterior = estadoDe(de);
+        EstadoTicket nuevo = estadoDe(a);
+        this.contadores[anterior.ordinal()].decrement();
+        this.contadores[nuevo.ordinal()].increment();
+        this.agregados.mover(this.idDepartamento(id), this.idUsuario(id), anterior, nuevo);
+        this.observador.cambio(id, anterior, nuevo);
+        this.sincronizar(id, a);
+    }
+
+    private <T> List<T> comoLista(IntFunction<T> elemento) {
+        int tamanio = this.cantidad;
+        return new AbstractList<>() {
+            @Override
+            public T get(int indice) {
+                if (indice < 0 || indice >= tamanio) {
+                    throw new IndexOutOfBoundsException(indice);
+                }
+                return elemento.apply(indice + 1);
+            }
+
+            @Override
+            public int size() {
+                return tamanio;
+            }
+        };
+    }
+
+    private Bloque bloqueParaAgregar(int id) {
+        int numero = id >>> BITS_BLOQUE;
+        Bloque[] actuales = this.bloques;
+        if (numero >= actuales.length) {
+            actuales = Arrays.copyOf(actuales, actuales.length * 2);
+        }
+        if (actuales[numero] == null) {
+            // Los bloques se crean al llegar a ellos; los lectores solo alcanzan bloques ya creados.
+            actuales[numero] = new Bloque(this.textos != null);
+            this.bloques = actuales;
+        }
+        return actuales[numero];
+    }
+
+    private int marca(int id) {
+        return this.bloque(id).marcas.get(id & MASCARA_BLOQUE);
+    }
+
+    private Bloque bloque(int id) {
+        return this.bloques[id >>> BITS_BLOQUE];
+    }
+
+    private static int marca(EstadoTicket estado, int version) {
+        return version << BITS_ESTADO | estado.ordinal();
+    }
+
+    private static EstadoTicket estadoDe(int marca) {
+        return EstadoTicket.porOrdinal(marca & MASCARA_ESTADO);
+    }
+}
@@ -0,0 +1,312 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita los intentos de inicio de sesión por cuenta y por origen antes de
+ * verificar la contraseña.
+ * <p>
+ * Cada cuenta o dirección de origen se cuenta en dos franjas de una tabla fija
+ * elegidas con funciones hash distintas, y su nivel es el menor de los dos
+ * (como un count-min sketch): una colisión solo puede hacer el límite más
+ * estricto, nunca más laxo, y la memoria no crece con la cantidad de cuentas
+ * ni de atacantes. Cada franja es un {@code long} con el nivel y la hora de su
+ * última actualización, que se modifica con CAS, sin candados. El nivel se
+ * vacía de forma continua a razón de {@code limite} intentos por ventana,
+ * por lo que se permite una ráfaga de hasta {@code limite} intentos y luego
+ * el ritmo sostenido de la ventana.
+ * <p>
+ * Por cuenta se cuentan solo los intentos fallidos, para no bloquear a quien
+ * entra seguido con su contraseña correcta; por origen se cuentan todos. El
+ * intento se reserva al permitirlo, antes de verificar la contraseña, y se
+ * devuelve a la cuenta si resulta correcto: así, muchos intentos simultáneos de
+ * una cuenta no pasan todos la verificación antes de que se cuente el primer
+ * fallo. Como cada franja se reserva por separado, con intentos simultáneos
+ * pueden pasar a lo sumo el doble del límite.
+ */
+public class LimitadorIntentos {
+
+    public static final int LIMITE_CUENTA_DEFECTO = 5;
+    public static final int LIMITE_ORIGEN_DEFECTO = 60;
+    public static final Duration VENTANA_DEFECTO = Duration.ofMinutes(1);
+
+    private static final int FRANJAS = 1 << 14;
+
+    /**
+     * Un intento en punto fijo, para que el vaciado gradual no pierda fracciones.
+     */
+    private static final long UNIDAD = 1 << 8;
+    private static final int BITS_NIVEL = 24;
+    private static final long MASCARA_NIVEL = (1L << BITS_NIVEL) - 1;
+
+    /**
+     * Resolución del reloj de las franjas: 2^20 ns, cerca de un milisegundo.
+     */
+    private static final int BITS_TICK = 20;
+
+    /**
+     * Contadores del limitador.
+     *
+     * @param permitidos Intentos que pasaron a la verificación de la contraseña.
+     * @param rechazadosCuenta Intentos rechazados por exceso de fallos de la cuenta.
+     * @param rechazadosOrigen Intentos rechazados por exceso de intentos del origen.
+     * @param fallos Intentos fallidos registrados.
+     */
+    public record Metricas(long permitidos, long rechazadosCuenta, long rechazadosOrigen, long fallos) {
+    }
+
+    /**
+     * Franjas de una dimensión (cuentas u orígenes) con su límite.
+     */
+    private static final class Tabla {
+        private final AtomicLongArray franjas = new AtomicLongArray(FRANJAS * 2);
+        private final long limite;
+        private final long ticksVentana;
+
+        private Tabla(int limite, long ticksVentana) {
+            this.limite = limite * UNIDAD;
+            this.ticksVentana = ticksVentana;
+        }
+
+        private boolean activa() {
+            return this.limite > 0;
+        }
+
+        /**
+         * @return Ticks que faltan para que la clave pueda intentar de nuevo; 0 si puede ahora.
+         */
+        private long espera(int hash, long ahora) {
+            long nivel = Math.min(this.nivel(primera(hash), ahora), this.nivel(segunda(hash), ahora));
+            long exceso = nivel + UNIDAD - this.limite;
+            return exceso <= 0 ? 0 : Math.max(1, exceso * this.ticksVentana / this.limite);
+        }
+
+        /**
+         * Cuenta un intento si alguna de las dos franjas tiene espacio. La franja
+         * que no lo reservó se suma igual, para que ambas sigan contando la clave.
+         *
+         * @return true si se reservó el intento.
+         */
+        private boolean reservar(int hash, long ahora) {
+            boolean primera = this.reservarFranja(primera(hash), ahora);
+            boolean segunda = this.reservarFranja(segunda(hash), ahora);
+            if (!primera && !segunda) {
+                return false;
+            }
+            if (!primera) {
+                this.sumarFranja(primera(hash), ahora);
+            }
+            if (!segunda) {
+                this.sumarFranja(segunda(hash), ahora);
+            }
+            return true;
+        }
+
+        /**
+         * Descuenta un intento reservado.
+         */
+        private void devolver(int hash, long ahora) {
+            this.devolverFranja(primera(hash), ahora);
+            this.devolverFranja(segunda(hash), ahora);
+        }
+
+        private boolean reservarFranja(int i, long ahora) {
+            while (true) {
+                long actual = this.franjas.get(i);
+                long nivel = this.vaciar(actual, ahora) + UNIDAD;
+                if (nivel > this.limite) {
+                    return false;
+                }
+                if (this.franjas.compareAndSet(i, actual, (ahora << BITS_NIVEL) | nivel)) {
+                    return true;
+                }
+            }
+        }
+
+        private void devolverFranja(int i, long ahora) {
+            while (true) {
+                long actual = this.franjas.get(i);
+                long nivel = Math.max(0, this.vaciar(actual, ahora) - UNIDAD);
+                if (this.franjas.compareAndSet(i, actual, (ahora << BITS_NIVEL) | nivel)) {
+                    return;
+                }
+            }
+        }
+
+        private void sumarFranja(int i, long ahora) {
+            while (true) {
+                long actual = this.franjas.get(i);
+                long nivel = Math.min(MASCARA_NIVEL, this.vaciar(actual, ahora) + UNIDAD);
+                if (this.franjas.compareAndSet(i, actual, (ahora << BITS_NIVEL) | nivel)) {
+                    return;
+                }
+            }
+        }
+
+        private long nivel(int i, long ahora) {
+            return this.vaciar(this.franjas.get(i), ahora);
+        }
+
+        private long vaciar(long franja, long ahora) {
+            long nivel = franja & MASCARA_NIVEL;
+            if (nivel == 0) {
+                return 0;
+            }
+            long transcurrido = ahora - (franja >>> BITS_NIVEL);
+            if (transcurrido >= this.ticksVentana) {
+                return 0;
+            }
+            return Math.max(0, nivel - transcurrido * this.limite / this.ticksVentana);
+        }
+
+        private static int primera(int hash) {
+            return hash & (FRANJAS - 1);
+        }
+
+        private static int segunda(int hash) {
+            return FRANJAS + ((hash * 0x9E3779B9) >>> (32 - 14));
+        }
+    }
+
+    private final Tabla cuentas;
+    private final Tabla origenes;
+    private final long inicio = System.nanoTime();
+    private final LongAdder permitidos = new LongAdder();
+    private final LongAdder rechazadosCuenta = new LongAdder();
+    private final LongAdder rechazadosOrigen = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    /**
+     * Limitador con los límites por defecto.
+     */
+    public LimitadorIntentos() {
+        this(LIMITE_CUENTA_DEFECTO, LIMITE_ORIGEN_DEFECTO, VENTANA_DEFECTO);
+    }
+
+    /**
+     * @param limiteCuenta Intentos fallidos por cuenta en cada ventana; 0 para no limitar.
+     * @param limiteOrigen Intentos por origen en cada ventana; 0 para no limitar.
+     * @param ventana Tiempo en que se recupera el límite completo.
+     */
+    public LimitadorIntentos(int limiteCuenta, int limiteOrigen, Duration ventana) {
+        if (limiteCuenta < 0 || limiteOrigen < 0 || limiteCuenta * UNIDAD > MASCARA_NIVEL
+                || limiteOrigen * UNIDAD > MASCARA_NIVEL) {
+            throw new IllegalArgumentException("Límite de intentos fuera de rango");
+        }
+        long ticksVentana = ventana.toNanos() >>> BITS_TICK;
+        if (ticksVentana <= 0) {
+            throw new IllegalArgumentException("La ventana debe ser de al menos un milisegundo");
+        }
+        this.cuentas = new Tabla(limiteCuenta, ticksVentana);
+        this.origenes = new Tabla(limiteOrigen, ticksVentana);
+    }
+
+    /**
+     * @return Limitador que permite todos los intentos; solo cuenta.
+     */
+    public static LimitadorIntentos sinLimite() {
+        return new LimitadorIntentos(0, 0, VENTANA_DEFECTO);
+    }
+
+    /**
+     * Decide si un intento puede verificar la contraseña y, si puede, lo cuenta
+     * para su origen y lo reserva para su cuenta. Un intento permitido debe
+     * terminar con {@link #registrarExito(String)} o {@link #registrarFallo(String)}.
+     *
+     * @param correo Correo del intento.
+     * @param origen Dirección de origen; null si no se conoce.
+     * @return 0 si el intento se permite; si no, milisegundos que debe esperar.
+     */
+    public long permitir(String correo, String origen) {
+        long ahora = this.ahora();
+        int hashCuenta = hash(correo);
+        boolean cuenta = this.cuentas.activa();
+        if (cuenta && !this.cuentas.reservar(hashCuenta, ahora)) {
+            this.rechazadosCuenta.increment();
+            return milisegundos(Math.max(1, this.cuentas.espera(hashCuenta, ahora)));
+        }
+        if (origen != null && this.origenes.activa()) {
+            int hash = mezclar(origen.hashCode());
+            if (!this.origenes.reservar(hash, ahora)) {
+                if (cuenta) {
+                    this.cuentas.devolver(hashCuenta, ahora);
+                }
+                this.rechazadosOrigen.increment();
+                return milisegundos(Math.max(1, this.origenes.espera(hash, ahora)));
+            }
+        }
+        this.permitidos.increment();
+        return 0;
+    }
+
+    /**
+     * Registra un intento permitido que falló. El intento ya quedó contado para
+     * la cuenta al permitirlo.
+     *
+     * @param correo Correo del intento.
+     */
+    public void registrarFallo(String correo) {
+        this.fallos.increment();
+    }
+
+    /**
+     * Registra un intento permitido que resultó correcto y lo devuelve a la cuenta,
+     * ya que por cuenta solo se cuentan los fallos.
+     *
+     * @param correo Correo del intento.
+     */
+    public void registrarExito(String correo) {
+        if (this.cuentas.activa()) {
+            this.cuentas.devolver(hash(correo), this.ahora());
+        }
+    }
+
+    /**
+     * @return Contadores acumulados.
+     */
+    public Metricas metricas() {
+        return new Metricas(this.permitidos.sum(), this.rechazadosCuenta.sum(), this.rechazadosOrigen.sum(),
+                this.fallos.sum());
+    }
+
+    private long ahora() {
+        return (System.nanoTime() - this.inicio) >>> BITS_TICK;
+    }
+
+    /**
+     * Hash del correo sin distinguir mayúsculas ni espacios, sin crear cadenas
+     * nuevas; variar las mayúsculas no debe dar intentos extra a una cuenta.
+     */
+    private static int hash(String texto) {
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && Character.isWhitespace(texto.charAt(inicio))) {
+            inicio++;
+        }
+        while (fin > inicio && Character.isWhitespace(texto.charAt(fin - 1))) {
+            fin--;
+        }
+        int h = 0;
+        for (int i = inicio; i < fin; i++) {
+            h = 31 * h + Character.toLowerCase(texto.charAt(i));
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Mezcla final de MurmurHash3, para repartir bien los bits bajos.
+     */
+    private static int mezclar(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static long milisegundos(long ticks) {
+        return Math.max(1, (ticks << BITS_TICK) / 1_000_000);
+    }
+}
@@ -0,0 +1,129 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codificación binaria de las mutaciones del controlador que se anotan en la bitácora.
+ * <p>
+ * Cada registro empieza con un byte de tipo seguido de sus campos. Los textos
+ * se guardan como largo en bytes más UTF-8, con largo -1 para null.
+ */
+final class OperacionesBitacora {
+
+    static final byte USUARIO = 1;
+    static final byte DEPARTAMENTO = 2;
+    static final byte TICKET = 3;
+    static final byte PALABRA_EMOCION = 4;
+    static final byte PALABRA_TECNICA = 5;
+    /**
+     * Cambio de estado sin versión, anterior al ciclo de vida; solo se lee.
+     */
+    static final byte ESTADO_TICKET = 6;
+    static final byte RUTA_CATEGORIA = 7;
+    static final byte ESTADO_TICKET_VERSION = 8;
+    static final byte ESTADO_TICKETS = 9;
+
+    private OperacionesBitacora() {
+    }
+
+    static byte[] usuario(String nombre, String passwordHash, String rol, String correo, String telefono) {
+        return new Escritor(USUARIO).texto(nombre).texto(passwordHash).texto(rol).texto(correo).texto(telefono).bytes();
+    }
+
+    static byte[] departamento(String nombre, String descripcion, String correo, String extensionTelefono) {
+        return new Escritor(DEPARTAMENTO).texto(nombre).texto(descripcion).texto(correo).texto(extensionTelefono).bytes();
+    }
+
+    static byte[] ticket(String asunto, String descripcion, int idUsuario, String estado, int idDepartamento) {
+        return new Escritor(TICKET).texto(asunto).texto(descripcion).entero(idUsuario).texto(estado).entero(idDepartamento).bytes();
+    }
+
+    static byte[] palabraEmocion(String emocion, String palabra) {
+        return new Escritor(PALABRA_EMOCION).texto(emocion).texto(palabra).bytes();
+    }
+
+    static byte[] palabraTecnica(String categoria, String palabra) {
+        return new Escritor(PALABRA_TECNICA).texto(categoria).texto(palabra).bytes();
+    }
+
+    static byte[] estadoTicket(int idTicket, String estado, int version) {
+        return new Escritor(ESTADO_TICKET_VERSION).entero(idTicket).texto(estado).entero(version).bytes();
+    }
+
+    /**
+     * Codifica un cambio de estado en lote con los tickets que sí cambiaron.
+     *
+     * @param idsTickets Identificadores de los tickets.
+     * @param versiones Versión de cada ticket tras el cambio; 0 para los que no cambiaron.
+     * @param cambiados Cantidad de versiones distintas de 0.
+     * @param estado Estado nuevo.
+     */
+    static byte[] estadoTickets(int[] idsTickets, int[] versiones, int cambiados, String estado) {
+        Escritor escritor = new Escritor(ESTADO_TICKETS).texto(estado).entero(cambiados);
+        for (int i = 0; i < idsTickets.length; i++) {
+            if (versiones[i] != 0) {
+                escritor.entero(idsTickets[i]).entero(versiones[i]);
+            }
+        }
+        return escritor.bytes();
+    }
+
+    static byte[] rutaCategoria(String categoria, int idDepartamento) {
+        return new Escritor(RUTA_CATEGORIA).texto(categoria).entero(idDepartamento).bytes();
+    }
+
+    static String leerTexto(ByteBuffer datos) {
+        int largo = datos.getInt();
+        if (largo < 0) {
+            return null;
+        }
+        String texto = new String(datos.array(), datos.arrayOffset() + datos.position(), largo, StandardCharsets.UTF_8);
+        datos.position(datos.position() + largo);
+        return texto;
+    }
+
+    /**
+     * Acumula los campos de un registro en un arreglo que crece según se necesite.
+     */
+    private static final class Escritor {
+        private byte[] bytes = new byte[128];
+        private int largo;
+
+        Escritor(byte tipo) {
+            this.bytes[this.largo++] = tipo;
+        }
+
+        Escritor entero(int valor) {
+            this.asegurar(4);
+            this.bytes[this.largo++] = (byte) (valor >>> 24);
+            this.bytes[this.largo++] = (byte) (valor >>> 16);
+            this.bytes[this.largo++] = (byte) (valor >>> 8);
+            this.bytes[this.largo++] = (byte) valor;
+            return this;
+        }
+
+        Escritor texto(String valor) {
+            if (valor == null) {
+                return this.entero(-1);
+            }
+            byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+            this.entero(utf8.length);
+            this.asegurar(utf8.length);
+            System.arraycopy(utf8, 0, this.bytes, this.largo, utf8.length);
+            this.largo += utf8.length;
+            return this;
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(this.bytes, this.largo);
+        }
+
+        private void asegurar(int adicional) {
+            if (this.largo + adicional > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.largo + adicional));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.List;
+
+/**
+ * Página de resultados de un listado.
+ *
+ * @param elementos Elementos de la página.
+ * @param cursorSiguiente Cursor para pedir la página siguiente; null si es la última.
+ * @param inicio Cantidad de elementos entregados antes de esta página.
+ * @param total Cantidad total de elementos del listado.
+ * @param <T> Tipo de los elementos.
+ */
+public record Pagina<T>(List<T> elementos, String cursorSiguiente, int inicio, int total) {
+
+    /**
+     * @return true si existe una página siguiente.
+     */
+    public boolean haySiguiente() {
+        return cursorSiguiente != null;
+    }
+}
@@ -0,0 +1,205 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor sobre listados del sistema.
+ * <p>
+ * Sin clave de orden, el cursor guarda la posición siguiente y la página se
+ * copia directamente de la lista. Con clave de orden, el cursor guarda la
+ * última clave entregada y la página se lee desde esa clave en un
+ * {@link IndiceOrden}, por lo que cuesta lo mismo con mil elementos que con
+ * millones.
+ */
+public final class Paginador {
+
+    /**
+     * Tamaño máximo de página aceptado.
+     */
+    public static final int TAMANIO_MAXIMO = 1000;
+
+    /**
+     * Clave de orden de un elemento junto a su posición en el listado, que
+     * desempata las claves iguales.
+     */
+    private record Llave(String clave, int indice) implements Comparable<Llave> {
+        @Override
+        public int compareTo(Llave otra) {
+            int comparacion = this.clave.compareTo(otra.clave);
+            return comparacion != 0 ? comparacion : Integer.compare(this.indice, otra.indice);
+        }
+    }
+
+    /**
+     * Índice de un listado por una clave de orden.
+     * <p>
+     * Los listados solo crecen, por lo que {@link #sincronizar(List)} indexa solo
+     * los elementos agregados desde la vez anterior; el índice se llena con la
+     * primera página pedida en ese orden. Si la clave de un elemento cambia,
+     * quien la cambia avisa con {@link #mover(List, int, String)}. Una entrada
+     * que queda con una clave anterior por cambios simultáneos se descarta al
+     * paginar, comparándola con la clave vigente del elemento.
+     *
+     * @param <T> Tipo de los elementos.
+     */
+    public static final class IndiceOrden<T> {
+        private final Function<? super T, String> claveOrden;
+        private final ConcurrentSkipListSet<Llave> llaves = new ConcurrentSkipListSet<>();
+        private volatile boolean activo;
+        private int indexados;
+
+        /**
+         * Crea un índice vacío.
+         *
+         * @param claveOrden Función que devuelve la clave de orden de un elemento.
+         */
+        public IndiceOrden(Function<? super T, String> claveOrden) {
+            this.claveOrden = claveOrden;
+        }
+
+        /**
+         * Indexa los elementos agregados al listado desde la sincronización anterior.
+         *
+         * @param fuente Listado completo, en orden de registro.
+         */
+        public synchronized void sincronizar(List<? extends T> fuente) {
+            this.activo = true;
+            int total = fuente.size();
+            for (int i = this.indexados; i < total; i++) {
+                this.llaves.add(new Llave(this.clave(fuente.get(i)), i));
+            }
+            this.indexados = Math.max(this.indexados, total);
+        }
+
+        /**
+         * Actualiza la clave de un elemento después de cambiarla. No hace nada si
+         * aún no se pidió ninguna página en este orden.
+         * <p>
+         * La clave nueva se relee del elemento después de quitar la anterior: si
+         * dos cambios simultáneos del mismo elemento avisan en otro orden, el que
+         * quitó la clave vigente la vuelve a agregar, y la entrada del elemento
+         * nunca queda solo con una clave anterior.
+         *
+         * @param fuente Listado completo, en orden de registro.
+         * @param indice Posición del elemento en el listado.
+         * @param anterior Clave que tenía.
+         */
+        public void mover(List<? extends T> fuente, int indice, String anterior) {
+            if (!this.activo) {
+                return;
+            }
+            this.llaves.remove(new Llave(anterior == null ? "" : anterior, indice));
+            String agregada = null;
+            while (true) {
+                String vigente = this.clave(fuente.get(indice));
+                if (vigente.equals(agregada)) {
+                    return;
+                }
+                if (agregada != null) {
+                    this.llaves.remove(new Llave(agregada, indice));
+                }
+                this.llaves.add(new Llave(vigente, indice));
+                agregada = vigente;
+            }
+        }
+
+        private String clave(T elemento) {
+            String clave = this.claveOrden.apply(elemento);
+            return clave == null ? "" : clave;
+        }
+    }
+
+    /**
+     * Estado decodificado de un cursor.
+     */
+    private record Cursor(int entregados, int ultimoIndice, String ultimaClave) {
+    }
+
+    private Paginador() {
+    }
+
+    /**
+     * Obtiene una página de una lista.
+     *
+     * @param fuente Lista completa de elementos.
+     * @param tamanio Cantidad de elementos por página.
+     * @param cursor Cursor devuelto por la página anterior; null para la primera.
+     * @param orden Índice de la clave de orden del listado; null para el orden de registro.
+     * @param <T> Tipo de los elementos.
+     * @return Página solicitada.
+     */
+    public static <T> Pagina<T> paginar(List<T> fuente, int tamanio, String cursor, IndiceOrden<? super T> orden) {
+        if (tamanio <= 0 || tamanio > TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO);
+        }
+        Cursor desde = decodificar(cursor);
+        return orden == null
+                ? paginarPorPosicion(fuente, tamanio, desde)
+                : paginarPorClave(fuente, tamanio, desde, orden);
+    }
+
+    private static <T> Pagina<T> paginarPorPosicion(List<T> fuente, int tamanio, Cursor desde) {
+        int total = fuente.size();
+        int inicio = Math.min(desde.ultimoIndice() + 1, total);
+        int fin = Math.min(inicio + tamanio, total);
+        List<T> elementos = List.copyOf(fuente.subList(inicio, fin));
+        String siguiente = fin < total ? codificar(new Cursor(fin, fin - 1, "")) : null;
+        return new Pagina<>(elementos, siguiente, inicio, total);
+    }
+
+    private static <T> Pagina<T> paginarPorClave(List<T> fuente, int tamanio, Cursor desde, IndiceOrden<? super T> orden) {
+        orden.sincronizar(fuente);
+        NavigableSet<Llave> siguientes = desde.ultimaClave() == null ? orden.llaves
+                : orden.llaves.tailSet(new Llave(desde.ultimaClave(), desde.ultimoIndice()), false);
+
+        int total = fuente.size();
+        List<T> elementos = new ArrayList<>(tamanio);
+        Llave ultima = null;
+        boolean hayMas = false;
+        for (Llave llave : siguientes) {
+            if (llave.indice() >= total) {
+                continue;
+            }
+            T elemento = fuente.get(llave.indice());
+            if (!llave.clave().equals(orden.clave(elemento))) {
+                continue;
+            }
+            if (elementos.size() == tamanio) {
+                hayMas = true;
+                break;
+            }
+            elementos.add(elemento);
+            ultima = llave;
+        }
+        int entregados = desde.entregados() + elementos.size();
+        String siguiente = hayMas ? codificar(new Cursor(entregados, ultima.indice(), ultima.clave())) : null;
+        return new Pagina<>(List.copyOf(elementos), siguiente, desde.entregados(), total);
+    }
+
+    private static String codificar(Cursor cursor) {
+        String texto = cursor.entregados() + ":" + cursor.ultimoIndice() + ":" + cursor.ultimaClave();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodificar(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Cursor(0, -1, null);
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int primero = texto.indexOf(':');
+            int segundo = texto.indexOf(':', primero + 1);
+            int entregados = Integer.parseInt(texto.substring(0, primero));
+            int ultimoIndice = Integer.parseInt(texto.substring(primero + 1, segundo));
+            return new Cursor(entregados, ultimoIndice, texto.substring(segundo + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Departamento;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recepción asíncrona de tickets.
+ * <p>
+ * Los tickets enviados entran a un anillo de capacidad fija. Un único hilo
+ * consumidor los retira en lotes y los pasa por cuatro etapas: validación,
+ * clasificación (incluye los términos de búsqueda y la firma de duplicados),
+ * indexación (un solo bloqueo del gestor por lote) y persistencia (espera de
+ * la bitácora, que agrupa el lote en pocos fsync). Cada envío recibe un acuse
+ * que se completa con el identificador del ticket cuando este ya es durable, o
+ * con la excepción que lo rechazó.
+ * <p>
+ * Cuando el anillo está lleno, {@link #enviar} bloquea al productor y
+ * {@link #intentarEnviar} espera como máximo el tiempo indicado y devuelve null.
+ */
+public class RecepcionTickets implements AutoCloseable {
+
+    public static final int CAPACIDAD_DEFECTO = 4096;
+    public static final int LOTE_MAXIMO = 256;
+
+    /**
+     * Etapas medidas del procesamiento.
+     */
+    public enum Etapa {ESPERA, VALIDACION, CLASIFICACION, INDEXACION, PERSISTENCIA}
+
+    /**
+     * Latencia acumulada de una etapa. La espera se mide por ticket; las demás, por lote.
+     *
+     * @param etapa Etapa medida.
+     * @param mediciones Cantidad de mediciones.
+     * @param promedioMicros Duración promedio en microsegundos.
+     * @param maximoMicros Duración máxima en microsegundos.
+     */
+    public record LatenciaEtapa(Etapa etapa, long mediciones, double promedioMicros, double maximoMicros) {
+    }
+
+    /**
+     * Estado de la recepción en un instante.
+     *
+     * @param profundidad Tickets en el anillo esperando al consumidor.
+     * @param capacidad Capacidad del anillo.
+     * @param aceptados Tickets aceptados en el anillo.
+     * @param rechazados Envíos rechazados por anillo lleno.
+     * @param procesados Tickets registrados con éxito.
+     * @param fallidos Tickets rechazados durante el procesamiento.
+     * @param lotes Lotes procesados.
+     * @param etapas Latencia de cada etapa.
+     */
+    public record Metricas(int profundidad, int capacidad, long aceptados, long rechazados, long procesados,
+                           long fallidos, long lotes, List<LatenciaEtapa> etapas) {
+
+        /**
+         * @return Tamaño promedio de lote.
+         */
+        public double promedioLote() {
+            return lotes == 0 ? 0 : (double) (procesados + fallidos) / lotes;
+        }
+    }
+
+    /**
+     * Ticket en tránsito por las etapas, con su acuse.
+     */
+    static final class Solicitud {
+        final String asunto;
+        final String descripcion;
+        final int idUsuario;
+        final String estado;
+        int idDepartamento;
+        final long encolada;
+        final CompletableFuture<Integer> acuse = new CompletableFuture<>();
+        Ticket ticket;
+        ClasificadorTickets.Clasificacion clasificacion;
+        IndiceTexto.Documento documento;
+        int[] firma;
+        int id;
+        CompletableFuture<Void> escrito;
+
+        private Solicitud(String asunto, String descripcion, int idUsuario, String estado, int idDepartamento) {
+            this.asunto = asunto;
+            this.descripcion = descripcion;
+            this.idUsuario = idUsuario;
+            this.estado = estado;
+            this.idDepartamento = idDepartamento;
+            this.encolada = System.nanoTime();
+        }
+    }
+
+    private final ControladorHelpDesk controlador;
+    private final Solicitud[] anillo;
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition noLleno = this.candado.newCondition();
+    private final Condition noVacio = this.candado.newCondition();
+    private int cabeza;
+    private int cantidad;
+    private boolean cerrada;
+    private final Thread consumidor;
+
+    private final LongAdder aceptados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder procesados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder[] nanosEtapa = new LongAdder[Etapa.values().length];
+    private final LongAdder[] medicionesEtapa = new LongAdder[Etapa.values().length];
+    private final AtomicLong[] maximoEtapa = new AtomicLong[Etapa.values().length];
+
+    /**
+     * Crea la recepción e inicia su hilo consumidor.
+     *
+     * @param controlador Controlador donde se registran los tickets.
+     * @param capacidad Capacidad del anillo.
+     */
+    RecepcionTickets(ControladorHelpDesk controlador, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        this.controlador = controlador;
+        this.anillo = new Solicitud[capacidad];
+        for (int i = 0; i < this.nanosEtapa.length; i++) {
+            this.nanosEtapa[i] = new LongAdder();
+            this.medicionesEtapa[i] = new LongAdder();
+            this.maximoEtapa[i] = new AtomicLong();
+        }
+        this.consumidor = Thread.ofPlatform().name("recepcion-tickets").daemon().unstarted(this::consumir);
+        this.consumidor.start();
+    }
+
+    /**
+     * Envía un ticket; si el anillo está lleno, espera a que haya espacio.
+     *
+     * @return Acuse que se completa con el identificador del ticket.
+     * @throws IllegalStateException Si la recepción está cerrada o se interrumpe la espera.
+     */
+    public CompletableFuture<Integer> enviar(String asunto, String descripcion, int idUsuario,
+                                             String estado, int idDepartamento) {
+        Solicitud solicitud = new Solicitud(asunto, descripcion, idUsuario, estado, idDepartamento);
+        encolar(solicitud, -1);
+        return solicitud.acuse;
+    }
+
+    /**
+     * Envía un ticket esperando como máximo el tiempo indicado por espacio en el anillo.
+     *
+     * @param esperaMs Espera máxima en milisegundos; 0 para no esperar.
+     * @return Acuse del ticket o null si el anillo siguió lleno.
+     * @throws IllegalStateException Si la recepción está cerrada o se interrumpe la espera.
+     */
+    public CompletableFuture<Integer> intentarEnviar(String asunto, String descripcion, int idUsuario,
+                                                     String estado, int idDepartamento, long esperaMs) {
+        Solicitud solicitud = new Solicitud(asunto, descripcion, idUsuario, estado, idDepartamento);
+        if (!encolar(solicitud, TimeUnit.MILLISECONDS.toNanos(Math.max(0, esperaMs)))) {
+            this.rechazados.increment();
+            return null;
+        }
+        return solicitud.acuse;
+    }
+
+    /**
+     * @return Tickets en el anillo esperando al consumidor.
+     */
+    public int profundidad() {
+        this.candado.lock();
+        try {
+            return this.cantidad;
+        } finally {
+            this.candado.unlock();
+        }
+    }
+
+    /**
+     * @return Contadores y latencias por etapa acumulados desde el inicio.
+     */
+    public Metricas metricas() {
+        List<LatenciaEtapa> etapas = new ArrayList<>(Etapa.values().length);
+        for (Etapa etapa : Etapa.values()) {
+            int i = etapa.ordinal();
+            long mediciones = this.medicionesEtapa[i].sum();
+            etapas.add(new LatenciaEtapa(etapa, mediciones,
+                    mediciones == 0 ? 0 : this.nanosEtapa[i].sum() / 1_000.0 / mediciones,
+                    this.maximoEtapa[i].get() / 1_000.0));
+        }
+        return new Metricas(profundidad(), this.anillo.length, this.aceptados.sum(), this.rechazados.sum(),
+                this.procesados.sum(), this.fallidos.sum(), this.lotes.sum(), List.copyOf(etapas));
+    }
+
+    /**
+     * Deja de aceptar envíos, procesa los tickets pendientes y detiene el consumidor.
+     */
+    @Override
+    public void close() {
+        this.candado.lock();
+        try {
+            this.cerrada = true;
+            this.noVacio.signalAll();
+            this.noLleno.signalAll();
+        } finally {
+            this.candado.unlock();
+        }
+        boolean interrumpido = false;
+        while (this.consumidor.isAlive()) {
+            try {
+                this.consumidor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Coloca una solicitud en el anillo.
+     *
+     * @param esperaNanos Espera máxima; negativa para esperar sin límite.
+     * @return false si el anillo siguió lleno.
+     */
+    private boolean encolar(Solicitud solicitud, long esperaNanos) {
+        this.candado.lock();
+        try {
+            while (this.cantidad == this.anillo.length && !this.cerrada) {
+                if (esperaNanos < 0) {
+                    this.noLleno.await();
+                } else if (esperaNanos == 0) {
+                    return false;
+                } else {
+                    esperaNanos = Math.max(0, this.noLleno.awaitNanos(esperaNanos));
+                }
+            }
+            if (this.cerrada) {
+                throw new IllegalStateException("La recepción de tickets está cerrada");
+            }
+            this.anillo[(this.cabeza + this.cantidad) % this.anillo.length] = solicitud;
+            this.cantidad++;
+            this.aceptados.increment();
+            this.noVacio.signal();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió el envío del ticket", e);
+        } finally {
+            this.candado.unlock();
+        }
+    }
+
+    /**
+     * Retira hasta {@code lote.length} solicitudes; espera si el anillo está vacío.
+     *
+     * @return Solicitudes retiradas; 0 si la recepción se cerró y no quedan pendientes.
+     */
+    private int retirar(Solicitud[] lote) {
+        this.candado.lock();
+        try {
+            while (this.cantidad == 0 && !this.cerrada) {
+                this.noVacio.awaitUninterruptibly();
+            }
+            int n = Math.min(this.cantidad, lote.length);
+            for (int i = 0; i < n; i++) {
+                lote[i] = this.anillo[this.cabeza];
+                this.anillo[this.cabeza] = null;
+                this.cabeza = (this.cabeza + 1) % this.anillo.length;
+            }
+            this.cantidad -= n;
+            if (n > 0) {
+                this.noLleno.signalAll();
+            }
+            return n;
+        } finally {
+            this.candado.unlock();
+        }
+    }
+
+    private void consumir() {
+        Solicitud[] lote = new Solicitud[LOTE_MAXIMO];
+        List<Solicitud> validas = new ArrayList<>(LOTE_MAXIMO);
+        int n;
+        while ((n = retirar(lote)) > 0) {
+            validas.clear();
+            try {
+                procesar(lote, n, validas);
+            } catch (RuntimeException e) {
+                for (int i = 0; i < n; i++) {
+                    if (lote[i].acuse.completeExceptionally(e)) {
+                        this.fallidos.increment();
+                    }
+                }
+            }
+            Arrays.fill(lote, 0, n, null);
+        }
+    }
+
+    private void procesar(Solicitud[] lote, int n, List<Solicitud> validas) {
+        this.lotes.increment();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            medir(Etapa.ESPERA, inicio - lote[i].encolada);
+        }
+
+        for (int i = 0; i < n; i++) {
+            Solicitud s = lote[i];
+            Usuario usuario = this.controlador.usuario(s.idUsuario);
+            if (usuario != null && s.idDepartamento == 0) {
+                // Enrutar requiere la clasificación; se calcula aquí y la etapa siguiente la reutiliza.
+                s.clasificacion = this.controlador.clasificar(s.asunto, s.descripcion);
+                try {
+                    s.idDepartamento = this.controlador.enrutar(s.clasificacion);
+                } catch (IllegalArgumentException e) {
+                    rechazar(s, e);
+                    continue;
+                }
+            }
+            Departamento departamento = this.controlador.departamento(s.idDepartamento);
+            if (usuario == null) {
+                rechazar(s, new IllegalArgumentException("El usuario no existe"));
+            } else if (departamento == null) {
+                rechazar(s, new IllegalArgumentException("El departamento no existe"));
+            } else {
+                s.ticket = new Ticket(s.asunto, s.descripcion, usuario, s.estado, departamento);
+                validas.add(s);
+            }
+        }
+        long fin = System.nanoTime();
+        medir(Etapa.VALIDACION, fin - inicio);
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        inicio = fin;
+        for (Solicitud s : validas) {
+            if (s.clasificacion == null) {
+                s.clasificacion = this.controlador.clasificar(s.asunto, s.descripcion);
+            }
+            s.documento = IndiceTexto.documento(s.asunto, s.descripcion);
+            s.firma = DetectorDuplicados.firma(s.asunto, s.descripcion);
+        }
+        fin = System.nanoTime();
+        medir(Etapa.CLASIFICACION, fin - inicio);
+
+        inicio = fin;
+        RuntimeException falla = null;
+        try {
+            this.controlador.registrarLoteTickets(validas);
+        } catch (RuntimeException e) {
+            // Los tickets registrados antes de la falla ya tienen identificador y se confirman igual.
+            falla = e;
+        }
+        fin = System.nanoTime();
+        medir(Etapa.INDEXACION, fin - inicio);
+
+        inicio = fin;
+        for (Solicitud s : validas) {
+            if (s.id == 0) {
+                rechazar(s, falla);
+                continue;
+            }
+            try {
+                if (s.escrito != null) {
+                    s.escrito.join();
+                }
+                s.acuse.complete(s.id);
+                this.procesados.increment();
+            } catch (CompletionException e) {
+                rechazar(s, new IllegalStateException("No se pudo escribir en la bitácora: "
+                        + e.getCause().getMessage(), e.getCause()));
+            }
+        }
+        medir(Etapa.PERSISTENCIA, System.nanoTime() - inicio);
+    }
+
+    private void rechazar(Solicitud solicitud, RuntimeException error) {
+        solicitud.acuse.completeExceptionally(error);
+        this.fallidos.increment();
+    }
+
+    private void medir(Etapa etapa, long nanos) {
+        int i = etapa.ordinal();
+        this.nanosEtapa[i].add(nanos);
+        this.medicionesEtapa[i].increment();
+        this.maximoEtapa[i].accumulateAndGet(nanos, Math::max);
+    }
+}
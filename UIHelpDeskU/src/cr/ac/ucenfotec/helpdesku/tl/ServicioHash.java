@@ -0,0 +1,241 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Servicio de hash de contraseñas para el sistema HelpDesk U.
+ * Reutiliza una instancia del algoritmo por hilo, codifica en hexadecimal
+ * mediante tabla y permite hashear lotes de contraseñas en paralelo.
+ */
+public class ServicioHash {
+
+    /**
+     * Algoritmo de hash intercambiable.
+     */
+    public interface Algoritmo {
+
+        /**
+         * Calcula el hash de una contraseña.
+         *
+         * @param password Contraseña en texto plano.
+         * @return Hash codificado como texto.
+         */
+        String hash(String password);
+
+        /**
+         * Verifica una contraseña contra un hash calculado previamente.
+         *
+         * @param password Contraseña en texto plano.
+         * @param hash Hash almacenado.
+         * @return true si la contraseña corresponde al hash.
+         */
+        boolean verificar(String password, String hash);
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Algoritmo configurado para este servicio.
+     */
+    private final Algoritmo algoritmo;
+
+    /**
+     * Crea el servicio con el algoritmo indicado.
+     *
+     * @param algoritmo Algoritmo de hash a utilizar.
+     */
+    public ServicioHash(Algoritmo algoritmo) {
+        this.algoritmo = algoritmo;
+    }
+
+    /**
+     * Crea un servicio con SHA-256 sin sal, compatible con los hashes existentes.
+     *
+     * @return Servicio de hash SHA-256.
+     */
+    public static ServicioHash sha256() {
+        return new ServicioHash(new Sha256());
+    }
+
+    /**
+     * Crea un servicio con PBKDF2 (HMAC SHA-256) y sal aleatoria.
+     *
+     * @param iteraciones Factor de trabajo (cantidad de iteraciones).
+     * @return Servicio de hash PBKDF2.
+     */
+    public static ServicioHash pbkdf2(int iteraciones) {
+        return new ServicioHash(new Pbkdf2(iteraciones));
+    }
+
+    /**
+     * Calcula el hash de una contraseña.
+     *
+     * @param password Contraseña en texto plano.
+     * @return Hash de la contraseña.
+     */
+    public String hash(String password) {
+        return this.algoritmo.hash(password);
+    }
+
+    /**
+     * Verifica una contraseña contra un hash almacenado.
+     *
+     * @param password Contraseña en texto plano.
+     * @param hash Hash almacenado.
+     * @return true si la contraseña es correcta.
+     */
+    public boolean verificar(String password, String hash) {
+        return this.algoritmo.verificar(password, hash);
+    }
+
+    /**
+     * Calcula el hash de un lote de contraseñas en paralelo, conservando el orden.
+     *
+     * @param passwords Contraseñas en texto plano.
+     * @return Hashes en el mismo orden que las contraseñas recibidas.
+     */
+    public List<String> hashLote(List<String> passwords) {
+        return passwords.parallelStream().map(this.algoritmo::hash).toList();
+    }
+
+    /**
+     * Codifica bytes en hexadecimal en minúscula.
+     *
+     * @param bytes Bytes a codificar.
+     * @return Texto hexadecimal.
+     */
+    public static String aHex(byte[] bytes) {
+        char[] salida = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xFF;
+            salida[i * 2] = HEX[v >>> 4];
+            salida[i * 2 + 1] = HEX[v & 0x0F];
+        }
+        return new String(salida);
+    }
+
+    /**
+     * Decodifica texto hexadecimal en bytes.
+     *
+     * @param hex Texto hexadecimal.
+     * @return Bytes decodificados.
+     */
+    public static byte[] deHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Hexadecimal inválido");
+        }
+        byte[] salida = new byte[hex.length() / 2];
+        for (int i = 0; i < salida.length; i++) {
+            int alto = Character.digit(hex.charAt(i * 2), 16);
+            int bajo = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (alto < 0 || bajo < 0) {
+                throw new IllegalArgumentException("Hexadecimal inválido");
+            }
+            salida[i] = (byte) ((alto << 4) | bajo);
+        }
+        return salida;
+    }
+
+    // ================== ALGORITMOS ==================
+
+    /**
+     * SHA-256 sin sal con un MessageDigest reutilizado por hilo.
+     */
+    public static class Sha256 implements Algoritmo {
+
+        private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("Error al hashear la contraseña", e);
+            }
+        });
+
+        @Override
+        public String hash(String password) {
+            MessageDigest md = DIGEST.get();
+            md.reset();
+            return aHex(md.digest(password.getBytes()));
+        }
+
+        @Override
+        public boolean verificar(String password, String hash) {
+            byte[] esperado = hash.getBytes(StandardCharsets.US_ASCII);
+            byte[] recibido = this.hash(password).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(esperado, recibido);
+        }
+    }
+
+    /**
+     * PBKDF2 con HMAC SHA-256, sal aleatoria y factor de trabajo configurable.
+     * El hash se codifica como {@code pbkdf2$iteraciones$salHex$hashHex}.
+     */
+    public static class Pbkdf2 implements Algoritmo {
+
+        private static final String PREFIJO = "pbkdf2";
+        private static final int BYTES_SAL = 16;
+        private static final int BITS_LLAVE = 256;
+        private static final SecureRandom ALEATORIO = new SecureRandom();
+        private static final ThreadLocal<SecretKeyFactory> FABRICA = ThreadLocal.withInitial(() -> {
+            try {
+                return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("Error al hashear la contraseña", e);
+            }
+        });
+
+        private final int iteraciones;
+
+        /**
+         * @param iteraciones Factor de trabajo; debe ser positivo.
+         */
+        public Pbkdf2(int iteraciones) {
+            if (iteraciones <= 0) {
+                throw new IllegalArgumentException("La cantidad de iteraciones debe ser positiva");
+            }
+            this.iteraciones = iteraciones;
+        }
+
+        @Override
+        public String hash(String password) {
+            byte[] sal = new byte[BYTES_SAL];
+            ALEATORIO.nextBytes(sal);
+            byte[] derivado = derivar(password, sal, this.iteraciones);
+            return PREFIJO + "$" + this.iteraciones + "$" + aHex(sal) + "$" + aHex(derivado);
+        }
+
+        @Override
+        public boolean verificar(String password, String hash) {
+            String[] partes = hash.split("\\$");
+            if (partes.length != 4 || !PREFIJO.equals(partes[0])) {
+                return false;
+            }
+            try {
+                int iter = Integer.parseInt(partes[1]);
+                byte[] sal = deHex(partes[2]);
+                byte[] esperado = deHex(partes[3]);
+                return MessageDigest.isEqual(esperado, derivar(password, sal, iter));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private static byte[] derivar(String password, byte[] sal, int iteraciones) {
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), sal, iteraciones, BITS_LLAVE);
+            try {
+                return FABRICA.get().generateSecret(spec).getEncoded();
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Error al hashear la contraseña", e);
+            } finally {
+                spec.clearPassword();
+            }
+        }
+    }
+}
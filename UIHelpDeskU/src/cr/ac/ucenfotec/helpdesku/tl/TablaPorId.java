@@ -0,0 +1,140 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tabla de entidades indexada por identificador entero.
+ * <p>
+ * Los identificadores se generan en forma creciente a partir de 1 y nunca
+ * se reutilizan. Los valores se guardan en bloques de arreglos, por lo que
+ * obtener una entidad por su identificador es O(1) y no requiere candados;
+ * solo las inserciones se serializan.
+ *
+ * @param <T> Tipo de las entidades.
+ */
+public class TablaPorId<T> {
+
+    private static final int BITS_BLOQUE = 10;
+    private static final int TAMANIO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA = TAMANIO_BLOQUE - 1;
+
+    /**
+     * Llave que compara por identidad, ya que las entidades no definen igualdad propia.
+     */
+    private record Identidad(Object valor) {
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Identidad i && i.valor == this.valor;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.valor);
+        }
+    }
+
+    private volatile AtomicReferenceArray<T>[] bloques;
+    private volatile int cantidad;
+    private final ConcurrentHashMap<Identidad, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Crea una tabla con índice inverso de entidad a identificador.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TablaPorId() {
+        this.bloques = new AtomicReferenceArray[]{new AtomicReferenceArray<>(TAMANIO_BLOQUE)};
+    }
+
+    /**
+     * Agrega una entidad y le asigna el siguiente identificador.
+     *
+     * @param valor Entidad a agregar.
+     * @return Identificador asignado.
+     */
+    public synchronized int agregar(T valor) {
+        int id = this.cantidad + 1;
+        this.bloque(id, true).set(id & MASCARA, valor);
+        this.ids.put(new Identidad(valor), id);
+        this.cantidad = id;
+        return id;
+    }
+
+    /**
+     * Devuelve la entidad de un identificador.
+     *
+     * @param id Identificador.
+     * @return Entidad o null si el identificador no existe.
+     */
+    public T obtener(int id) {
+        if (id < 1 || id > this.cantidad) {
+            return null;
+        }
+        return this.bloque(id, false).get(id & MASCARA);
+    }
+
+    /**
+     * Devuelve el identificador de una entidad.
+     *
+     * @param valor Entidad registrada.
+     * @return Identificador o 0 si la entidad no está en la tabla.
+     */
+    public int id(T valor) {
+        Integer id = valor == null ? null : this.ids.get(new Identidad(valor));
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * Devuelve la cantidad de entidades, que coincide con el último identificador asignado.
+     *
+     * @return Cantidad de entidades.
+     */
+    public int tamanio() {
+        return this.cantidad;
+    }
+
+    /**
+     * Devuelve una vista de solo lectura en orden de identificador, sin copiar los datos.
+     * La posición i corresponde al identificador i + 1.
+     *
+     * @return Vista de las entidades.
+     */
+    public List<T> comoLista() {
+        int tamanio = this.cantidad;
+        return new AbstractList<>() {
+            @Override
+            public T get(int indice) {
+                if (indice < 0 || indice >= tamanio) {
+                    throw new IndexOutOfBoundsException(indice);
+                }
+                return TablaPorId.this.obtener(indice + 1);
+            }
+
+            @Override
+            public int size() {
+                return tamanio;
+            }
+        };
+    }
+
+    private AtomicReferenceArray<T> bloque(int id, boolean crear) {
+        int numero = id >>> BITS_BLOQUE;
+        AtomicReferenceArray<T>[] actuales = this.bloques;
+        if (numero >= actuales.length) {
+            if (!crear) {
+                throw new IllegalStateException("Bloque inexistente para el identificador " + id);
+            }
+            actuales = Arrays.copyOf(actuales, Math.max(numero + 1, actuales.length * 2));
+            for (int i = 0; i < actuales.length; i++) {
+                if (actuales[i] == null) {
+                    actuales[i] = new AtomicReferenceArray<>(TAMANIO_BLOQUE);
+                }
+            }
+            this.bloques = actuales;
+        }
+        return actuales[numero];
+    }
+}
@@ -0,0 +1,170 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Textos guardados como UTF-8 en páginas de bytes, sin un objeto por texto.
+ * <p>
+ * Cada texto se identifica con una referencia de 64 bits: la página en los
+ * 32 bits altos y la posición en los bajos. En esa posición se guarda el largo
+ * como entero variable seguido de los bytes. Un texto que ya estaba guardado
+ * devuelve la referencia existente; la tabla de duplicados es de direccionamiento
+ * abierto sobre arreglos de primitivos. Los textos nunca se eliminan.
+ * <p>
+ * Las escrituras se serializan; las lecturas no requieren candados, pero una
+ * referencia solo debe leerse después de publicarla con una escritura volátil.
+ */
+final class TextosCompactos {
+
+    /**
+     * Referencia del texto null.
+     */
+    static final long NULO = -1;
+
+    private static final int TAMANIO_PAGINA = 1 << 20;
+    private static final int CAPACIDAD_INICIAL = 1 << 10;
+
+    private volatile byte[][] paginas = {new byte[TAMANIO_PAGINA]};
+    private int pagina;
+    private int posicion;
+
+    /**
+     * Referencia + 1 de cada texto distinto; 0 indica una casilla libre.
+     */
+    private long[] tabla = new long[CAPACIDAD_INICIAL];
+    private int[] hashes = new int[CAPACIDAD_INICIAL];
+    private int distintos;
+    private long repetidos;
+
+    /**
+     * Guarda un texto, o encuentra el mismo texto ya guardado.
+     *
+     * @param texto Texto a guardar.
+     * @return Referencia del texto.
+     */
+    synchronized long agregar(String texto) {
+        if (texto == null) {
+            return NULO;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        int hash = texto.hashCode();
+        int mascara = this.tabla.length - 1;
+        int i = mezclar(hash) & mascara;
+        while (this.tabla[i] != 0) {
+            if (this.hashes[i] == hash && this.iguales(this.tabla[i] - 1, utf8)) {
+                this.repetidos++;
+                return this.tabla[i] - 1;
+            }
+            i = (i + 1) & mascara;
+        }
+        long referencia = this.escribir(utf8);
+        this.tabla[i] = referencia + 1;
+        this.hashes[i] = hash;
+        if (++this.distintos * 4 > this.tabla.length * 3) {
+            this.ampliar();
+        }
+        return referencia;
+    }
+
+    /**
+     * @param referencia Referencia devuelta por {@link #agregar(String)}.
+     * @return Texto guardado.
+     */
+    String leer(long referencia) {
+        if (referencia == NULO) {
+            return null;
+        }
+        byte[] datos = this.paginas[(int) (referencia >>> 32)];
+        long encabezado = encabezado(datos, (int) referencia);
+        return new String(datos, (int) encabezado, (int) (encabezado >>> 32), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Cantidad de textos distintos guardados.
+     */
+    synchronized int distintos() {
+        return this.distintos;
+    }
+
+    /**
+     * @return Cantidad de textos que ya estaban guardados al agregarlos.
+     */
+    synchronized long repetidos() {
+        return this.repetidos;
+    }
+
+    private long escribir(byte[] utf8) {
+        int necesario = utf8.length + 5;
+        byte[][] actuales = this.paginas;
+        if (this.posicion + necesario > actuales[this.pagina].length) {
+            // Un texto más grande que una página recibe una página propia.
+            actuales = Arrays.copyOf(actuales, actuales.length + 1);
+            actuales[actuales.length - 1] = new byte[Math.max(TAMANIO_PAGINA, necesario)];
+            this.pagina = actuales.length - 1;
+            this.posicion = 0;
+        }
+        byte[] datos = actuales[this.pagina];
+        long referencia = (long) this.pagina << 32 | this.posicion;
+        int largo = utf8.length;
+        while (largo >= 0x80) {
+            datos[this.posicion++] = (byte) (largo | 0x80);
+            largo >>>= 7;
+        }
+        datos[this.posicion++] = (byte) largo;
+        System.arraycopy(utf8, 0, datos, this.posicion, utf8.length);
+        this.posicion += utf8.length;
+        // Publica la página nueva, si la hubo, después de escribir en ella.
+        this.paginas = actuales;
+        return referencia;
+    }
+
+    private boolean iguales(long referencia, byte[] utf8) {
+        byte[] datos = this.paginas[(int) (referencia >>> 32)];
+        long encabezado = encabezado(datos, (int) referencia);
+        int p = (int) encabezado;
+        int largo = (int) (encabezado >>> 32);
+        return largo == utf8.length && Arrays.equals(datos, p, p + largo, utf8, 0, largo);
+    }
+
+    /**
+     * Decodifica el largo de un texto.
+     *
+     * @return Largo en los 32 bits altos y posición de los bytes en los bajos.
+     */
+    private static long encabezado(byte[] datos, int p) {
+        int largo = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = datos[p++];
+            largo |= (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while (b < 0);
+        return (long) largo << 32 | p;
+    }
+
+    private void ampliar() {
+        long[] tablaAnterior = this.tabla;
+        int[] hashesAnteriores = this.hashes;
+        this.tabla = new long[tablaAnterior.length * 2];
+        this.hashes = new int[tablaAnterior.length * 2];
+        int mascara = this.tabla.length - 1;
+        for (int j = 0; j < tablaAnterior.length; j++) {
+            if (tablaAnterior[j] == 0) {
+                continue;
+            }
+            int i = mezclar(hashesAnteriores[j]) & mascara;
+            while (this.tabla[i] != 0) {
+                i = (i + 1) & mascara;
+            }
+            this.tabla[i] = tablaAnterior[j];
+            this.hashes[i] = hashesAnteriores[j];
+        }
+    }
+
+    private static int mezclar(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,296 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de validación de datos de entrada para usuarios y departamentos.
+ * Cada regla es un recorrido manual del texto, sin expresiones regulares,
+ * y devuelve el mensaje de error o null si el valor es válido.
+ * Lo comparten la interfaz interactiva, la importación masiva y el controlador.
+ */
+public final class ValidadorEntrada {
+
+    /**
+     * Roles válidos para un usuario.
+     */
+    public static final List<String> ROLES = List.of("estudiante", "funcionario", "administrador");
+
+    /**
+     * Caracteres especiales aceptados en una contraseña.
+     */
+    private static final String ESPECIALES = "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?";
+
+    private static final String MENSAJE_PASSWORD = "La contraseña debe tener:\n"
+            + "   - Mínimo 8 caracteres\n"
+            + "   - Al menos una mayúscula\n"
+            + "   - Al menos una minúscula\n"
+            + "   - Al menos un número\n"
+            + "   - Al menos un carácter especial";
+
+    /**
+     * Regla incumplida por un campo.
+     *
+     * @param campo Nombre del campo.
+     * @param mensaje Descripción del error.
+     */
+    public record Violacion(String campo, String mensaje) {
+    }
+
+    private ValidadorEntrada() {
+    }
+
+    // ================== VALIDACIÓN DE REGISTROS ==================
+
+    /**
+     * Valida todos los campos de un usuario y reúne las violaciones encontradas.
+     *
+     * @param nombre Nombre completo.
+     * @param correo Correo electrónico.
+     * @param telefono Número de teléfono.
+     * @param rol Rol del usuario.
+     * @param password Contraseña en texto plano.
+     * @return Lista de violaciones; vacía si el usuario es válido.
+     */
+    public static List<Violacion> validarUsuario(String nombre, String correo, String telefono, String rol, String password) {
+        List<Violacion> violaciones = null;
+        violaciones = agregar(violaciones, "nombre", validarNombre(nombre));
+        violaciones = agregar(violaciones, "correo", validarCorreo(correo));
+        violaciones = agregar(violaciones, "telefono", validarTelefono(telefono));
+        violaciones = agregar(violaciones, "rol", validarRol(rol));
+        violaciones = agregar(violaciones, "password", validarPassword(password));
+        return violaciones == null ? List.of() : violaciones;
+    }
+
+    /**
+     * Valida todos los campos de un departamento y reúne las violaciones encontradas.
+     * El correo y la extensión son opcionales.
+     *
+     * @param nombre Nombre del departamento.
+     * @param correo Correo del departamento.
+     * @param extensionTelefono Extensión telefónica.
+     * @return Lista de violaciones; vacía si el departamento es válido.
+     */
+    public static List<Violacion> validarDepartamento(String nombre, String correo, String extensionTelefono) {
+        List<Violacion> violaciones = null;
+        violaciones = agregar(violaciones, "nombre", validarNombreDepartamento(nombre));
+        if (correo != null && !correo.isBlank()) {
+            violaciones = agregar(violaciones, "correo", validarCorreo(correo));
+        }
+        if (extensionTelefono != null && !extensionTelefono.isBlank()) {
+            violaciones = agregar(violaciones, "extension", validarExtension(extensionTelefono));
+        }
+        return violaciones == null ? List.of() : violaciones;
+    }
+
+    /**
+     * Une los mensajes de una lista de violaciones en un solo texto.
+     *
+     * @param violaciones Violaciones a unir.
+     * @return Mensajes separados por salto de línea.
+     */
+    public static String mensaje(List<Violacion> violaciones) {
+        StringBuilder sb = new StringBuilder();
+        for (Violacion v : violaciones) {
+            if (!sb.isEmpty()) {
+                sb.append('\n');
+            }
+            sb.append(v.mensaje());
+        }
+        return sb.toString();
+    }
+
+    // ================== REGLAS POR CAMPO ==================
+
+    /**
+     * Nombre completo: obligatorio, entre 2 y 50 caracteres y sin números.
+     *
+     * @param nombre Nombre a validar.
+     * @return Mensaje de error o null si es válido.
+     */
+    public static String validarNombre(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            return "El nombre es obligatorio";
+        }
+        int inicio = 0;
+        int fin = nombre.length();
+        while (inicio < fin && Character.isWhitespace(nombre.charAt(inicio))) {
+            inicio++;
+        }
+        while (fin > inicio && Character.isWhitespace(nombre.charAt(fin - 1))) {
+            fin--;
+        }
+        int largo = fin - inicio;
+        if (largo < 2 || largo > 50) {
+            return "El nombre debe tener entre 2 y 50 caracteres";
+        }
+        for (int i = inicio; i < fin; i++) {
+            if (Character.isDigit(nombre.charAt(i))) {
+                return "El nombre no puede contener números";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Correo electrónico: formato usuario@dominio.ext y máximo 100 caracteres.
+     * Equivale a {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}.
+     *
+     * @param correo Correo a validar.
+     * @return Mensaje de error o null si es válido.
+     */
+    public static String validarCorreo(String correo) {
+        if (correo == null || !formatoCorreoValido(correo)) {
+            return "Formato de correo inválido. Ejemplo: usuario@dominio.com";
+        }
+        if (correo.length() > 100) {
+            return "El correo es demasiado largo";
+        }
+        return null;
+    }
+
+    /**
+     * Teléfono: exactamente 8 dígitos, se ignoran separadores.
+     *
+     * @param telefono Teléfono a validar.
+     * @return Mensaje de error o null si es válido.
+     */
+    public static String validarTelefono(String telefono) {
+        int digitos = 0;
+        if (telefono != null) {
+            for (int i = 0; i < telefono.length(); i++) {
+                if (Character.isDigit(telefono.charAt(i))) {
+                    digitos++;
+                }
+            }
+        }
+        return digitos == 8 ? null : "El teléfono debe tener exactamente 8 dígitos numéricos.";
+    }
+
+    /**
+     * Rol: estudiante, funcionario o administrador, sin distinguir mayúsculas.
+     *
+     * @param rol Rol a validar.
+     * @return Mensaje de error o null si es válido.
+     */
+    public static String validarRol(String rol) {
+        if (rol != null) {
+            for (String valido : ROLES) {
+                if (valido.equalsIgnoreCase(rol)) {
+                    return null;
+                }
+            }
+        }
+        return "Rol inválido. Opciones válidas: estudiante, funcionario, administrador.";
+    }
+
+    /**
+     * Contraseña: mínimo 8 caracteres con mayúscula, minúscula, número y carácter especial.
+     *
+     * @param password Contraseña a validar.
+     * @return Mensaje de error o null si es válida.
+     */
+    public static String validarPassword(String password) {
+        if (password == null || password.length() < 8) {
+            return MENSAJE_PASSWORD;
+        }
+        boolean mayuscula = false;
+        boolean minuscula = false;
+        boolean numero = false;
+        boolean especial = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                mayuscula = true;
+            } else if (c >= 'a' && c <= 'z') {
+                minuscula = true;
+            } else if (c >= '0' && c <= '9') {
+                numero = true;
+            } else if (ESPECIALES.indexOf(c) >= 0) {
+                especial = true;
+            }
+        }
+        return mayuscula && minuscula && numero && especial ? null : MENSAJE_PASSWORD;
+    }
+
+    /**
+     * Nombre de departamento: obligatorio y entre 2 y 50 caracteres.
+     *
+     * @param nombre Nombre a validar.
+     * @return Mensaje de error o null si es válido.
+     */
+    public static String validarNombreDepartamento(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            return "El nombre del departamento es obligatorio";
+        }
+        int largo = nombre.strip().length();
+        return largo < 2 || largo > 50 ? "El nombre del departamento debe tener entre 2 y 50 caracteres" : null;
+    }
+
+    /**
+     * Extensión telefónica: solo dígitos, entre 1 y 6.
+     *
+     * @param extension Extensión a validar.
+     * @return Mensaje de error o null si es válida.
+     */
+    public static String validarExtension(String extension) {
+        String valor = extension.strip();
+        if (valor.isEmpty() || valor.length() > 6) {
+            return "La extensión debe tener entre 1 y 6 dígitos";
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return "La extensión solo puede contener dígitos";
+            }
+        }
+        return null;
+    }
+
+    // ================== AUXILIARES ==================
+
+    private static List<Violacion> agregar(List<Violacion> violaciones, String campo, String mensaje) {
+        if (mensaje == null) {
+            return violaciones;
+        }
+        if (violaciones == null) {
+            violaciones = new ArrayList<>(2);
+        }
+        violaciones.add(new Violacion(campo, mensaje));
+        return violaciones;
+    }
+
+    private static boolean formatoCorreoValido(String correo) {
+        int arroba = -1;
+        int n = correo.length();
+        for (int i = 0; i < n; i++) {
+            char c = correo.charAt(i);
+            if (c == '@') {
+                if (arroba >= 0) {
+                    return false;
+                }
+                arroba = i;
+            } else if (!esLetraODigito(c) && c != '.' && c != '-' && !(arroba < 0 && (c == '+' || c == '_'))) {
+                return false;
+            }
+        }
+        if (arroba < 1) {
+            return false;
+        }
+        int punto = correo.lastIndexOf('.');
+        if (punto <= arroba + 1 || n - punto - 1 < 2) {
+            return false;
+        }
+        for (int i = punto + 1; i < n; i++) {
+            char c = correo.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esLetraODigito(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+}
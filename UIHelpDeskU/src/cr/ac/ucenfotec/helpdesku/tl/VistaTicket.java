@@ -0,0 +1,14 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+/**
+ * Datos de un ticket para listados, leídos de las columnas del índice sin
+ * construir la entidad. El usuario y el departamento se dan por identificador.
+ *
+ * @param id Identificador del ticket.
+ * @param asunto Asunto del ticket.
+ * @param idUsuario Identificador del usuario solicitante.
+ * @param estado Estado vigente al leer la vista.
+ * @param idDepartamento Identificador del departamento asignado.
+ */
+public record VistaTicket(int id, String asunto, int idUsuario, EstadoTicket estado, int idDepartamento) {
+}
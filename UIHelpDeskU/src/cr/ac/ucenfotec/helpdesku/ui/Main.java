@@ -1,20 +1,155 @@
-
 package cr.ac.ucenfotec.helpdesku.ui;
 
+import cr.ac.ucenfotec.helpdesku.tl.BitacoraEscritura;
 import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.IndiceTickets;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.ServicioHash;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.StringJoiner;
 
 public class Main {
+
+    private static final String USO = "Uso: Main [--servidor [puerto]] con las opciones -Dhelpdesku.bitacora=<archivo>,"
+            + " -Dhelpdesku.fsync=siempre|periodica|nunca, -Dhelpdesku.instantanea=<archivo>,"
+            + " -Dhelpdesku.instantanea.minutos=<intervalo>, -Dhelpdesku.estadisticas=<archivo>"
+            + " y -Dhelpdesku.almacen=objetos|columnar";
+
     public static void main(String[] args) {
         System.out.println("Iniciando Sistema de Mesa de Ayuda Universitaria....");
 
         //UI interfaz = new UI();
         //interfaz.mostrarMenuPrincipal();
 
-        ControladorHelpDesk controlador = new ControladorHelpDesk();
+        // Configurable con -Dhelpdesku.bitacora=<archivo>, -Dhelpdesku.fsync=siempre|periodica|nunca,
+        // -Dhelpdesku.instantanea=<archivo> y -Dhelpdesku.instantanea.minutos=<intervalo>;
+        // -Dhelpdesku.estadisticas=<archivo> guarda al salir la latencia por operación en JSON;
+        // -Dhelpdesku.almacen=objetos|columnar elige cómo se guardan los tickets en memoria
+        Path archivo;
+        BitacoraEscritura.Sincronizacion sincronizacion;
+        Path instantanea;
+        Duration intervalo;
+        IndiceTickets.Almacenamiento almacenamiento;
+        boolean servidor = args.length > 0 && args[0].equals("--servidor");
+        int puerto = ServidorHelpDesk.PUERTO_DEFECTO;
+        try {
+            archivo = Path.of(System.getProperty("helpdesku.bitacora", "helpdesku.wal"));
+            sincronizacion = opcion("helpdesku.fsync", "periodica", BitacoraEscritura.Sincronizacion.class);
+            instantanea = Path.of(System.getProperty("helpdesku.instantanea", "helpdesku.snap"));
+            intervalo = Duration.ofMinutes(entero("-Dhelpdesku.instantanea.minutos",
+                    System.getProperty("helpdesku.instantanea.minutos", "5"), 1, Integer.MAX_VALUE));
+            almacenamiento = opcion("helpdesku.almacen", "objetos", IndiceTickets.Almacenamiento.class);
+            if (args.length > 2 || (args.length > 0 && !servidor)) {
+                throw new IllegalArgumentException("Argumentos desconocidos: " + String.join(" ", args));
+            }
+            if (args.length > 1) {
+                puerto = entero("El puerto", args[1], 0, 65_535);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(USO);
+            return;
+        }
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk(
+                ServicioHash.sha256(), new LimitadorIntentos(), almacenamiento)) {
+            ControladorHelpDesk.Recuperacion recuperacion;
+            try {
+                recuperacion = controlador.abrirBitacora(archivo, instantanea, intervalo, sincronizacion);
+            } catch (RuntimeException e) {
+                // Instantánea u operación de la bitácora con datos inválidos.
+                throw new IOException(e.getMessage(), e);
+            }
+            System.out.printf("Datos recuperados en %.1f ms (%s, %d operaciones de la bitácora)%n",
+                    recuperacion.nanos() / 1e6,
+                    recuperacion.posicionInstantanea() > 0 ? "con instantánea" : "sin instantánea",
+                    recuperacion.operacionesReproducidas());
+
+            if (servidor) {
+                ejecutarServidor(controlador, puerto);
+            } else {
+                UILogin uiLogin = new UILogin(controlador);
+                uiLogin.mostrarMenuInicio();
+            }
 
-        UILogin uiLogin = new UILogin(controlador);
-        uiLogin.mostrarMenuInicio();
+            String estadisticas = System.getProperty("helpdesku.estadisticas");
+            if (estadisticas != null) {
+                try {
+                    Files.writeString(Path.of(estadisticas), controlador.volcarEstadisticas() + "\n");
+                } catch (IOException e) {
+                    System.out.println("No se pudieron guardar las estadísticas: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("No se pudo abrir la bitácora: " + e.getMessage());
+        }
 
         System.out.println("Sistema finalizado");
     }
-}
+
+    /**
+     * Lee una propiedad del sistema con uno de los valores de la enumeración, sin importar mayúsculas.
+     *
+     * @throws IllegalArgumentException Si el valor no es ninguno de la enumeración.
+     */
+    private static <E extends Enum<E>> E opcion(String propiedad, String defecto, Class<E> tipo) {
+        String valor = System.getProperty(propiedad, defecto);
+        try {
+            return Enum.valueOf(tipo, valor.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            StringJoiner valores = new StringJoiner("|");
+            for (E constante : tipo.getEnumConstants()) {
+                valores.add(constante.name().toLowerCase(Locale.ROOT));
+            }
+            throw new IllegalArgumentException("Valor inválido para -D" + propiedad + ": " + valor
+                    + " (se espera " + valores + ")");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el valor no es un entero entre minimo y maximo.
+     */
+    private static int entero(String nombre, String valor, int minimo, int maximo) {
+        try {
+            int numero = Integer.parseInt(valor.strip());
+            if (numero >= minimo && numero <= maximo) {
+                return numero;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo junto con el rango.
+        }
+        throw new IllegalArgumentException(nombre + " debe ser un entero entre " + minimo + " y " + maximo
+                + ": " + valor);
+    }
+
+    /**
+     * Atiende sesiones remotas hasta que el proceso reciba la señal de terminar.
+     */
+    private static void ejecutarServidor(ControladorHelpDesk controlador, int puerto) throws IOException {
+        ServidorHelpDesk servidor = new ServidorHelpDesk(controlador, puerto);
+        Thread principal = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            try {
+                // Permite que main cierre el controlador (bitácora e instantánea) antes de salir.
+                principal.join(10_000);
+            } catch (InterruptedException ignorada) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        servidor.iniciar();
+        System.out.println("Servidor escuchando en 127.0.0.1:" + servidor.getPuerto());
+        try {
+            servidor.esperar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            servidor.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package cr.ac.ucenfotec.helpdesku.ui;
+
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor TCP local con el protocolo de {@link SesionRemota}.
+ * <p>
+ * Cada conexión se atiende en su propio hilo virtual, por lo que miles de
+ * sesiones bloqueadas en lectura no consumen hilos del sistema. Todas las
+ * sesiones comparten el mismo controlador.
+ */
+public class ServidorHelpDesk implements AutoCloseable {
+
+    public static final int PUERTO_DEFECTO = 5050;
+
+    /**
+     * Tiempo máximo sin recibir solicitudes antes de cerrar una conexión.
+     */
+    private static final int INACTIVIDAD_MS = 30 * 60 * 1000;
+
+    private final ControladorHelpDesk controlador;
+    private final ServerSocket servidor;
+    private final ExecutorService sesiones = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sesion-", 1).factory());
+    private final Set<Socket> conexiones = ConcurrentHashMap.newKeySet();
+    private final AtomicLong atendidas = new AtomicLong();
+    private final AtomicLong solicitudes = new AtomicLong();
+    private Thread aceptador;
+
+    /**
+     * Abre el puerto en la interfaz local.
+     *
+     * @param controlador Controlador compartido por todas las sesiones.
+     * @param puerto Puerto TCP; 0 para uno libre.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServidorHelpDesk(ControladorHelpDesk controlador, int puerto) throws IOException {
+        this.controlador = controlador;
+        this.servidor = new ServerSocket(puerto, 512, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Empieza a aceptar conexiones en segundo plano.
+     */
+    public void iniciar() {
+        this.aceptador = Thread.ofVirtual().name("aceptador").start(this::aceptar);
+    }
+
+    /**
+     * Bloquea hasta que el servidor se cierre.
+     *
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public void esperar() throws InterruptedException {
+        this.aceptador.join();
+    }
+
+    public int getPuerto() {
+        return this.servidor.getLocalPort();
+    }
+
+    /**
+     * @return Conexiones abiertas en este momento.
+     */
+    public int conexionesActivas() {
+        return this.conexiones.size();
+    }
+
+    /**
+     * @return Conexiones atendidas desde el inicio.
+     */
+    public long conexionesAtendidas() {
+        return this.atendidas.get();
+    }
+
+    /**
+     * @return Solicitudes procesadas desde el inicio.
+     */
+    public long solicitudesProcesadas() {
+        return this.solicitudes.get();
+    }
+
+    /**
+     * Deja de aceptar conexiones y cierra las abiertas.
+     */
+    @Override
+    public void close() {
+        try {
+            this.servidor.close();
+        } catch (IOException ignorada) {
+            // El puerto ya estaba cerrado.
+        }
+        for (Socket conexion : this.conexiones) {
+            try {
+                conexion.close();
+            } catch (IOException ignorada) {
+                // La conexión ya estaba cerrada.
+            }
+        }
+        this.sesiones.close();
+    }
+
+    private void aceptar() {
+        while (!this.servidor.isClosed()) {
+            try {
+                Socket conexion = this.servidor.accept();
+                this.conexiones.add(conexion);
+                this.atendidas.incrementAndGet();
+                this.sesiones.execute(() -> this.atender(conexion));
+            } catch (IOException e) {
+                if (!this.servidor.isClosed()) {
+                    System.err.println("Error al aceptar conexión: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void atender(Socket conexion) {
+        SesionRemota sesion = new SesionRemota(this.controlador, conexion.getInetAddress().getHostAddress());
+        try (conexion;
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter salida = new BufferedWriter(new OutputStreamWriter(conexion.getOutputStream(), StandardCharsets.UTF_8))) {
+            conexion.setSoTimeout(INACTIVIDAD_MS);
+            conexion.setTcpNoDelay(true);
+            salida.write("OK HelpDesk U\n");
+            salida.flush();
+            String linea;
+            while (!sesion.isTerminada() && (linea = entrada.readLine()) != null) {
+                salida.write(sesion.procesar(linea));
+                salida.flush();
+                this.solicitudes.incrementAndGet();
+            }
+        } catch (SocketTimeoutException | SocketException e) {
+            // Conexión inactiva o cerrada por el cliente.
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error en la sesión remota: " + e.getMessage());
+        } finally {
+            sesion.cerrar();
+            this.conexiones.remove(conexion);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package cr.ac.ucenfotec.helpdesku.ui;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Departamento;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.EstadoTicket;
+import cr.ac.ucenfotec.helpdesku.tl.Pagina;
+import cr.ac.ucenfotec.helpdesku.tl.VistaTicket;
+
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Protocolo de líneas de una sesión remota.
+ * <p>
+ * Cada solicitud es una línea {@code COMANDO arg1|arg2|...}. La respuesta es una
+ * línea {@code OK ...} o {@code ERR mensaje}; los listados responden
+ * {@code OK <cantidad> <cursor|->} seguido de una línea por elemento con los
+ * campos separados por {@code |}.
+ * <p>
+ * Comandos: {@code PING}, {@code LOGIN correo|password}, {@code LOGOUT},
+ * {@code DEPARTAMENTOS [tamanio|cursor]}, {@code TICKET asunto|descripcion|idDepartamento},
+ * {@code TICKETS [tamanio|cursor|orden]}, {@code ESTADO idTicket|estado[|esperado]}, {@code ESTADISTICAS}
+ * y {@code SALIR}. En {@code TICKET}, un departamento vacío o 0 se asigna según las rutas de
+ * categorías. Con un estado esperado, {@code ESTADO} solo cambia el ticket si sigue en ese estado.
+ * {@code ESTADISTICAS} responde {@code OK} seguido del volcado JSON en la misma línea.
+ */
+public class SesionRemota {
+
+    private static final String SIN_CURSOR = "-";
+
+    private final ControladorHelpDesk controlador;
+    private final String origen;
+    private String token;
+    private boolean terminada;
+
+    public SesionRemota(ControladorHelpDesk controlador) {
+        this(controlador, null);
+    }
+
+    /**
+     * @param controlador Controlador compartido por todas las sesiones.
+     * @param origen Dirección del cliente, para limitar sus intentos de inicio de sesión; null si no se conoce.
+     */
+    public SesionRemota(ControladorHelpDesk controlador, String origen) {
+        this.controlador = controlador;
+        this.origen = origen;
+    }
+
+    /**
+     * Procesa una línea de solicitud.
+     *
+     * @param linea Solicitud recibida.
+     * @return Respuesta completa, incluidos los saltos de línea.
+     */
+    public String procesar(String linea) {
+        String comando = linea.strip();
+        String argumentos = "";
+        int espacio = comando.indexOf(' ');
+        if (espacio >= 0) {
+            argumentos = comando.substring(espacio + 1).strip();
+            comando = comando.substring(0, espacio);
+        }
+        String[] args = argumentos.isEmpty() ? new String[0] : argumentos.split("\\|", -1);
+
+        try {
+            return switch (comando.toUpperCase(Locale.ROOT)) {
+                case "PING" -> "OK PONG\n";
+                case "LOGIN" -> this.login(args);
+                case "SALIR" -> this.salir();
+                case "LOGOUT" -> this.logout();
+                case "DEPARTAMENTOS" -> this.conSesion(() -> this.departamentos(args));
+                case "TICKET" -> this.conSesion(() -> this.registrarTicket(args));
+                case "TICKETS" -> this.conSesion(() -> this.tickets(args));
+                case "ESTADO" -> this.conSesion(() -> this.cambiarEstado(args));
+                case "ESTADISTICAS" -> this.conSesion(() -> "OK " + this.controlador.volcarEstadisticas() + "\n");
+                case "" -> "ERR Solicitud vacía\n";
+                default -> "ERR Comando desconocido: " + comando + "\n";
+            };
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + campo(e.getMessage()) + "\n";
+        }
+    }
+
+    /**
+     * @return true si el cliente pidió terminar la sesión.
+     */
+    public boolean isTerminada() {
+        return this.terminada;
+    }
+
+    /**
+     * Cierra la sesión autenticada, si existe.
+     */
+    public void cerrar() {
+        if (this.token != null) {
+            this.controlador.cerrarSesion(this.token);
+            this.token = null;
+        }
+    }
+
+    private String login(String[] args) {
+        requerir(args, 2, "LOGIN correo|password");
+        this.cerrar();
+        this.token = this.controlador.iniciarSesion(args[0], args[1], this.origen);
+        if (this.token == null) {
+            return "ERR Credenciales inválidas\n";
+        }
+        return "OK " + campo(this.controlador.obtenerUsuarioSesion(this.token).getNombre()) + "\n";
+    }
+
+    private String logout() {
+        this.cerrar();
+        return "OK\n";
+    }
+
+    private String salir() {
+        this.cerrar();
+        this.terminada = true;
+        return "OK Hasta pronto\n";
+    }
+
+    private String departamentos(String[] args) {
+        Pagina<Departamento> pagina = this.controlador.obtenerDepartamentos(
+                entero(args, 0, UI.TAMANIO_PAGINA), cursor(args, 1), null);
+        StringBuilder respuesta = encabezado(pagina);
+        for (Departamento d : pagina.elementos()) {
+            respuesta.append(this.controlador.obtenerIdDepartamento(d)).append('|')
+                    .append(campo(d.getNombre())).append('|')
+                    .append(campo(d.getCorreo())).append('|')
+                    .append(campo(d.getExtensionTelefono())).append('\n');
+        }
+        return respuesta.toString();
+    }
+
+    private String registrarTicket(String[] args) {
+        requerir(args, 3, "TICKET asunto|descripcion|idDepartamento");
+        int idUsuario = this.controlador.obtenerIdUsuario(this.usuario());
+        try {
+            int id = this.controlador.enviarTicket(args[0], args[1], idUsuario, EstadoTicket.PENDIENTE.etiqueta(),
+                    entero(args, 2, 0)).join();
+            return "OK " + id + "\n";
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private String tickets(String[] args) {
+        Pagina<VistaTicket> pagina = this.controlador.obtenerVistasTickets(
+                entero(args, 0, UI.TAMANIO_PAGINA), cursor(args, 1), args.length > 2 ? args[2] : null);
+        StringBuilder respuesta = encabezado(pagina);
+        for (VistaTicket t : pagina.elementos()) {
+            respuesta.append(t.id()).append('|')
+                    .append(campo(t.asunto())).append('|')
+                    .append(campo(this.controlador.obtenerUsuario(t.idUsuario()).getNombre())).append('|')
+                    .append(t.estado().etiqueta()).append('|')
+                    .append(campo(this.controlador.obtenerDepartamento(t.idDepartamento()).getNombre())).append('\n');
+        }
+        return respuesta.toString();
+    }
+
+    private String cambiarEstado(String[] args) {
+        requerir(args, 2, "ESTADO idTicket|estado[|esperado]");
+        int idTicket = entero(args, 0, 0);
+        if (args.length < 3 || args[2].isBlank()) {
+            this.controlador.cambiarEstadoTicket(idTicket, args[1]);
+            return "OK\n";
+        }
+        EstadoTicket esperado = EstadoTicket.desde(args[2]);
+        if (!this.controlador.cambiarEstadoTicket(idTicket, esperado, EstadoTicket.desde(args[1]))) {
+            return "ERR El ticket ya no está " + esperado.etiqueta() + "\n";
+        }
+        return "OK\n";
+    }
+
+    private String conSesion(Supplier<String> accion) {
+        if (this.token == null || this.controlador.obtenerUsuarioSesion(this.token) == null) {
+            this.token = null;
+            return "ERR Debe iniciar sesión\n";
+        }
+        return accion.get();
+    }
+
+    private Usuario usuario() {
+        Usuario usuario = this.controlador.obtenerUsuarioSesion(this.token);
+        if (usuario == null) {
+            throw new IllegalStateException("La sesión venció");
+        }
+        return usuario;
+    }
+
+    private static StringBuilder encabezado(Pagina<?> pagina) {
+        return new StringBuilder(64 + pagina.elementos().size() * 64)
+                .append("OK ").append(pagina.elementos().size()).append(' ')
+                .append(pagina.haySiguiente() ? pagina.cursorSiguiente() : SIN_CURSOR).append('\n');
+    }
+
+    private static void requerir(String[] args, int cantidad, String uso) {
+        if (args.length < cantidad) {
+            throw new IllegalArgumentException("Uso: " + uso);
+        }
+    }
+
+    private static int entero(String[] args, int posicion, int defecto) {
+        if (args.length <= posicion || args[posicion].isBlank()) {
+            return defecto;
+        }
+        try {
+            return Integer.parseInt(args[posicion].strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + args[posicion]);
+        }
+    }
+
+    private static String cursor(String[] args, int posicion) {
+        if (args.length <= posicion || args[posicion].isBlank() || args[posicion].equals(SIN_CURSOR)) {
+            return null;
+        }
+        return args[posicion].strip();
+    }
+
+    /**
+     * Quita separadores y saltos de línea de un valor de respuesta.
+     */
+    private static String campo(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        return valor.replace('|', '/').replace('\n', ' ').replace('\r', ' ');
+    }
+}
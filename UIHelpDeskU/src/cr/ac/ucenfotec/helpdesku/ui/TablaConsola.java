@@ -0,0 +1,165 @@
+package cr.ac.ucenfotec.helpdesku.ui;
+
+import java.io.PrintStream;
+
+/**
+ * Renderizador de tablas con bordes para la consola.
+ * Los bordes y el encabezado se calculan una sola vez al crear la tabla;
+ * las filas se escriben en un búfer reutilizable que se imprime de una vez
+ * por pantalla o por página.
+ */
+public final class TablaConsola {
+
+    private final int[] anchos;
+    private final String bordeSuperior;
+    private final String filaTitulos;
+    private final String separador;
+    private final String bordeInferior;
+    private final StringBuilder buffer = new StringBuilder(4096);
+    private int columna;
+
+    /**
+     * Crea una tabla con los títulos y anchos de columna indicados.
+     *
+     * @param titulos Títulos de las columnas.
+     * @param anchos Ancho del contenido de cada columna.
+     */
+    public TablaConsola(String[] titulos, int[] anchos) {
+        if (titulos.length != anchos.length || anchos.length == 0) {
+            throw new IllegalArgumentException("Cada columna debe tener título y ancho");
+        }
+        this.anchos = anchos.clone();
+        this.bordeSuperior = borde('┌', '┬', '┐');
+        this.separador = borde('├', '┼', '┤');
+        this.bordeInferior = borde('└', '┴', '┘');
+        for (String titulo : titulos) {
+            this.celda(titulo);
+        }
+        this.filaTitulos = this.buffer.toString();
+        this.buffer.setLength(0);
+    }
+
+    /**
+     * Agrega el borde superior y la fila de títulos.
+     *
+     * @return Esta tabla.
+     */
+    public TablaConsola encabezado() {
+        this.buffer.append(this.bordeSuperior).append(this.filaTitulos).append(this.separador);
+        return this;
+    }
+
+    /**
+     * Agrega una celda de texto; se recorta con "..." si excede el ancho.
+     * Al completar la última columna se cierra la fila.
+     *
+     * @param texto Contenido de la celda; null se muestra vacío.
+     * @return Esta tabla.
+     */
+    public TablaConsola celda(String texto) {
+        int ancho = this.anchos[this.columna];
+        this.abrirCelda();
+        if (texto == null) {
+            texto = "";
+        }
+        if (texto.length() > ancho) {
+            this.buffer.append(texto, 0, Math.max(0, ancho - 3)).append("...", 0, Math.min(3, ancho));
+        } else {
+            this.buffer.append(texto);
+            rellenar(this.buffer, ancho - texto.length());
+        }
+        return this.cerrarCelda();
+    }
+
+    /**
+     * Agrega una celda numérica alineada a la izquierda.
+     *
+     * @param numero Valor de la celda.
+     * @return Esta tabla.
+     */
+    public TablaConsola celda(long numero) {
+        int ancho = this.anchos[this.columna];
+        this.abrirCelda();
+        int antes = this.buffer.length();
+        this.buffer.append(numero);
+        rellenar(this.buffer, ancho - (this.buffer.length() - antes));
+        return this.cerrarCelda();
+    }
+
+    /**
+     * Agrega el borde inferior.
+     *
+     * @return Esta tabla.
+     */
+    public TablaConsola pie() {
+        this.buffer.append(this.bordeInferior);
+        return this;
+    }
+
+    /**
+     * Agrega una línea de texto libre, por ejemplo un total.
+     *
+     * @param texto Línea a agregar.
+     * @return Esta tabla.
+     */
+    public TablaConsola linea(String texto) {
+        this.buffer.append(texto).append(System.lineSeparator());
+        return this;
+    }
+
+    /**
+     * Imprime el contenido acumulado en la salida estándar y vacía el búfer.
+     */
+    public void imprimir() {
+        this.imprimir(System.out);
+    }
+
+    /**
+     * Imprime el contenido acumulado en la salida indicada y vacía el búfer.
+     *
+     * @param salida Flujo de salida.
+     */
+    public void imprimir(PrintStream salida) {
+        salida.append(this.buffer);
+        salida.flush();
+        this.vaciar();
+    }
+
+    /**
+     * Descarta el contenido acumulado sin imprimirlo.
+     */
+    public void vaciar() {
+        this.buffer.setLength(0);
+        this.columna = 0;
+    }
+
+    private void abrirCelda() {
+        this.buffer.append(this.columna == 0 ? "│ " : " │ ");
+    }
+
+    private TablaConsola cerrarCelda() {
+        if (++this.columna == this.anchos.length) {
+            this.buffer.append(" │").append(System.lineSeparator());
+            this.columna = 0;
+        }
+        return this;
+    }
+
+    private String borde(char izquierda, char medio, char derecha) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(izquierda);
+        for (int i = 0; i < this.anchos.length; i++) {
+            if (i > 0) {
+                sb.append(medio);
+            }
+            sb.repeat('─', this.anchos[i] + 2);
+        }
+        return sb.append(derecha).append(System.lineSeparator()).toString();
+    }
+
+    private static void rellenar(StringBuilder sb, int espacios) {
+        for (int i = 0; i < espacios; i++) {
+            sb.append(' ');
+        }
+    }
+}
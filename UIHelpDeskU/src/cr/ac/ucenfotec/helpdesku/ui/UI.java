@@ -1,11 +1,31 @@
 package cr.ac.ucenfotec.helpdesku.ui;
 
 import cr.ac.ucenfotec.helpdesku.bl.entities.*;
+import cr.ac.ucenfotec.helpdesku.tl.AgregadosTickets;
+import cr.ac.ucenfotec.helpdesku.tl.ClasificadorTickets;
 import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
+import cr.ac.ucenfotec.helpdesku.tl.DetectorDuplicados;
+import cr.ac.ucenfotec.helpdesku.tl.DiccionariosVersionados;
+import cr.ac.ucenfotec.helpdesku.tl.EnrutadorTickets;
+import cr.ac.ucenfotec.helpdesku.tl.EstadisticasOperaciones;
+import cr.ac.ucenfotec.helpdesku.tl.EstadoTicket;
+import cr.ac.ucenfotec.helpdesku.tl.ImportadorUsuarios;
+import cr.ac.ucenfotec.helpdesku.tl.IndiceTexto;
+import cr.ac.ucenfotec.helpdesku.tl.LimitadorIntentos;
+import cr.ac.ucenfotec.helpdesku.tl.Pagina;
+import cr.ac.ucenfotec.helpdesku.tl.ValidadorEntrada;
+import cr.ac.ucenfotec.helpdesku.tl.VistaTicket;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 
 public class UI {
+    static final int TAMANIO_PAGINA = 20;
+
     private Scanner scanner;
     private ControladorHelpDesk controlador;
 
@@ -39,6 +59,23 @@ public class UI {
         System.out.println("Atención: " + message);
     }
 
+    // Métodos de utilidad para paginación
+    private static String solicitarOrden(Scanner scanner, Set<String> opciones) {
+        System.out.print("Ordenar por (" + String.join("/", opciones) + ", Enter = orden de registro): ");
+        String orden = scanner.nextLine().trim().toLowerCase();
+        return opciones.contains(orden) ? orden : null;
+    }
+
+    private static boolean siguientePagina(Scanner scanner, Pagina<?> pagina) {
+        System.out.printf("Mostrando %d-%d de %d%n",
+                pagina.inicio() + 1, pagina.inicio() + pagina.elementos().size(), pagina.total());
+        if (!pagina.haySiguiente()) {
+            return false;
+        }
+        System.out.print("Enter para la siguiente página, 'q' para salir: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
     public void mostrarMenuPrincipal() {
         int opcion;
         do {
@@ -47,7 +84,8 @@ public class UI {
             System.out.println("2. Gestión de Departamentos");
             System.out.println("3. Gestión de Tickets");
             System.out.println("4. Gestión de Diccionarios");
-            System.out.println("5. Salir");
+            System.out.println("5. Estadísticas");
+            System.out.println("6. Salir");
             System.out.println("─".repeat(40));
             System.out.print("Seleccione una opción: ");
 
@@ -59,16 +97,19 @@ public class UI {
                 case 2 -> new UIDepartamento(controlador).mostrarMenu();
                 case 3 -> new UITicket(controlador).mostrarMenu();
                 case 4 -> new UIDiccionario(controlador).mostrarMenu();
-                case 5 -> System.out.println("\n ¡Hasta pronto!");
-                default -> printError("Opción inválida. Por favor seleccione 1-5.");
+                case 5 -> new UIEstadisticas(controlador).mostrarMenu();
+                case 6 -> System.out.println("\n ¡Hasta pronto!");
+                default -> printError("Opción inválida. Por favor seleccione 1-6.");
             }
-        } while (opcion != 5);
+        } while (opcion != 6);
     }
 
     // ===================== CLASE USUARIO =====================
     public static class UIUsuario {
         private ControladorHelpDesk controlador;
         private Scanner scanner;
+        private final TablaConsola tablaUsuarios = new TablaConsola(
+                new String[]{"ID", "Nombre", "Correo", "Rol"}, new int[]{5, 20, 24, 14});
 
         public UIUsuario(ControladorHelpDesk controlador) {
             this.controlador = controlador;
@@ -81,7 +122,8 @@ public class UI {
                 printHeader("GESTIÓN DE USUARIOS");
                 System.out.println("1. Registrar usuario");
                 System.out.println("2. Listar usuarios");
-                System.out.println("3. Volver al menú principal");
+                System.out.println("3. Importar usuarios desde CSV");
+                System.out.println("4. Volver al menú principal");
                 System.out.println("─".repeat(40));
                 System.out.print("Seleccione una opción: ");
 
@@ -91,10 +133,11 @@ public class UI {
                 switch (opcion) {
                     case 1 -> registrarUsuario();
                     case 2 -> listarUsuarios();
-                    case 3 -> printInfo("Volviendo al menú principal...");
+                    case 3 -> importarUsuarios();
+                    case 4 -> printInfo("Volviendo al menú principal...");
                     default -> printError("Opción inválida");
                 }
-            } while (opcion != 3);
+            } while (opcion != 4);
         }
 
         private void registrarUsuario() {
@@ -106,8 +149,8 @@ public class UI {
             String password = solicitarPassword();
 
             try {
-                controlador.registrarUsuario(nombre, password, rol, correo, telefono);
-                printSuccess("Usuario registrado exitosamente");
+                int id = controlador.registrarUsuario(nombre, password, rol, correo, telefono);
+                printSuccess("Usuario registrado exitosamente con ID " + id);
                 System.out.println("\n Resumen del registro:");
                 System.out.println("   ├─ Nombre: " + nombre);
                 System.out.println("   ├─ Correo: " + correo);
@@ -118,35 +161,59 @@ public class UI {
             }
         }
 
+        private void importarUsuarios() {
+            printSubHeader("IMPORTAR USUARIOS DESDE CSV");
+            System.out.println("Formato por fila: nombre,correo,telefono,rol,password");
+            System.out.print("Ruta del archivo: ");
+            String ruta = scanner.nextLine().trim();
+
+            try {
+                ImportadorUsuarios.Resultado resultado = new ImportadorUsuarios(controlador).importar(Path.of(ruta));
+                printSuccess("Importación finalizada");
+                System.out.println("\n Resumen de la importación:");
+                System.out.println("   ├─ Filas leídas: " + resultado.filasLeidas());
+                System.out.println("   ├─ Usuarios importados: " + resultado.importados());
+                System.out.println("   ├─ Filas con error: " + resultado.errores().size());
+                System.out.printf("   └─ Filas por segundo: %.0f%n", resultado.filasPorSegundo());
+
+                int mostrados = Math.min(resultado.errores().size(), 20);
+                for (int i = 0; i < mostrados; i++) {
+                    ImportadorUsuarios.ErrorFila error = resultado.errores().get(i);
+                    printError("Fila " + error.fila() + ": " + error.mensaje());
+                }
+                if (resultado.errores().size() > mostrados) {
+                    printInfo("... y " + (resultado.errores().size() - mostrados) + " errores más");
+                }
+            } catch (Exception e) {
+                printError("Error al importar usuarios: " + e.getMessage());
+            }
+        }
+
         private void listarUsuarios() {
             printSubHeader("LISTA DE USUARIOS REGISTRADOS");
-            List<Usuario> usuarios = controlador.obtenerUsuarios();
-
-            if (usuarios.isEmpty()) {
-                printInfo("No hay usuarios registrados en el sistema");
-            } else {
-                System.out.println("┌─────┬──────────────────────┬──────────────────────────┬────────────────┐");
-                System.out.println("│ No. │ Nombre               │ Correo                   │ Rol            │");
-                System.out.println("├─────┼──────────────────────┼──────────────────────────┼────────────────┤");
+            String orden = solicitarOrden(scanner, ControladorHelpDesk.ORDENES_USUARIOS.keySet());
+            String cursor = null;
+            Pagina<Usuario> pagina;
 
+            do {
+                pagina = controlador.obtenerUsuarios(TAMANIO_PAGINA, cursor, orden);
+                if (pagina.total() == 0) {
+                    printInfo("No hay usuarios registrados en el sistema");
+                    return;
+                }
+                tablaUsuarios.encabezado();
+                List<Usuario> usuarios = pagina.elementos();
                 for (int i = 0; i < usuarios.size(); i++) {
                     Usuario usuario = usuarios.get(i);
-                    System.out.printf("│ %-3d │ %-20s │ %-24s │ %-14s │%n",
-                            (i + 1),
-                            truncarTexto(usuario.getNombre(), 20),
-                            truncarTexto(usuario.getCorreo(), 24),
-                            usuario.getRol());
+                    tablaUsuarios.celda(controlador.obtenerIdUsuario(usuario))
+                            .celda(usuario.getNombre())
+                            .celda(usuario.getCorreo())
+                            .celda(usuario.getRol());
                 }
-                System.out.println("└─────┴──────────────────────┴──────────────────────────┴────────────────┘");
-                System.out.printf("Total de usuarios: %d%n", usuarios.size());
-            }
-        }
-
-        private String truncarTexto(String texto, int longitud) {
-            if (texto.length() > longitud) {
-                return texto.substring(0, longitud - 3) + "...";
-            }
-            return texto;
+                tablaUsuarios.pie().imprimir();
+                cursor = pagina.cursorSiguiente();
+            } while (siguientePagina(scanner, pagina));
+            System.out.printf("Total de usuarios: %d%n", pagina.total());
         }
 
         private String solicitarNombre() {
@@ -157,8 +224,9 @@ public class UI {
                 System.out.print("\n Ingrese el nombre completo: ");
                 nombre = scanner.nextLine().trim();
 
-                if (nombre.isEmpty() || nombre.length() < 2 || nombre.length() > 50 || nombre.matches(".*\\d.*")) {
-                    printError("Nombre inválido. Debe tener entre 2-50 caracteres y no contener números.");
+                String error = ValidadorEntrada.validarNombre(nombre);
+                if (error != null) {
+                    printError("Nombre inválido. " + error + ".");
                     valido = false;
                 }
             } while (!valido);
@@ -173,8 +241,9 @@ public class UI {
                 System.out.print("Ingrese el correo electrónico: ");
                 correo = scanner.nextLine();
 
-                if (correo.isEmpty() || correo.length() < 6 || correo.length() > 100 || !correo.contains("@") || !correo.contains(".")) {
-                    printError("Correo inválido. Formato esperado: ejemplo@dominio.com");
+                String error = ValidadorEntrada.validarCorreo(correo);
+                if (error != null) {
+                    printError(error);
                     valido = false;
                 }
             } while (!valido);
@@ -189,8 +258,9 @@ public class UI {
                 System.out.print("Ingrese el rol (estudiante/funcionario/administrador): ");
                 rol = scanner.nextLine().toLowerCase();
 
-                if (!rol.equals("estudiante") && !rol.equals("funcionario") && !rol.equals("administrador")) {
-                    printError("Rol inválido. Opciones válidas: estudiante, funcionario, administrador.");
+                String error = ValidadorEntrada.validarRol(rol);
+                if (error != null) {
+                    printError(error);
                     valido = false;
                 }
             } while (!valido);
@@ -205,12 +275,9 @@ public class UI {
                 System.out.print("Ingrese la contraseña: ");
                 password = scanner.nextLine().trim();
 
-                if (password.length() < 8 ||
-                        !password.matches(".*[A-Z].*") ||
-                        !password.matches(".*[a-z].*") ||
-                        !password.matches(".*[0-9].*") ||
-                        !password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*")) {
-                    printError("La contraseña debe tener:\n   - Mínimo 8 caracteres\n   - Al menos una mayúscula\n   - Al menos una minúscula\n   - Al menos un número\n   - Al menos un carácter especial");
+                String error = ValidadorEntrada.validarPassword(password);
+                if (error != null) {
+                    printError(error);
                     valido = false;
                 }
             } while (!valido);
@@ -225,9 +292,9 @@ public class UI {
                 System.out.print("Ingrese el número de teléfono (8 dígitos): ");
                 telefono = scanner.nextLine().trim();
 
-                String soloDigitos = telefono.replaceAll("[^\\d]", "");
-                if (soloDigitos.length() != 8) {
-                    printError("El teléfono debe tener exactamente 8 dígitos numéricos.");
+                String error = ValidadorEntrada.validarTelefono(telefono);
+                if (error != null) {
+                    printError(error);
                     valido = false;
                 }
             } while (!valido);
@@ -239,6 +306,8 @@ public class UI {
     public static class UIDepartamento {
         private ControladorHelpDesk controlador;
         private Scanner scanner;
+        private final TablaConsola tablaDepartamentos = new TablaConsola(
+                new String[]{"ID", "Nombre", "Descripción", "Correo", "Extensión"}, new int[]{5, 20, 26, 20, 10});
 
         public UIDepartamento(ControladorHelpDesk controlador) {
             this.controlador = controlador;
@@ -279,8 +348,8 @@ public class UI {
             String extension = scanner.nextLine();
 
             try {
-                controlador.registrarDepartamento(nombre, descripcion, correo, extension);
-                printSuccess("Departamento registrado exitosamente");
+                int id = controlador.registrarDepartamento(nombre, descripcion, correo, extension);
+                printSuccess("Departamento registrado exitosamente con ID " + id);
             } catch (Exception e) {
                 printError("Error al registrar departamento: " + e.getMessage());
             }
@@ -288,34 +357,30 @@ public class UI {
 
         private void listarDepartamentos() {
             printSubHeader("LISTA DE DEPARTAMENTOS");
-            List<Departamento> lista = controlador.obtenerDepartamentos();
-            if (lista.isEmpty()) {
-                printInfo("No hay departamentos registrados.");
-            } else {
-                System.out.println("┌─────┬──────────────────────┬────────────────────────────┬──────────────────────┬────────────┐");
-                System.out.println("│ No. │ Nombre               │ Descripción                │ Correo               │ Extensión  │");
-                System.out.println("├─────┼──────────────────────┼────────────────────────────┼──────────────────────┼────────────┤");
+            String orden = solicitarOrden(scanner, ControladorHelpDesk.ORDENES_DEPARTAMENTOS.keySet());
+            String cursor = null;
+            Pagina<Departamento> pagina;
 
+            do {
+                pagina = controlador.obtenerDepartamentos(TAMANIO_PAGINA, cursor, orden);
+                if (pagina.total() == 0) {
+                    printInfo("No hay departamentos registrados.");
+                    return;
+                }
+                tablaDepartamentos.encabezado();
+                List<Departamento> lista = pagina.elementos();
                 for (int i = 0; i < lista.size(); i++) {
                     Departamento d = lista.get(i);
-                    System.out.printf("│ %-3d │ %-20s │ %-26s │ %-20s │ %-10s │%n",
-                            (i + 1),
-                            truncarTexto(d.getNombre(), 20),
-                            truncarTexto(d.getDescripcion(), 26),
-                            truncarTexto(d.getCorreo() != null ? d.getCorreo() : "N/A", 20),
-                            d.getExtensionTelefono() != null ? d.getExtensionTelefono() : "N/A");
+                    tablaDepartamentos.celda(controlador.obtenerIdDepartamento(d))
+                            .celda(d.getNombre() != null ? d.getNombre() : "N/A")
+                            .celda(d.getDescripcion() != null ? d.getDescripcion() : "N/A")
+                            .celda(d.getCorreo() != null ? d.getCorreo() : "N/A")
+                            .celda(d.getExtensionTelefono() != null ? d.getExtensionTelefono() : "N/A");
                 }
-                System.out.println("└─────┴──────────────────────┴────────────────────────────┴──────────────────────┴────────────┘");
-                System.out.printf("Total de departamentos: %d%n", lista.size());
-            }
-        }
-
-        private String truncarTexto(String texto, int longitud) {
-            if (texto == null) return "N/A";
-            if (texto.length() > longitud) {
-                return texto.substring(0, longitud - 3) + "...";
-            }
-            return texto;
+                tablaDepartamentos.pie().imprimir();
+                cursor = pagina.cursorSiguiente();
+            } while (siguientePagina(scanner, pagina));
+            System.out.printf("Total de departamentos: %d%n", pagina.total());
         }
     }
 
@@ -323,6 +388,12 @@ public class UI {
     public static class UIDiccionario {
         private ControladorHelpDesk controlador;
         private Scanner scanner;
+        private final TablaConsola tablaEmociones = new TablaConsola(
+                new String[]{"No.", "Palabra", "Emoción"}, new int[]{3, 20, 16});
+        private final TablaConsola tablaTecnicas = new TablaConsola(
+                new String[]{"No.", "Palabra", "Categoría"}, new int[]{3, 20, 16});
+        private final TablaConsola tablaRutas = new TablaConsola(
+                new String[]{"Categoría", "ID", "Departamento"}, new int[]{16, 5, 20});
 
         public UIDiccionario(ControladorHelpDesk controlador) {
             this.controlador = controlador;
@@ -379,7 +450,9 @@ public class UI {
                 printSubHeader("DICCIONARIO TÉCNICO");
                 System.out.println("1. Agregar palabra técnica");
                 System.out.println("2. Listar palabras técnicas");
-                System.out.println("3. Volver al menú de diccionarios");
+                System.out.println("3. Asignar departamento a una categoría");
+                System.out.println("4. Listar rutas de categorías");
+                System.out.println("5. Volver al menú de diccionarios");
                 System.out.println("─".repeat(40));
                 System.out.print("Seleccione una opción: ");
 
@@ -389,10 +462,12 @@ public class UI {
                 switch (opcion) {
                     case 1 -> agregarPalabraTecnica();
                     case 2 -> listarDiccionarioTecnico();
-                    case 3 -> printInfo("Volviendo...");
+                    case 3 -> asignarRutaCategoria();
+                    case 4 -> listarRutasCategorias();
+                    case 5 -> printInfo("Volviendo...");
                     default -> printError("Opción inválida");
                 }
-            } while (opcion != 3);
+            } while (opcion != 5);
         }
 
         private void agregarPalabraEmocional() {
@@ -412,23 +487,22 @@ public class UI {
 
         private void listarDiccionarioEmocional() {
             printSubHeader("PALABRAS EMOCIONALES");
-            List<DiccionarioEmocion> palabras = controlador.obtenerDiccionarioEmociones();
+            DiccionariosVersionados.Instantanea instantanea = controlador.obtenerInstantaneaDiccionarios();
+            List<DiccionarioEmocion> palabras = instantanea.emociones();
             if (palabras.isEmpty()) {
                 printInfo("No hay palabras registradas en el diccionario emocional.");
             } else {
-                System.out.println("┌─────┬──────────────────────┬──────────────────┐");
-                System.out.println("│ No. │ Palabra              │ Emoción          │");
-                System.out.println("├─────┼──────────────────────┼──────────────────┤");
-
+                tablaEmociones.encabezado();
                 for (int i = 0; i < palabras.size(); i++) {
                     DiccionarioEmocion p = palabras.get(i);
-                    System.out.printf("│ %-3d │ %-20s │ %-16s │%n",
-                            (i + 1),
-                            truncarTexto(p.getPalabra(), 20),
-                            p.getClasificacion());
+                    tablaEmociones.celda(i + 1)
+                            .celda(p.getPalabra())
+                            .celda(p.getClasificacion());
                 }
-                System.out.println("└─────┴──────────────────────┴──────────────────┘");
-                System.out.printf("Total de palabras: %d%n", palabras.size());
+                tablaEmociones.pie()
+                        .linea("Total de palabras: " + palabras.size())
+                        .linea(describirVersion(instantanea))
+                        .imprimir();
             }
         }
 
@@ -449,39 +523,83 @@ public class UI {
 
         private void listarDiccionarioTecnico() {
             printSubHeader("PALABRAS TÉCNICAS");
-            List<DiccionarioTecnico> palabras = controlador.obtenerDiccionarioTecnico();
+            DiccionariosVersionados.Instantanea instantanea = controlador.obtenerInstantaneaDiccionarios();
+            List<DiccionarioTecnico> palabras = instantanea.tecnicas();
             if (palabras.isEmpty()) {
                 printInfo("No hay palabras registradas en el diccionario técnico.");
             } else {
-                System.out.println("┌─────┬──────────────────────┬──────────────────┐");
-                System.out.println("│ No. │ Palabra              │ Categoría        │");
-                System.out.println("├─────┼──────────────────────┼──────────────────┤");
-
+                tablaTecnicas.encabezado();
                 for (int i = 0; i < palabras.size(); i++) {
                     DiccionarioTecnico p = palabras.get(i);
-                    System.out.printf("│ %-3d │ %-20s │ %-16s │%n",
-                            (i + 1),
-                            truncarTexto(p.getPalabra(), 20),
-                            p.getClasificacion());
+                    tablaTecnicas.celda(i + 1)
+                            .celda(p.getPalabra())
+                            .celda(p.getClasificacion());
                 }
-                System.out.println("└─────┴──────────────────────┴──────────────────┘");
-                System.out.printf("Total de palabras: %d%n", palabras.size());
+                tablaTecnicas.pie()
+                        .linea("Total de palabras: " + palabras.size())
+                        .linea(describirVersion(instantanea))
+                        .imprimir();
             }
         }
 
-        private String truncarTexto(String texto, int longitud) {
-            if (texto == null) return "";
-            if (texto.length() > longitud) {
-                return texto.substring(0, longitud - 3) + "...";
+        private void asignarRutaCategoria() {
+            printSubHeader("ASIGNAR DEPARTAMENTO A UNA CATEGORÍA");
+            System.out.print("Categoría (Redes/Impresoras/Cuentas/Hardware): ");
+            String categoria = scanner.nextLine();
+            System.out.print("ID del departamento (0 para quitar la ruta): ");
+            String entrada = scanner.nextLine().trim();
+
+            try {
+                int idDepto = Integer.parseInt(entrada);
+                controlador.asignarRutaCategoria(categoria, idDepto);
+                printSuccess(idDepto == 0 ? "Ruta eliminada correctamente" : "Ruta asignada correctamente");
+            } catch (NumberFormatException e) {
+                printError("ID de departamento inválido.");
+            } catch (Exception e) {
+                printError("Error al asignar la ruta: " + e.getMessage());
             }
-            return texto;
+        }
+
+        private void listarRutasCategorias() {
+            printSubHeader("RUTAS DE CATEGORÍAS");
+            Map<String, Integer> rutas = controlador.obtenerRutasCategorias();
+            if (rutas.isEmpty()) {
+                printInfo("No hay categorías con departamento asignado.");
+                return;
+            }
+            tablaRutas.encabezado();
+            rutas.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
+                    .forEach(ruta -> tablaRutas.celda(ruta.getKey())
+                            .celda(ruta.getValue())
+                            .celda(controlador.obtenerDepartamento(ruta.getValue()).getNombre()));
+            tablaRutas.pie()
+                    .linea("Total de rutas: " + rutas.size())
+                    .imprimir();
+        }
+
+        private String describirVersion(DiccionariosVersionados.Instantanea instantanea) {
+            return String.format("Versión del diccionario: %d (última compilación: %.2f ms, completas: %d, incrementales: %d)",
+                    instantanea.version(),
+                    instantanea.nanosUltimaCompilacion() / 1_000_000.0,
+                    instantanea.compilacionesCompletas(),
+                    instantanea.compilacionesIncrementales());
         }
     }
 
     // ===================== CLASE TICKET =====================
     public static class UITicket {
+        private static final int MAXIMO_RESULTADOS = 100;
         private ControladorHelpDesk controlador;
         private Scanner scanner;
+        private final TablaConsola tablaDepartamentos = new TablaConsola(
+                new String[]{"ID", "Nombre", "Descripción"}, new int[]{5, 20, 26});
+        private final TablaConsola tablaTickets = new TablaConsola(
+                new String[]{"ID", "Asunto", "Usuario", "Estado", "Departamento"}, new int[]{5, 20, 20, 12, 20});
+        private final TablaConsola tablaIncidentes = new TablaConsola(
+                new String[]{"ID", "Asunto", "Tickets", "Estado", "Departamento"}, new int[]{5, 28, 7, 12, 20});
+        private final TablaConsola tablaResultados = new TablaConsola(
+                new String[]{"ID", "Asunto", "Estado", "Departamento", "Puntaje"}, new int[]{5, 28, 12, 20, 8});
 
         public UITicket(ControladorHelpDesk controlador) {
             this.controlador = controlador;
@@ -494,7 +612,11 @@ public class UI {
                 printHeader("GESTIÓN DE TICKETS");
                 System.out.println("1. Registrar ticket");
                 System.out.println("2. Listar tickets");
-                System.out.println("3. Volver al menú principal");
+                System.out.println("3. Filtrar tickets");
+                System.out.println("4. Buscar tickets por texto");
+                System.out.println("5. Incidentes (tickets similares)");
+                System.out.println("6. Cambiar estado de un ticket");
+                System.out.println("7. Volver al menú principal");
                 System.out.println("─".repeat(40));
                 System.out.print("Seleccione una opción: ");
 
@@ -504,120 +626,497 @@ public class UI {
                 switch (opcion) {
                     case 1 -> registrarTicket();
                     case 2 -> listarTickets();
-                    case 3 -> printInfo("Volviendo al menú principal...");
+                    case 3 -> filtrarTickets();
+                    case 4 -> buscarTickets();
+                    case 5 -> gestionarIncidentes();
+                    case 6 -> cambiarEstadoTicket();
+                    case 7 -> printInfo("Volviendo al menú principal...");
                     default -> printError("Opción inválida");
                 }
-            } while (opcion != 3);
+            } while (opcion != 7);
         }
 
         private void registrarTicket() {
             printSubHeader("REGISTRAR NUEVO TICKET");
-            List<Usuario> usuarios = controlador.obtenerUsuarios();
-            if (usuarios.isEmpty()) {
+            if (controlador.obtenerUsuarios().isEmpty()) {
                 printError("No hay usuarios registrados. Debe registrar al menos un usuario primero.");
                 return;
             }
-
-            System.out.println("\nSeleccione un usuario:");
-            System.out.println("┌─────┬──────────────────────┬──────────────────────────┐");
-            System.out.println("│ No. │ Nombre               │ Correo                   │");
-            System.out.println("├─────┼──────────────────────┼──────────────────────────┤");
-            for (int i = 0; i < usuarios.size(); i++) {
-                Usuario usuario = usuarios.get(i);
-                System.out.printf("│ %-3d │ %-20s │ %-24s │%n",
-                        (i + 1),
-                        truncarTexto(usuario.getNombre(), 20),
-                        truncarTexto(usuario.getCorreo(), 24));
-            }
-            System.out.println("└─────┴──────────────────────┴──────────────────────────┘");
-            System.out.print("Número de usuario: ");
-            int idxUsuario = scanner.nextInt() - 1;
-            scanner.nextLine();
-
-            if (idxUsuario < 0 || idxUsuario >= usuarios.size()) {
-                printError("Selección inválida.");
-                return;
-            }
-            Usuario usuario = usuarios.get(idxUsuario);
-
-            List<Departamento> departamentos = controlador.obtenerDepartamentos();
-            if (departamentos.isEmpty()) {
+            if (controlador.obtenerDepartamentos().isEmpty()) {
                 printError("No hay departamentos registrados. Debe registrar al menos un departamento primero.");
                 return;
             }
 
-            System.out.println("\nSeleccione un departamento:");
-            System.out.println("┌─────┬──────────────────────┬────────────────────────────┐");
-            System.out.println("│ No. │ Nombre               │ Descripción                │");
-            System.out.println("├─────┼──────────────────────┼────────────────────────────┤");
-            for (int i = 0; i < departamentos.size(); i++) {
-                Departamento depto = departamentos.get(i);
-                System.out.printf("│ %-3d │ %-20s │ %-26s │%n",
-                        (i + 1),
-                        truncarTexto(depto.getNombre(), 20),
-                        truncarTexto(depto.getDescripcion(), 26));
-            }
-            System.out.println("└─────┴──────────────────────┴────────────────────────────┘");
-            System.out.print("Número de departamento: ");
-            int idxDepto = scanner.nextInt() - 1;
-            scanner.nextLine();
-
-            if (idxDepto < 0 || idxDepto >= departamentos.size()) {
-                printError("Selección inválida.");
+            int idUsuario = solicitarUsuario();
+            if (idUsuario == 0) {
                 return;
             }
-            Departamento depto = departamentos.get(idxDepto);
+            Usuario usuario = controlador.obtenerUsuario(idUsuario);
 
             System.out.print("Asunto: ");
             String asunto = scanner.nextLine();
             System.out.print("Descripción: ");
             String descripcion = scanner.nextLine();
-            String estado = "Pendiente";
+            String estado = EstadoTicket.PENDIENTE.etiqueta();
+
+            int idDepto = solicitarDepartamento(controlador.sugerirDepartamento(asunto, descripcion));
+            if (idDepto == 0) {
+                return;
+            }
+            Departamento depto = controlador.obtenerDepartamento(idDepto);
 
             try {
-                controlador.registrarTicket(asunto, descripcion, usuario, estado, depto);
-                printSuccess("Ticket registrado correctamente");
+                int id = controlador.registrarTicket(asunto, descripcion, idUsuario, estado, idDepto);
+                ClasificadorTickets.Clasificacion clasificacion = controlador.obtenerClasificacion(id);
+                printSuccess("Ticket registrado correctamente con ID " + id);
                 System.out.println("\n Resumen del ticket:");
                 System.out.println("   ├─ Asunto: " + asunto);
                 System.out.println("   ├─ Usuario: " + usuario.getNombre());
                 System.out.println("   ├─ Departamento: " + depto.getNombre());
-                System.out.println("   └─ Estado: " + estado);
+                System.out.println("   ├─ Estado: " + estado);
+                System.out.println("   ├─ Emociones: " + describir(clasificacion.emociones().keySet()));
+                System.out.println("   └─ Categorías técnicas: " + describir(clasificacion.categorias().keySet()));
+                int incidente = controlador.obtenerIncidente(id);
+                if (incidente != id) {
+                    printInfo(String.format("Parece un duplicado: se agregó al incidente #%d, que ya tiene %d tickets.",
+                            incidente, controlador.obtenerTicketsIncidente(incidente).size()));
+                }
             } catch (Exception e) {
                 printError("Error al registrar ticket: " + e.getMessage());
             }
         }
 
+        /**
+         * Solicita el usuario solicitante por ID o por correo.
+         *
+         * @return ID del usuario o 0 si la selección no es válida.
+         */
+        private int solicitarUsuario() {
+            System.out.print("\nID o correo del usuario: ");
+            String entrada = scanner.nextLine().trim();
+            int id = entrada.contains("@") ? controlador.buscarIdUsuario(entrada) : leerId(entrada);
+            Usuario usuario = controlador.obtenerUsuario(id);
+            if (usuario == null) {
+                printError("Usuario no encontrado.");
+                return 0;
+            }
+            printInfo("Usuario: " + usuario.getNombre() + " <" + usuario.getCorreo() + ">");
+            return id;
+        }
+
+        /**
+         * Solicita el departamento por ID; con 'l' muestra la lista paginada de departamentos.
+         * Si hay una sugerencia, Enter la acepta.
+         *
+         * @param sugerencia Departamento sugerido por las categorías del ticket, o null.
+         * @return ID del departamento o 0 si la selección no es válida.
+         */
+        private int solicitarDepartamento(EnrutadorTickets.Sugerencia sugerencia) {
+            if (sugerencia != null) {
+                printInfo(String.format("Departamento sugerido: %s (categoría %s, confianza %.0f%%)",
+                        controlador.obtenerDepartamento(sugerencia.idDepartamento()).getNombre(),
+                        sugerencia.categoria(), sugerencia.confianza() * 100));
+            }
+            String entrada;
+            do {
+                System.out.print(sugerencia != null
+                        ? "\nID del departamento (Enter = sugerido, 'l' para ver la lista): "
+                        : "\nID del departamento ('l' para ver la lista): ");
+                entrada = scanner.nextLine().trim();
+                if (entrada.equalsIgnoreCase("l")) {
+                    listarDepartamentos();
+                }
+            } while (entrada.equalsIgnoreCase("l"));
+            int id = entrada.isEmpty() && sugerencia != null ? sugerencia.idDepartamento() : leerId(entrada);
+            Departamento depto = controlador.obtenerDepartamento(id);
+            if (depto == null) {
+                printError("Departamento no encontrado.");
+                return 0;
+            }
+            printInfo("Departamento: " + depto.getNombre());
+            return id;
+        }
+
+        private void listarDepartamentos() {
+            String cursor = null;
+            Pagina<Departamento> pagina;
+            do {
+                pagina = controlador.obtenerDepartamentos(TAMANIO_PAGINA, cursor, null);
+                tablaDepartamentos.encabezado();
+                for (Departamento d : pagina.elementos()) {
+                    tablaDepartamentos.celda(controlador.obtenerIdDepartamento(d))
+                            .celda(d.getNombre())
+                            .celda(d.getDescripcion());
+                }
+                tablaDepartamentos.pie().imprimir();
+                cursor = pagina.cursorSiguiente();
+            } while (siguientePagina(scanner, pagina));
+        }
+
+        private int leerId(String entrada) {
+            try {
+                return Integer.parseInt(entrada);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * Pide un estado entre los que se puede llegar desde el estado actual.
+         *
+         * @param actual Estado actual; null para ofrecer todos.
+         * @return Estado elegido o null si el usuario no eligió ninguno.
+         */
+        private EstadoTicket solicitarEstado(EstadoTicket actual) {
+            EstadoTicket[] estados = EstadoTicket.values();
+            int opciones = 0;
+            EstadoTicket[] permitidos = new EstadoTicket[estados.length];
+            for (EstadoTicket e : estados) {
+                if (actual == null || actual.puedePasarA(e)) {
+                    permitidos[opciones++] = e;
+                    System.out.println(opciones + ". " + e.etiqueta());
+                }
+            }
+            if (opciones == 0) {
+                printInfo("El ticket está " + actual.etiqueta() + " y ya no puede cambiar de estado.");
+                return null;
+            }
+            System.out.print("Nuevo estado (Enter para no cambiar): ");
+            int opcion = leerId(scanner.nextLine().trim());
+            if (opcion < 1 || opcion > opciones) {
+                return null;
+            }
+            return permitidos[opcion - 1];
+        }
+
+        private String describir(Set<String> detectadas) {
+            return detectadas.isEmpty() ? "ninguna" : String.join(", ", detectadas);
+        }
+
         private void listarTickets() {
             printSubHeader("LISTA DE TICKETS");
-            List<Ticket> tickets = controlador.obtenerTickets();
+            String orden = solicitarOrden(scanner, controlador.obtenerOrdenesTickets());
+            String cursor = null;
+            Pagina<VistaTicket> pagina;
+
+            do {
+                pagina = controlador.obtenerVistasTickets(TAMANIO_PAGINA, cursor, orden);
+                if (pagina.total() == 0) {
+                    printInfo("No hay tickets registrados.");
+                    return;
+                }
+                tablaTickets.encabezado();
+                for (VistaTicket t : pagina.elementos()) {
+                    filaTicket(t);
+                }
+                tablaTickets.pie().imprimir();
+                cursor = pagina.cursorSiguiente();
+            } while (siguientePagina(scanner, pagina));
+            System.out.printf("Total de tickets: %d%n", pagina.total());
+        }
+
+        private void filaTicket(VistaTicket t) {
+            tablaTickets.celda(t.id())
+                    .celda(t.asunto())
+                    .celda(controlador.obtenerUsuario(t.idUsuario()).getNombre())
+                    .celda(t.estado().etiqueta())
+                    .celda(controlador.obtenerDepartamento(t.idDepartamento()).getNombre());
+        }
+
+        private void filtrarTickets() {
+            printSubHeader("FILTRAR TICKETS");
+            System.out.print("Estado (Enter = cualquiera): ");
+            String estado = scanner.nextLine().trim();
+            System.out.print("ID del departamento (Enter = cualquiera): ");
+            String departamento = scanner.nextLine().trim();
+            System.out.print("ID o correo del solicitante (Enter = cualquiera): ");
+            String solicitante = scanner.nextLine().trim();
+
+            int idDepto = departamento.isEmpty() ? 0 : leerId(departamento);
+            int idUsuario = solicitante.isEmpty() ? 0
+                    : solicitante.contains("@") ? controlador.buscarIdUsuario(solicitante) : leerId(solicitante);
+            if ((!departamento.isEmpty() && idDepto == 0) || (!solicitante.isEmpty() && idUsuario == 0)) {
+                printInfo("No hay tickets que cumplan los filtros.");
+                return;
+            }
+            List<VistaTicket> tickets = controlador.buscarVistasTickets(estado, idDepto, idUsuario);
             if (tickets.isEmpty()) {
-                printInfo("No hay tickets registrados.");
-            } else {
-                System.out.println("┌─────┬──────────────────────┬──────────────────────┬──────────────┬──────────────────────┐");
-                System.out.println("│ No. │ Asunto               │ Usuario              │ Estado       │ Departamento         │");
-                System.out.println("├─────┼──────────────────────┼──────────────────────┼──────────────┼──────────────────────┤");
-
-                for (int i = 0; i < tickets.size(); i++) {
-                    Ticket t = tickets.get(i);
-                    //String estadoIcon = getEstadoIcon(t.getEstado());
-                    System.out.printf("│ %-3d │ %-20s │ %-20s │ %-12s │ %-20s │%n",
-                            (i + 1),
-                            truncarTexto(t.getAsunto(), 20),
-                            truncarTexto(t.getUsuario().getNombre(), 20),
-                            t.getEstado(),
-                            truncarTexto(t.getDepartamento().getNombre(), 20));
+                printInfo("No hay tickets que cumplan los filtros.");
+                return;
+            }
+            for (int inicio = 0; inicio < tickets.size(); inicio += TAMANIO_PAGINA) {
+                int fin = Math.min(inicio + TAMANIO_PAGINA, tickets.size());
+                tablaTickets.encabezado();
+                for (int i = inicio; i < fin; i++) {
+                    filaTicket(tickets.get(i));
+                }
+                tablaTickets.pie().imprimir();
+                System.out.printf("Mostrando %d-%d de %d%n", inicio + 1, fin, tickets.size());
+                if (fin < tickets.size()) {
+                    System.out.print("Enter para la siguiente página, 'q' para salir: ");
+                    if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void buscarTickets() {
+            printSubHeader("BUSCAR TICKETS");
+            System.out.print("Texto a buscar (termine una palabra con * para buscar por prefijo): ");
+            String consulta = scanner.nextLine().trim();
+            if (consulta.isEmpty()) {
+                printError("Debe ingresar un texto a buscar.");
+                return;
+            }
+            System.out.print("Estado (Enter = cualquiera): ");
+            String estado = scanner.nextLine().trim();
+            System.out.print("ID del departamento (Enter = cualquiera): ");
+            String departamento = scanner.nextLine().trim();
+            int idDepto = departamento.isEmpty() ? 0 : leerId(departamento);
+            if (!departamento.isEmpty() && idDepto == 0) {
+                printError("ID de departamento inválido.");
+                return;
+            }
+
+            long inicio = System.nanoTime();
+            List<IndiceTexto.Resultado> resultados = controlador.buscarTexto(consulta, estado, idDepto, MAXIMO_RESULTADOS);
+            double milisegundos = (System.nanoTime() - inicio) / 1e6;
+            if (resultados.isEmpty()) {
+                printInfo("No hay tickets que coincidan con la búsqueda.");
+                return;
+            }
+            for (int desde = 0; desde < resultados.size(); desde += TAMANIO_PAGINA) {
+                int hasta = Math.min(desde + TAMANIO_PAGINA, resultados.size());
+                tablaResultados.encabezado();
+                for (int i = desde; i < hasta; i++) {
+                    IndiceTexto.Resultado r = resultados.get(i);
+                    VistaTicket t = controlador.obtenerVistaTicket(r.id());
+                    tablaResultados.celda(r.id())
+                            .celda(t.asunto())
+                            .celda(t.estado().etiqueta())
+                            .celda(controlador.obtenerDepartamento(t.idDepartamento()).getNombre())
+                            .celda(String.format("%.2f", r.puntaje()));
+                }
+                tablaResultados.pie().imprimir();
+                System.out.printf("Mostrando %d-%d de %d resultados (%.1f ms)%n", desde + 1, hasta, resultados.size(), milisegundos);
+                if (hasta < resultados.size()) {
+                    System.out.print("Enter para la siguiente página, 'q' para salir: ");
+                    if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void gestionarIncidentes() {
+            printSubHeader("INCIDENTES");
+            List<DetectorDuplicados.Incidente> incidentes = controlador.obtenerIncidentes(2);
+            if (incidentes.isEmpty()) {
+                printInfo("No hay incidentes con tickets similares.");
+                return;
+            }
+            int mostrados = Math.min(TAMANIO_PAGINA, incidentes.size());
+            tablaIncidentes.encabezado();
+            for (int i = 0; i < mostrados; i++) {
+                DetectorDuplicados.Incidente incidente = incidentes.get(i);
+                VistaTicket t = controlador.obtenerVistaTicket(incidente.id());
+                tablaIncidentes.celda(incidente.id())
+                        .celda(t.asunto())
+                        .celda(incidente.tickets())
+                        .celda(t.estado().etiqueta())
+                        .celda(controlador.obtenerDepartamento(t.idDepartamento()).getNombre());
+            }
+            tablaIncidentes.pie()
+                    .linea(String.format("Mostrando los %d incidentes más grandes de %d", mostrados, incidentes.size()))
+                    .imprimir();
+
+            System.out.print("ID del incidente a atender (Enter para volver): ");
+            String entrada = scanner.nextLine().trim();
+            if (entrada.isEmpty()) {
+                return;
+            }
+            int idIncidente = leerId(entrada);
+            if (controlador.obtenerVistaTicket(idIncidente) == null) {
+                printError("Incidente no encontrado.");
+                return;
+            }
+            List<Integer> tickets = controlador.obtenerTicketsIncidente(idIncidente);
+            tablaTickets.encabezado();
+            for (int i = 0; i < Math.min(TAMANIO_PAGINA, tickets.size()); i++) {
+                filaTicket(controlador.obtenerVistaTicket(tickets.get(i)));
+            }
+            tablaTickets.pie().linea("Tickets del incidente: " + tickets.size()).imprimir();
+
+            System.out.println("Estado para todos los tickets (se omiten los que no pueden pasar a él):");
+            EstadoTicket estado = solicitarEstado(null);
+            if (estado == null) {
+                return;
+            }
+            try {
+                int actualizados = controlador.cambiarEstadoIncidente(idIncidente, estado.etiqueta());
+                printSuccess(actualizados + " tickets actualizados a '" + estado.etiqueta() + "'");
+            } catch (Exception e) {
+                printError("Error al cambiar el estado: " + e.getMessage());
+            }
+        }
+
+        private void cambiarEstadoTicket() {
+            printSubHeader("CAMBIAR ESTADO DE TICKET");
+            System.out.print("ID del ticket: ");
+            int id = leerId(scanner.nextLine().trim());
+            EstadoTicket actual = controlador.obtenerEstadoTicket(id);
+            if (actual == null) {
+                printError("Ticket no encontrado.");
+                return;
+            }
+            System.out.println("Estado actual: " + actual.etiqueta());
+            EstadoTicket nuevo = solicitarEstado(actual);
+            if (nuevo == null) {
+                return;
+            }
+            try {
+                // Solo cambia si nadie lo modificó desde que se mostró el estado actual.
+                if (controlador.cambiarEstadoTicket(id, actual, nuevo)) {
+                    printSuccess("Ticket " + id + " actualizado a '" + nuevo.etiqueta() + "'");
+                } else {
+                    printError("Otro agente cambió el ticket; ahora está "
+                            + controlador.obtenerEstadoTicket(id).etiqueta() + ". Intente de nuevo.");
+                }
+            } catch (Exception e) {
+                printError("Error al cambiar el estado: " + e.getMessage());
+            }
+        }
+    }
+
+    // ===================== CLASE ESTADÍSTICAS =====================
+    public static class UIEstadisticas {
+        private ControladorHelpDesk controlador;
+        private Scanner scanner;
+        private final TablaConsola tablaLatencias = new TablaConsola(
+                new String[]{"Operación", "Llamadas", "Prom. µs", "p50 µs", "p90 µs", "p99 µs", "Máx. µs"},
+                new int[]{28, 9, 9, 9, 9, 9, 10});
+        private final TablaConsola tablaTablero = new TablaConsola(
+                new String[]{"Departamento / Rol", "Pendiente", "En proceso", "Resuelto", "Cerrado", "Total"},
+                new int[]{28, 10, 10, 10, 10, 10});
+
+        public UIEstadisticas(ControladorHelpDesk controlador) {
+            this.controlador = controlador;
+            this.scanner = new Scanner(System.in);
+        }
+
+        public void mostrarMenu() {
+            int opcion;
+            do {
+                printHeader("ESTADÍSTICAS");
+                System.out.println("1. Ver latencia por operación");
+                System.out.println("2. Ver intentos de inicio de sesión");
+                System.out.println("3. Guardar estadísticas en JSON");
+                System.out.println("4. Ver tablero de tickets");
+                System.out.println("5. Volver al menú principal");
+                System.out.println("─".repeat(40));
+                System.out.print("Seleccione una opción: ");
+
+                opcion = scanner.nextInt();
+                scanner.nextLine();
+
+                switch (opcion) {
+                    case 1 -> listarLatencias();
+                    case 2 -> mostrarIntentos();
+                    case 3 -> guardarEstadisticas();
+                    case 4 -> mostrarTablero();
+                    case 5 -> printInfo("Volviendo al menú principal...");
+                    default -> printError("Opción inválida");
                 }
-                System.out.println("└─────┴──────────────────────┴──────────────────────┴──────────────┴──────────────────────┘");
-                System.out.printf("Total de tickets: %d%n", tickets.size());
+            } while (opcion != 5);
+        }
+
+        private void listarLatencias() {
+            printSubHeader("LATENCIA POR OPERACIÓN");
+            String errorInstantanea = controlador.obtenerErrorInstantanea();
+            if (errorInstantanea != null) {
+                printError("Última instantánea programada: " + errorInstantanea);
+            }
+            List<EstadisticasOperaciones.Resumen> resumen = controlador.obtenerEstadisticas();
+            if (resumen.isEmpty()) {
+                printInfo("Aún no hay operaciones registradas.");
+                return;
+            }
+            long llamadas = 0;
+            tablaLatencias.encabezado();
+            for (EstadisticasOperaciones.Resumen r : resumen) {
+                tablaLatencias.celda(r.operacion().nombre())
+                        .celda(r.llamadas())
+                        .celda(micros(r.promedio()))
+                        .celda(micros(r.p50()))
+                        .celda(micros(r.p90()))
+                        .celda(micros(r.p99()))
+                        .celda(micros(r.maximo()));
+                llamadas += r.llamadas();
             }
+            tablaLatencias.pie()
+                    .linea("Total de llamadas: " + llamadas + " (de la operación con más tiempo total a la de menos)")
+                    .imprimir();
         }
 
-        private String truncarTexto(String texto, int longitud) {
-            if (texto == null) return "";
-            if (texto.length() > longitud) {
-                return texto.substring(0, longitud - 3) + "...";
+        private void mostrarTablero() {
+            printSubHeader("TABLERO DE TICKETS");
+            long inicio = System.nanoTime();
+            AgregadosTickets.Tablero tablero = controlador.obtenerTablero();
+            double microsegundos = (System.nanoTime() - inicio) / 1e3;
+            if (tablero.totales().total() == 0) {
+                printInfo("No hay tickets registrados.");
+                return;
+            }
+            tablaTablero.encabezado();
+            for (AgregadosTickets.Fila fila : tablero.porDepartamento()) {
+                filaTablero(fila);
+            }
+            tablaTablero.pie().linea("Por departamento asignado").imprimir();
+            tablaTablero.encabezado();
+            for (AgregadosTickets.Fila fila : tablero.porRol()) {
+                filaTablero(fila);
             }
-            return texto;
+            tablaTablero.pie().linea("Por rol del solicitante").imprimir();
+            tablaTablero.encabezado();
+            filaTablero(tablero.totales());
+            tablaTablero.pie()
+                    .linea(String.format("Conteos mantenidos con cada registro y cambio de estado (%.0f µs)", microsegundos))
+                    .imprimir();
+        }
+
+        private void filaTablero(AgregadosTickets.Fila fila) {
+            tablaTablero.celda(fila.nombre());
+            for (EstadoTicket estado : EstadoTicket.values()) {
+                tablaTablero.celda(fila.conteo(estado));
+            }
+            tablaTablero.celda(fila.total());
+        }
+
+        private void mostrarIntentos() {
+            printSubHeader("INTENTOS DE INICIO DE SESIÓN");
+            LimitadorIntentos.Metricas intentos = controlador.obtenerMetricasIntentos();
+            System.out.println("Permitidos:                 " + intentos.permitidos());
+            System.out.println("Fallidos:                   " + intentos.fallos());
+            System.out.println("Rechazados por cuenta:      " + intentos.rechazadosCuenta());
+            System.out.println("Rechazados por origen:      " + intentos.rechazadosOrigen());
+            printInfo("Los rechazos no llegan a verificar la contraseña; la latencia de autenticarUsuario incluye el control.");
+        }
+
+        private void guardarEstadisticas() {
+            System.out.print("Archivo de destino (Enter para helpdesku-estadisticas.json): ");
+            String ruta = scanner.nextLine().trim();
+            Path archivo = Path.of(ruta.isEmpty() ? "helpdesku-estadisticas.json" : ruta);
+            try {
+                Files.writeString(archivo, controlador.volcarEstadisticas() + "\n");
+                printSuccess("Estadísticas guardadas en " + archivo.toAbsolutePath());
+            } catch (IOException e) {
+                printError("No se pudo guardar el archivo: " + e.getMessage());
+            }
+        }
+
+        private static String micros(long nanos) {
+            return String.format("%.1f", nanos / 1_000.0);
         }
     }
 }
\ No newline at end of file
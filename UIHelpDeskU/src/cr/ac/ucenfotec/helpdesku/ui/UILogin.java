@@ -2,7 +2,7 @@ package cr.ac.ucenfotec.helpdesku.ui;
 
 import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
 import cr.ac.ucenfotec.helpdesku.tl.ControladorHelpDesk;
-import java.util.List;
+import cr.ac.ucenfotec.helpdesku.tl.ValidadorEntrada;
 import java.util.Scanner;
 
 public class UILogin {
@@ -79,33 +79,33 @@ public class UILogin {
         System.out.print("Contraseña: ");
         String password = scanner.nextLine();
 
-        Usuario usuario = autenticarUsuario(correo, password);
+        String token;
+        try {
+            token = controlador.iniciarSesion(correo, password);
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
 
-        if (usuario != null) {
+        if (token != null) {
+            Usuario usuario = controlador.obtenerUsuarioSesion(token);
             System.out.println("Inicio de sesión exitoso!");
             System.out.println("Bienvenido, " + usuario.getNombre() + " (" + usuario.getRol() + ")");
 
             // Redirigir al menú principal
-            UI interfaz = new UI(controlador);
-            interfaz.mostrarMenuPrincipal();
+            try {
+                UI interfaz = new UI(controlador);
+                interfaz.mostrarMenuPrincipal();
+            } finally {
+                controlador.cerrarSesion(token);
+            }
         } else {
             System.out.println("Credenciales incorrectas. Por favor intente nuevamente.");
         }
     }
 
     private boolean correoExiste(String correo) {
-        List<Usuario> usuarios = controlador.obtenerUsuarios();
-        for (Usuario usuario : usuarios) {
-            if (usuario.getCorreo().equalsIgnoreCase(correo)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Usuario autenticarUsuario(String correo, String password) {
-        // Solo delegar al controlador, SIN lógica de negocio
-        return controlador.autenticarUsuario(correo, password);
+        return controlador.existeCorreo(correo);
     }
 
     // Métodos de validación (copiados de UIUsuario)
@@ -117,8 +117,9 @@ public class UILogin {
             System.out.print("Ingrese el nombre completo: ");
             nombre = scanner.nextLine().trim();
 
-            if (nombre.isEmpty() || nombre.length() < 2 || nombre.length() > 50 || nombre.matches(".*\\d.*")) {
-                System.out.println("Nombre inválido. Debe tener entre 2-50 caracteres y no contener números.");
+            String error = ValidadorEntrada.validarNombre(nombre);
+            if (error != null) {
+                System.out.println("Nombre inválido. " + error + ".");
                 valido = false;
             }
         } while (!valido);
@@ -133,8 +134,9 @@ public class UILogin {
             System.out.print("Ingrese el correo electrónico: ");
             correo = scanner.nextLine();
 
-            if (correo.isEmpty() || correo.length() < 6 || correo.length() > 100 || !correo.contains("@") || !correo.contains(".")) {
-                System.out.println("Correo inválido. Formato esperado: ejemplo@dominio.com");
+            String error = ValidadorEntrada.validarCorreo(correo);
+            if (error != null) {
+                System.out.println(error);
                 valido = false;
             }
         } while (!valido);
@@ -149,8 +151,9 @@ public class UILogin {
             System.out.print("Ingrese el rol (estudiante/funcionario/administrador): ");
             rol = scanner.nextLine().toLowerCase();
 
-            if (!rol.equals("estudiante") && !rol.equals("funcionario") && !rol.equals("administrador")) {
-                System.out.println("Rol inválido. Opciones válidas: estudiante, funcionario, administrador.");
+            String error = ValidadorEntrada.validarRol(rol);
+            if (error != null) {
+                System.out.println(error);
                 valido = false;
             }
         } while (!valido);
@@ -165,17 +168,9 @@ public class UILogin {
             System.out.print("Ingrese la contraseña: ");
             password = scanner.nextLine().trim();
 
-            if (password.length() < 8 ||
-                    !password.matches(".*[A-Z].*") ||
-                    !password.matches(".*[a-z].*") ||
-                    !password.matches(".*[0-9].*") ||
-                    !password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*")) {
-                System.out.println("La contraseña debe tener:");
-                System.out.println("   - Mínimo 8 caracteres");
-                System.out.println("   - Al menos una mayúscula");
-                System.out.println("   - Al menos una minúscula");
-                System.out.println("   - Al menos un número");
-                System.out.println("   - Al menos un carácter especial");
+            String error = ValidadorEntrada.validarPassword(password);
+            if (error != null) {
+                System.out.println(error);
                 valido = false;
             }
         } while (!valido);
@@ -190,9 +185,9 @@ public class UILogin {
             System.out.print("Ingrese el número de teléfono (8 dígitos): ");
             telefono = scanner.nextLine().trim();
 
-            String soloDigitos = telefono.replaceAll("[^\\d]", "");
-            if (soloDigitos.length() != 8) {
-                System.out.println("El teléfono debe tener exactamente 8 dígitos numéricos.");
+            String error = ValidadorEntrada.validarTelefono(telefono);
+            if (error != null) {
+                System.out.println(error);
                 valido = false;
             }
         } while (!valido);
@@ -0,0 +1,97 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Conteos del tablero de tickets mantenidos con cada registro y transición.
+ */
+class AgregadosTicketsTest {
+
+    private static final String[] ROLES = {"Estudiante", "Profesor", "Administrativo"};
+    private static final int USUARIOS = 30;
+    private static final int DEPARTAMENTOS = 12;
+
+    @Test
+    void tableroCoincideConUnRecuentoDespuesDeCambiosConcurrentes() throws InterruptedException {
+        int tickets = 5_000;
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            for (int i = 0; i < USUARIOS; i++) {
+                controlador.registrarUsuario("Usuario " + i, "Clave123!", ROLES[i % ROLES.length],
+                        "usuario" + i + "@ucenfotec.ac.cr", "88888888");
+            }
+            for (int i = 0; i < DEPARTAMENTOS; i++) {
+                controlador.registrarDepartamento("Departamento " + i, "Atiende solicitudes",
+                        "depto" + i + "@ucenfotec.ac.cr", "1234");
+            }
+            for (int i = 0; i < tickets; i++) {
+                controlador.registrarTicket("Problema " + i, "No funciona desde la mañana, ticket " + i,
+                        1 + i % USUARIOS, EstadoTicket.PENDIENTE.etiqueta(), 1 + i % DEPARTAMENTOS);
+            }
+            cambiarAlAzar(controlador, tickets, 4);
+
+            Map<String, long[]> recuento = recontar(controlador);
+            AgregadosTickets.Tablero tablero = controlador.obtenerTablero();
+            int filas = 0;
+            for (AgregadosTickets.Fila fila : tablero.porDepartamento()) {
+                assertArrayEquals(recuento.get("D " + fila.nombre()), fila.porEstado(), fila.nombre());
+                filas++;
+            }
+            for (AgregadosTickets.Fila fila : tablero.porRol()) {
+                assertArrayEquals(recuento.get("R " + fila.nombre()), fila.porEstado(), fila.nombre());
+                filas++;
+            }
+            assertEquals(recuento.size(), filas);
+            assertEquals(tickets, tablero.totales().total());
+        }
+    }
+
+    /**
+     * Cada agente pasa tickets al azar a otro estado permitido, con el estado leído como esperado.
+     */
+    private static void cambiarAlAzar(ControladorHelpDesk controlador, int tickets, int agentes)
+            throws InterruptedException {
+        EstadoTicket[] destinos = EstadoTicket.values();
+        List<Thread> hilos = new ArrayList<>();
+        for (int a = 0; a < agentes; a++) {
+            SplittableRandom azar = new SplittableRandom(a);
+            hilos.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < tickets / 2; i++) {
+                    int id = 1 + azar.nextInt(tickets);
+                    EstadoTicket actual = controlador.obtenerEstadoTicket(id);
+                    EstadoTicket nuevo = destinos[azar.nextInt(destinos.length)];
+                    if (actual.puedePasarA(nuevo)) {
+                        controlador.cambiarEstadoTicket(id, actual, nuevo);
+                    }
+                }
+            }));
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+    }
+
+    /**
+     * Cuenta los tickets por departamento y por rol del solicitante recorriéndolos todos.
+     */
+    private static Map<String, long[]> recontar(ControladorHelpDesk controlador) {
+        Map<String, long[]> conteos = new HashMap<>();
+        List<Ticket> tickets = controlador.obtenerTickets();
+        for (int i = 0; i < tickets.size(); i++) {
+            Ticket t = tickets.get(i);
+            int estado = controlador.obtenerEstadoTicket(i + 1).ordinal();
+            conteos.computeIfAbsent("D " + t.getDepartamento().getNombre(), k -> new long[4])[estado]++;
+            conteos.computeIfAbsent("R " + t.getUsuario().getRol(), k -> new long[4])[estado]++;
+        }
+        return conteos;
+    }
+}
@@ -0,0 +1,184 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperación de la bitácora a partir de archivos cortados o dañados.
+ */
+class BitacoraEscrituraTest {
+
+    private static final int ENCABEZADO = 8;
+    private static final List<String> REGISTROS = List.of("primero", "segundo", "tercero");
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void colaIncompletaSeDescartaYSeSigueAnexando() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long completo = Files.size(archivo);
+        // Un registro que anuncia 100 bytes pero solo llegó a escribir 10.
+        ByteBuffer cortado = ByteBuffer.allocate(ENCABEZADO + 10).putInt(100).putInt(0x12345678);
+        Files.write(archivo, cortado.array(), StandardOpenOption.APPEND);
+
+        List<String> leidos = new ArrayList<>();
+        try (BitacoraEscritura bitacora = abrir(archivo, 0, leidos)) {
+            assertEquals(REGISTROS, leidos);
+            assertEquals(completo, Files.size(archivo));
+            assertEquals(completo, bitacora.posicionEncolada());
+            bitacora.anotar(bytes("cuarto")).join();
+        }
+        assertEquals(List.of("primero", "segundo", "tercero", "cuarto"), leer(archivo, 0));
+    }
+
+    @Test
+    void encabezadoIncompletoSeDescarta() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long completo = Files.size(archivo);
+        Files.write(archivo, new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+
+        List<String> leidos = new ArrayList<>();
+        try (BitacoraEscritura bitacora = abrir(archivo, 0, leidos)) {
+            assertEquals(REGISTROS, leidos);
+            assertEquals(completo, bitacora.posicionEncolada());
+        }
+        assertEquals(completo, Files.size(archivo));
+    }
+
+    @Test
+    void crcDistintoEnElUltimoRegistroSeDescarta() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long inicioTercero = 2L * ENCABEZADO + "primero".length() + "segundo".length();
+        voltearByte(archivo, inicioTercero + ENCABEZADO + 2);
+
+        List<String> leidos = new ArrayList<>();
+        try (BitacoraEscritura bitacora = abrir(archivo, 0, leidos)) {
+            assertEquals(List.of("primero", "segundo"), leidos);
+            assertEquals(inicioTercero, bitacora.posicionEncolada());
+        }
+        assertEquals(inicioTercero, Files.size(archivo));
+    }
+
+    @Test
+    void crcDistintoEnMedioFallaSinTocarElArchivo() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long inicioSegundo = ENCABEZADO + "primero".length();
+        voltearByte(archivo, inicioSegundo + ENCABEZADO + 2);
+        byte[] danado = Files.readAllBytes(archivo);
+
+        IOException error = assertThrows(IOException.class, () -> abrir(archivo, 0, new ArrayList<>()));
+        assertTrue(error.getMessage().contains("dañada en la posición " + inicioSegundo), error.getMessage());
+        assertArrayEquals(danado, Files.readAllBytes(archivo));
+    }
+
+    @Test
+    void largoInvalidoEnMedioFallaSinTocarElArchivo() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long inicioSegundo = ENCABEZADO + "primero".length();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4).putInt(0, -5), inicioSegundo);
+        }
+        byte[] danado = Files.readAllBytes(archivo);
+
+        assertThrows(IOException.class, () -> BitacoraEscritura.leer(archivo, 0, datos -> { }));
+        assertThrows(IOException.class, () -> abrir(archivo, 0, new ArrayList<>()));
+        assertArrayEquals(danado, Files.readAllBytes(archivo));
+    }
+
+    @Test
+    void desdeEnElInicioDeUnRegistroReproduceSoloLaCola() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long completo = Files.size(archivo);
+        long inicioSegundo = ENCABEZADO + "primero".length();
+
+        List<String> leidos = new ArrayList<>();
+        try (BitacoraEscritura bitacora = abrir(archivo, inicioSegundo, leidos)) {
+            assertEquals(List.of("segundo", "tercero"), leidos);
+            assertEquals(completo, bitacora.posicionEncolada());
+        }
+    }
+
+    @Test
+    void desdeEnMedioDeUnRegistroFallaSinTocarElArchivo() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        byte[] original = Files.readAllBytes(archivo);
+        long medioSegundo = ENCABEZADO + "primero".length() + 3;
+
+        IOException error = assertThrows(IOException.class, () -> abrir(archivo, medioSegundo, new ArrayList<>()));
+        assertTrue(error.getMessage().contains("no es el inicio de un registro válido"), error.getMessage());
+        assertArrayEquals(original, Files.readAllBytes(archivo));
+    }
+
+    @Test
+    void desdeConCrcDistintoFallaSinTocarElArchivo() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long inicioSegundo = ENCABEZADO + "primero".length();
+        voltearByte(archivo, inicioSegundo + ENCABEZADO);
+        byte[] danado = Files.readAllBytes(archivo);
+
+        assertThrows(IOException.class, () -> abrir(archivo, inicioSegundo, new ArrayList<>()));
+        assertArrayEquals(danado, Files.readAllBytes(archivo));
+    }
+
+    @Test
+    void desdeMasAllaDelArchivoFalla() throws IOException {
+        Path archivo = this.escribir(REGISTROS);
+        long completo = Files.size(archivo);
+
+        assertThrows(IOException.class, () -> abrir(archivo, completo + 100, new ArrayList<>()));
+        assertEquals(completo, Files.size(archivo));
+    }
+
+    private Path escribir(List<String> registros) throws IOException {
+        Path archivo = this.carpeta.resolve("bitacora.log");
+        try (BitacoraEscritura bitacora = new BitacoraEscritura(archivo, BitacoraEscritura.Sincronizacion.SIEMPRE)) {
+            for (String registro : registros) {
+                bitacora.anotar(bytes(registro)).join();
+            }
+        }
+        return archivo;
+    }
+
+    private static BitacoraEscritura abrir(Path archivo, long desde, List<String> leidos) throws IOException {
+        return new BitacoraEscritura(archivo, BitacoraEscritura.Sincronizacion.SIEMPRE,
+                BitacoraEscritura.INTERVALO_DEFECTO_MS, desde, datos -> leidos.add(texto(datos)));
+    }
+
+    private static List<String> leer(Path archivo, long desde) throws IOException {
+        List<String> leidos = new ArrayList<>();
+        BitacoraEscritura.leer(archivo, desde, datos -> leidos.add(texto(datos)));
+        return leidos;
+    }
+
+    private static void voltearByte(Path archivo, long posicion) throws IOException {
+        byte[] contenido = Files.readAllBytes(archivo);
+        contenido[(int) posicion] ^= 0x40;
+        Files.write(archivo, contenido);
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String texto(ByteBuffer datos) {
+        byte[] copia = new byte[datos.remaining()];
+        datos.get(copia);
+        return new String(copia, StandardCharsets.UTF_8);
+    }
+}
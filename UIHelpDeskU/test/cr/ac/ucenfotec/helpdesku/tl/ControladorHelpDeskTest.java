@@ -0,0 +1,143 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Operaciones del controlador con la bitácora abierta.
+ */
+class ControladorHelpDeskTest {
+
+    private static final BitacoraEscritura.Sincronizacion SINCRONIZACION = BitacoraEscritura.Sincronizacion.SIEMPRE;
+    private static final String CORREO = "ana.mora@ucenfotec.ac.cr";
+    /**
+     * Texto más largo que el registro máximo que acepta la bitácora.
+     */
+    private static final String ENORME = "9".repeat(17 * 1024 * 1024);
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void escrituraRechazadaNoCambiaLaMemoria() throws IOException {
+        Path bitacora = this.carpeta.resolve("helpdesku.log");
+        Path instantanea = this.carpeta.resolve("helpdesku.snap");
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, instantanea, null, SINCRONIZACION);
+            controlador.registrarUsuario("Ana Mora", "Clave123!", "Estudiante", CORREO, "88888888");
+            controlador.registrarDepartamento("Soporte TI", "Atiende la red", "soporte@ucenfotec.ac.cr", "1234");
+
+            String otro = "luis.soto@ucenfotec.ac.cr";
+            assertThrows(IllegalArgumentException.class,
+                    () -> controlador.registrarUsuario("Luis Soto", "Clave123!", "Estudiante", otro, ENORME));
+            assertEquals(1, controlador.obtenerUsuarios().size());
+            assertFalse(controlador.existeCorreo(otro));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> controlador.registrarTicket("Sin wifi", ENORME, 1, "Pendiente", 1));
+            assertEquals(0, controlador.obtenerTickets().size());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> controlador.agregarPalabrasTecnicas("Red", List.of("wifi", ENORME, "vpn")));
+            assertEquals(1, controlador.obtenerDiccionarioTecnico().size());
+
+            assertTrue(controlador.escribirInstantanea() > 0);
+            // El correo liberado se puede volver a usar.
+            controlador.registrarUsuario("Luis Soto", "Clave123!", "Estudiante", otro, "88888888");
+        }
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, SINCRONIZACION);
+            assertEquals(2, controlador.obtenerUsuarios().size());
+            assertEquals(0, controlador.obtenerTickets().size());
+            assertEquals(1, controlador.obtenerDiccionarioTecnico().size());
+        }
+    }
+
+    @Test
+    void loteConEscrituraRechazadaConfirmaLosYaRegistrados() throws IOException {
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(this.carpeta.resolve("helpdesku.log"), SINCRONIZACION);
+            controlador.registrarUsuario("Ana Mora", "Clave123!", "Estudiante", CORREO, "88888888");
+            controlador.registrarDepartamento("Soporte TI", "Atiende la red", "soporte@ucenfotec.ac.cr", "1234");
+
+            List<CompletableFuture<Integer>> acuses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String descripcion = i == 10 ? ENORME : "Falla número " + i;
+                acuses.add(controlador.enviarTicket("Ticket " + i, descripcion, 1, "Pendiente", 1));
+            }
+
+            int confirmados = 0;
+            for (int i = 0; i < acuses.size(); i++) {
+                try {
+                    int id = acuses.get(i).join();
+                    assertEquals("Ticket " + i, controlador.obtenerTicket(id).getAsunto());
+                    confirmados++;
+                } catch (CompletionException e) {
+                    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                    assertTrue(i >= 10, "Se rechazó el ticket " + i + ", anterior al de la falla");
+                }
+            }
+            assertTrue(confirmados >= 10);
+            assertEquals(confirmados, controlador.obtenerTickets().size());
+        }
+    }
+
+    @Test
+    void cambiosDeEstadoSimultaneosSeReproducenIgual() throws IOException, InterruptedException {
+        Path bitacora = this.carpeta.resolve("helpdesku.log");
+        int tickets = 200;
+        EstadoTicket[] finales = new EstadoTicket[tickets + 1];
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, BitacoraEscritura.Sincronizacion.NUNCA);
+            controlador.registrarUsuario("Ana Mora", "Clave123!", "Estudiante", CORREO, "88888888");
+            controlador.registrarDepartamento("Soporte TI", "Atiende la red", "soporte@ucenfotec.ac.cr", "1234");
+            for (int i = 0; i < tickets; i++) {
+                controlador.registrarTicket("Ticket " + i, "Falla número " + i, 1, "Pendiente", 1);
+            }
+            EstadoTicket[] destinos = {EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO, EstadoTicket.RESUELTO};
+            List<Thread> agentes = new ArrayList<>();
+            for (int a = 0; a < 4; a++) {
+                SplittableRandom azar = new SplittableRandom(a);
+                agentes.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int id = 1 + azar.nextInt(tickets);
+                        EstadoTicket actual = controlador.obtenerEstadoTicket(id);
+                        EstadoTicket nuevo = destinos[azar.nextInt(destinos.length)];
+                        if (actual.puedePasarA(nuevo)) {
+                            controlador.cambiarEstadoTicket(id, actual, nuevo);
+                        }
+                    }
+                }));
+            }
+            for (Thread agente : agentes) {
+                agente.join();
+            }
+            for (int id = 1; id <= tickets; id++) {
+                finales[id] = controlador.obtenerEstadoTicket(id);
+            }
+        }
+
+        // Los agentes anotan sus cambios en cualquier orden; la versión de cada uno ordena la reproducción.
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(bitacora, SINCRONIZACION);
+            for (int id = 1; id <= tickets; id++) {
+                assertEquals(finales[id], controlador.obtenerEstadoTicket(id), "ticket " + id);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import cr.ac.ucenfotec.helpdesku.bl.entities.Departamento;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Ticket;
+import cr.ac.ucenfotec.helpdesku.bl.entities.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Estado vigente y transiciones del índice de tickets en cada forma de almacenamiento.
+ */
+class IndiceTicketsTest {
+
+    private static final Usuario USUARIO = new Usuario("Ana Mora", "hash", "Estudiante",
+            "ana.mora@ucenfotec.ac.cr", "88888888");
+    private static final Departamento DEPARTAMENTO = new Departamento("Soporte TI", "Atiende la red",
+            "soporte@ucenfotec.ac.cr", "1234");
+
+    @Test
+    void obtenerDevuelveElEstadoVigenteConObjetos() {
+        this.obtenerDevuelveElEstadoVigente(IndiceTickets.Almacenamiento.OBJETOS);
+    }
+
+    @Test
+    void obtenerDevuelveElEstadoVigenteColumnar() {
+        this.obtenerDevuelveElEstadoVigente(IndiceTickets.Almacenamiento.COLUMNAR);
+    }
+
+    private void obtenerDevuelveElEstadoVigente(IndiceTickets.Almacenamiento almacenamiento) {
+        IndiceTickets indice = indice(almacenamiento);
+        indice.agregar(ticket("Sin wifi"), 1, 1);
+        indice.agregar(ticket("Proyector dañado"), 1, 1);
+
+        assertEquals(1, indice.cambiarEstado(1, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO));
+        Ticket cambiado = indice.obtener(1);
+        assertEquals("En proceso", cambiado.getEstado());
+        assertEquals("Sin wifi", cambiado.getAsunto());
+        assertEquals(1, indice.id(cambiado));
+        assertEquals(2, indice.id(indice.obtener(2)));
+        assertEquals("Pendiente", indice.obtener(2).getEstado());
+
+        List<Ticket> todos = indice.todos();
+        assertEquals("En proceso", todos.get(0).getEstado());
+        assertEquals("En proceso", indice.buscar("En proceso", 0, 0).get(0).getEstado());
+
+        assertEquals(2, indice.cambiarEstado(1, EstadoTicket.EN_PROCESO, EstadoTicket.PENDIENTE));
+        assertEquals("Pendiente", indice.obtener(1).getEstado());
+    }
+
+    @Test
+    void transicionesPermitidasSubenLaVersion() {
+        IndiceTickets indice = indice(IndiceTickets.Almacenamiento.COLUMNAR);
+        indice.agregar(ticket("Sin wifi"), 1, 1);
+
+        assertEquals(0, indice.version(1));
+        assertEquals(1, indice.cambiarEstado(1, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO));
+        assertEquals(2, indice.cambiarEstado(1, EstadoTicket.EN_PROCESO, EstadoTicket.RESUELTO));
+        assertEquals(3, indice.cambiarEstado(1, EstadoTicket.RESUELTO, EstadoTicket.EN_PROCESO));
+        assertEquals(4, indice.cambiarEstado(1, null, EstadoTicket.RESUELTO));
+        assertEquals(5, indice.cambiarEstado(1, EstadoTicket.RESUELTO, EstadoTicket.CERRADO));
+        assertEquals(EstadoTicket.CERRADO, indice.estado(1));
+        assertEquals(5, indice.version(1));
+    }
+
+    @Test
+    void transicionesRechazadasNoCambianNadaNiLaVersion() {
+        IndiceTickets indice = indice(IndiceTickets.Almacenamiento.COLUMNAR);
+        indice.agregar(ticket("Sin wifi"), 1, 1);
+
+        // Al mismo estado, con otro esperado y desde resuelto de vuelta a pendiente.
+        assertEquals(0, indice.cambiarEstado(1, EstadoTicket.PENDIENTE, EstadoTicket.PENDIENTE));
+        assertEquals(0, indice.cambiarEstado(1, EstadoTicket.EN_PROCESO, EstadoTicket.RESUELTO));
+        assertEquals(1, indice.cambiarEstado(1, EstadoTicket.PENDIENTE, EstadoTicket.RESUELTO));
+        assertEquals(0, indice.cambiarEstado(1, EstadoTicket.RESUELTO, EstadoTicket.PENDIENTE));
+        assertEquals(2, indice.cambiarEstado(1, EstadoTicket.RESUELTO, EstadoTicket.CERRADO));
+        // Cerrado no sale a ningún estado.
+        for (EstadoTicket nuevo : EstadoTicket.values()) {
+            assertEquals(0, indice.cambiarEstado(1, null, nuevo));
+        }
+        assertEquals(EstadoTicket.CERRADO, indice.estado(1));
+        assertEquals(2, indice.version(1));
+        assertEquals(1, indice.contarPorEstado(EstadoTicket.CERRADO));
+        assertEquals(0, indice.contarPorEstado(EstadoTicket.PENDIENTE));
+    }
+
+    @Test
+    void deshacerCambioSoloSiNadieLoCambioDespues() {
+        IndiceTickets indice = indice(IndiceTickets.Almacenamiento.COLUMNAR);
+        indice.agregar(ticket("Sin wifi"), 1, 1);
+        indice.agregar(ticket("Proyector dañado"), 1, 1);
+
+        int anterior = indice.cambiarMarca(1, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO);
+        assertTrue(indice.deshacerCambio(1, anterior, EstadoTicket.EN_PROCESO));
+        assertEquals(EstadoTicket.PENDIENTE, indice.estado(1));
+        assertEquals(0, indice.version(1));
+        assertEquals(2, indice.contarPorEstado(EstadoTicket.PENDIENTE));
+        assertEquals(2, indice.buscar("Pendiente", 0, 0).size());
+        assertEquals(2, indice.tablero().totales().conteo(EstadoTicket.PENDIENTE));
+
+        // Otro agente lo pasó a resuelto antes de deshacer: el ticket queda resuelto.
+        anterior = indice.cambiarMarca(2, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO);
+        assertEquals(2, indice.cambiarEstado(2, EstadoTicket.EN_PROCESO, EstadoTicket.RESUELTO));
+        assertFalse(indice.deshacerCambio(2, anterior, EstadoTicket.EN_PROCESO));
+        assertEquals(EstadoTicket.RESUELTO, indice.estado(2));
+        assertEquals(1, indice.contarPorEstado(EstadoTicket.RESUELTO));
+        assertEquals(-1, indice.cambiarMarca(2, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO));
+    }
+
+    @Test
+    void cadaTicketPendienteSeTomaUnaSolaVez() throws InterruptedException {
+        IndiceTickets indice = indice(IndiceTickets.Almacenamiento.COLUMNAR);
+        int tickets = 5_000;
+        for (int i = 0; i < tickets; i++) {
+            indice.agregar(ticket("Ticket " + i), 1, 1);
+        }
+        AtomicInteger tomados = new AtomicInteger();
+        concurrentemente(8, agente -> {
+            for (int i = 0; i < tickets; i++) {
+                int id = 1 + (agente * (tickets / 8) + i) % tickets;
+                if (indice.cambiarEstado(id, EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO) != 0) {
+                    tomados.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(tickets, tomados.get());
+        assertEquals(tickets, indice.contarPorEstado(EstadoTicket.EN_PROCESO));
+        for (int id = 1; id <= tickets; id++) {
+            assertEquals(1, indice.version(id));
+        }
+    }
+
+    @Test
+    void contadoresCoincidenConElIndiceBajoContencion() throws InterruptedException {
+        IndiceTickets indice = indice(IndiceTickets.Almacenamiento.COLUMNAR);
+        int tickets = 200;
+        for (int i = 0; i < tickets; i++) {
+            indice.agregar(ticket("Ticket " + i), 1, 1);
+        }
+        EstadoTicket[] destinos = {EstadoTicket.PENDIENTE, EstadoTicket.EN_PROCESO, EstadoTicket.RESUELTO};
+        AtomicInteger ganados = new AtomicInteger();
+        concurrentemente(8, agente -> {
+            SplittableRandom azar = new SplittableRandom(agente);
+            for (int i = 0; i < 50_000; i++) {
+                int id = 1 + azar.nextInt(tickets);
+                EstadoTicket actual = indice.estado(id);
+                EstadoTicket nuevo = destinos[azar.nextInt(destinos.length)];
+                if (actual.puedePasarA(nuevo) && indice.cambiarEstado(id, actual, nuevo) != 0) {
+                    ganados.incrementAndGet();
+                }
+            }
+        });
+
+        int total = 0;
+        int versiones = 0;
+        for (EstadoTicket estado : EstadoTicket.values()) {
+            int recorridos = 0;
+            for (int id = 1; id <= tickets; id++) {
+                if (indice.estado(id) == estado) {
+                    recorridos++;
+                }
+            }
+            assertEquals(recorridos, indice.contarPorEstado(estado), estado.etiqueta());
+            assertEquals(recorridos, indice.buscar(estado.etiqueta(), 0, 0).size(), estado.etiqueta());
+            total += recorridos;
+        }
+        for (int id = 1; id <= tickets; id++) {
+            versiones += indice.version(id);
+        }
+        assertEquals(tickets, total);
+        // Cada cambio ganado sube en uno la versión de su ticket.
+        assertEquals(ganados.get(), versiones);
+    }
+
+    /**
+     * Corre el cuerpo en varios hilos a la vez y espera a que terminen.
+     */
+    private static void concurrentemente(int hilos, Agente cuerpo) throws InterruptedException {
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Thread> agentes = new ArrayList<>();
+        for (int a = 0; a < hilos; a++) {
+            int agente = a;
+            agentes.add(Thread.ofPlatform().start(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                cuerpo.correr(agente);
+            }));
+        }
+        inicio.countDown();
+        for (Thread hilo : agentes) {
+            hilo.join();
+        }
+    }
+
+    private interface Agente {
+        void correr(int agente);
+    }
+
+    private static IndiceTickets indice(IndiceTickets.Almacenamiento almacenamiento) {
+        return new IndiceTickets(almacenamiento, id -> USUARIO, id -> DEPARTAMENTO);
+    }
+
+    private static Ticket ticket(String asunto) {
+        return new Ticket(asunto, "Ocurre en el aula 3", USUARIO, "Pendiente", DEPARTAMENTO);
+    }
+}
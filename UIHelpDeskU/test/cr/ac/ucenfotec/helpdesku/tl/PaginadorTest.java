@@ -0,0 +1,196 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Paginación por cursor con y sin clave de orden.
+ */
+class PaginadorTest {
+
+    private static final String PENDIENTE = "Pendiente";
+    private static final String EN_PROCESO = "En proceso";
+
+    private static final String CERRADO = "Cerrado";
+
+    @Test
+    void elCursorRecorreTodoUnaVezEnOrden() {
+        List<AtomicReference<String>> fuente = new ArrayList<>();
+        String[] estados = {PENDIENTE, EN_PROCESO, CERRADO};
+        for (int i = 0; i < 25; i++) {
+            fuente.add(new AtomicReference<>(estados[i % estados.length]));
+        }
+        List<Integer> esperados = new ArrayList<>();
+        for (String estado : List.of(CERRADO, EN_PROCESO, PENDIENTE)) {
+            for (int i = 0; i < fuente.size(); i++) {
+                if (fuente.get(i).get().equals(estado)) {
+                    esperados.add(i);
+                }
+            }
+        }
+        Paginador.IndiceOrden<AtomicReference<String>> orden = new Paginador.IndiceOrden<>(AtomicReference::get);
+
+        assertEquals(esperados, recorrer(fuente, 7, orden));
+        List<Integer> registro = new ArrayList<>();
+        for (int i = 0; i < fuente.size(); i++) {
+            registro.add(i);
+        }
+        assertEquals(registro, recorrer(fuente, 7, null));
+    }
+
+    @Test
+    void insercionesDuranteLaPaginacion() {
+        List<AtomicReference<String>> fuente = fuente(PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE);
+        Pagina<AtomicReference<String>> primera = Paginador.paginar(fuente, 4, null, null);
+        fuente.add(new AtomicReference<>(PENDIENTE));
+        fuente.add(new AtomicReference<>(EN_PROCESO));
+        Pagina<AtomicReference<String>> segunda = Paginador.paginar(fuente, 4, primera.cursorSiguiente(), null);
+        // Por posición, los agregados aparecen al final.
+        assertEquals(List.of(4, 5, 6, 7), indices(fuente, segunda));
+        assertEquals(4, segunda.inicio());
+        assertEquals(8, segunda.total());
+        assertNull(segunda.cursorSiguiente());
+
+        fuente = fuente(PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE);
+        Paginador.IndiceOrden<AtomicReference<String>> orden = new Paginador.IndiceOrden<>(AtomicReference::get);
+        primera = Paginador.paginar(fuente, 4, null, orden);
+        assertEquals(List.of(0, 1, 2, 3), indices(fuente, primera));
+        fuente.add(new AtomicReference<>(PENDIENTE));
+        fuente.add(new AtomicReference<>(EN_PROCESO));
+        segunda = Paginador.paginar(fuente, 4, primera.cursorSiguiente(), orden);
+        // Por clave, el agregado después del cursor aparece; el que queda antes ya se pasó.
+        assertEquals(List.of(4, 5, 6), indices(fuente, segunda));
+        assertEquals(4, segunda.inicio());
+        assertNull(segunda.cursorSiguiente());
+    }
+
+    @Test
+    void cambiosDeEstadoDuranteLaPaginacion() {
+        List<AtomicReference<String>> fuente = fuente(EN_PROCESO, EN_PROCESO, EN_PROCESO, EN_PROCESO, EN_PROCESO,
+                PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE, PENDIENTE);
+        Paginador.IndiceOrden<AtomicReference<String>> orden = new Paginador.IndiceOrden<>(AtomicReference::get);
+        Pagina<AtomicReference<String>> pagina = Paginador.paginar(fuente, 4, null, orden);
+        List<Integer> entregados = new ArrayList<>(indices(fuente, pagina));
+        assertEquals(List.of(0, 1, 2, 3), entregados);
+
+        // Uno sin entregar pasa a una clave después del cursor, uno entregado y uno
+        // sin entregar pasan a una clave antes del cursor.
+        cambiar(fuente, orden, 4, PENDIENTE);
+        cambiar(fuente, orden, 1, CERRADO);
+        cambiar(fuente, orden, 9, CERRADO);
+        while (pagina.haySiguiente()) {
+            pagina = Paginador.paginar(fuente, 4, pagina.cursorSiguiente(), orden);
+            entregados.addAll(indices(fuente, pagina));
+        }
+
+        // Cada elemento se entrega a lo sumo una vez; el que pasó detrás del cursor no se repite ni se entrega.
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), entregados);
+        assertEquals(List.of(1, 9), indices(fuente, Paginador.paginar(fuente, 2, null, orden)));
+    }
+
+    @Test
+    void avisosEnOtroOrdenDejanLaClaveVigente() {
+        List<AtomicReference<String>> fuente = List.of(new AtomicReference<>(PENDIENTE));
+        Paginador.IndiceOrden<AtomicReference<String>> orden = new Paginador.IndiceOrden<>(AtomicReference::get);
+        Paginador.paginar(fuente, 10, null, orden);
+
+        // Dos agentes cambian el elemento, pero el segundo avisa antes que el primero.
+        fuente.get(0).set(EN_PROCESO);
+        fuente.get(0).set(PENDIENTE);
+        orden.mover(fuente, 0, EN_PROCESO);
+        orden.mover(fuente, 0, PENDIENTE);
+
+        assertEquals(1, Paginador.paginar(fuente, 10, null, orden).elementos().size());
+    }
+
+    @Test
+    void cambiosSimultaneosDelMismoElementoDejanSuClaveVigente() throws InterruptedException {
+        List<AtomicReference<String>> fuente = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            fuente.add(new AtomicReference<>(PENDIENTE));
+        }
+        Paginador.IndiceOrden<AtomicReference<String>> orden = new Paginador.IndiceOrden<>(AtomicReference::get);
+        Paginador.paginar(fuente, 10, null, orden);
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        Thread ida = cambiador(fuente, orden, PENDIENTE, EN_PROCESO, inicio);
+        Thread vuelta = cambiador(fuente, orden, EN_PROCESO, PENDIENTE, inicio);
+        inicio.countDown();
+        ida.join();
+        vuelta.join();
+
+        Pagina<AtomicReference<String>> pagina = Paginador.paginar(fuente, 10, null, orden);
+        assertEquals(fuente.size(), pagina.elementos().size());
+    }
+
+    private static List<AtomicReference<String>> fuente(String... claves) {
+        List<AtomicReference<String>> fuente = new ArrayList<>();
+        for (String clave : claves) {
+            fuente.add(new AtomicReference<>(clave));
+        }
+        return fuente;
+    }
+
+    /**
+     * Pide páginas hasta la última y devuelve las posiciones entregadas en orden.
+     */
+    private static List<Integer> recorrer(List<AtomicReference<String>> fuente, int tamanio,
+                                          Paginador.IndiceOrden<AtomicReference<String>> orden) {
+        List<Integer> entregados = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<AtomicReference<String>> pagina = Paginador.paginar(fuente, tamanio, cursor, orden);
+            assertEquals(entregados.size(), pagina.inicio());
+            entregados.addAll(indices(fuente, pagina));
+            cursor = pagina.cursorSiguiente();
+        } while (cursor != null);
+        return entregados;
+    }
+
+    private static List<Integer> indices(List<AtomicReference<String>> fuente, Pagina<AtomicReference<String>> pagina) {
+        List<Integer> indices = new ArrayList<>();
+        for (AtomicReference<String> elemento : pagina.elementos()) {
+            indices.add(fuente.indexOf(elemento));
+        }
+        return indices;
+    }
+
+    private static void cambiar(List<AtomicReference<String>> fuente,
+                                Paginador.IndiceOrden<AtomicReference<String>> orden, int indice, String clave) {
+        String anterior = fuente.get(indice).getAndSet(clave);
+        orden.mover(fuente, indice, anterior);
+    }
+
+    /**
+     * Pasa cada elemento de un estado al otro muchas veces, avisando al índice
+     * igual que el índice de tickets después de una transición ganada.
+     */
+    private static Thread cambiador(List<AtomicReference<String>> fuente,
+                                    Paginador.IndiceOrden<AtomicReference<String>> orden,
+                                    String desde, String hacia, CountDownLatch inicio) {
+        Thread hilo = new Thread(() -> {
+            try {
+                inicio.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int vuelta = 0; vuelta < 20_000; vuelta++) {
+                for (int i = 0; i < fuente.size(); i++) {
+                    if (fuente.get(i).compareAndSet(desde, hacia)) {
+                        orden.mover(fuente, i, desde);
+                    }
+                }
+            }
+        });
+        hilo.start();
+        return hilo;
+    }
+}
@@ -0,0 +1,239 @@
+package cr.ac.ucenfotec.helpdesku.tl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Recuperación del controlador a partir de una instantánea de cada versión del
+ * formato y la cola de la bitácora posterior a ella.
+ * <p>
+ * La bitácora se genera con el controlador: primero la base, cuyo largo es la
+ * posición que cubre la instantánea, y luego la cola. La instantánea se escribe a
+ * mano con el mismo estado que la base para poder producir las versiones anteriores.
+ */
+class RecuperacionInstantaneaTest {
+
+    private static final int MAGICO = 0x48445553;
+    private static final BitacoraEscritura.Sincronizacion SINCRONIZACION = BitacoraEscritura.Sincronizacion.SIEMPRE;
+
+    private static final String CORREO_BASE = "ana.mora@ucenfotec.ac.cr";
+    private static final String CORREO_COLA = "luis.soto@ucenfotec.ac.cr";
+    private static final String ASUNTO_DUPLICADO = "Sin wifi en la biblioteca";
+    private static final String DESCRIPCION_DUPLICADO = "El wifi de la biblioteca se cae cada cinco minutos";
+    private static final String ASUNTO_COLA = "Proyector dañado";
+
+    @TempDir
+    Path carpeta;
+
+    private Path bitacora;
+    private Path instantanea;
+    /**
+     * Largo de la bitácora después de la base: la posición que cubre la instantánea.
+     */
+    private long base;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4})
+    void instantaneaDeCadaVersionMasLaCola(int version) throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(version, this.base);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            ControladorHelpDesk.Recuperacion recuperacion = controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION);
+
+            assertEquals(this.base, recuperacion.posicionInstantanea());
+            assertEquals(3, recuperacion.operacionesReproducidas());
+            assertEquals(2, controlador.obtenerUsuarios().size());
+            assertEquals(1, controlador.buscarIdUsuario(CORREO_BASE));
+            assertEquals(2, controlador.buscarIdUsuario(CORREO_COLA));
+            assertEquals("Soporte TI", controlador.obtenerDepartamento(1).getNombre());
+            assertEquals(1, controlador.obtenerDiccionarioTecnico().size());
+
+            assertEquals(3, controlador.obtenerTickets().size());
+            assertEquals(EstadoTicket.RESUELTO, controlador.obtenerEstadoTicket(1));
+            assertEquals(EstadoTicket.PENDIENTE, controlador.obtenerEstadoTicket(2));
+            assertEquals(EstadoTicket.PENDIENTE, controlador.obtenerEstadoTicket(3));
+            assertEquals(ASUNTO_COLA, controlador.obtenerTicket(3).getAsunto());
+
+            // Las rutas llegaron en la versión 2 y los incidentes en la 3; antes se pierden.
+            assertEquals(version >= 2 ? Map.of("Red", 1) : Map.of(), controlador.obtenerRutasCategorias());
+            assertEquals(version >= 3 ? 1 : 2, controlador.obtenerIncidente(2));
+            assertEquals(3, controlador.obtenerIncidente(3));
+        }
+    }
+
+    @Test
+    void colaIncompletaDespuesDeLaInstantaneaSeDescarta() throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(4, this.base);
+        long completo = Files.size(this.bitacora);
+        Files.write(this.bitacora, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            ControladorHelpDesk.Recuperacion recuperacion = controlador.abrirBitacora(this.bitacora, SINCRONIZACION);
+            assertEquals(0, recuperacion.posicionInstantanea());
+            assertEquals(3, controlador.obtenerTickets().size());
+        }
+        assertEquals(completo, Files.size(this.bitacora));
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            ControladorHelpDesk.Recuperacion recuperacion = controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION);
+            assertEquals(3, recuperacion.operacionesReproducidas());
+            assertEquals(EstadoTicket.RESUELTO, controlador.obtenerEstadoTicket(1));
+        }
+    }
+
+    @Test
+    void instantaneaConCrcDistintoFalla() throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(4, this.base);
+        byte[] contenido = Files.readAllBytes(this.instantanea);
+        contenido[contenido.length / 2] ^= 0x01;
+        Files.write(this.instantanea, contenido);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            IOException error = assertThrows(IOException.class, () -> controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION));
+            assertEquals("Instantánea dañada: el CRC no coincide", error.getMessage());
+        }
+    }
+
+    @Test
+    void instantaneaCortadaFalla() throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(4, this.base);
+        byte[] contenido = Files.readAllBytes(this.instantanea);
+        Files.write(this.instantanea, Arrays.copyOf(contenido, contenido.length - 9));
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            assertThrows(IOException.class, () -> controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION));
+        }
+    }
+
+    @Test
+    void instantaneaQueApuntaAMitadDeUnRegistroFallaSinTocarLaBitacora() throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(4, this.base + 3);
+        byte[] original = Files.readAllBytes(this.bitacora);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            assertThrows(IOException.class, () -> controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION));
+        }
+        assertArrayEquals(original, Files.readAllBytes(this.bitacora));
+    }
+
+    @Test
+    void instantaneaMasLargaQueLaBitacoraFalla() throws IOException {
+        this.prepararBitacora();
+        this.escribirInstantanea(4, Files.size(this.bitacora) + 100);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            assertThrows(IOException.class, () -> controlador.abrirBitacora(
+                    this.bitacora, this.instantanea, null, SINCRONIZACION));
+        }
+    }
+
+    /**
+     * Escribe la base y la cola en la bitácora y guarda en {@link #base} la
+     * posición donde empieza la cola.
+     */
+    private void prepararBitacora() throws IOException {
+        this.bitacora = this.carpeta.resolve("helpdesku.log");
+        this.instantanea = this.carpeta.resolve("helpdesku.snap");
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(this.bitacora, SINCRONIZACION);
+            controlador.registrarUsuario("Ana Mora", "Clave123!", "Estudiante", CORREO_BASE, "88888888");
+            controlador.registrarDepartamento("Soporte TI", "Atiende la red", "soporte@ucenfotec.ac.cr", "1234");
+            controlador.agregarPalabraTecnica("Red", "wifi");
+            controlador.registrarTicket(ASUNTO_DUPLICADO, DESCRIPCION_DUPLICADO, 1, "Pendiente", 1);
+            controlador.registrarTicket(ASUNTO_DUPLICADO, DESCRIPCION_DUPLICADO, 1, "Pendiente", 1);
+            controlador.cambiarEstadoTicket(1, "En proceso");
+            controlador.asignarRutaCategoria("Red", 1);
+            assertEquals(1, controlador.obtenerIncidente(2));
+        }
+        this.base = Files.size(this.bitacora);
+
+        try (ControladorHelpDesk controlador = new ControladorHelpDesk()) {
+            controlador.abrirBitacora(this.bitacora, SINCRONIZACION);
+            controlador.registrarUsuario("Luis Soto", "Clave123!", "Estudiante", CORREO_COLA, "88888888");
+            controlador.registrarTicket(ASUNTO_COLA, "La imagen sale cortada en el aula 3", 2, "Pendiente", 1);
+            controlador.cambiarEstadoTicket(1, "Resuelto");
+        }
+    }
+
+    /**
+     * Escribe a mano una instantánea con el estado de la base en el formato de la versión dada.
+     */
+    private void escribirInstantanea(int version, long posicion) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream cuerpo = new DataOutputStream(bytes);
+        cuerpo.writeInt(1);
+        textos(cuerpo, "Ana Mora", "hash", "Estudiante", CORREO_BASE, "88888888");
+        cuerpo.writeInt(1);
+        textos(cuerpo, "Soporte TI", "Atiende la red", "soporte@ucenfotec.ac.cr", "1234");
+        cuerpo.writeInt(0);
+        cuerpo.writeInt(1);
+        textos(cuerpo, "wifi", "Red");
+        cuerpo.writeInt(2);
+        for (String estado : List.of("En proceso", "Pendiente")) {
+            textos(cuerpo, ASUNTO_DUPLICADO, DESCRIPCION_DUPLICADO);
+            cuerpo.writeInt(1);
+            textos(cuerpo, estado);
+            cuerpo.writeInt(1);
+            if (version >= 4) {
+                cuerpo.writeInt(estado.equals("Pendiente") ? 0 : 1);
+            }
+        }
+        if (version >= 2) {
+            cuerpo.writeInt(1);
+            textos(cuerpo, "Red");
+            cuerpo.writeInt(1);
+        }
+        if (version >= 3) {
+            cuerpo.writeInt(1);
+            cuerpo.writeInt(2);
+            cuerpo.writeInt(1);
+        }
+        cuerpo.flush();
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        try (DataOutputStream salida = new DataOutputStream(Files.newOutputStream(this.instantanea))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(version);
+            salida.writeLong(posicion);
+            bytes.writeTo(salida);
+            salida.writeInt((int) crc.getValue());
+        }
+    }
+
+    private static void textos(DataOutputStream salida, String... valores) throws IOException {
+        for (String valor : valores) {
+            byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+            salida.writeInt(utf8.length);
+            salida.write(utf8);
+        }
+    }
+}